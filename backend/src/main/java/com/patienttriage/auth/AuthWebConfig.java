@@ -0,0 +1,27 @@
+package com.patienttriage.auth;
+
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Lets controller methods take a {@link CurrentUser} parameter. Registers {@link SessionTokens}
+ * here rather than by component scan, so web slice tests get both together.
+ */
+@Configuration
+@Import(SessionTokens.class)
+public class AuthWebConfig implements WebMvcConfigurer {
+
+  private final SessionTokens sessionTokens;
+
+  public AuthWebConfig(SessionTokens sessionTokens) {
+    this.sessionTokens = sessionTokens;
+  }
+
+  @Override
+  public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+    resolvers.add(new CurrentUserArgumentResolver(sessionTokens));
+  }
+}
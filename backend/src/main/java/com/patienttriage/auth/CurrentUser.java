@@ -0,0 +1,33 @@
+package com.patienttriage.auth;
+
+import com.patienttriage.entity.UserRole;
+
+/**
+ * The logged-in user of a request, read from its signed session token. Declare a parameter
+ * of this type on a controller method to get it; it is null when the request carries no
+ * valid token.
+ */
+public final class CurrentUser {
+
+  private final Long userId;
+  private final String username;
+  private final UserRole role;
+
+  public CurrentUser(Long userId, String username, UserRole role) {
+    this.userId = userId;
+    this.username = username;
+    this.role = role;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public UserRole getRole() {
+    return role;
+  }
+}
@@ -0,0 +1,69 @@
+package com.patienttriage.auth;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link CurrentUser} controller parameters from the request's session token: the
+ * Authorization Bearer header if present, else the token cookie. Verified once per request;
+ * null when there is no valid token, so each endpoint keeps answering 401 its own way.
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+  private static final String BEARER_PREFIX = "Bearer ";
+  private static final String ATTRIBUTE = CurrentUser.class.getName();
+
+  private final SessionTokens sessionTokens;
+
+  public CurrentUserArgumentResolver(SessionTokens sessionTokens) {
+    this.sessionTokens = sessionTokens;
+  }
+
+  @Override
+  public boolean supportsParameter(MethodParameter parameter) {
+    return CurrentUser.class.equals(parameter.getParameterType());
+  }
+
+  @Override
+  public CurrentUser resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                     NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+    CurrentUser cached = (CurrentUser) webRequest.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (cached != null) {
+      return cached;
+    }
+    String token = token(webRequest);
+    CurrentUser currentUser = token != null ? sessionTokens.verify(token) : null;
+    if (currentUser != null) {
+      webRequest.setAttribute(ATTRIBUTE, currentUser, RequestAttributes.SCOPE_REQUEST);
+    }
+    return currentUser;
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  private static String token(NativeWebRequest webRequest) {
+    String authorization = webRequest.getHeader(HttpHeaders.AUTHORIZATION);
+    if (authorization != null && authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+      return authorization.substring(BEARER_PREFIX.length()).trim();
+    }
+    HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+    Cookie[] cookies = request != null ? request.getCookies() : null;
+    if (cookies != null) {
+      for (Cookie cookie : cookies) {
+        if (SessionTokens.COOKIE_NAME.equals(cookie.getName())) {
+          return cookie.getValue();
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,99 @@
+package com.patienttriage.auth;
+
+import com.patienttriage.cache.BoundedTtlCache;
+import com.patienttriage.cache.BoundedTtlCacheMetrics;
+import com.patienttriage.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits login attempts per username: after the maximum number of attempts in a window,
+ * further attempts are refused with a {@link TooManyLoginAttemptsException} (HTTP 429) until
+ * the window ends, without looking the user up or spending a password hash on them. The
+ * window starts at the first attempt; a successful login ends it.
+ *
+ * Attempts are counted when they start rather than when they fail, so a burst of concurrent
+ * guesses cannot all slip in before the first one is recorded. Counters live in a bounded
+ * LRU cache, so guessing across many usernames cannot grow it without limit (an evicted
+ * username simply starts a new window). Counts are per JVM.
+ */
+@Component
+public class LoginThrottle {
+
+  static final String THROTTLED_MESSAGE = "Too many login attempts. Please try again later.";
+
+  private final int maxAttempts;
+  private final Duration window;
+  private final BoundedTtlCache<String, Attempts> attempts;
+  private final Counter throttled;
+
+  public LoginThrottle(MeterRegistry meterRegistry,
+                       @Value("${triage.auth.login.max-attempts:5}") int maxAttempts,
+                       @Value("${triage.auth.login.window:15m}") Duration window,
+                       @Value("${triage.auth.login.max-tracked:100000}") int maxTracked) {
+    this.maxAttempts = maxAttempts;
+    this.window = window;
+    this.attempts = new BoundedTtlCache<>(maxTracked, window);
+    BoundedTtlCacheMetrics.monitor(meterRegistry, attempts, "loginAttempts");
+    this.throttled = Counter.builder("auth.login.throttled")
+        .description("Login attempts refused because the username had too many attempts")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Counts a login attempt for the username, refusing it if the window's attempts are used up.
+   *
+   * @param username the username being logged in to
+   * @throws TooManyLoginAttemptsException if the username has no attempts left in the window
+   */
+  public void acquire(String username) {
+    String key = key(username);
+    long now = System.nanoTime();
+    // get and put are each atomic but the pair is not; attempts are rare enough to serialize
+    synchronized (this) {
+      Attempts current = attempts.getIfPresent(key);
+      if (current == null || now - current.windowEnd >= 0) {
+        attempts.put(key, new Attempts(now + window.toNanos()));
+        return;
+      }
+      if (current.count < maxAttempts) {
+        current.count++;
+        return;
+      }
+      throttled.increment();
+      long retryAfter = Math.max(1, Duration.ofNanos(current.windowEnd - now).toSeconds() + 1);
+      throw new TooManyLoginAttemptsException(THROTTLED_MESSAGE, retryAfter);
+    }
+  }
+
+  /**
+   * Ends the username's window after a successful login.
+   *
+   * @param username the username logged in to
+   */
+  public void reset(String username) {
+    attempts.invalidate(key(username));
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  private static String key(String username) {
+    return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /** Attempts so far in one username's window; mutated under the throttle's lock **/
+  private static final class Attempts {
+    private final long windowEnd;
+    private int count = 1;
+
+    Attempts(long windowEnd) {
+      this.windowEnd = windowEnd;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.patienttriage.auth;
+
+import com.patienttriage.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hashes and verifies passwords with BCrypt on a dedicated pool, off the request threads.
+ *
+ * A BCrypt check costs tens of milliseconds of CPU, so a login burst run on the Tomcat
+ * threads takes all of them and starves every other endpoint. Here at most one hash per core
+ * runs at a time, and a bounded number wait behind them; when the queue is full the caller
+ * is turned away at once with a {@link ServiceBusyException} (HTTP 503) instead of queueing
+ * without limit. Callers still wait for their own result, but never longer than the timeout.
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+
+  static final String BUSY_MESSAGE = "Too many logins in progress. Please try again shortly.";
+
+  private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+  private final ThreadPoolExecutor executor;
+  private final Duration timeout;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejected;
+
+  public PasswordHasher(MeterRegistry meterRegistry,
+                        @Value("${triage.auth.hash-threads:0}") int threads,
+                        @Value("${triage.auth.hash-queue-capacity:64}") int queueCapacity,
+                        @Value("${triage.auth.hash-timeout:5s}") Duration timeout) {
+    // 0 means one thread per core: hashing is pure CPU, more threads only add contention
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        Thread.ofPlatform().name("password-hash-", 1).daemon(true).factory(),
+        new ThreadPoolExecutor.AbortPolicy());
+    this.timeout = timeout;
+    this.encodeTimer = hashTimer(meterRegistry, "encode");
+    this.matchesTimer = hashTimer(meterRegistry, "matches");
+    this.rejected = Counter.builder("auth.password.rejected")
+        .description("Password hashes turned away because the queue was full")
+        .register(meterRegistry);
+    Gauge.builder("auth.password.queue", executor, pool -> pool.getQueue().size())
+        .description("Password hashes waiting for a thread")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Hashes a new password.
+   *
+   * @param rawPassword the plain text password
+   * @return the BCrypt hash
+   * @throws ServiceBusyException if the hashing queue is full or the result takes too long
+   */
+  public String encode(String rawPassword) {
+    return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+  }
+
+  /**
+   * Checks a password against its stored hash.
+   *
+   * @param rawPassword the plain text password
+   * @param encodedPassword the stored BCrypt hash
+   * @return true if they match
+   * @throws ServiceBusyException if the hashing queue is full or the result takes too long
+   */
+  public boolean matches(String rawPassword, String encodedPassword) {
+    return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+  }
+
+  /** Hashes waiting for a thread **/
+  public int queueSize() {
+    return executor.getQueue().size();
+  }
+
+  /** The hashing pool itself, for tests to fill **/
+  ThreadPoolExecutor executor() {
+    return executor;
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  private <T> T run(Timer timer, Callable<T> hash) {
+    Future<T> future;
+    try {
+      future = executor.submit(() -> timer.recordCallable(hash));
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new ServiceBusyException(BUSY_MESSAGE);
+    }
+
+    try {
+      return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      throw new ServiceBusyException(BUSY_MESSAGE);
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ServiceBusyException(BUSY_MESSAGE);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException("Password hashing failed", e.getCause());
+    }
+  }
+
+  private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+    return Timer.builder("auth.password.hash")
+        .description("Time spent computing a BCrypt hash, excluding the wait for a thread")
+        .tag("operation", operation)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,146 @@
+package com.patienttriage.auth;
+
+import com.patienttriage.entity.UserRole;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Issues and verifies the signed session tokens that carry the logged-in user, so any
+ * instance can authenticate a request without a session store or a database lookup.
+ *
+ * A token is {@code <key id>.<payload>.<signature>}, base64url encoded, where the payload is
+ * the user ID, role, expiry and username and the signature is HMAC-SHA256 over the key id and
+ * payload. Keys are configured as {@code id:base64-secret} pairs; the first one signs, and all
+ * of them verify. To rotate, put a new key first and drop the old one once the tokens it
+ * signed have expired. Without configured keys a random one is generated at startup, so
+ * tokens then neither survive a restart nor work across instances. Tokens cannot be revoked
+ * before they expire; logging out only drops the client's copy.
+ *
+ * Registered by {@link AuthWebConfig}.
+ */
+public class SessionTokens {
+
+  private static final Logger log = LoggerFactory.getLogger(SessionTokens.class);
+
+  /** Cookie carrying the token for browser clients **/
+  public static final String COOKIE_NAME = "TRIAGE_TOKEN";
+  /** Login response header carrying the token for API clients, to send back as a Bearer token **/
+  public static final String TOKEN_HEADER = "X-Auth-Token";
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final int MIN_KEY_BYTES = 32;
+  private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+  private final String signingKeyId;
+  private final Duration ttl;
+
+  public SessionTokens(@Value("${triage.auth.token.keys:}") String keys,
+                       @Value("${triage.auth.token.ttl:8h}") Duration ttl) {
+    for (String entry : keys.split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      String[] parts = entry.trim().split(":", 2);
+      if (parts.length != 2 || !KEY_ID.matcher(parts[0]).matches()) {
+        throw new IllegalArgumentException("Token keys must be id:base64-secret pairs, ids of letters, digits, - or _");
+      }
+      byte[] secret = Base64.getDecoder().decode(parts[1]);
+      if (secret.length < MIN_KEY_BYTES) {
+        throw new IllegalArgumentException("Token key " + parts[0] + " must be at least " + MIN_KEY_BYTES + " bytes");
+      }
+      this.keys.put(parts[0], new SecretKeySpec(secret, ALGORITHM));
+    }
+    if (this.keys.isEmpty()) {
+      byte[] secret = new byte[MIN_KEY_BYTES];
+      new SecureRandom().nextBytes(secret);
+      this.keys.put("local", new SecretKeySpec(secret, ALGORITHM));
+      log.warn("No triage.auth.token.keys configured: signing with a random key, "
+          + "tokens will not survive a restart or work on other instances");
+    }
+    this.signingKeyId = this.keys.keySet().iterator().next();
+    this.ttl = ttl;
+  }
+
+  /**
+   * Issues a token for a user who just logged in, signed with the first key.
+   *
+   * @param userId the user ID
+   * @param username the username
+   * @param role the user's role
+   * @return the token
+   */
+  public String issue(Long userId, String username, UserRole role) {
+    long expiresAt = Instant.now().plus(ttl).getEpochSecond();
+    String payload = userId + "|" + role.name() + "|" + expiresAt + "|" + username;
+    String signed = signingKeyId + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    return signed + "." + ENCODER.encodeToString(sign(keys.get(signingKeyId), signed));
+  }
+
+  /**
+   * Verifies a token: signed by a configured key, not altered, not expired.
+   *
+   * @param token the token sent by the client
+   * @return the user it was issued to, or null if it is not valid
+   */
+  public CurrentUser verify(String token) {
+    int firstDot = token.indexOf('.');
+    int lastDot = token.lastIndexOf('.');
+    if (firstDot <= 0 || lastDot == firstDot) {
+      return null;
+    }
+    SecretKeySpec key = keys.get(token.substring(0, firstDot));
+    if (key == null) {
+      return null; // signed with a key that has been rotated out
+    }
+    String signed = token.substring(0, lastDot);
+    try {
+      byte[] signature = DECODER.decode(token.substring(lastDot + 1));
+      if (!MessageDigest.isEqual(signature, sign(key, signed))) {
+        return null;
+      }
+      String payload = new String(DECODER.decode(signed.substring(firstDot + 1)), StandardCharsets.UTF_8);
+      String[] fields = payload.split("\\|", 4);
+      if (fields.length != 4 || Instant.now().getEpochSecond() >= Long.parseLong(fields[2])) {
+        return null;
+      }
+      return new CurrentUser(Long.valueOf(fields[0]), fields[3], UserRole.valueOf(fields[1]));
+    } catch (IllegalArgumentException e) {
+      return null; // not base64, or a signed payload this version cannot read
+    }
+  }
+
+  /** How long an issued token stays valid **/
+  public Duration getTtl() {
+    return ttl;
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  private static byte[] sign(SecretKeySpec key, String signed) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      return mac.doFinal(signed.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(ALGORITHM + " is not available", e);
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package com.patienttriage.auth;
+
+import com.patienttriage.cache.BloomFilter;
+import com.patienttriage.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Answers "is this username taken?" for registration, going to the database only when a
+ * Bloom filter over all usernames says it might be. New usernames are almost always definite
+ * misses, so bulk onboarding mostly skips the existsByUsername query.
+ *
+ * The filter is loaded once, at startup, by streaming the users table, and is updated on
+ * every registration. It grows without rescanning the table: it is a stack of Bloom filters,
+ * new usernames go into the newest, and once that holds more than it was sized for a scheduled
+ * check stacks an empty one twice its size on top. Each layer is built at half the false
+ * positive rate of the one below, starting from half the configured rate, so the rates of all
+ * layers together stay under it. The load and the growth run on the filter's own thread, not
+ * on the startup thread or the shared scheduler. Filter memory is published as a gauge. Like
+ * the other in-memory indexes, only registrations made through this JVM are added, so run one
+ * instance; the unique index on username is the final check either way.
+ */
+@Component
+public class UsernameFilter implements SmartInitializingSingleton, DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(UsernameFilter.class);
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate readOnlyTransaction;
+  private final long minCapacity;
+  private final double falsePositiveRate;
+  private final Counter skipped;
+  private final Counter confirmed;
+  private final Counter falsePositives;
+
+  // loading and growing the filter, one task at a time
+  private final ExecutorService worker =
+      Executors.newSingleThreadExecutor(Thread.ofVirtual().name("username-filter").factory());
+
+  // oldest first, replaced (never changed) on growth; null until loaded, when every username
+  // might exist
+  private volatile List<BloomFilter> layers;
+  // the filter being loaded, if any; also receives new usernames
+  private volatile BloomFilter loading;
+
+  public UsernameFilter(UserRepository userRepository,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${triage.auth.username-filter.min-capacity:100000}") long minCapacity,
+                        @Value("${triage.auth.username-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+    this.userRepository = userRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.minCapacity = minCapacity;
+    this.falsePositiveRate = falsePositiveRate;
+    this.skipped = lookups(meterRegistry, "miss");
+    this.confirmed = lookups(meterRegistry, "hit");
+    this.falsePositives = lookups(meterRegistry, "false-positive");
+    Gauge.builder("auth.username.filter.bytes", this, UsernameFilter::sizeInBytes)
+        .description("Memory taken by the username Bloom filter layers, including one being loaded")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder("auth.username.filter.insertions", this, UsernameFilter::insertions)
+        .description("Usernames added to the username Bloom filter")
+        .register(meterRegistry);
+    Gauge.builder("auth.username.filter.layers", this, self -> self.layers == null ? 0 : self.layers.size())
+        .description("Bloom filters stacked in the username filter")
+        .register(meterRegistry);
+  }
+
+  /** Load every username (streamed, not held as one big list) on the filter's thread **/
+  @Override
+  public void afterSingletonsInstantiated() {
+    onWorker(this::load);
+  }
+
+  /**
+   * Returns whether the username is taken, querying the database only when the filter says
+   * it might be.
+   *
+   * @param username the username to check
+   * @return true if a user with this username exists
+   */
+  public boolean exists(String username) {
+    List<BloomFilter> current = layers;
+    if (current != null && current.stream().noneMatch(layer -> layer.mightContain(username))) {
+      skipped.increment();
+      return false;
+    }
+    boolean exists = userRepository.existsByUsername(username);
+    (exists ? confirmed : falsePositives).increment();
+    return exists;
+  }
+
+  /**
+   * Adds a newly registered username. Call once the user is committed; a username added for
+   * an insert that then fails only costs a false positive.
+   *
+   * @param username the username registered
+   */
+  public void add(String username) {
+    // loading before layers: a load publishes its layer before clearing loading, and one
+    // that starts after this read scans a table that already has the user
+    BloomFilter building = loading;
+    List<BloomFilter> current = layers;
+    if (building != null) {
+      building.put(username);
+    }
+    if (current != null) {
+      // a layer stacked meanwhile misses it, but every layer is checked
+      BloomFilter newest = current.get(current.size() - 1);
+      if (newest != building) {
+        newest.put(username);
+      }
+    }
+  }
+
+  /** Stacks a bigger layer, on the filter's thread, once the newest holds more than it was sized for **/
+  @Scheduled(fixedDelayString = "${triage.auth.username-filter.check-interval:PT10M}")
+  public void growIfFull() {
+    onWorker(this::grow);
+  }
+
+  /** Memory taken by the filter bit arrays **/
+  public long sizeInBytes() {
+    List<BloomFilter> current = layers;
+    BloomFilter building = loading;
+    long bytes = building == null ? 0 : building.sizeInBytes();
+    if (current != null) {
+      for (BloomFilter layer : current) {
+        bytes += layer == building ? 0 : layer.sizeInBytes();
+      }
+    }
+    return bytes;
+  }
+
+  /** The filter's own thread, for tests to wait on **/
+  ExecutorService worker() {
+    return worker;
+  }
+
+  @Override
+  public void destroy() {
+    worker.shutdownNow();
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  /** Builds the first layer from the users table, twice the current users in size **/
+  private void load() {
+    long users = userRepository.count();
+    BloomFilter building = new BloomFilter(Math.max(minCapacity, users * 2), falsePositiveRate / 2);
+    // published before the scan, so usernames registered during it are not missed
+    loading = building;
+    readOnlyTransaction.executeWithoutResult(status -> {
+      try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+        usernames.forEach(building::put);
+      }
+    });
+    layers = List.of(building);
+    loading = null;
+    log.info("Username filter loaded with {} usernames in {} KiB",
+        building.insertions(), building.sizeInBytes() / 1024);
+  }
+
+  /** Stacks an empty layer twice the size of the newest, at half its false positive rate **/
+  private void grow() {
+    List<BloomFilter> current = layers;
+    if (current == null) {
+      return;
+    }
+    BloomFilter newest = current.get(current.size() - 1);
+    if (newest.insertions() <= newest.expectedInsertions()) {
+      return;
+    }
+    double rate = falsePositiveRate / Math.pow(2, current.size() + 1);
+    List<BloomFilter> grown = new ArrayList<>(current);
+    grown.add(new BloomFilter(newest.expectedInsertions() * 2, rate));
+    layers = List.copyOf(grown);
+    log.info("Username filter grown to {} layers, {} KiB", grown.size(), sizeInBytes() / 1024);
+  }
+
+  private long insertions() {
+    List<BloomFilter> current = layers;
+    return current == null ? 0 : current.stream().mapToLong(BloomFilter::insertions).sum();
+  }
+
+  /** Runs a task on the filter's thread, unless shutting down **/
+  private void onWorker(Runnable task) {
+    try {
+      worker.execute(() -> {
+        try {
+          task.run();
+        } catch (RuntimeException e) {
+          log.warn("Username filter task failed", e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // shutting down, nothing left to load or grow for
+    }
+  }
+
+  private static Counter lookups(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("auth.username.filter.lookups")
+        .description("Username existence checks, by what the filter and database said")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
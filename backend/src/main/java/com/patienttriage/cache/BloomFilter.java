@@ -0,0 +1,133 @@
+package com.patienttriage.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small thread-safe Bloom filter over strings: {@link #mightContain} never answers false for a
+ * string that was put, and answers true for one that was not with about the false positive
+ * rate it was sized for, as long as no more than the expected number of strings are put.
+ *
+ * Bits live in a fixed long array set with atomic ORs, so puts and lookups never lock. There
+ * is no removal; a filter that has outgrown its size is replaced by a bigger one.
+ */
+public class BloomFilter {
+
+  private static final double LN2 = Math.log(2);
+
+  private final long expectedInsertions;
+  private final AtomicLongArray words;
+  private final long bitSize;
+  private final int hashCount;
+  private final LongAdder insertions = new LongAdder();
+
+  /**
+   * Creates an empty filter.
+   *
+   * @param expectedInsertions how many strings the filter is sized for
+   * @param falsePositiveRate the false positive rate wanted at that many strings, in (0, 1)
+   */
+  public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions <= 0) {
+      throw new IllegalArgumentException("expectedInsertions must be positive");
+    }
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+    }
+    // optimal m = -n ln p / (ln 2)^2 bits and k = m/n ln 2 hashes, m rounded up to whole words
+    long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+    int wordCount = Math.toIntExact(Math.max(1, (bits + 63) / 64));
+    this.expectedInsertions = expectedInsertions;
+    this.words = new AtomicLongArray(wordCount);
+    this.bitSize = wordCount * 64L;
+    this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * LN2));
+  }
+
+  /**
+   * Adds a string.
+   *
+   * @param value the string to add
+   */
+  public void put(String value) {
+    long hash1 = hash(value);
+    long hash2 = secondHash(hash1);
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(hash1 + i * hash2, bitSize);
+      long mask = 1L << bit;
+      int word = (int) (bit >>> 6);
+      if ((words.get(word) & mask) == 0) {
+        words.getAndAccumulate(word, mask, (current, add) -> current | add);
+      }
+    }
+    insertions.increment();
+  }
+
+  /**
+   * Returns false if the string was certainly never put, true if it may have been.
+   *
+   * @param value the string to look up
+   * @return whether the string may have been put
+   */
+  public boolean mightContain(String value) {
+    long hash1 = hash(value);
+    long hash2 = secondHash(hash1);
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(hash1 + i * hash2, bitSize);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Strings put so far, counting repeats **/
+  public long insertions() {
+    return insertions.sum();
+  }
+
+  /** How many strings the filter was sized for **/
+  public long expectedInsertions() {
+    return expectedInsertions;
+  }
+
+  /** Memory taken by the bit array **/
+  public long sizeInBytes() {
+    return bitSize / 8;
+  }
+
+  public long bitSize() {
+    return bitSize;
+  }
+
+  public int hashCount() {
+    return hashCount;
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  /** FNV-1a over the chars, then the murmur3 finalizer to spread the bits **/
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  // the i-th index is hash1 + i * hash2 (Kirsch-Mitzenmacher); odd so the steps never repeat early
+  private static long secondHash(long hash1) {
+    return mix(hash1 ^ 0x9e3779b97f4a7c15L) | 1L;
+  }
+
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
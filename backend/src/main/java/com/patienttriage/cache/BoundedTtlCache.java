@@ -0,0 +1,260 @@
+package com.patienttriage.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Small thread-safe in-process cache bounded by entry count (least recently used entries are
+ * evicted first) and by a fixed time-to-live per entry. Expired entries are dropped when read,
+ * when they are the eldest of a full cache, and by a sweep that a full cache runs once every
+ * maxSize puts.
+ *
+ * Null values are not stored. Callers that want to remember "not found" should cache an
+ * explicit marker such as Optional.empty().
+ *
+ * A value loaded on a miss can be stored with {@link #putIfCurrent} against the
+ * {@link #generation} read before loading, so a load that raced an invalidation of its key
+ * does not put the stale value back. Generations are kept per stripe of keys: an
+ * invalidation of another key in the same stripe only discards a load it did not need to.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedTtlCache<K, V> {
+
+  private static final int GENERATION_STRIPES = 1024; // a power of two
+
+  private final int maxSize;
+  private final long ttlNanos;
+  private final LongSupplier nanoClock;
+
+  // access-ordered, so iteration starts at the least recently used entry
+  private final LinkedHashMap<K, Entry<V>> entries;
+  private final ReentrantLock lock = new ReentrantLock();
+  // invalidations per stripe of keys, guarded by the lock
+  private final long[] generations = new long[GENERATION_STRIPES];
+  // puts into a full cache since the last sweep for expired entries, guarded by the lock
+  private int overflows;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder puts = new LongAdder();
+  private final LongAdder evictions = new LongAdder();   // dropped because the cache was full
+  private final LongAdder expirations = new LongAdder(); // dropped because the TTL elapsed
+
+  public BoundedTtlCache(int maxSize, Duration ttl) {
+    this(maxSize, ttl, System::nanoTime);
+  }
+
+  BoundedTtlCache(int maxSize, Duration ttl, LongSupplier nanoClock) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be positive");
+    }
+    this.maxSize = maxSize;
+    this.ttlNanos = ttl.toNanos();
+    this.nanoClock = nanoClock;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Returns the cached value, or null if it is absent or expired. Counts a hit or a miss.
+   *
+   * @param key the key to look up
+   * @return the cached value or null
+   */
+  public V getIfPresent(K key) {
+    long now = nanoClock.getAsLong();
+    lock.lock();
+    try {
+      Entry<V> entry = entries.get(key);
+      if (entry != null && entry.expiresAt - now <= 0) {
+        entries.remove(key);
+        expirations.increment();
+        entry = null;
+      }
+      if (entry == null) {
+        misses.increment();
+        return null;
+      }
+      hits.increment();
+      return entry.value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Stores a value, evicting the least recently used entry if the cache is full.
+   *
+   * @param key the key
+   * @param value the value (ignored when null)
+   */
+  public void put(K key, V value) {
+    if (value == null) {
+      return;
+    }
+    long now = nanoClock.getAsLong();
+    lock.lock();
+    try {
+      store(key, value, now);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the key's generation, to be read before loading a value for it.
+   *
+   * @param key the key about to be loaded
+   * @return the generation to pass to {@link #putIfCurrent}
+   */
+  public long generation(K key) {
+    lock.lock();
+    try {
+      return generations[stripe(key)];
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Stores a loaded value unless the key was invalidated since its generation was read.
+   *
+   * @param key the key
+   * @param value the value (ignored when null)
+   * @param generation the key's generation read before loading the value
+   * @return true if the value was stored
+   */
+  public boolean putIfCurrent(K key, V value, long generation) {
+    if (value == null) {
+      return false;
+    }
+    long now = nanoClock.getAsLong();
+    lock.lock();
+    try {
+      if (generations[stripe(key)] != generation) {
+        return false;
+      }
+      store(key, value, now);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes one entry.
+   *
+   * @param key the key to remove
+   */
+  public void invalidate(K key) {
+    lock.lock();
+    try {
+      entries.remove(key);
+      generations[stripe(key)]++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Removes every entry. Counters are kept. */
+  public void invalidateAll() {
+    lock.lock();
+    try {
+      entries.clear();
+      for (int i = 0; i < generations.length; i++) {
+        generations[i]++;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Number of entries currently held (may include expired entries not yet purged). */
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long putCount() {
+    return puts.sum();
+  }
+
+  /** Entries dropped because the cache was full. */
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  /** Entries dropped because their time-to-live elapsed. */
+  public long expirationCount() {
+    return expirations.sum();
+  }
+
+  /** Called with the lock held **/
+  private void store(K key, V value, long now) {
+    entries.put(key, new Entry<>(value, now + ttlNanos));
+    puts.increment();
+    if (entries.size() <= maxSize) {
+      return;
+    }
+    // a full cache is the steady state, so a put only drops the eldest entry; a sweep of
+    // every entry runs once per maxSize such puts, O(1) per put amortized
+    if (++overflows >= maxSize) {
+      overflows = 0;
+      purgeExpired(now);
+    }
+    Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+    while (entries.size() > maxSize && eldest.hasNext()) {
+      boolean expired = eldest.next().getValue().expiresAt - now <= 0;
+      eldest.remove();
+      (expired ? expirations : evictions).increment();
+    }
+  }
+
+  private static int stripe(Object key) {
+    int h = key.hashCode();
+    return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+  }
+
+  /** Called with the lock held **/
+  private void purgeExpired(long now) {
+    Iterator<Entry<V>> it = entries.values().iterator();
+    while (it.hasNext()) {
+      if (it.next().expiresAt - now <= 0) {
+        it.remove();
+        expirations.increment();
+      }
+    }
+  }
+
+  private static final class Entry<V> {
+    private final V value;
+    private final long expiresAt;
+
+    private Entry(V value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
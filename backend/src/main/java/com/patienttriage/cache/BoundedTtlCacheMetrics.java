@@ -0,0 +1,73 @@
+package com.patienttriage.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publishes a {@link BoundedTtlCache}'s counters as the standard Micrometer cache meters
+ * (cache.gets, cache.puts, cache.evictions, cache.size), plus cache.expirations and cache.max.size,
+ * tagged with the cache name.
+ */
+public class BoundedTtlCacheMetrics extends CacheMeterBinder<BoundedTtlCache<?, ?>> {
+
+  public BoundedTtlCacheMetrics(BoundedTtlCache<?, ?> cache, String cacheName) {
+    super(cache, cacheName, Tags.empty());
+  }
+
+  /**
+   * Binds the cache to the registry under the given name.
+   *
+   * @param registry the meter registry
+   * @param cache the cache to monitor
+   * @param cacheName value of the "cache" tag
+   */
+  public static void monitor(MeterRegistry registry, BoundedTtlCache<?, ?> cache, String cacheName) {
+    new BoundedTtlCacheMetrics(cache, cacheName).bindTo(registry);
+  }
+
+  @Override
+  protected Long size() {
+    BoundedTtlCache<?, ?> cache = getCache();
+    return cache == null ? null : (long) cache.size();
+  }
+
+  @Override
+  protected long hitCount() {
+    BoundedTtlCache<?, ?> cache = getCache();
+    return cache == null ? 0 : cache.hitCount();
+  }
+
+  @Override
+  protected Long missCount() {
+    BoundedTtlCache<?, ?> cache = getCache();
+    return cache == null ? null : cache.missCount();
+  }
+
+  @Override
+  protected Long evictionCount() {
+    BoundedTtlCache<?, ?> cache = getCache();
+    return cache == null ? null : cache.evictionCount();
+  }
+
+  @Override
+  protected long putCount() {
+    BoundedTtlCache<?, ?> cache = getCache();
+    return cache == null ? 0 : cache.putCount();
+  }
+
+  @Override
+  protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+    BoundedTtlCache<?, ?> cache = getCache();
+    FunctionCounter.builder("cache.expirations", cache, BoundedTtlCache::expirationCount)
+        .tags(getTagsWithCacheName())
+        .description("Entries removed because their time-to-live elapsed")
+        .register(registry);
+    Gauge.builder("cache.max.size", cache, BoundedTtlCache::getMaxSize)
+        .tags(getTagsWithCacheName())
+        .description("Maximum number of entries the cache holds")
+        .register(registry);
+  }
+}
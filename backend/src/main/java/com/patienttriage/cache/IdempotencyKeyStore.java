@@ -0,0 +1,171 @@
+package com.patienttriage.cache;
+
+import com.patienttriage.exception.IdempotencyKeyReusedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remembers which appointment each (user, Idempotency-Key) pair created, so a client retrying
+ * POST /api/appointments/create gets the original result instead of a conflict or a duplicate.
+ *
+ * Keys live in the idempotency_keys table (one small row per key, no foreign key to
+ * appointments) with a bounded LRU cache in front; replays found in the cache never touch the
+ * database. A key is bound to a SHA-256 hash of the request it was first used with: sending it
+ * again with a different request is an error rather than a replay. Keys expire after the retention
+ * period; expired rows are purged periodically and may be reused before that.
+ */
+@Component
+public class IdempotencyKeyStore {
+
+  /** Longest Idempotency-Key accepted (the column width) **/
+  public static final int MAX_KEY_LENGTH = 100;
+
+  /** Length of a request hash: SHA-256 in hex (the request_hash column width) **/
+  public static final int REQUEST_HASH_LENGTH = 64;
+
+  static final String FIND_SQL = "SELECT request_hash, appointment_id FROM idempotency_keys "
+      + "WHERE user_id = ? AND idempotency_key = ? AND created_at > ?";
+
+  // an expired row with the same key is taken over; a live one is left alone (0 rows)
+  static final String RECORD_SQL = "INSERT INTO idempotency_keys "
+      + "(user_id, idempotency_key, request_hash, appointment_id, created_at) VALUES (?, ?, ?, ?, ?) "
+      + "ON CONFLICT (user_id, idempotency_key) DO UPDATE SET "
+      + "request_hash = EXCLUDED.request_hash, appointment_id = EXCLUDED.appointment_id, "
+      + "created_at = EXCLUDED.created_at "
+      + "WHERE idempotency_keys.created_at <= ?";
+
+  static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE created_at <= ?";
+
+  static final String REUSED_MESSAGE = "Idempotency-Key has already been used for a different request.";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Duration retention;
+  private final BoundedTtlCache<String, StoredKey> keys;
+
+  public IdempotencyKeyStore(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                             @Value("${triage.idempotency.cache.max-size:10000}") int maxSize,
+                             @Value("${triage.idempotency.retention:24h}") Duration retention) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.retention = retention;
+    this.keys = new BoundedTtlCache<>(maxSize, retention);
+    BoundedTtlCacheMetrics.monitor(meterRegistry, keys, "idempotencyKeys");
+  }
+
+  /**
+   * Finds the appointment created for this key, going to the database only on a cache miss.
+   *
+   * @param userId the user who sent the key
+   * @param key the Idempotency-Key header
+   * @param requestHash hash of the request sent with the key
+   * @return ID of the appointment created for the key, or null if the key is new
+   * @throws IdempotencyKeyReusedException if the key was used with a different request
+   */
+  public Long find(Long userId, String key, String requestHash) {
+    String cacheKey = cacheKey(userId, key);
+    StoredKey stored = keys.getIfPresent(cacheKey);
+    if (stored == null) {
+      List<StoredKey> rows = jdbcTemplate.query(FIND_SQL,
+          (rs, rowNum) -> new StoredKey(rs.getString("request_hash"), rs.getLong("appointment_id")),
+          userId, key, LocalDateTime.now().minus(retention));
+      if (rows.isEmpty()) {
+        return null;
+      }
+      stored = rows.get(0);
+      keys.put(cacheKey, stored);
+    }
+    if (!stored.requestHash.equals(requestHash)) {
+      throw new IdempotencyKeyReusedException(REUSED_MESSAGE);
+    }
+    return stored.appointmentId;
+  }
+
+  /**
+   * Records the appointment created for this key, in the caller's transaction. The key reaches
+   * the cache only once that transaction commits.
+   *
+   * @param userId the user who sent the key
+   * @param key the Idempotency-Key header
+   * @param requestHash hash of the request sent with the key
+   * @param appointmentId the appointment just created
+   * @throws IdempotencyKeyReusedException if a concurrent request already recorded the key
+   */
+  public void record(Long userId, String key, String requestHash, Long appointmentId) {
+    LocalDateTime now = LocalDateTime.now();
+    int recorded = jdbcTemplate.update(RECORD_SQL, userId, key, requestHash, appointmentId, now,
+        now.minus(retention));
+    if (recorded == 0) {
+      throw new IdempotencyKeyReusedException(REUSED_MESSAGE);
+    }
+
+    String cacheKey = cacheKey(userId, key);
+    StoredKey stored = new StoredKey(requestHash, appointmentId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          keys.put(cacheKey, stored);
+        }
+      });
+    } else {
+      keys.put(cacheKey, stored);
+    }
+  }
+
+  /** Deletes keys past the retention period **/
+  @Scheduled(fixedDelayString = "${triage.idempotency.purge-interval:PT1H}")
+  public void purgeExpired() {
+    jdbcTemplate.update(PURGE_SQL, LocalDateTime.now().minus(retention));
+  }
+
+  /**
+   * Hashes the fields of a request into what a key is bound to. Each field goes in with its
+   * length (null as its own marker), so no two different field lists hash the same text.
+   *
+   * @param fields the request fields, in a fixed order
+   * @return SHA-256 of the fields, REQUEST_HASH_LENGTH hex characters
+   */
+  public static String requestHash(Object... fields) {
+    StringBuilder canonical = new StringBuilder();
+    for (Object field : fields) {
+      if (field == null) {
+        canonical.append("-;");
+      } else {
+        String text = field.toString();
+        canonical.append(text.length()).append(':').append(text).append(';');
+      }
+    }
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(sha256.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static String cacheKey(Long userId, String key) {
+    return userId + ":" + key;
+  }
+
+  /** What a key is bound to **/
+  private static final class StoredKey {
+    private final String requestHash;
+    private final Long appointmentId;
+
+    StoredKey(String requestHash, Long appointmentId) {
+      this.requestHash = requestHash;
+      this.appointmentId = appointmentId;
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package com.patienttriage.cache;
+
+import com.patienttriage.dto.DoctorInfo;
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.entity.DoctorProfile;
+import com.patienttriage.entity.PatientProfile;
+import com.patienttriage.repository.DoctorProfileRepository;
+import com.patienttriage.repository.PatientProfileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process cache in front of the doctor and patient profile lookups used to build
+ * appointment responses.
+ *
+ * Profiles are cached as DoctorInfo / PatientInfo snapshots rather than entities, so cached
+ * values are never attached to a persistence context. Callers must treat them as read-only.
+ * Users without a profile are cached too (as empty), so they do not hit the database on
+ * every read either. Entries are invalidated by {@link ProfileCacheInvalidationListener}
+ * whenever a profile is written, and expire after a TTL as a safety net for writes made
+ * outside JPA. A profile loaded on a miss is only cached if it was not evicted while it was
+ * being loaded, so a lookup racing a write never puts the old profile back.
+ */
+@Component
+public class ProfileCache {
+
+  private final DoctorProfileRepository doctorProfileRepository;
+  private final PatientProfileRepository patientProfileRepository;
+
+  private final BoundedTtlCache<Long, Optional<DoctorInfo>> doctors;
+  private final BoundedTtlCache<Long, Optional<PatientInfo>> patients;
+
+  public ProfileCache(DoctorProfileRepository doctorProfileRepository,
+                      PatientProfileRepository patientProfileRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${triage.cache.doctor-profiles.max-size:1000}") int doctorMaxSize,
+                      @Value("${triage.cache.doctor-profiles.ttl:10m}") Duration doctorTtl,
+                      @Value("${triage.cache.patient-profiles.max-size:10000}") int patientMaxSize,
+                      @Value("${triage.cache.patient-profiles.ttl:5m}") Duration patientTtl) {
+    this.doctorProfileRepository = doctorProfileRepository;
+    this.patientProfileRepository = patientProfileRepository;
+    this.doctors = new BoundedTtlCache<>(doctorMaxSize, doctorTtl);
+    this.patients = new BoundedTtlCache<>(patientMaxSize, patientTtl);
+    BoundedTtlCacheMetrics.monitor(meterRegistry, doctors, "doctorProfiles");
+    BoundedTtlCacheMetrics.monitor(meterRegistry, patients, "patientProfiles");
+  }
+
+  // ------------- Doctors -------------- //
+  /**
+   * Finds a doctor's profile, going to the database only on a cache miss.
+   *
+   * @param doctorId the doctor user ID
+   * @return the doctor's profile, or null if the doctor has no profile
+   */
+  public DoctorInfo findDoctor(Long doctorId) {
+    Optional<DoctorInfo> cached = doctors.getIfPresent(doctorId);
+    if (cached == null) {
+      long generation = doctors.generation(doctorId);
+      cached = Optional.ofNullable(toDoctorInfo(doctorProfileRepository.findByDoctor_Id(doctorId)));
+      doctors.putIfCurrent(doctorId, cached, generation);
+    }
+    return cached.orElse(null);
+  }
+
+  /**
+   * Finds the profiles of several doctors; all misses are loaded with a single IN query.
+   *
+   * @param doctorIds the doctor user IDs
+   * @return doctor ID to profile, without entries for doctors that have no profile
+   */
+  public Map<Long, DoctorInfo> findDoctors(Collection<Long> doctorIds) {
+    Map<Long, DoctorInfo> result = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    for (Long doctorId : doctorIds) {
+      Optional<DoctorInfo> cached = doctors.getIfPresent(doctorId);
+      if (cached == null) {
+        missing.add(doctorId);
+      } else {
+        cached.ifPresent(info -> result.put(doctorId, info));
+      }
+    }
+
+    if (!missing.isEmpty()) {
+      long[] generations = new long[missing.size()];
+      for (int i = 0; i < generations.length; i++) {
+        generations[i] = doctors.generation(missing.get(i));
+      }
+      for (DoctorProfile profile : doctorProfileRepository.findByDoctor_IdIn(missing)) {
+        result.put(profile.getDoctorId(), toDoctorInfo(profile));
+      }
+      for (int i = 0; i < generations.length; i++) {
+        Long doctorId = missing.get(i);
+        doctors.putIfCurrent(doctorId, Optional.ofNullable(result.get(doctorId)), generations[i]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Drops a doctor's cached profile.
+   *
+   * @param doctorId the doctor user ID
+   */
+  public void evictDoctor(Long doctorId) {
+    doctors.invalidate(doctorId);
+  }
+
+  // ------------- Patients -------------- //
+  /**
+   * Finds a patient's profile, going to the database only on a cache miss.
+   *
+   * @param patientId the patient user ID
+   * @return the patient's profile, or null if the patient has no profile
+   */
+  public PatientInfo findPatient(Long patientId) {
+    Optional<PatientInfo> cached = patients.getIfPresent(patientId);
+    if (cached == null) {
+      long generation = patients.generation(patientId);
+      cached = Optional.ofNullable(toPatientInfo(patientProfileRepository.findByPatient_Id(patientId)));
+      patients.putIfCurrent(patientId, cached, generation);
+    }
+    return cached.orElse(null);
+  }
+
+  /**
+   * Finds the profiles of several patients; all misses are loaded with a single IN query.
+   *
+   * @param patientIds the patient user IDs
+   * @return patient ID to profile, without entries for patients that have no profile
+   */
+  public Map<Long, PatientInfo> findPatients(Collection<Long> patientIds) {
+    Map<Long, PatientInfo> result = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    for (Long patientId : patientIds) {
+      Optional<PatientInfo> cached = patients.getIfPresent(patientId);
+      if (cached == null) {
+        missing.add(patientId);
+      } else {
+        cached.ifPresent(info -> result.put(patientId, info));
+      }
+    }
+
+    if (!missing.isEmpty()) {
+      long[] generations = new long[missing.size()];
+      for (int i = 0; i < generations.length; i++) {
+        generations[i] = patients.generation(missing.get(i));
+      }
+      for (PatientProfile profile : patientProfileRepository.findByPatient_IdIn(missing)) {
+        result.put(profile.getPatientId(), toPatientInfo(profile));
+      }
+      for (int i = 0; i < generations.length; i++) {
+        Long patientId = missing.get(i);
+        patients.putIfCurrent(patientId, Optional.ofNullable(result.get(patientId)), generations[i]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Drops a patient's cached profile.
+   *
+   * @param patientId the patient user ID
+   */
+  public void evictPatient(Long patientId) {
+    patients.invalidate(patientId);
+  }
+
+  // visible for monitoring and tests
+  BoundedTtlCache<Long, Optional<DoctorInfo>> doctorCache() {
+    return doctors;
+  }
+
+  BoundedTtlCache<Long, Optional<PatientInfo>> patientCache() {
+    return patients;
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  private static DoctorInfo toDoctorInfo(DoctorProfile profile) {
+    if (profile == null) {
+      return null;
+    }
+    return new DoctorInfo(
+        profile.getDoctorId(),
+        profile.getFirstName(),
+        profile.getLastName(),
+        profile.getSpecialty(),
+        profile.getLicenseNumber(),
+        profile.getWorkTime()
+    );
+  }
+
+  private static PatientInfo toPatientInfo(PatientProfile profile) {
+    if (profile == null) {
+      return null;
+    }
+    return new PatientInfo(
+        profile.getPatientId(),
+        profile.getFirstName(),
+        profile.getLastName(),
+        profile.getAge(),
+        profile.getGender(),
+        profile.getSymptom(),
+        profile.getMedicalHistory(),
+        profile.getAllergies(),
+        profile.getCurrentMedications(),
+        profile.getTriagePriority()
+    );
+  }
+}
@@ -0,0 +1,54 @@
+package com.patienttriage.cache;
+
+import com.patienttriage.entity.DoctorProfile;
+import com.patienttriage.entity.PatientProfile;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that drops cached profiles whenever a DoctorProfile or PatientProfile
+ * is inserted, updated or deleted through JPA.
+ *
+ * The entry is evicted right away and again after commit: a concurrent reader can re-cache
+ * the old row between the flush and the commit, and the second eviction removes it.
+ */
+public class ProfileCacheInvalidationListener {
+
+  private final ProfileCache profileCache;
+
+  // Hibernate creates this listener while the EntityManagerFactory is being built, and
+  // ProfileCache needs repositories that need that factory, so inject a lazy proxy.
+  public ProfileCacheInvalidationListener(@Lazy ProfileCache profileCache) {
+    this.profileCache = profileCache;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void onProfileWrite(Object profile) {
+    Runnable evict;
+    if (profile instanceof DoctorProfile doctorProfile) {
+      Long doctorId = doctorProfile.getDoctorId();
+      evict = () -> profileCache.evictDoctor(doctorId);
+    } else if (profile instanceof PatientProfile patientProfile) {
+      Long patientId = patientProfile.getPatientId();
+      evict = () -> profileCache.evictPatient(patientId);
+    } else {
+      return;
+    }
+
+    evict.run();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          evict.run();
+        }
+      });
+    }
+  }
+}
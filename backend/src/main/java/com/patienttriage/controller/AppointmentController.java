@@ -1,21 +1,35 @@
 package com.patienttriage.controller;
 
+import com.patienttriage.auth.CurrentUser;
+import com.patienttriage.dto.AppointmentCursor;
+import com.patienttriage.dto.AppointmentFilter;
+import com.patienttriage.dto.AppointmentPage;
+import com.patienttriage.dto.AppointmentReceipt;
 import com.patienttriage.dto.AppointmentRequest;
 import com.patienttriage.dto.AppointmentResponse;
+import com.patienttriage.dto.BulkAppointmentRequest;
+import com.patienttriage.dto.DoctorScheduleChangeRequest;
+import com.patienttriage.entity.AppointmentStatus;
 import com.patienttriage.entity.UserRole;
 import com.patienttriage.service.AppointmentService;
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import jakarta.validation.groups.Default;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import java.util.Map;
 
@@ -25,6 +39,12 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/appointments")
 public class AppointmentController {
+
+  /** Optional request header that makes POST /create safe to retry **/
+  static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  /** Response header telling whether the result came from an earlier request with the same key **/
+  static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
   private final AppointmentService appointmentService;
 
   public AppointmentController(AppointmentService appointmentService) {
@@ -40,36 +60,97 @@ public class AppointmentController {
    * - PATIENT: can only create appointments for themselves (patientId must match currentUserId)
    * - DOCTOR: can only create appointments for themselves (doctorId must match currentUserId)
    * - ADMIN: can create appointments for any patient and doctor
+   *
+   * Patients and admins may leave doctorId out to have a doctor assigned: the doctor of the
+   * requested specialty (or of the triage queue the patient waits in) with the earliest free
+   * slot at or after appointmentTime, the least loaded one on a tie. The response then tells
+   * which doctor and time were booked.
+   *
+   * With an Idempotency-Key header, retries of the same request return the appointment the
+   * first one created, in the same response, instead of creating a duplicate or failing with
+   * a conflict.
    * 
    * @param request the appointment request containing patientId, doctorId, appointmentTime, and reason
-   * @param session HTTP session containing logged-in user information
+   * @param idempotencyKey optional client-chosen key identifying this create across retries
+   * @param currentUser the logged-in user from the session token, or null if not logged in
    * @return HTTP 201 Created with success message, or error response
    */
   @PostMapping("/create")
   public ResponseEntity<Object> createAppointment(
       @Valid @RequestBody AppointmentRequest request,
-      HttpSession session) {
+      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+      CurrentUser currentUser) {
     
-    // Get current logged-in user ID from session (set during login in UserController)
-    Long currentUserId = (Long) session.getAttribute("userId");
-    UserRole role = (UserRole) session.getAttribute("role");
-    String currentUsername = (String) session.getAttribute("username");
-    
-    if (currentUserId == null) {
+    if (currentUser == null) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
           .body(Map.of("error", "Not logged in. Please login first."));
     }
+
+    // Current logged-in user, from the token issued at login in UserController
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+    String currentUsername = currentUser.getUsername();
     
+    // With an Idempotency-Key, a retry gets the original result back (flagged by a header)
+    if (idempotencyKey != null) {
+      AppointmentReceipt receipt =
+          appointmentService.createAppointment(request, role, currentUserId, idempotencyKey);
+      return ResponseEntity.status(HttpStatus.CREATED)
+          .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(receipt.isReplayed()))
+          .body(Map.of(
+              "message", "Appointment created successfully",
+              "createdBy", currentUsername != null ? currentUsername : "User ID: " + currentUserId,
+              "currentUserId", currentUserId,
+              "appointment", receipt.getAppointment()
+          ));
+    }
+
     // Create appointment with current logged-in user's ID
     // The service will validate that currentUserId matches patientId (for PATIENT) 
     // or doctorId (for DOCTOR) based on role
-    appointmentService.createAppointment(request, role, currentUserId);
+    AppointmentResponse appointment = appointmentService.createAppointment(request, role, currentUserId);
     
     return ResponseEntity.status(HttpStatus.CREATED)
         .body(Map.of(
             "message", "Appointment created successfully",
             "createdBy", currentUsername != null ? currentUsername : "User ID: " + currentUserId,
-            "currentUserId", currentUserId
+            "currentUserId", currentUserId,
+            "appointment", appointment
+        ));
+  }
+
+  // -------------------------------------------------------------------
+  // Bulk Create Appointments
+  // -------------------------------------------------------------------
+  /**
+   * Creates many appointments at once (e.g. a clinic loading a whole day), all or nothing.
+   * Same role constraints as a single create, applied to every appointment.
+   *
+   * @param request the appointments to create (at most 1000)
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 201 Created with the new appointment IDs, or error response
+   */
+  @PostMapping("/bulk")
+  public ResponseEntity<Object> createAppointments(
+      @Validated({Default.class, AppointmentRequest.DoctorRequired.class})
+      @RequestBody BulkAppointmentRequest request,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
+    List<Long> appointmentIds = appointmentService.createAppointments(request.getAppointments(), role, currentUserId);
+
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body(Map.of(
+            "message", "Appointments created successfully",
+            "count", appointmentIds.size(),
+            "appointmentIds", appointmentIds
         ));
   }
 
@@ -77,28 +158,45 @@ public class AppointmentController {
   // Get All Appointments (role-based)
   // -------------------------------------------------------------------
   /**
-   * Retrieves all appointments for the current logged-in user.
+   * Retrieves one page of appointments for the current logged-in user.
+   * Pages are ordered by appointment time; pass the returned nextCursor back as
+   * cursor to fetch the following page.
    * 
-   * @param session HTTP session containing logged-in user information
-   * @return HTTP 200 OK with list of appointments, or error response
+   * @param status optional status filter (SCHEDULED, CANCELLED, COMPLETED)
+   * @param from optional inclusive lower bound on appointment time
+   * @param to optional exclusive upper bound on appointment time
+   * @param cursor optional cursor returned by the previous page
+   * @param limit optional page size (bounded by the server)
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with one page of appointments, or error response
    */
   @GetMapping("/my")
-  public ResponseEntity<Object> getAppointments(HttpSession session) {
+  public ResponseEntity<Object> getAppointments(
+      @RequestParam(required = false) AppointmentStatus status,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit,
+      CurrentUser currentUser) {
 
-    Long currentUserId = (Long) session.getAttribute("userId");
-    UserRole role = (UserRole) session.getAttribute("role");
-
-    if (currentUserId == null || role == null) {
+    if (currentUser == null) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
           .body(Map.of("error", "Not logged in. Please login first."));
     }
 
-    List<AppointmentResponse> responseList = appointmentService.getAppointments(role, currentUserId);
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
 
-    return ResponseEntity.ok(Map.of(
-        "appointments", responseList,
-        "count", responseList.size()
-    ));
+    AppointmentFilter filter = new AppointmentFilter(
+        status, from, to, cursor != null ? AppointmentCursor.decode(cursor) : null, limit);
+    AppointmentPage page = appointmentService.getAppointments(role, currentUserId, filter);
+
+    // nextCursor may be null, which Map.of does not allow
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("appointments", page.getAppointments());
+    body.put("count", page.getCount());
+    body.put("nextCursor", page.getNextCursor());
+    return ResponseEntity.ok(body);
   }
 
   // -------------------------------------------------------------------
@@ -108,22 +206,22 @@ public class AppointmentController {
    * Retrieves a single appointment by ID.
    * 
    * @param appointmentId the ID of the appointment to retrieve
-   * @param session HTTP session containing logged-in user information
+   * @param currentUser the logged-in user from the session token, or null if not logged in
    * @return HTTP 200 OK with appointment details, or error response
    */
   @GetMapping("/{appointmentId}")
   public ResponseEntity<Object> getAppointmentById(
       @PathVariable Long appointmentId,
-      HttpSession session) {
+      CurrentUser currentUser) {
 
-    Long currentUserId = (Long) session.getAttribute("userId");
-    UserRole role = (UserRole) session.getAttribute("role");
-
-    if (currentUserId == null || role == null) {
+    if (currentUser == null) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
           .body(Map.of("error", "Not logged in. Please login first."));
     }
 
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
     AppointmentResponse response = appointmentService.getAppointmentById(appointmentId, role, currentUserId);
 
     return ResponseEntity.ok(Map.of(
@@ -139,23 +237,24 @@ public class AppointmentController {
    * 
    * @param appointmentId the ID of the appointment to update
    * @param request the appointment request containing updated fields
-   * @param session HTTP session containing logged-in user information
+   * @param currentUser the logged-in user from the session token, or null if not logged in
    * @return HTTP 200 OK with updated appointment, or error response
    */
   @PutMapping("/{appointmentId}")
   public ResponseEntity<Object> updateAppointment(
       @PathVariable Long appointmentId,
-      @Valid @RequestBody AppointmentRequest request,
-      HttpSession session) {
-
-    Long currentUserId = (Long) session.getAttribute("userId");
-    UserRole role = (UserRole) session.getAttribute("role");
+      @Validated({Default.class, AppointmentRequest.DoctorRequired.class})
+      @RequestBody AppointmentRequest request,
+      CurrentUser currentUser) {
 
-    if (currentUserId == null || role == null) {
+    if (currentUser == null) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
           .body(Map.of("error", "Not logged in. Please login first."));
     }
 
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
     AppointmentResponse response =
         appointmentService.updateAppointment(appointmentId, request, role, currentUserId);
 
@@ -172,22 +271,22 @@ public class AppointmentController {
    * Cancels an appointment by setting status to CANCELLED.
    * 
    * @param appointmentId the ID of the appointment to cancel
-   * @param session HTTP session containing logged-in user information
+   * @param currentUser the logged-in user from the session token, or null if not logged in
    * @return HTTP 200 OK with cancelled appointment, or error response
    */
   @DeleteMapping("/{appointmentId}")
   public ResponseEntity<Object> cancelAppointment(
       @PathVariable Long appointmentId,
-      HttpSession session) {
+      CurrentUser currentUser) {
 
-    Long currentUserId = (Long) session.getAttribute("userId");
-    UserRole role = (UserRole) session.getAttribute("role");
-
-    if (currentUserId == null || role == null) {
+    if (currentUser == null) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
           .body(Map.of("error", "Not logged in. Please login first."));
     }
 
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
     AppointmentResponse response =
         appointmentService.cancelAppointment(appointmentId, role, currentUserId);
 
@@ -196,4 +295,64 @@ public class AppointmentController {
         "appointment", response
     ));
   }
+
+  // -------------------------------------------------------------------
+  // Bulk Cancel / Reassign a Doctor's Appointments (admin only)
+  // -------------------------------------------------------------------
+  /**
+   * Cancels all of a doctor's scheduled appointments starting in [from, to).
+   *
+   * @param request doctorId, from and to
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with the number of cancelled appointments, or error response
+   */
+  @PostMapping("/bulk/cancel")
+  public ResponseEntity<Object> cancelDoctorAppointments(
+      @Valid @RequestBody DoctorScheduleChangeRequest request,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    UserRole role = currentUser.getRole();
+
+    int count = appointmentService.cancelDoctorAppointments(
+        request.getDoctorId(), request.getFrom(), request.getTo(), role);
+
+    return ResponseEntity.ok(Map.of(
+        "message", "Appointments cancelled successfully",
+        "count", count
+    ));
+  }
+
+  /**
+   * Moves all of a doctor's scheduled appointments starting in [from, to) to newDoctorId,
+   * all or nothing (409 Conflict if any would overlap the new doctor's appointments).
+   *
+   * @param request doctorId, newDoctorId, from and to
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with the number of moved appointments, or error response
+   */
+  @PostMapping("/bulk/reassign")
+  public ResponseEntity<Object> reassignDoctorAppointments(
+      @Valid @RequestBody DoctorScheduleChangeRequest request,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    UserRole role = currentUser.getRole();
+
+    int count = appointmentService.reassignDoctorAppointments(
+        request.getDoctorId(), request.getNewDoctorId(), request.getFrom(), request.getTo(), role);
+
+    return ResponseEntity.ok(Map.of(
+        "message", "Appointments reassigned successfully",
+        "count", count
+    ));
+  }
 }
@@ -0,0 +1,64 @@
+package com.patienttriage.controller;
+
+import com.patienttriage.auth.CurrentUser;
+import com.patienttriage.dto.AppointmentExportFormat;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.service.AppointmentExportService;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller for exporting the appointment book (admin reporting).
+ */
+@RestController
+@RequestMapping("/api/appointments")
+public class AppointmentExportController {
+  private final AppointmentExportService appointmentExportService;
+
+  public AppointmentExportController(AppointmentExportService appointmentExportService) {
+    this.appointmentExportService = appointmentExportService;
+  }
+
+  /**
+   * Streams every appointment, joined with patient and doctor profile columns, as NDJSON or CSV.
+   * Rows are written as they are read from the database, so the export never holds
+   * the whole appointment book in memory.
+   *
+   * @param format "ndjson" (default) or "csv"
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with the streamed export, or error response
+   */
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportAppointments(
+      @RequestParam(defaultValue = "ndjson") String format,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      // the return type must stay StreamingResponseBody, so write the usual error JSON by hand
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(out -> out.write("{\"error\":\"Not logged in. Please login first.\"}"
+              .getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Current logged-in user, from the token issued at login in UserController
+    UserRole role = currentUser.getRole();
+
+    AppointmentExportFormat exportFormat = AppointmentExportFormat.fromParam(format);
+    StreamingResponseBody body = appointmentExportService.exportAppointments(exportFormat, role);
+
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"appointments." + exportFormat.getFileExtension() + "\"")
+        .body(body);
+  }
+}
@@ -0,0 +1,92 @@
+package com.patienttriage.controller;
+
+import com.patienttriage.auth.CurrentUser;
+import com.patienttriage.dto.DoctorAvailability;
+import com.patienttriage.dto.DoctorSlot;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.service.DoctorAvailabilityService;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for doctor lookups (schedules and availability).
+ */
+@RestController
+@RequestMapping("/api/doctors")
+public class DoctorController {
+  private final DoctorAvailabilityService doctorAvailabilityService;
+
+  public DoctorController(DoctorAvailabilityService doctorAvailabilityService) {
+    this.doctorAvailabilityService = doctorAvailabilityService;
+  }
+
+  /**
+   * Lists a doctor's free slots, so patients can pick a time that will not be rejected
+   * as a conflict.
+   *
+   * @param doctorId the doctor user ID
+   * @param from optional first date (ISO yyyy-MM-dd), defaults to today
+   * @param to optional exclusive last date, defaults to one week after from
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with the free slots, or error response
+   */
+  @GetMapping("/{doctorId}/availability")
+  public ResponseEntity<Object> getAvailability(
+      @PathVariable Long doctorId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    DoctorAvailability availability = doctorAvailabilityService.getAvailability(doctorId, from, to);
+    return ResponseEntity.ok(availability);
+  }
+
+  /**
+   * Finds the earliest free slots across all doctors of a specialty, for booking urgent
+   * patients with whichever doctor is free first.
+   * Role constraints:
+   * - ADMIN only
+   *
+   * @param specialty the specialty, e.g. "Cardiology"
+   * @param from optional first date (ISO yyyy-MM-dd), defaults to today
+   * @param limit optional number of slots (bounded by the server)
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with the earliest slots, or error response
+   */
+  @GetMapping("/earliest")
+  public ResponseEntity<Object> findEarliestSlots(
+      @RequestParam String specialty,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) Integer limit,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    // Current logged-in user, from the token issued at login in UserController
+    UserRole role = currentUser.getRole();
+
+    List<DoctorSlot> slots = doctorAvailabilityService.findEarliestSlots(specialty, from, limit, role);
+    return ResponseEntity.ok(Map.of(
+        "specialty", specialty,
+        "slots", slots,
+        "count", slots.size()
+    ));
+  }
+}
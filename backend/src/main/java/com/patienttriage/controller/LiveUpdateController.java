@@ -0,0 +1,59 @@
+package com.patienttriage.controller;
+
+import com.patienttriage.auth.CurrentUser;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.live.LiveUpdateHub;
+import java.io.IOException;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/**
+ * REST controller for live updates: a Server-Sent Events stream per logged-in doctor or
+ * patient, replacing polling of GET /api/appointments/my.
+ */
+@RestController
+@RequestMapping("/api/live")
+public class LiveUpdateController {
+  private final LiveUpdateHub liveUpdateHub;
+
+  public LiveUpdateController(LiveUpdateHub liveUpdateHub) {
+    this.liveUpdateHub = liveUpdateHub;
+  }
+
+  /**
+   * Opens the current user's live update stream. Events:
+   * - "appointment": an appointment of theirs was created, updated or cancelled
+   * - "queue-position": (patients) their place in a triage queue changed; sent on connect too
+   * The stream is closed if the client falls behind; reconnect and reload the list then.
+   * Role constraints:
+   * - DOCTOR, PATIENT: their own updates
+   *
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with the event stream, or error response
+   */
+  @GetMapping("/stream")
+  public ResponseEntity<ResponseBodyEmitter> stream(CurrentUser currentUser) throws IOException {
+
+    if (currentUser == null) {
+      // the return type must stay an emitter, so send the usual error JSON through one
+      ResponseBodyEmitter error = new ResponseBodyEmitter();
+      error.send(Map.of("error", "Not logged in. Please login first."), MediaType.APPLICATION_JSON);
+      error.complete();
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(error);
+    }
+
+    // Current logged-in user, from the token issued at login in UserController
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
+    return ResponseEntity.ok(liveUpdateHub.subscribe(currentUserId, role));
+  }
+}
@@ -0,0 +1,85 @@
+package com.patienttriage.controller;
+
+import com.patienttriage.auth.CurrentUser;
+import com.patienttriage.dto.SymptomRequest;
+import com.patienttriage.dto.TriageStatus;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.service.PatientService;
+import jakarta.validation.Valid;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for a logged-in patient's own profile: symptoms and triage.
+ */
+@RestController
+@RequestMapping("/api/patients")
+public class PatientController {
+  private final PatientService patientService;
+
+  public PatientController(PatientService patientService) {
+    this.patientService = patientService;
+  }
+
+  /**
+   * Submits the patient's current symptom. The triage priority is evaluated in the
+   * background; follow it with GET /api/patients/me/triage.
+   * Role constraints:
+   * - PATIENT only
+   *
+   * @param request the symptom
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 202 Accepted with success message, or error response
+   */
+  @PutMapping("/me/symptom")
+  public ResponseEntity<Object> submitSymptom(
+      @Valid @RequestBody SymptomRequest request,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    // Current logged-in user, from the token issued at login in UserController
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
+    patientService.submitSymptom(request.getSymptom(), role, currentUserId);
+    return ResponseEntity.status(HttpStatus.ACCEPTED)
+        .body(Map.of(
+            "message", "Symptom submitted. Triage evaluation pending.",
+            "patientId", currentUserId
+        ));
+  }
+
+  /**
+   * Returns the patient's symptom and triage priority (pending until evaluated).
+   * Role constraints:
+   * - PATIENT only
+   *
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with the triage status, or error response
+   */
+  @GetMapping("/me/triage")
+  public ResponseEntity<Object> getTriageStatus(CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    // Current logged-in user, from the token issued at login in UserController
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
+    TriageStatus status = patientService.getTriageStatus(role, currentUserId);
+    return ResponseEntity.ok(status);
+  }
+}
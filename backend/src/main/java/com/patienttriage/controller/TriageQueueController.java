@@ -0,0 +1,158 @@
+package com.patienttriage.controller;
+
+import com.patienttriage.auth.CurrentUser;
+import com.patienttriage.dto.TriageQueueRequest;
+import com.patienttriage.dto.TriageTicket;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.service.TriageQueueService;
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the per-specialty triage queues: patients join, doctors take the next
+ * patient in line.
+ */
+@RestController
+@RequestMapping("/api/triage/queue")
+public class TriageQueueController {
+  private final TriageQueueService triageQueueService;
+
+  public TriageQueueController(TriageQueueService triageQueueService) {
+    this.triageQueueService = triageQueueService;
+  }
+
+  /**
+   * Adds a patient to a specialty's triage queue at their triage priority.
+   * Role constraints:
+   * - PATIENT: can only add themselves
+   * - ADMIN: can add any patient (patientId required)
+   *
+   * @param request the specialty and optional patientId
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 201 Created with the patient's ticket, or error response
+   */
+  @PostMapping
+  public ResponseEntity<Object> enqueue(
+      @Valid @RequestBody TriageQueueRequest request,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    // Current logged-in user, from the token issued at login in UserController
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
+    TriageTicket ticket = triageQueueService.enqueue(request, role, currentUserId);
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body(Map.of(
+            "message", "Added to triage queue",
+            "ticket", ticket
+        ));
+  }
+
+  /**
+   * Lists the patients next in line for a specialty without taking them.
+   * Role constraints:
+   * - DOCTOR: only their own specialty
+   * - ADMIN: any specialty
+   *
+   * @param specialty the specialty, e.g. "Cardiology"
+   * @param limit optional number of patients (bounded by the server)
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with the waiting patients, or error response
+   */
+  @GetMapping("/{specialty}")
+  public ResponseEntity<Object> listQueue(
+      @PathVariable String specialty,
+      @RequestParam(required = false) Integer limit,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    // Current logged-in user, from the token issued at login in UserController
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
+    List<TriageTicket> tickets = triageQueueService.listQueue(specialty, limit, role, currentUserId);
+    return ResponseEntity.ok(tickets);
+  }
+
+  /**
+   * Takes the next patient in line for a specialty.
+   * Role constraints:
+   * - DOCTOR: only their own specialty
+   * - ADMIN: any specialty
+   *
+   * @param specialty the specialty, e.g. "Cardiology"
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with the patient taken, 204 No Content if nobody is waiting, or error response
+   */
+  @PostMapping("/{specialty}/next")
+  public ResponseEntity<Object> takeNext(
+      @PathVariable String specialty,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    // Current logged-in user, from the token issued at login in UserController
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
+    TriageTicket ticket = triageQueueService.takeNext(specialty, role, currentUserId);
+    if (ticket == null) {
+      return ResponseEntity.noContent().build();
+    }
+    return ResponseEntity.ok(ticket);
+  }
+
+  /**
+   * Removes a patient from the triage queue they wait in.
+   * Role constraints:
+   * - PATIENT: can only remove themselves
+   * - ADMIN: can remove any patient
+   *
+   * @param patientId the patient user ID
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with success message, or error response
+   */
+  @DeleteMapping("/patients/{patientId}")
+  public ResponseEntity<Object> leave(
+      @PathVariable Long patientId,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    // Current logged-in user, from the token issued at login in UserController
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
+    triageQueueService.leave(patientId, role, currentUserId);
+    return ResponseEntity.ok(Map.of(
+        "message", "Removed from triage queue",
+        "patientId", patientId
+    ));
+  }
+}
@@ -1,11 +1,16 @@
 package com.patienttriage.controller;
 
 
+import com.patienttriage.auth.CurrentUser;
+import com.patienttriage.auth.SessionTokens;
 import com.patienttriage.dto.UserLoginRequest;
 import com.patienttriage.dto.UserRegisterRequest;
 import com.patienttriage.entity.User;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
 import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -22,9 +27,11 @@ import com.patienttriage.service.UserService;
 public class UserController {
 
   private final UserService userService;
+  private final SessionTokens sessionTokens;
 
-  public UserController(UserService userService) {
+  public UserController(UserService userService, SessionTokens sessionTokens) {
     this.userService = userService;
+    this.sessionTokens = sessionTokens;
   }
   // TODO: need a get API for register, so that the web will not automatically go to the login page.
 
@@ -44,59 +51,78 @@ public class UserController {
   }
 
   /**
-   * Authenticates a user and stores session information.
+   * Authenticates a user and issues a signed session token, returned both in the
+   * X-Auth-Token header (for API clients to send as "Authorization: Bearer <token>") and as
+   * an HttpOnly cookie (for browsers).
    * 
    * @param request the login request containing username and password
-   * @param session HTTP session to store user information
+   * @param httpRequest the HTTP request, to mark the cookie secure when it came over HTTPS
    * @return HTTP 200 OK with User entity, or error response
    */
   @PostMapping("/login")
-  public ResponseEntity<User> login(@RequestBody UserLoginRequest request, HttpSession session) {
+  public ResponseEntity<User> login(@RequestBody UserLoginRequest request,
+                                    HttpServletRequest httpRequest) {
     User user = userService.login(
         request.getUsername(),
         request.getPassword()
     );
-    
-    // Store user ID in session
-    session.setAttribute("userId", user.getId());
-    session.setAttribute("username", user.getUsername());
-    session.setAttribute("role", user.getRole());
-    
-    return ResponseEntity.ok(user);
+
+    String token = sessionTokens.issue(user.getId(), user.getUsername(), user.getRole());
+
+    return ResponseEntity.ok()
+        .header(SessionTokens.TOKEN_HEADER, token)
+        .header(HttpHeaders.SET_COOKIE, tokenCookie(token, sessionTokens.getTtl(), httpRequest.isSecure()))
+        .body(user);
   }
 
   /**
-   * Retrieves the current logged-in user from session.
+   * Retrieves the current logged-in user from the session token.
    * 
-   * @param session HTTP session containing user information
+   * @param currentUser the logged-in user, or null without a valid token
    * @return HTTP 200 OK with user information, or 401 if not logged in
    */
   @GetMapping("/current")
-  public ResponseEntity<Object> getCurrentUser(HttpSession session) {
-    Long userId = (Long) session.getAttribute("userId");
-    if (userId == null) {
+  public ResponseEntity<Object> getCurrentUser(CurrentUser currentUser) {
+    if (currentUser == null) {
       return ResponseEntity.status(401).body(Map.of("message", "Not logged in"));
     }
     return ResponseEntity.ok(Map.of(
-        "userId", userId,
-        "username", session.getAttribute("username"),
-        "role", session.getAttribute("role")
+        "userId", currentUser.getUserId(),
+        "username", currentUser.getUsername(),
+        "role", currentUser.getRole()
     ));
   }
 
   /**
-   * Logs out the current user by invalidating the session.
+   * Logs out the current user by clearing the token cookie. There is no server-side session;
+   * a token kept by an API client stays valid until it expires.
    * 
-   * @param session HTTP session to invalidate
+   * @param httpRequest the HTTP request, to mark the cookie secure when it came over HTTPS
    * @return HTTP 200 OK with success message
    */
   @PostMapping("/logout")
-  public ResponseEntity<Map<String, String>> logout(HttpSession session) {
-    session.invalidate();
-    return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+  public ResponseEntity<Map<String, String>> logout(HttpServletRequest httpRequest) {
+    return ResponseEntity.ok()
+        .header(HttpHeaders.SET_COOKIE, tokenCookie("", Duration.ZERO, httpRequest.isSecure()))
+        .body(Map.of("message", "Logged out successfully"));
   }
 
   // TODO: If there's new user, direct to the register link
 
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  /** The token cookie; a zero max age removes it **/
+  private static String tokenCookie(String token, Duration maxAge, boolean secure) {
+    return ResponseCookie.from(SessionTokens.COOKIE_NAME, token)
+        .httpOnly(true)
+        .secure(secure)
+        .sameSite("Lax")
+        .path("/")
+        .maxAge(maxAge)
+        .build()
+        .toString();
+  }
 
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.patienttriage.controller;
+
+import com.patienttriage.auth.CurrentUser;
+import com.patienttriage.dto.WaitlistRequest;
+import com.patienttriage.dto.WaitlistSpot;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.service.WaitlistService;
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the waitlist: patients wait for a doctor's or a specialty's slot in a
+ * time window and are booked into the first matching slot a cancellation frees.
+ */
+@RestController
+@RequestMapping("/api/waitlist")
+public class WaitlistController {
+  private final WaitlistService waitlistService;
+
+  public WaitlistController(WaitlistService waitlistService) {
+    this.waitlistService = waitlistService;
+  }
+
+  /**
+   * Adds a patient to the waitlist of a doctor or a specialty for a time window.
+   * Role constraints:
+   * - PATIENT: can only add themselves
+   * - ADMIN: can add any patient (patientId required)
+   *
+   * @param request doctorId or specialty, from, to and optional patientId
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 201 Created with the waitlist entry, or error response
+   */
+  @PostMapping
+  public ResponseEntity<Object> join(
+      @Valid @RequestBody WaitlistRequest request,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    // Current logged-in user, from the token issued at login in UserController
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
+    WaitlistSpot spot = waitlistService.join(request, role, currentUserId);
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body(Map.of(
+            "message", "Added to waitlist",
+            "entry", spot
+        ));
+  }
+
+  /**
+   * Lists a patient's waitlist entries.
+   * Role constraints:
+   * - PATIENT: only their own
+   * - ADMIN: any patient (patientId required)
+   *
+   * @param patientId optional patient user ID
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with the entries, or error response
+   */
+  @GetMapping
+  public ResponseEntity<Object> listSpots(
+      @RequestParam(required = false) Long patientId,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    // Current logged-in user, from the token issued at login in UserController
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
+    List<WaitlistSpot> spots = waitlistService.listSpots(patientId, role, currentUserId);
+    return ResponseEntity.ok(spots);
+  }
+
+  /**
+   * Removes a waitlist entry.
+   * Role constraints:
+   * - PATIENT: only their own entries
+   * - ADMIN: any entry
+   *
+   * @param id the waitlist entry ID
+   * @param currentUser the logged-in user from the session token, or null if not logged in
+   * @return HTTP 200 OK with success message, or error response
+   */
+  @DeleteMapping("/{id}")
+  public ResponseEntity<Object> leave(
+      @PathVariable Long id,
+      CurrentUser currentUser) {
+
+    if (currentUser == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Not logged in. Please login first."));
+    }
+
+    // Current logged-in user, from the token issued at login in UserController
+    Long currentUserId = currentUser.getUserId();
+    UserRole role = currentUser.getRole();
+
+    waitlistService.leave(id, role, currentUserId);
+    return ResponseEntity.ok(Map.of(
+        "message", "Removed from waitlist",
+        "id", id
+    ));
+  }
+}
@@ -0,0 +1,66 @@
+package com.patienttriage.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset cursor for appointment listing.
+ * Points at the last (appointmentTime, id) pair the client has already seen,
+ * and is passed back to the client as an opaque URL-safe string.
+ */
+public class AppointmentCursor {
+
+  private static final String SEPARATOR = "|";
+
+  private final LocalDateTime appointmentTime;
+  private final Long appointmentId;
+
+  public AppointmentCursor(LocalDateTime appointmentTime, Long appointmentId) {
+    this.appointmentTime = appointmentTime;
+    this.appointmentId = appointmentId;
+  }
+
+  public LocalDateTime getAppointmentTime() {
+    return appointmentTime;
+  }
+
+  public Long getAppointmentId() {
+    return appointmentId;
+  }
+
+  /**
+   * Encodes this cursor into the opaque string handed to the client.
+   *
+   * @return URL-safe cursor string
+   */
+  public String encode() {
+    String raw = appointmentTime + SEPARATOR + appointmentId;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a cursor string previously produced by {@link #encode()}.
+   *
+   * @param cursor the opaque cursor string from the client
+   * @return the decoded cursor
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  public static AppointmentCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int split = raw.lastIndexOf(SEPARATOR);
+      if (split < 0) {
+        throw new IllegalArgumentException("Invalid cursor.");
+      }
+      return new AppointmentCursor(
+          LocalDateTime.parse(raw.substring(0, split)),
+          Long.valueOf(raw.substring(split + 1)));
+    } catch (DateTimeParseException | IllegalArgumentException e) {
+      // NumberFormatException is an IllegalArgumentException as well
+      throw new IllegalArgumentException("Invalid cursor.");
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.patienttriage.dto;
+
+import com.patienttriage.entity.AppointmentStatus;
+import com.patienttriage.event.AppointmentChangedEvent;
+import com.patienttriage.event.AppointmentSnapshot;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one appointment change pushed to the doctor and patient it concerns: the
+ * appointment as it is now and, for updates, where it was before.
+ */
+public class AppointmentDelta {
+
+  private final AppointmentChangedEvent.Type type;
+  private final Long appointmentId;
+  private final Long doctorId;
+  private final Long patientId;
+  private final LocalDateTime appointmentTime;
+  private final LocalDateTime endTime;
+  private final AppointmentStatus status;
+  private final Long previousDoctorId;
+  private final LocalDateTime previousAppointmentTime;
+
+  public AppointmentDelta(AppointmentChangedEvent event) {
+    AppointmentSnapshot after = event.getAfter();
+    AppointmentSnapshot before = event.getBefore();
+    this.type = event.getType();
+    this.appointmentId = after.getAppointmentId();
+    this.doctorId = after.getDoctorId();
+    this.patientId = after.getPatientId();
+    this.appointmentTime = after.getAppointmentTime();
+    this.endTime = after.getEndTime();
+    this.status = after.getStatus();
+    this.previousDoctorId = before != null ? before.getDoctorId() : null;
+    this.previousAppointmentTime = before != null ? before.getAppointmentTime() : null;
+  }
+
+  public AppointmentChangedEvent.Type getType() {
+    return type;
+  }
+
+  public Long getAppointmentId() {
+    return appointmentId;
+  }
+
+  public Long getDoctorId() {
+    return doctorId;
+  }
+
+  public Long getPatientId() {
+    return patientId;
+  }
+
+  public LocalDateTime getAppointmentTime() {
+    return appointmentTime;
+  }
+
+  public LocalDateTime getEndTime() {
+    return endTime;
+  }
+
+  public AppointmentStatus getStatus() {
+    return status;
+  }
+
+  public Long getPreviousDoctorId() {
+    return previousDoctorId;
+  }
+
+  public LocalDateTime getPreviousAppointmentTime() {
+    return previousAppointmentTime;
+  }
+}
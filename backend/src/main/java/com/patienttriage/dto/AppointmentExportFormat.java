@@ -0,0 +1,41 @@
+package com.patienttriage.dto;
+
+/**
+ * Output formats supported by the appointment export.
+ */
+public enum AppointmentExportFormat {
+  NDJSON("application/x-ndjson", "ndjson"),
+  CSV("text/csv", "csv");
+
+  private final String contentType;
+  private final String fileExtension;
+
+  AppointmentExportFormat(String contentType, String fileExtension) {
+    this.contentType = contentType;
+    this.fileExtension = fileExtension;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getFileExtension() {
+    return fileExtension;
+  }
+
+  /**
+   * Parses the format query parameter, ignoring case.
+   *
+   * @param value the raw parameter value, e.g. "ndjson" or "csv"
+   * @return the matching format
+   * @throws IllegalArgumentException if the format is not supported
+   */
+  public static AppointmentExportFormat fromParam(String value) {
+    for (AppointmentExportFormat format : values()) {
+      if (format.name().equalsIgnoreCase(value)) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported export format: " + value);
+  }
+}
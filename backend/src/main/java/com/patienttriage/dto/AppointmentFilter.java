@@ -0,0 +1,68 @@
+package com.patienttriage.dto;
+
+import com.patienttriage.entity.AppointmentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Server-side filters and keyset position for listing appointments.
+ * All fields are optional; a null field means "no restriction".
+ */
+public class AppointmentFilter {
+
+  private AppointmentStatus status;
+  private LocalDateTime from; // inclusive
+  private LocalDateTime to;   // exclusive
+  private AppointmentCursor after; // last row of the previous page
+  private Integer limit;
+
+  public AppointmentFilter() {}
+
+  public AppointmentFilter(AppointmentStatus status, LocalDateTime from, LocalDateTime to,
+      AppointmentCursor after, Integer limit) {
+    this.status = status;
+    this.from = from;
+    this.to = to;
+    this.after = after;
+    this.limit = limit;
+  }
+
+  public AppointmentStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(AppointmentStatus status) {
+    this.status = status;
+  }
+
+  public LocalDateTime getFrom() {
+    return from;
+  }
+
+  public void setFrom(LocalDateTime from) {
+    this.from = from;
+  }
+
+  public LocalDateTime getTo() {
+    return to;
+  }
+
+  public void setTo(LocalDateTime to) {
+    this.to = to;
+  }
+
+  public AppointmentCursor getAfter() {
+    return after;
+  }
+
+  public void setAfter(AppointmentCursor after) {
+    this.after = after;
+  }
+
+  public Integer getLimit() {
+    return limit;
+  }
+
+  public void setLimit(Integer limit) {
+    this.limit = limit;
+  }
+}
@@ -0,0 +1,33 @@
+package com.patienttriage.dto;
+
+import java.util.List;
+
+/**
+ * DTO for one page of appointments returned by keyset pagination.
+ */
+public class AppointmentPage {
+
+  private final List<AppointmentResponse> appointments;
+  private final String nextCursor; // null when this is the last page
+
+  public AppointmentPage(List<AppointmentResponse> appointments, String nextCursor) {
+    this.appointments = appointments;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<AppointmentResponse> getAppointments() {
+    return appointments;
+  }
+
+  public int getCount() {
+    return appointments.size();
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public boolean hasNext() {
+    return nextCursor != null;
+  }
+}
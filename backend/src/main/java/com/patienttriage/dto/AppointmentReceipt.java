@@ -0,0 +1,29 @@
+package com.patienttriage.dto;
+
+/**
+ * DTO for the outcome of an idempotent create: the appointment, and whether it was created
+ * by an earlier request with the same Idempotency-Key.
+ */
+public class AppointmentReceipt {
+
+  private final AppointmentResponse appointment;
+  private final boolean replayed;
+
+  public AppointmentReceipt(AppointmentResponse appointment, boolean replayed) {
+    this.appointment = appointment;
+    this.replayed = replayed;
+  }
+
+  /** The appointment as a plain create returns it, as it is now for a replay **/
+  public AppointmentResponse getAppointment() {
+    return appointment;
+  }
+
+  public Long getAppointmentId() {
+    return appointment.getAppointmentId();
+  }
+
+  public boolean isReplayed() {
+    return replayed;
+  }
+}
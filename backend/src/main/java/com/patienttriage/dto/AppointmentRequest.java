@@ -1,24 +1,45 @@
 package com.patienttriage.dto;
 
+import com.patienttriage.entity.Appointment;
 import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 /**
  * DTO for receiving appointment data from the client.
+ *
+ * A single create may leave doctorId out to have a doctor assigned: the clinic picks the
+ * doctor of the specialty with the earliest free slot at or after appointmentTime. Updates
+ * and bulk imports validate with {@link DoctorRequired} as well, since they need a doctor.
  */
 public class AppointmentRequest {
 
+  /** Validation group for requests that must name the doctor **/
+  public interface DoctorRequired {
+  }
+
   @NotNull(message = "Patient ID is required")
   private Long patientId;
 
-  @NotNull(message = "Doctor ID is required")
+  @NotNull(message = "Doctor ID is required", groups = DoctorRequired.class)
   private Long doctorId;
 
+  // Only without doctorId: defaults to the specialty of the triage queue the patient waits in
+  @Size(max = 100, message = "Specialty must be at most 100 characters")
+  private String specialty;
+
   @NotNull(message = "Appointment time is required")
   @Future(message = "Appointment time must be in the future")
   private LocalDateTime appointmentTime; // frontend must use format like: "2025-11-21T14:00:00"
 
+  // Optional: defaults to 30 minutes on create, and keeps the current length on update
+  @Min(value = 1, message = "Duration must be at least 1 minute")
+  @Max(value = Appointment.MAX_DURATION_MINUTES, message = "Duration must be at most 480 minutes")
+  private Integer durationMinutes;
+
   private String reason; // Optional field
 
   public Long getPatientId() {
@@ -37,6 +58,14 @@ public class AppointmentRequest {
     this.doctorId = doctorId;
   }
 
+  public String getSpecialty() {
+    return specialty;
+  }
+
+  public void setSpecialty(String specialty) {
+    this.specialty = specialty;
+  }
+
   public LocalDateTime getAppointmentTime() {
     return appointmentTime;
   }
@@ -45,6 +74,14 @@ public class AppointmentRequest {
     this.appointmentTime = appointmentTime;
   }
 
+  public Integer getDurationMinutes() {
+    return durationMinutes;
+  }
+
+  public void setDurationMinutes(Integer durationMinutes) {
+    this.durationMinutes = durationMinutes;
+  }
+
   public String getReason() {
     return reason;
   }
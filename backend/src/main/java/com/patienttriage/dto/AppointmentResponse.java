@@ -13,6 +13,7 @@ public class AppointmentResponse {
   private Long patientId;
   private Long doctorId;
   private LocalDateTime appointmentTime;
+  private LocalDateTime endTime;
   private String reason;
   private AppointmentStatus status;
   private LocalDateTime createdAt;
@@ -80,6 +81,14 @@ public class AppointmentResponse {
     this.appointmentTime = appointmentTime;
   }
 
+  public LocalDateTime getEndTime() {
+    return endTime;
+  }
+
+  public void setEndTime(LocalDateTime endTime) {
+    this.endTime = endTime;
+  }
+
   public String getReason() {
     return reason;
   }
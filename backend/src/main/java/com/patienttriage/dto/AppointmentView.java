@@ -0,0 +1,88 @@
+package com.patienttriage.dto;
+
+import com.patienttriage.entity.AppointmentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only row for appointment listing, filled directly by a JPQL constructor
+ * expression (no Appointment/User/profile entities are loaded).
+ * Subclasses add the profile columns a given role is allowed to see.
+ */
+public abstract class AppointmentView {
+
+  private final Long appointmentId;
+  private final Long patientId;
+  private final Long doctorId;
+  private final LocalDateTime appointmentTime;
+  private final LocalDateTime endTime;
+  private final String reason;
+  private final AppointmentStatus status;
+  private final LocalDateTime createdAt;
+
+  protected AppointmentView(Long appointmentId, Long patientId, Long doctorId,
+      LocalDateTime appointmentTime, LocalDateTime endTime, String reason,
+      AppointmentStatus status, LocalDateTime createdAt) {
+    this.appointmentId = appointmentId;
+    this.patientId = patientId;
+    this.doctorId = doctorId;
+    this.appointmentTime = appointmentTime;
+    this.endTime = endTime;
+    this.reason = reason;
+    this.status = status;
+    this.createdAt = createdAt;
+  }
+
+  public Long getAppointmentId() {
+    return appointmentId;
+  }
+
+  public Long getPatientId() {
+    return patientId;
+  }
+
+  public Long getDoctorId() {
+    return doctorId;
+  }
+
+  public LocalDateTime getAppointmentTime() {
+    return appointmentTime;
+  }
+
+  public LocalDateTime getEndTime() {
+    return endTime;
+  }
+
+  public String getReason() {
+    return reason;
+  }
+
+  public AppointmentStatus getStatus() {
+    return status;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  /** Cursor pointing at this row, for the next page **/
+  public AppointmentCursor toCursor() {
+    return new AppointmentCursor(appointmentTime, appointmentId);
+  }
+
+  /** Convert to the API response for the role this view was selected for **/
+  public abstract AppointmentResponse toResponse();
+
+  /** Copy the columns every role sees **/
+  protected AppointmentResponse baseResponse() {
+    AppointmentResponse dto = new AppointmentResponse();
+    dto.setAppointmentId(appointmentId);
+    dto.setPatientId(patientId);
+    dto.setDoctorId(doctorId);
+    dto.setAppointmentTime(appointmentTime);
+    dto.setEndTime(endTime);
+    dto.setReason(reason);
+    dto.setStatus(status);
+    dto.setCreatedAt(createdAt);
+    return dto;
+  }
+}
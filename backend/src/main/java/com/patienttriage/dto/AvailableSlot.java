@@ -0,0 +1,25 @@
+package com.patienttriage.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one free slot in a doctor's schedule, [start, end).
+ */
+public class AvailableSlot {
+
+  private final LocalDateTime start;
+  private final LocalDateTime end;
+
+  public AvailableSlot(LocalDateTime start, LocalDateTime end) {
+    this.start = start;
+    this.end = end;
+  }
+
+  public LocalDateTime getStart() {
+    return start;
+  }
+
+  public LocalDateTime getEnd() {
+    return end;
+  }
+}
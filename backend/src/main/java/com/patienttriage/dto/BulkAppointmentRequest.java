@@ -0,0 +1,28 @@
+package com.patienttriage.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO for importing many appointments in one request (e.g. a clinic's whole day).
+ */
+public class BulkAppointmentRequest {
+
+  /** Most appointments accepted in one import **/
+  public static final int MAX_APPOINTMENTS = 1000;
+
+  @Valid
+  @NotEmpty(message = "At least one appointment is required")
+  @Size(max = MAX_APPOINTMENTS, message = "At most 1000 appointments can be imported at once")
+  private List<AppointmentRequest> appointments;
+
+  public List<AppointmentRequest> getAppointments() {
+    return appointments;
+  }
+
+  public void setAppointments(List<AppointmentRequest> appointments) {
+    this.appointments = appointments;
+  }
+}
@@ -0,0 +1,62 @@
+package com.patienttriage.dto;
+
+import com.patienttriage.entity.AppointmentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Appointment row as seen by a DOCTOR or an ADMIN: the appointment plus the full
+ * patient and doctor profiles. Both roles currently see the same columns, so they
+ * share this shape; only the query scope differs.
+ */
+public class ClinicianAppointmentView extends AppointmentView {
+
+  private final PatientInfo patientInfo;
+  private final DoctorInfo doctorInfo;
+
+  // Used by the JPQL constructor expression in AppointmentRepository.
+  // Profile columns are null when the profile does not exist (LEFT JOIN).
+  public ClinicianAppointmentView(Long appointmentId, Long patientId, Long doctorId,
+      LocalDateTime appointmentTime, LocalDateTime endTime, String reason,
+      AppointmentStatus status, LocalDateTime createdAt,
+      String patientFirstName, String patientLastName, Integer patientAge,
+      String patientGender, String patientSymptom, String patientMedicalHistory,
+      String patientAllergies, String patientCurrentMedications, String patientTriagePriority,
+      String doctorFirstName, String doctorLastName, String doctorSpecialty,
+      String doctorLicenseNumber, String doctorWorkTime) {
+    super(appointmentId, patientId, doctorId, appointmentTime, endTime, reason, status, createdAt);
+    this.patientInfo = new PatientInfo(
+        patientId,
+        patientFirstName,
+        patientLastName,
+        patientAge != null ? patientAge : 0,
+        patientGender,
+        patientSymptom,
+        patientMedicalHistory,
+        patientAllergies,
+        patientCurrentMedications,
+        patientTriagePriority);
+    this.doctorInfo = new DoctorInfo(
+        doctorId,
+        doctorFirstName,
+        doctorLastName,
+        doctorSpecialty,
+        doctorLicenseNumber,
+        doctorWorkTime);
+  }
+
+  public PatientInfo getPatientInfo() {
+    return patientInfo;
+  }
+
+  public DoctorInfo getDoctorInfo() {
+    return doctorInfo;
+  }
+
+  @Override
+  public AppointmentResponse toResponse() {
+    AppointmentResponse dto = baseResponse();
+    dto.setPatientInfo(patientInfo);
+    dto.setDoctorInfo(doctorInfo);
+    return dto;
+  }
+}
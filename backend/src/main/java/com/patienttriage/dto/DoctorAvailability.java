@@ -0,0 +1,49 @@
+package com.patienttriage.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for a doctor's free slots between two dates, in time order.
+ */
+public class DoctorAvailability {
+
+  private final Long doctorId;
+  private final LocalDate from;
+  private final LocalDate to; // exclusive
+  private final int slotMinutes;
+  private final List<AvailableSlot> slots;
+
+  public DoctorAvailability(Long doctorId, LocalDate from, LocalDate to, int slotMinutes,
+                            List<AvailableSlot> slots) {
+    this.doctorId = doctorId;
+    this.from = from;
+    this.to = to;
+    this.slotMinutes = slotMinutes;
+    this.slots = slots;
+  }
+
+  public Long getDoctorId() {
+    return doctorId;
+  }
+
+  public LocalDate getFrom() {
+    return from;
+  }
+
+  public LocalDate getTo() {
+    return to;
+  }
+
+  public int getSlotMinutes() {
+    return slotMinutes;
+  }
+
+  public List<AvailableSlot> getSlots() {
+    return slots;
+  }
+
+  public int getCount() {
+    return slots.size();
+  }
+}
@@ -0,0 +1,54 @@
+package com.patienttriage.dto;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for cancelling or reassigning all of a doctor's scheduled appointments in a time
+ * window at once (e.g. when the doctor calls in sick).
+ */
+public class DoctorScheduleChangeRequest {
+
+  @NotNull(message = "Doctor ID is required")
+  private Long doctorId;
+
+  @NotNull(message = "'from' is required")
+  private LocalDateTime from; // inclusive, on appointment start
+
+  @NotNull(message = "'to' is required")
+  private LocalDateTime to; // exclusive, on appointment start
+
+  private Long newDoctorId; // Only for reassigning
+
+  public Long getDoctorId() {
+    return doctorId;
+  }
+
+  public void setDoctorId(Long doctorId) {
+    this.doctorId = doctorId;
+  }
+
+  public LocalDateTime getFrom() {
+    return from;
+  }
+
+  public void setFrom(LocalDateTime from) {
+    this.from = from;
+  }
+
+  public LocalDateTime getTo() {
+    return to;
+  }
+
+  public void setTo(LocalDateTime to) {
+    this.to = to;
+  }
+
+  public Long getNewDoctorId() {
+    return newDoctorId;
+  }
+
+  public void setNewDoctorId(Long newDoctorId) {
+    this.newDoctorId = newDoctorId;
+  }
+}
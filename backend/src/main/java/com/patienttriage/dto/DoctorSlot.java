@@ -0,0 +1,50 @@
+package com.patienttriage.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a free slot together with the doctor it belongs to, used when searching
+ * several doctors at once.
+ */
+public class DoctorSlot {
+
+  private final Long doctorId;
+  private final String doctorFirstName;
+  private final String doctorLastName;
+  private final String specialty;
+  private final LocalDateTime start;
+  private final LocalDateTime end;
+
+  public DoctorSlot(DoctorInfo doctor, AvailableSlot slot) {
+    this.doctorId = doctor.getDoctorId();
+    this.doctorFirstName = doctor.getFirstName();
+    this.doctorLastName = doctor.getLastName();
+    this.specialty = doctor.getSpecialty();
+    this.start = slot.getStart();
+    this.end = slot.getEnd();
+  }
+
+  public Long getDoctorId() {
+    return doctorId;
+  }
+
+  public String getDoctorFirstName() {
+    return doctorFirstName;
+  }
+
+  public String getDoctorLastName() {
+    return doctorLastName;
+  }
+
+  public String getSpecialty() {
+    return specialty;
+  }
+
+  public LocalDateTime getStart() {
+    return start;
+  }
+
+  public LocalDateTime getEnd() {
+    return end;
+  }
+}
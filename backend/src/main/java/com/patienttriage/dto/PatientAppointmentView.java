@@ -0,0 +1,34 @@
+package com.patienttriage.dto;
+
+import com.patienttriage.entity.AppointmentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Appointment row as seen by a PATIENT: the appointment plus the doctor's name and
+ * specialty only. No patient profile columns are selected.
+ */
+public class PatientAppointmentView extends AppointmentView {
+
+  private final String doctorFirstName;
+  private final String doctorLastName;
+  private final String doctorSpecialty;
+
+  // Used by the JPQL constructor expression in AppointmentRepository
+  public PatientAppointmentView(Long appointmentId, Long patientId, Long doctorId,
+      LocalDateTime appointmentTime, LocalDateTime endTime, String reason,
+      AppointmentStatus status, LocalDateTime createdAt, String doctorFirstName, String doctorLastName,
+      String doctorSpecialty) {
+    super(appointmentId, patientId, doctorId, appointmentTime, endTime, reason, status, createdAt);
+    this.doctorFirstName = doctorFirstName;
+    this.doctorLastName = doctorLastName;
+    this.doctorSpecialty = doctorSpecialty;
+  }
+
+  @Override
+  public AppointmentResponse toResponse() {
+    AppointmentResponse dto = baseResponse();
+    // columns are null when the doctor has no profile yet
+    dto.setLimitedDoctorInfo(new LimitedDoctorInfo(doctorFirstName, doctorLastName, doctorSpecialty));
+    return dto;
+  }
+}
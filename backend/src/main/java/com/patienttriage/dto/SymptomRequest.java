@@ -0,0 +1,22 @@
+package com.patienttriage.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO for a patient describing their current symptom.
+ */
+public class SymptomRequest {
+
+  @NotBlank(message = "Symptom is required")
+  @Size(max = 2000, message = "Symptom must be at most 2000 characters")
+  private String symptom;
+
+  public String getSymptom() {
+    return symptom;
+  }
+
+  public void setSymptom(String symptom) {
+    this.symptom = symptom;
+  }
+}
@@ -0,0 +1,25 @@
+package com.patienttriage.dto;
+
+/**
+ * DTO for a patient's place in a triage queue, pushed whenever it changes. A null position
+ * means the patient no longer waits in that queue (taken by a doctor or left).
+ */
+public class TriageQueuePosition {
+
+  private final String specialty;
+  private final Integer position;
+
+  public TriageQueuePosition(String specialty, Integer position) {
+    this.specialty = specialty;
+    this.position = position;
+  }
+
+  public String getSpecialty() {
+    return specialty;
+  }
+
+  /** 1 for the next patient in line, null once no longer waiting **/
+  public Integer getPosition() {
+    return position;
+  }
+}
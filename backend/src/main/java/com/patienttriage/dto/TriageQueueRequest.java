@@ -0,0 +1,33 @@
+package com.patienttriage.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO for adding a patient to a specialty's triage queue.
+ */
+public class TriageQueueRequest {
+
+  @NotBlank(message = "Specialty is required")
+  @Size(max = 100, message = "Specialty must be at most 100 characters")
+  private String specialty;
+
+  // optional for patients (themselves), required for admins
+  private Long patientId;
+
+  public String getSpecialty() {
+    return specialty;
+  }
+
+  public void setSpecialty(String specialty) {
+    this.specialty = specialty;
+  }
+
+  public Long getPatientId() {
+    return patientId;
+  }
+
+  public void setPatientId(Long patientId) {
+    this.patientId = patientId;
+  }
+}
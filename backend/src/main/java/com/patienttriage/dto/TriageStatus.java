@@ -0,0 +1,36 @@
+package com.patienttriage.dto;
+
+/**
+ * DTO for where a patient's triage stands: their symptom and, once evaluated, its priority.
+ */
+public class TriageStatus {
+
+  private final Long patientId;
+  private final String symptom;
+  private final String triagePriority;
+  private final boolean pending;
+
+  public TriageStatus(Long patientId, String symptom, String triagePriority) {
+    this.patientId = patientId;
+    this.symptom = symptom;
+    this.triagePriority = triagePriority;
+    this.pending = symptom != null && triagePriority == null;
+  }
+
+  public Long getPatientId() {
+    return patientId;
+  }
+
+  public String getSymptom() {
+    return symptom;
+  }
+
+  public String getTriagePriority() {
+    return triagePriority;
+  }
+
+  /** True while the symptom is waiting for its evaluation **/
+  public boolean isPending() {
+    return pending;
+  }
+}
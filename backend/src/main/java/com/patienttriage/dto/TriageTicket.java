@@ -0,0 +1,64 @@
+package com.patienttriage.dto;
+
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.triage.TriageQueue;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a patient waiting in a triage queue, with enough of the profile for a doctor to
+ * decide how to see them.
+ */
+public class TriageTicket {
+
+  private final Long patientId;
+  private final String patientFirstName;
+  private final String patientLastName;
+  private final String symptom;
+  private final String specialty;
+  private final TriagePriority priority;
+  private final LocalDateTime enqueuedAt;
+  private final LocalDateTime dueAt;
+
+  public TriageTicket(TriageQueue.Ticket ticket, PatientInfo patient) {
+    this.patientId = ticket.getPatientId();
+    this.patientFirstName = patient != null ? patient.getFirstName() : null;
+    this.patientLastName = patient != null ? patient.getLastName() : null;
+    this.symptom = patient != null ? patient.getSymptom() : null;
+    this.specialty = ticket.getSpecialty();
+    this.priority = ticket.getPriority();
+    this.enqueuedAt = ticket.getEnqueuedAt();
+    this.dueAt = ticket.getDueAt();
+  }
+
+  public Long getPatientId() {
+    return patientId;
+  }
+
+  public String getPatientFirstName() {
+    return patientFirstName;
+  }
+
+  public String getPatientLastName() {
+    return patientLastName;
+  }
+
+  public String getSymptom() {
+    return symptom;
+  }
+
+  public String getSpecialty() {
+    return specialty;
+  }
+
+  public TriagePriority getPriority() {
+    return priority;
+  }
+
+  public LocalDateTime getEnqueuedAt() {
+    return enqueuedAt;
+  }
+
+  public LocalDateTime getDueAt() {
+    return dueAt;
+  }
+}
@@ -0,0 +1,68 @@
+package com.patienttriage.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for joining the waitlist for cancelled slots of a doctor, or of any doctor of a
+ * specialty, within a time window.
+ */
+public class WaitlistRequest {
+
+  // optional for patients (themselves), required for admins
+  private Long patientId;
+
+  // either doctorId or specialty
+  private Long doctorId;
+
+  @Size(max = 100, message = "Specialty must be at most 100 characters")
+  private String specialty;
+
+  @NotNull(message = "Window start is required")
+  private LocalDateTime from;
+
+  // exclusive
+  @NotNull(message = "Window end is required")
+  private LocalDateTime to;
+
+  public Long getPatientId() {
+    return patientId;
+  }
+
+  public void setPatientId(Long patientId) {
+    this.patientId = patientId;
+  }
+
+  public Long getDoctorId() {
+    return doctorId;
+  }
+
+  public void setDoctorId(Long doctorId) {
+    this.doctorId = doctorId;
+  }
+
+  public String getSpecialty() {
+    return specialty;
+  }
+
+  public void setSpecialty(String specialty) {
+    this.specialty = specialty;
+  }
+
+  public LocalDateTime getFrom() {
+    return from;
+  }
+
+  public void setFrom(LocalDateTime from) {
+    this.from = from;
+  }
+
+  public LocalDateTime getTo() {
+    return to;
+  }
+
+  public void setTo(LocalDateTime to) {
+    this.to = to;
+  }
+}
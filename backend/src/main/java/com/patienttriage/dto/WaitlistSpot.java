@@ -0,0 +1,63 @@
+package com.patienttriage.dto;
+
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.WaitlistEntry;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a patient's place on the waitlist for cancelled slots.
+ */
+public class WaitlistSpot {
+
+  private final Long id;
+  private final Long patientId;
+  private final Long doctorId;
+  private final String specialty;
+  private final LocalDateTime from;
+  private final LocalDateTime to;
+  private final TriagePriority priority;
+  private final LocalDateTime createdAt;
+
+  public WaitlistSpot(WaitlistEntry entry) {
+    this.id = entry.getId();
+    this.patientId = entry.getPatientId();
+    this.doctorId = entry.getDoctorId();
+    this.specialty = entry.getSpecialty();
+    this.from = entry.getWindowStart();
+    this.to = entry.getWindowEnd();
+    this.priority = entry.getPriority();
+    this.createdAt = entry.getCreatedAt();
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getPatientId() {
+    return patientId;
+  }
+
+  public Long getDoctorId() {
+    return doctorId;
+  }
+
+  public String getSpecialty() {
+    return specialty;
+  }
+
+  public LocalDateTime getFrom() {
+    return from;
+  }
+
+  public LocalDateTime getTo() {
+    return to;
+  }
+
+  public TriagePriority getPriority() {
+    return priority;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+}
@@ -10,6 +10,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
@@ -20,8 +21,20 @@ import java.time.LocalDateTime;
 @Table(name = "appointments")
 public class Appointment {
 
+  /** Length of an appointment when the client does not give one **/
+  public static final int DEFAULT_DURATION_MINUTES = 30;
+  /** Longest allowed appointment; also enforced by a CHECK constraint in init.sql **/
+  public static final int MAX_DURATION_MINUTES = 480;
+
+  /** Ids handed out per sequence call; must match the sequence's INCREMENT BY in init.sql **/
+  public static final int ID_ALLOCATION_SIZE = 50;
+
+  // ids come from a sequence rather than IDENTITY so Hibernate can batch inserts, and the
+  // pooled optimizer takes ID_ALLOCATION_SIZE ids per nextval call
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_id_seq")
+  @SequenceGenerator(name = "appointments_id_seq", sequenceName = "appointments_id_seq",
+      allocationSize = ID_ALLOCATION_SIZE)
   // appointment id, different appointment have different id
   private Long id;
 
@@ -50,6 +63,11 @@ public class Appointment {
   @Column(name = "appointment_time", nullable = false)
   private LocalDateTime appointmentTime;
 
+  // exclusive end of the appointment; [appointmentTime, endTime) must not overlap another
+  // scheduled appointment of the same doctor or patient (exclusion constraints in init.sql)
+  @Column(name = "end_time", nullable = false)
+  private LocalDateTime endTime;
+
   @Column(name = "reason")
   private String reason;
 
@@ -63,9 +81,15 @@ public class Appointment {
   public Appointment() {}
 
   public Appointment(User user, User doctor, LocalDateTime appointmentTime, String reason) {
+    this(user, doctor, appointmentTime, appointmentTime.plusMinutes(DEFAULT_DURATION_MINUTES), reason);
+  }
+
+  public Appointment(User user, User doctor, LocalDateTime appointmentTime, LocalDateTime endTime,
+      String reason) {
     this.patient = user;
     this.doctor = doctor;
     this.appointmentTime = appointmentTime;
+    this.endTime = endTime;
     this.reason = reason;
   }
 
@@ -98,6 +122,14 @@ public class Appointment {
     this.appointmentTime = appointmentTime;
   }
 
+  public LocalDateTime getEndTime() {
+    return endTime;
+  }
+
+  public void setEndTime(LocalDateTime endTime) {
+    this.endTime = endTime;
+  }
+
   public String getReason() {
     return reason;
   }
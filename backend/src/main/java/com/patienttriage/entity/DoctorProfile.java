@@ -1,7 +1,9 @@
 package com.patienttriage.entity;
 
+import com.patienttriage.cache.ProfileCacheInvalidationListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.MapsId;
@@ -12,6 +14,7 @@ import jakarta.persistence.Table;
  * Entity representing a doctor profile with professional information.
  */
 @Entity
+@EntityListeners(ProfileCacheInvalidationListener.class) // keeps ProfileCache in sync
 @Table(name = "doctor_profile")
 public class DoctorProfile {
   @Id
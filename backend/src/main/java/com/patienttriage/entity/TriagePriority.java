@@ -0,0 +1,40 @@
+package com.patienttriage.entity;
+
+import java.util.Locale;
+
+/**
+ * Enum representing triage priority levels, most urgent first.
+ */
+public enum TriagePriority {
+  HIGH("High"),
+  MEDIUM("Medium"),
+  LOW("Low");
+
+  private final String label;
+
+  TriagePriority(String label) {
+    this.label = label;
+  }
+
+  /** How the priority is stored in patient_profile.triage_priority **/
+  public String getLabel() {
+    return label;
+  }
+
+  /**
+   * Parses a stored triage priority ("High", "medium", ...), ignoring case and whitespace.
+   *
+   * @param value the stored value, may be null
+   * @return the priority, or null if the value is missing or not a known level
+   */
+  public static TriagePriority parse(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.patienttriage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a patient waiting in a specialty's triage queue. A patient waits in
+ * at most one queue at a time.
+ */
+@Entity
+@Table(name = "triage_queue")
+public class TriageQueueEntry {
+  @Id
+  @Column(name = "patient_id")
+  private Long patientId;
+
+  // normalized to lower case, see TriageQueue#key
+  @Column(name = "specialty", nullable = false, length = 100)
+  private String specialty;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "priority", nullable = false, length = 20)
+  private TriagePriority priority;
+
+  @Column(name = "enqueued_at", nullable = false)
+  private LocalDateTime enqueuedAt;
+
+  public TriageQueueEntry() {}
+
+  public Long getPatientId() {
+    return patientId;
+  }
+
+  public String getSpecialty() {
+    return specialty;
+  }
+
+  public TriagePriority getPriority() {
+    return priority;
+  }
+
+  public LocalDateTime getEnqueuedAt() {
+    return enqueuedAt;
+  }
+}
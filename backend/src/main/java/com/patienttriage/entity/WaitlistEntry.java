@@ -0,0 +1,94 @@
+package com.patienttriage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a patient waiting for a cancelled slot of one doctor, or of any doctor
+ * of a specialty, within a time window.
+ */
+@Entity
+@Table(name = "waitlist")
+public class WaitlistEntry {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(nullable = false, updatable = false)
+  private Long id;
+
+  @Column(name = "patient_id", nullable = false)
+  private Long patientId;
+
+  // either doctorId or specialty is set
+  @Column(name = "doctor_id")
+  private Long doctorId;
+
+  // normalized to lower case, see TriageQueue#key
+  @Column(name = "specialty", length = 100)
+  private String specialty;
+
+  @Column(name = "window_start", nullable = false)
+  private LocalDateTime windowStart;
+
+  // exclusive
+  @Column(name = "window_end", nullable = false)
+  private LocalDateTime windowEnd;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "priority", nullable = false, length = 20)
+  private TriagePriority priority;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  public WaitlistEntry() {}
+
+  public WaitlistEntry(Long patientId, Long doctorId, String specialty, LocalDateTime windowStart,
+      LocalDateTime windowEnd, TriagePriority priority, LocalDateTime createdAt) {
+    this.patientId = patientId;
+    this.doctorId = doctorId;
+    this.specialty = specialty;
+    this.windowStart = windowStart;
+    this.windowEnd = windowEnd;
+    this.priority = priority;
+    this.createdAt = createdAt;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getPatientId() {
+    return patientId;
+  }
+
+  public Long getDoctorId() {
+    return doctorId;
+  }
+
+  public String getSpecialty() {
+    return specialty;
+  }
+
+  public LocalDateTime getWindowStart() {
+    return windowStart;
+  }
+
+  public LocalDateTime getWindowEnd() {
+    return windowEnd;
+  }
+
+  public TriagePriority getPriority() {
+    return priority;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+}
@@ -0,0 +1,54 @@
+package com.patienttriage.event;
+
+/**
+ * Published by the appointment service whenever an appointment is created, updated or
+ * cancelled. Listeners that keep derived state (e.g. the slot index) should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+public class AppointmentChangedEvent {
+
+  /** What happened to the appointment **/
+  public enum Type {
+    CREATED,
+    UPDATED,
+    CANCELLED
+  }
+
+  private final Type type;
+  private final AppointmentSnapshot before; // null for CREATED
+  private final AppointmentSnapshot after;
+
+  public AppointmentChangedEvent(Type type, AppointmentSnapshot before, AppointmentSnapshot after) {
+    this.type = type;
+    this.before = before;
+    this.after = after;
+  }
+
+  public static AppointmentChangedEvent created(AppointmentSnapshot after) {
+    return new AppointmentChangedEvent(Type.CREATED, null, after);
+  }
+
+  public static AppointmentChangedEvent updated(AppointmentSnapshot before, AppointmentSnapshot after) {
+    return new AppointmentChangedEvent(Type.UPDATED, before, after);
+  }
+
+  public static AppointmentChangedEvent cancelled(AppointmentSnapshot before, AppointmentSnapshot after) {
+    return new AppointmentChangedEvent(Type.CANCELLED, before, after);
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public AppointmentSnapshot getBefore() {
+    return before;
+  }
+
+  public AppointmentSnapshot getAfter() {
+    return after;
+  }
+
+  public Long getAppointmentId() {
+    return after.getAppointmentId();
+  }
+}
@@ -0,0 +1,70 @@
+package com.patienttriage.event;
+
+import com.patienttriage.entity.Appointment;
+import com.patienttriage.entity.AppointmentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the scheduling fields of an appointment at one point in time.
+ * Safe to hand to listeners after the transaction (and the entity) is gone.
+ */
+public class AppointmentSnapshot {
+
+  private final Long appointmentId;
+  private final Long doctorId;
+  private final Long patientId;
+  private final LocalDateTime appointmentTime;
+  private final LocalDateTime endTime;
+  private final AppointmentStatus status;
+
+  // Also used by the JPQL constructor expression in AppointmentRepository
+  public AppointmentSnapshot(Long appointmentId, Long doctorId, Long patientId,
+      LocalDateTime appointmentTime, LocalDateTime endTime, AppointmentStatus status) {
+    this.appointmentId = appointmentId;
+    this.doctorId = doctorId;
+    this.patientId = patientId;
+    this.appointmentTime = appointmentTime;
+    this.endTime = endTime;
+    this.status = status;
+  }
+
+  /** Copy the current state of an appointment (getId() on the lazy User proxies does not load them) **/
+  public static AppointmentSnapshot of(Appointment appointment) {
+    return new AppointmentSnapshot(
+        appointment.getId(),
+        appointment.getDoctor().getId(),
+        appointment.getPatient().getId(),
+        appointment.getAppointmentTime(),
+        appointment.getEndTime(),
+        appointment.getStatus());
+  }
+
+  public Long getAppointmentId() {
+    return appointmentId;
+  }
+
+  public Long getDoctorId() {
+    return doctorId;
+  }
+
+  public Long getPatientId() {
+    return patientId;
+  }
+
+  public LocalDateTime getAppointmentTime() {
+    return appointmentTime;
+  }
+
+  public LocalDateTime getEndTime() {
+    return endTime;
+  }
+
+  public AppointmentStatus getStatus() {
+    return status;
+  }
+
+  /** Whether this appointment still occupies its slot **/
+  public boolean isScheduled() {
+    return status == AppointmentStatus.SCHEDULED;
+  }
+}
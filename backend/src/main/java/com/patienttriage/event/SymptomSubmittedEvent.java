@@ -0,0 +1,19 @@
+package com.patienttriage.event;
+
+/**
+ * Published when a patient submits a new symptom, which clears their triage priority until
+ * it has been evaluated. Listeners should use {@code @TransactionalEventListener} so they
+ * only see committed symptoms.
+ */
+public class SymptomSubmittedEvent {
+
+  private final Long patientId;
+
+  public SymptomSubmittedEvent(Long patientId) {
+    this.patientId = patientId;
+  }
+
+  public Long getPatientId() {
+    return patientId;
+  }
+}
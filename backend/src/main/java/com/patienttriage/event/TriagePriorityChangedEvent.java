@@ -0,0 +1,27 @@
+package com.patienttriage.event;
+
+import com.patienttriage.entity.TriagePriority;
+
+/**
+ * Published when a patient's assessed triage priority is stored, so wherever the patient
+ * already waits at the priority they joined with can move them to the new one. Listeners
+ * should use {@code @TransactionalEventListener} so they only see committed priorities.
+ */
+public class TriagePriorityChangedEvent {
+
+  private final Long patientId;
+  private final TriagePriority priority;
+
+  public TriagePriorityChangedEvent(Long patientId, TriagePriority priority) {
+    this.patientId = patientId;
+    this.priority = priority;
+  }
+
+  public Long getPatientId() {
+    return patientId;
+  }
+
+  public TriagePriority getPriority() {
+    return priority;
+  }
+}
@@ -0,0 +1,20 @@
+package com.patienttriage.event;
+
+/**
+ * Published when a patient joins or leaves a specialty's triage queue, which moves everyone
+ * behind them. Listeners should use {@code @TransactionalEventListener} so they only see
+ * committed changes.
+ */
+public class TriageQueueChangedEvent {
+
+  private final String specialty;
+
+  public TriageQueueChangedEvent(String specialty) {
+    this.specialty = specialty;
+  }
+
+  /** The queue key (lower case), see TriageQueue#key **/
+  public String getSpecialty() {
+    return specialty;
+  }
+}
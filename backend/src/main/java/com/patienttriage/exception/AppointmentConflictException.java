@@ -0,0 +1,16 @@
+package com.patienttriage.exception;
+
+/**
+ * Thrown when an appointment would overlap another scheduled appointment of the same
+ * doctor or patient. Mapped to HTTP 409 Conflict by {@link GlobalExceptionHandler}.
+ */
+public class AppointmentConflictException extends RuntimeException {
+
+  public AppointmentConflictException(String message) {
+    super(message);
+  }
+
+  public AppointmentConflictException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
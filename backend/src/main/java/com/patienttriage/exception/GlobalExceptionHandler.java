@@ -1,5 +1,6 @@
 package com.patienttriage.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -41,6 +42,78 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
   }
 
+  /**
+   * Handles booking conflicts (overlapping appointments).
+   * 
+   * @param ex the conflict exception
+   * @return HTTP 409 Conflict with error message
+   */
+  @ExceptionHandler(AppointmentConflictException.class)
+  public ResponseEntity<Map<String, Object>> handleAppointmentConflict(AppointmentConflictException ex) {
+    Map<String, Object> errors = new HashMap<>();
+    errors.put("timestamp", java.time.Instant.now().toString());
+    errors.put("status", HttpStatus.CONFLICT.value());
+    errors.put("error", "Conflict");
+    errors.put("message", ex.getMessage());
+    
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(errors);
+  }
+
+  /**
+   * Handles an Idempotency-Key reused for a different request.
+   *
+   * @param ex the reuse exception
+   * @return HTTP 422 Unprocessable Entity with error message
+   */
+  @ExceptionHandler(IdempotencyKeyReusedException.class)
+  public ResponseEntity<Map<String, Object>> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+    Map<String, Object> errors = new HashMap<>();
+    errors.put("timestamp", java.time.Instant.now().toString());
+    errors.put("status", HttpStatus.UNPROCESSABLE_ENTITY.value());
+    errors.put("error", "Unprocessable Entity");
+    errors.put("message", ex.getMessage());
+
+    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errors);
+  }
+
+  /**
+   * Handles a username locked out after too many login attempts.
+   *
+   * @param ex the throttling exception
+   * @return HTTP 429 Too Many Requests with error message and Retry-After header
+   */
+  @ExceptionHandler(TooManyLoginAttemptsException.class)
+  public ResponseEntity<Map<String, Object>> handleTooManyLoginAttempts(TooManyLoginAttemptsException ex) {
+    Map<String, Object> errors = new HashMap<>();
+    errors.put("timestamp", java.time.Instant.now().toString());
+    errors.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+    errors.put("error", "Too Many Requests");
+    errors.put("message", ex.getMessage());
+
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+        .body(errors);
+  }
+
+  /**
+   * Handles requests turned away because a worker pool is full.
+   *
+   * @param ex the busy exception
+   * @return HTTP 503 Service Unavailable with error message and Retry-After header
+   */
+  @ExceptionHandler(ServiceBusyException.class)
+  public ResponseEntity<Map<String, Object>> handleServiceBusy(ServiceBusyException ex) {
+    Map<String, Object> errors = new HashMap<>();
+    errors.put("timestamp", java.time.Instant.now().toString());
+    errors.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+    errors.put("error", "Service Unavailable");
+    errors.put("message", ex.getMessage());
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(errors);
+  }
+
   /**
    * Handles runtime exceptions from service layer.
    * 
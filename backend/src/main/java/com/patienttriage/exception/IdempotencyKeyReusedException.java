@@ -0,0 +1,12 @@
+package com.patienttriage.exception;
+
+/**
+ * Thrown when an Idempotency-Key is sent again with a different request body. Mapped to
+ * HTTP 422 Unprocessable Entity by {@link GlobalExceptionHandler}.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+  public IdempotencyKeyReusedException(String message) {
+    super(message);
+  }
+}
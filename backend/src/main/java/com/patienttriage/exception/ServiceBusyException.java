@@ -0,0 +1,12 @@
+package com.patienttriage.exception;
+
+/**
+ * Thrown when a request is turned away because a bounded worker pool is full. Mapped to
+ * HTTP 503 Service Unavailable by {@link GlobalExceptionHandler}.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+  public ServiceBusyException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,20 @@
+package com.patienttriage.exception;
+
+/**
+ * Thrown when a username has had too many login attempts in the current window. Mapped to
+ * HTTP 429 Too Many Requests by {@link GlobalExceptionHandler}, with a Retry-After header.
+ */
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  public TooManyLoginAttemptsException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /** Seconds until the username may try again **/
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,341 @@
+package com.patienttriage.live;
+
+import com.patienttriage.dto.AppointmentDelta;
+import com.patienttriage.dto.TriageQueuePosition;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.event.AppointmentChangedEvent;
+import com.patienttriage.event.TriageQueueChangedEvent;
+import com.patienttriage.triage.TriageQueue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes appointment changes and triage queue positions over Server-Sent Events to the
+ * doctors and patients they concern, so dashboards load their list once instead of polling.
+ *
+ * Changes arrive as application events after commit and are fanned out to every open stream
+ * of the users involved. Each stream (subscriber) has a bounded buffer that publishers only
+ * ever offer to, drained into the connection by a virtual thread of its own, so a slow client
+ * never holds up the booking that caused the change. A subscriber whose buffer is full is
+ * dropped: its stream is closed and the client reconnects and reloads, rather than silently
+ * missing deltas. Heartbeats go through the same buffers, so dead connections are dropped
+ * too. Queue positions are worked out on a worker thread of their own, once per changed
+ * specialty however many changes came in while it waited, so enqueueing or taking a patient
+ * never walks a queue on the request thread. Like the slot index, only changes made through
+ * this JVM are pushed.
+ */
+@Component
+public class LiveUpdateHub implements DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(LiveUpdateHub.class);
+
+  /** SSE event names **/
+  static final String APPOINTMENT_EVENT = "appointment";
+  static final String QUEUE_POSITION_EVENT = "queue-position";
+
+  private static final Message HEARTBEAT = new Message(null, null, 0);
+
+  private final TriageQueue triageQueue;
+  private final int bufferSize;
+  private final Duration timeout;
+  private final Counter dropped;
+
+  private final ConcurrentMap<Long, Channel> channels = new ConcurrentHashMap<>();
+  private final AtomicInteger subscribers = new AtomicInteger();
+  private final AtomicLong sequence = new AtomicLong();
+  // queue positions are compared with the last ones pushed, one specialty at a time
+  private final ExecutorService positionWorker =
+      Executors.newSingleThreadExecutor(Thread.ofVirtual().name("live-positions").factory());
+  // specialties changed since their recompute was handed to the worker
+  private final Set<String> changedSpecialties = ConcurrentHashMap.newKeySet();
+
+  public LiveUpdateHub(TriageQueue triageQueue,
+                       MeterRegistry meterRegistry,
+                       @Value("${triage.live.buffer-size:64}") int bufferSize,
+                       @Value("${triage.live.timeout:30m}") Duration timeout) {
+    this.triageQueue = triageQueue;
+    this.bufferSize = bufferSize;
+    this.timeout = timeout;
+    Gauge.builder("live.subscribers", subscribers, AtomicInteger::get)
+        .description("Open live update streams")
+        .register(meterRegistry);
+    this.dropped = Counter.builder("live.subscribers.dropped")
+        .description("Live update streams closed because the client fell behind")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Opens a live update stream for a doctor (their appointments) or a patient (their
+   * appointments and triage queue position).
+   *
+   * @param userId the user ID
+   * @param role the user's role
+   * @return the stream
+   */
+  public SseEmitter subscribe(Long userId, UserRole role) {
+    return subscribe(userId, role, new SseEmitter(timeout.toMillis()));
+  }
+
+  /** Registers an emitter made by the caller **/
+  SseEmitter subscribe(Long userId, UserRole role, SseEmitter emitter) {
+    if (role != UserRole.DOCTOR && role != UserRole.PATIENT) {
+      throw new IllegalArgumentException("Live updates are only available to doctors and patients.");
+    }
+    Subscriber subscriber = new Subscriber(userId, emitter, bufferSize);
+    channels.compute(userId, (id, channel) -> {
+      Channel open = channel != null ? channel : new Channel(role);
+      open.subscribers.add(subscriber);
+      return open;
+    });
+    subscribers.incrementAndGet();
+    emitter.onCompletion(() -> close(subscriber));
+    emitter.onTimeout(() -> close(subscriber));
+    emitter.onError(e -> close(subscriber));
+    subscriber.thread = Thread.ofVirtual().name("live-updates-" + userId).unstarted(() -> drain(subscriber));
+    subscriber.thread.start();
+
+    if (role == UserRole.PATIENT) {
+      onPositionWorker(() -> sendCurrentPosition(subscriber));
+    }
+    return emitter;
+  }
+
+  /** Push an appointment change to its doctor and patient, before and after **/
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAppointmentChanged(AppointmentChangedEvent event) {
+    Set<Long> recipients = new LinkedHashSet<>();
+    recipients.add(event.getAfter().getDoctorId());
+    recipients.add(event.getAfter().getPatientId());
+    if (event.getBefore() != null) {
+      recipients.add(event.getBefore().getDoctorId());
+    }
+    Message message = new Message(APPOINTMENT_EVENT, new AppointmentDelta(event), sequence.incrementAndGet());
+    for (Long userId : recipients) {
+      Channel channel = channels.get(userId);
+      if (channel != null) {
+        channel.subscribers.forEach(subscriber -> offer(subscriber, message));
+      }
+    }
+  }
+
+  /**
+   * Records a queue change and leaves the new positions to the position worker. A specialty
+   * already waiting for a recompute is not queued again: that recompute sees this change too.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTriageQueueChanged(TriageQueueChangedEvent event) {
+    String specialty = event.getSpecialty();
+    if (changedSpecialties.add(specialty)) {
+      onPositionWorker(() -> {
+        // from here on a change queues another recompute
+        changedSpecialties.remove(specialty);
+        pushPositions(specialty);
+      });
+    }
+  }
+
+  /** Keeps idle streams open through proxies and finds dead ones **/
+  @Scheduled(fixedDelayString = "${triage.live.heartbeat-interval:PT30S}")
+  public void heartbeat() {
+    channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> offer(subscriber, HEARTBEAT)));
+  }
+
+  /** Number of open streams **/
+  public int size() {
+    return subscribers.get();
+  }
+
+  @Override
+  public void destroy() {
+    positionWorker.shutdownNow();
+    channels.values().forEach(channel -> channel.subscribers.forEach(this::close));
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  /** Runs a position task on the worker, unless shutting down **/
+  private void onPositionWorker(Runnable task) {
+    try {
+      positionWorker.execute(() -> {
+        try {
+          task.run();
+        } catch (RuntimeException e) {
+          log.warn("Pushing triage queue positions failed", e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // shutting down, the streams are being closed
+    }
+  }
+
+  /**
+   * Pushes new positions to the subscribed patients of a queue that changed, and a null
+   * position to those who no longer wait in it. Walks the queue once, and only when a
+   * subscribed patient is affected. Runs on the position worker.
+   */
+  private void pushPositions(String specialty) {
+    Map<Long, Channel> affected = new HashMap<>();
+    channels.forEach((userId, channel) -> {
+      if (channel.role != UserRole.PATIENT) {
+        return;
+      }
+      TriageQueue.Ticket ticket = triageQueue.find(userId);
+      boolean waits = ticket != null && ticket.getSpecialty().equals(specialty);
+      boolean waited = channel.position != null && channel.position.getSpecialty().equals(specialty);
+      if (waits || waited) {
+        affected.put(userId, channel);
+      }
+    });
+    if (affected.isEmpty()) {
+      return;
+    }
+
+    Map<Long, Integer> positions = triageQueue.positions(specialty, affected.keySet());
+    affected.forEach((userId, channel) -> {
+      Integer position = positions.get(userId);
+      TriageQueuePosition last = channel.position;
+      Integer lastHere = last != null && last.getSpecialty().equals(specialty) ? last.getPosition() : null;
+      if (Objects.equals(lastHere, position)) {
+        return;
+      }
+      TriageQueuePosition next = new TriageQueuePosition(specialty, position);
+      channel.position = position != null ? next : null;
+      Message message = new Message(QUEUE_POSITION_EVENT, next, sequence.incrementAndGet());
+      channel.subscribers.forEach(subscriber -> offer(subscriber, message));
+    });
+  }
+
+  /** A patient's first event: where they wait now, if anywhere. Runs on the position worker **/
+  private void sendCurrentPosition(Subscriber subscriber) {
+    TriageQueue.Ticket ticket = triageQueue.find(subscriber.userId);
+    Channel channel = channels.get(subscriber.userId);
+    if (ticket == null || channel == null || subscriber.closed.get()) {
+      return;
+    }
+    Integer position = triageQueue.positions(ticket.getSpecialty(), Set.of(subscriber.userId))
+        .get(subscriber.userId);
+    if (position == null) {
+      return; // taken in the meantime
+    }
+    channel.position = new TriageQueuePosition(ticket.getSpecialty(), position);
+    offer(subscriber, new Message(QUEUE_POSITION_EVENT, channel.position, sequence.incrementAndGet()));
+  }
+
+  /** Never blocks: a subscriber that cannot take the message is dropped **/
+  private void offer(Subscriber subscriber, Message message) {
+    if (!subscriber.buffer.offer(message)) {
+      dropped.increment();
+      log.debug("Dropping live update stream of user {}: {} messages behind", subscriber.userId, bufferSize);
+      close(subscriber);
+    }
+  }
+
+  private void drain(Subscriber subscriber) {
+    try {
+      while (!subscriber.closed.get()) {
+        Message message = subscriber.buffer.take();
+        subscriber.emitter.send(message.toEvent());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException | IllegalStateException e) {
+      // the client went away
+    } finally {
+      close(subscriber);
+      // completing here rather than in close(): a stalled send holds the emitter's lock
+      subscriber.emitter.complete();
+    }
+  }
+
+  private void close(Subscriber subscriber) {
+    if (!subscriber.closed.compareAndSet(false, true)) {
+      return;
+    }
+    channels.computeIfPresent(subscriber.userId, (id, channel) -> {
+      channel.subscribers.remove(subscriber);
+      return channel.subscribers.isEmpty() ? null : channel;
+    });
+    subscribers.decrementAndGet();
+    Thread thread = subscriber.thread;
+    if (thread != null && thread != Thread.currentThread()) {
+      thread.interrupt(); // a drain thread not started yet stops on the closed flag
+    }
+  }
+
+  /** The open streams of one user, and the queue position last pushed to them **/
+  private static final class Channel {
+    private final UserRole role;
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    private volatile TriageQueuePosition position; // only set on the position worker
+
+    Channel(UserRole role) {
+      this.role = role;
+    }
+  }
+
+  /** One open stream **/
+  private static final class Subscriber {
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Message> buffer;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile Thread thread;
+
+    Subscriber(Long userId, SseEmitter emitter, int bufferSize) {
+      this.userId = userId;
+      this.emitter = emitter;
+      this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+  }
+
+  /** One event, shared by every subscriber it goes to; a null name is a heartbeat **/
+  private static final class Message {
+    private final String name;
+    private final Object data;
+    private final long id;
+
+    Message(String name, Object data, long id) {
+      this.name = name;
+      this.data = data;
+      this.id = id;
+    }
+
+    // builders collect what they send, so each send gets a new one
+    SseEmitter.SseEventBuilder toEvent() {
+      if (name == null) {
+        return SseEmitter.event().comment("heartbeat");
+      }
+      return SseEmitter.event().id(Long.toString(id)).name(name).data(data, MediaType.APPLICATION_JSON);
+    }
+  }
+}
@@ -1,14 +1,24 @@
 package com.patienttriage.repository;
 
+import com.patienttriage.dto.ClinicianAppointmentView;
+import com.patienttriage.dto.PatientAppointmentView;
 import com.patienttriage.entity.Appointment;
 import com.patienttriage.entity.AppointmentStatus;
+import com.patienttriage.event.AppointmentSnapshot;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository interface for Appointment entity operations.
@@ -69,24 +79,262 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
   List<Appointment> findByDoctor_IdAndStatus(Long doctorId, AppointmentStatus status);
 
   /**
-   * Finds appointments with time conflicts for a doctor.
-   * 
+   * Finds the doctor of an appointment without loading the appointment.
+   *
+   * @param id the appointment ID
+   * @return the doctor ID, or empty if the appointment does not exist
+   */
+  @Query("SELECT a.doctor.id FROM Appointment a WHERE a.id = :id")
+  Optional<Long> findDoctorIdById(@Param("id") Long id);
+
+  /** Bit set in {@link #findConflictMask} when the doctor is already booked **/
+  int DOCTOR_CONFLICT = 1;
+
+  /** Bit set in {@link #findConflictMask} when the patient is already booked **/
+  int PATIENT_CONFLICT = 2;
+
+  /** Scheduled rows overlapping [:start, :end), other than :ignoreId **/
+  String OVERLAPPING_SCHEDULED = "a.status = 'SCHEDULED' "
+      + "AND a.appointment_time > :earliestStart AND a.appointment_time < :end "
+      + "AND a.end_time > :start "
+      + "AND a.id IS DISTINCT FROM :ignoreId";
+
+  /**
+   * Checks in one round trip whether the doctor and/or the patient already have a
+   * scheduled appointment overlapping [start, end). Only SCHEDULED rows count. The
+   * earliestStart bound (start minus the longest allowed appointment) keeps each
+   * EXISTS probe a short range scan on the partial indexes over scheduled rows.
+   *
    * @param doctorId the doctor ID
-   * @param time the appointment time to check
-   * @return list of conflicting appointments
+   * @param patientId the patient ID
+   * @param start inclusive start of the requested slot
+   * @param end exclusive end of the requested slot
+   * @param earliestStart start minus {@link Appointment#MAX_DURATION_MINUTES}
+   * @param ignoreId appointment to leave out (the one being updated), or null
+   * @return {@link #DOCTOR_CONFLICT} and/or {@link #PATIENT_CONFLICT} bits, 0 when the slot is free
    */
-  @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointmentTime = :time")
-  List<Appointment> findConflictsByDoctor(@Param("doctorId") Long doctorId,
-      @Param("time") LocalDateTime time);
+  @Query(value = "SELECT "
+      + "(CASE WHEN EXISTS (SELECT 1 FROM appointments a WHERE a.doctor_id = :doctorId AND "
+      + OVERLAPPING_SCHEDULED + ") THEN " + DOCTOR_CONFLICT + " ELSE 0 END) "
+      + "| (CASE WHEN EXISTS (SELECT 1 FROM appointments a WHERE a.patient_id = :patientId AND "
+      + OVERLAPPING_SCHEDULED + ") THEN " + PATIENT_CONFLICT + " ELSE 0 END)",
+      nativeQuery = true)
+  int findConflictMask(@Param("doctorId") Long doctorId,
+      @Param("patientId") Long patientId,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end,
+      @Param("earliestStart") LocalDateTime earliestStart,
+      @Param("ignoreId") Long ignoreId);
+
+  /** Columns every role sees, in the order the view constructors expect **/
+  String VIEW_COLUMNS = "a.id, a.patient.id, a.doctor.id, a.appointmentTime, a.endTime, a.reason, a.status, a.createdAt";
 
   /**
-   * Finds appointments with time conflicts for a patient.
-   * 
+   * Optional filters and the keyset condition shared by the listing queries.
+   * The casts are needed because PostgreSQL cannot infer the type of a null timestamp
+   * parameter in "? IS NULL".
+   */
+  String PAGE_FILTER = "AND (:status IS NULL OR a.status = :status) "
+      + "AND (CAST(:from AS LocalDateTime) IS NULL OR a.appointmentTime >= :from) "
+      + "AND (CAST(:to AS LocalDateTime) IS NULL OR a.appointmentTime < :to) "
+      + "AND (CAST(:afterTime AS LocalDateTime) IS NULL OR a.appointmentTime > :afterTime "
+      + "     OR (a.appointmentTime = :afterTime AND a.id > :afterId)) "
+      + "ORDER BY a.appointmentTime ASC, a.id ASC";
+
+  /** Full patient and doctor profile columns for the clinician view **/
+  String CLINICIAN_VIEW = "SELECT new com.patienttriage.dto.ClinicianAppointmentView("
+      + VIEW_COLUMNS + ", "
+      + "pp.firstName, pp.lastName, pp.age, pp.gender, pp.symptom, pp.medicalHistory, "
+      + "pp.allergies, pp.currentMedications, pp.triagePriority, "
+      + "dp.firstName, dp.lastName, dp.specialty, dp.licenseNumber, dp.workTime) "
+      + "FROM Appointment a "
+      + "LEFT JOIN PatientProfile pp ON pp.patientId = a.patient.id "
+      + "LEFT JOIN DoctorProfile dp ON dp.doctorId = a.doctor.id ";
+
+  /**
+   * Finds one page of a patient's appointments, ordered by (appointmentTime, id) using
+   * keyset pagination, projected straight into the patient view (doctor name and
+   * specialty only). Every filter is optional and is skipped when null. Pass
+   * {@code PageRequest.of(0, n)} to bound the page; no count query is issued.
+   *
    * @param patientId the patient ID
-   * @param time the appointment time to check
-   * @return list of conflicting appointments
+   * @param status restrict to this status, or null
+   * @param from inclusive lower bound on appointment time, or null
+   * @param to exclusive upper bound on appointment time, or null
+   * @param afterTime appointment time of the last row already returned, or null for the first page
+   * @param afterId id of the last row already returned, or null for the first page
+   * @param pageable page size (the page number should always be 0)
+   * @return the next appointment views after the cursor
+   */
+  @Query("SELECT new com.patienttriage.dto.PatientAppointmentView("
+      + VIEW_COLUMNS + ", dp.firstName, dp.lastName, dp.specialty) "
+      + "FROM Appointment a "
+      + "LEFT JOIN DoctorProfile dp ON dp.doctorId = a.doctor.id "
+      + "WHERE a.patient.id = :patientId "
+      + PAGE_FILTER)
+  List<PatientAppointmentView> findPatientViewPage(@Param("patientId") Long patientId,
+      @Param("status") AppointmentStatus status,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to,
+      @Param("afterTime") LocalDateTime afterTime,
+      @Param("afterId") Long afterId,
+      Pageable pageable);
+
+  /**
+   * Finds one page of a doctor's appointments projected into the clinician view
+   * (full patient and doctor profiles). Same filters and ordering as
+   * {@link #findPatientViewPage}.
+   *
+   * @param doctorId the doctor ID
+   * @param status restrict to this status, or null
+   * @param from inclusive lower bound on appointment time, or null
+   * @param to exclusive upper bound on appointment time, or null
+   * @param afterTime appointment time of the last row already returned, or null for the first page
+   * @param afterId id of the last row already returned, or null for the first page
+   * @param pageable page size (the page number should always be 0)
+   * @return the next appointment views after the cursor
+   */
+  @Query(CLINICIAN_VIEW
+      + "WHERE a.doctor.id = :doctorId "
+      + PAGE_FILTER)
+  List<ClinicianAppointmentView> findDoctorViewPage(@Param("doctorId") Long doctorId,
+      @Param("status") AppointmentStatus status,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to,
+      @Param("afterTime") LocalDateTime afterTime,
+      @Param("afterId") Long afterId,
+      Pageable pageable);
+
+  /**
+   * Finds one page of all appointments projected into the clinician view, for admins.
+   * Same filters and ordering as {@link #findPatientViewPage}.
+   *
+   * @param status restrict to this status, or null
+   * @param from inclusive lower bound on appointment time, or null
+   * @param to exclusive upper bound on appointment time, or null
+   * @param afterTime appointment time of the last row already returned, or null for the first page
+   * @param afterId id of the last row already returned, or null for the first page
+   * @param pageable page size (the page number should always be 0)
+   * @return the next appointment views after the cursor
+   */
+  @Query(CLINICIAN_VIEW
+      + "WHERE 1 = 1 "
+      + PAGE_FILTER)
+  List<ClinicianAppointmentView> findAdminViewPage(@Param("status") AppointmentStatus status,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to,
+      @Param("afterTime") LocalDateTime afterTime,
+      @Param("afterId") Long afterId,
+      Pageable pageable);
+
+  /**
+   * Finds the scheduling fields of every SCHEDULED appointment of the given doctors or
+   * patients that starts in (earliestStart, end), without loading entities. Used to check a
+   * whole batch of new appointments for conflicts with one query.
+   *
+   * @param doctorIds the doctor IDs
+   * @param patientIds the patient IDs
+   * @param earliestStart exclusive lower bound on start (earliest new start minus the longest appointment)
+   * @param end exclusive upper bound on start (latest new end)
+   * @return snapshots of the matching appointments
+   */
+  @Query("SELECT new com.patienttriage.event.AppointmentSnapshot("
+      + "a.id, a.doctor.id, a.patient.id, a.appointmentTime, a.endTime, a.status) "
+      + "FROM Appointment a "
+      + "WHERE a.status = com.patienttriage.entity.AppointmentStatus.SCHEDULED "
+      + "AND (a.doctor.id IN :doctorIds OR a.patient.id IN :patientIds) "
+      + "AND a.appointmentTime > :earliestStart AND a.appointmentTime < :end")
+  List<AppointmentSnapshot> findScheduledSnapshots(@Param("doctorIds") Collection<Long> doctorIds,
+      @Param("patientIds") Collection<Long> patientIds,
+      @Param("earliestStart") LocalDateTime earliestStart,
+      @Param("end") LocalDateTime end);
+
+  /** Scheduling columns of a row changed by a bulk update (RETURNING clause) **/
+  interface ChangedRow {
+    Long getId();
+    Long getDoctorId();
+    Long getPatientId();
+    LocalDateTime getAppointmentTime();
+    LocalDateTime getEndTime();
+  }
+
+  /** A doctor's scheduled rows starting in [:from, :to) **/
+  String DOCTOR_WINDOW = "a.doctor_id = :doctorId AND a.status = 'SCHEDULED' "
+      + "AND a.appointment_time >= :from AND a.appointment_time < :to";
+
+  String RETURNING_CHANGED = " RETURNING a.id AS \"id\", a.doctor_id AS \"doctorId\", "
+      + "a.patient_id AS \"patientId\", a.appointment_time AS \"appointmentTime\", "
+      + "a.end_time AS \"endTime\"";
+
+  /**
+   * Cancels every scheduled appointment of a doctor starting in [from, to) with one
+   * UPDATE statement.
+   *
+   * @param doctorId the doctor ID
+   * @param from inclusive lower bound on appointment time
+   * @param to exclusive upper bound on appointment time
+   * @return the cancelled rows (as they were, apart from the status)
+   */
+  @Transactional
+  @Query(value = "UPDATE appointments a SET status = 'CANCELLED' WHERE " + DOCTOR_WINDOW
+      + RETURNING_CHANGED, nativeQuery = true)
+  List<ChangedRow> cancelScheduledInWindow(@Param("doctorId") Long doctorId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  /**
+   * Moves every scheduled appointment of a doctor starting in [from, to) to another doctor
+   * with one UPDATE statement. The exclusion constraint still rejects overlaps with the new
+   * doctor's appointments; check {@link #findFirstReassignConflict} first for a clear error.
+   *
+   * @param doctorId the doctor ID
+   * @param newDoctorId the doctor taking the appointments over
+   * @param from inclusive lower bound on appointment time
+   * @param to exclusive upper bound on appointment time
+   * @return the moved rows, with the new doctor ID
+   */
+  @Transactional
+  @Query(value = "UPDATE appointments a SET doctor_id = :newDoctorId WHERE " + DOCTOR_WINDOW
+      + RETURNING_CHANGED, nativeQuery = true)
+  List<ChangedRow> reassignScheduledInWindow(@Param("doctorId") Long doctorId,
+      @Param("newDoctorId") Long newDoctorId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  /**
+   * Finds the earliest of a doctor's scheduled appointments in [from, to) that would overlap
+   * one of newDoctorId's scheduled appointments if moved, checking the whole window in one
+   * query (each probe is a short range scan on the partial index over scheduled rows).
+   *
+   * @param doctorId the doctor ID
+   * @param newDoctorId the doctor taking the appointments over
+   * @param from inclusive lower bound on appointment time
+   * @param to exclusive upper bound on appointment time
+   * @return ID of the first appointment that cannot be moved, or empty when all can
+   */
+  @Query(value = "SELECT a.id FROM appointments a WHERE " + DOCTOR_WINDOW + " "
+      + "AND EXISTS (SELECT 1 FROM appointments b WHERE b.doctor_id = :newDoctorId "
+      + "AND b.status = 'SCHEDULED' "
+      + "AND b.appointment_time > a.appointment_time - INTERVAL '" + Appointment.MAX_DURATION_MINUTES + " minutes' "
+      + "AND b.appointment_time < a.end_time AND b.end_time > a.appointment_time) "
+      + "ORDER BY a.appointment_time, a.id LIMIT 1", nativeQuery = true)
+  Optional<Long> findFirstReassignConflict(@Param("doctorId") Long doctorId,
+      @Param("newDoctorId") Long newDoctorId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  /**
+   * Streams the scheduling fields of every appointment with the given status that has not
+   * ended yet, without loading entities. Must be consumed (and closed) inside a transaction.
+   *
+   * @param status the appointment status
+   * @param after only appointments ending after this time
+   * @return stream of appointment snapshots
    */
-  @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.appointmentTime = :time")
-  List<Appointment> findConflictsByPatient(@Param("patientId") Long patientId,
-      @Param("time") LocalDateTime time);
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT new com.patienttriage.event.AppointmentSnapshot("
+      + "a.id, a.doctor.id, a.patient.id, a.appointmentTime, a.endTime, a.status) "
+      + "FROM Appointment a WHERE a.status = :status AND a.endTime > :after")
+  Stream<AppointmentSnapshot> streamSnapshotsEndingAfter(@Param("status") AppointmentStatus status,
+      @Param("after") LocalDateTime after);
 }
@@ -1,7 +1,11 @@
 package com.patienttriage.repository;
 
 import com.patienttriage.entity.DoctorProfile;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -17,4 +21,33 @@ public interface DoctorProfileRepository extends JpaRepository<DoctorProfile, Lo
    * @return the DoctorProfile entity
    */
   DoctorProfile findByDoctor_Id(Long doctorId);
+
+  /**
+   * Finds the doctor profiles for a batch of doctor user IDs in a single query.
+   * The owning User is fetched in the same query so the eager one-to-one
+   * does not trigger a follow-up select per profile.
+   *
+   * @param doctorIds the doctor user IDs
+   * @return the matching DoctorProfile entities (doctors without a profile are absent)
+   */
+  @Query("SELECT d FROM DoctorProfile d JOIN FETCH d.doctor WHERE d.doctorId IN :doctorIds")
+  List<DoctorProfile> findByDoctor_IdIn(@Param("doctorIds") Collection<Long> doctorIds);
+
+  /**
+   * Finds the user IDs of every doctor with the given specialty, ignoring case.
+   *
+   * @param specialty the specialty
+   * @return the doctor user IDs
+   */
+  @Query("SELECT d.doctorId FROM DoctorProfile d WHERE LOWER(d.specialty) = LOWER(:specialty)")
+  List<Long> findDoctorIdsBySpecialty(@Param("specialty") String specialty);
+
+  /**
+   * Returns whether any doctor has the given specialty, ignoring case.
+   *
+   * @param specialty the specialty
+   * @return true if at least one doctor has it
+   */
+  @Query("SELECT COUNT(d) > 0 FROM DoctorProfile d WHERE LOWER(d.specialty) = LOWER(:specialty)")
+  boolean existsBySpecialty(@Param("specialty") String specialty);
 }
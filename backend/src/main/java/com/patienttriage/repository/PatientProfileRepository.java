@@ -1,8 +1,15 @@
 package com.patienttriage.repository;
 
 import com.patienttriage.entity.PatientProfile;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository interface for PatientProfile entity operations.
@@ -17,4 +24,57 @@ public interface PatientProfileRepository extends JpaRepository<PatientProfile,
    * @return the PatientProfile entity
    */
   PatientProfile findByPatient_Id(Long patientId);
+
+  /**
+   * Finds the patient profiles for a batch of patient user IDs in a single query.
+   * The owning User is fetched in the same query so the eager one-to-one
+   * does not trigger a follow-up select per profile.
+   *
+   * @param patientIds the patient user IDs
+   * @return the matching PatientProfile entities (patients without a profile are absent)
+   */
+  @Query("SELECT p FROM PatientProfile p JOIN FETCH p.patient WHERE p.patientId IN :patientIds")
+  List<PatientProfile> findByPatient_IdIn(@Param("patientIds") Collection<Long> patientIds);
+
+  /**
+   * Sets a patient's symptom and clears their triage priority in one statement, creating
+   * the profile if the patient has none yet (with age 0, as the entity's age cannot be null).
+   *
+   * @param patientId the patient user ID
+   * @param symptom the new symptom
+   * @return the number of rows written (1)
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "INSERT INTO patient_profile (patient_id, age, symptom, triage_priority) "
+      + "VALUES (:patientId, 0, :symptom, NULL) "
+      + "ON CONFLICT (patient_id) DO UPDATE SET symptom = EXCLUDED.symptom, triage_priority = NULL",
+      nativeQuery = true)
+  int upsertSymptom(@Param("patientId") Long patientId, @Param("symptom") String symptom);
+
+  /**
+   * Stores the result of a triage evaluation, unless the patient has changed their symptom
+   * or been assessed since the evaluation started.
+   *
+   * @param patientId the patient user ID
+   * @param symptom the symptom that was evaluated
+   * @param triagePriority the priority label to store
+   * @return 1 if stored, 0 if the profile moved on
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE PatientProfile p SET p.triagePriority = :triagePriority "
+      + "WHERE p.patientId = :patientId AND p.symptom = :symptom AND p.triagePriority IS NULL")
+  int updateTriagePriority(@Param("patientId") Long patientId, @Param("symptom") String symptom,
+      @Param("triagePriority") String triagePriority);
+
+  /**
+   * Finds patients with a symptom but no triage priority yet, lowest ID first.
+   *
+   * @param pageable how many to return
+   * @return the patient user IDs
+   */
+  @Query("SELECT p.patientId FROM PatientProfile p "
+      + "WHERE p.symptom IS NOT NULL AND p.triagePriority IS NULL ORDER BY p.patientId")
+  List<Long> findUnassessedPatientIds(Pageable pageable);
 }
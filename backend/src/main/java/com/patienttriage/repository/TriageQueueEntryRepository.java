@@ -0,0 +1,74 @@
+package com.patienttriage.repository;
+
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.TriageQueueEntry;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository interface for TriageQueueEntry entity operations.
+ */
+@Repository
+public interface TriageQueueEntryRepository extends JpaRepository<TriageQueueEntry, Long> {
+
+  /**
+   * Adds a patient to a queue unless the patient is already waiting in one. The primary key
+   * decides between concurrent requests for the same patient.
+   *
+   * @param patientId the patient user ID
+   * @param specialty the normalized specialty
+   * @param priority the priority name
+   * @param enqueuedAt when the patient joined
+   * @return 1 if the patient was added, 0 if already waiting
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "INSERT INTO triage_queue (patient_id, specialty, priority, enqueued_at) "
+      + "VALUES (:patientId, :specialty, :priority, :enqueuedAt) "
+      + "ON CONFLICT (patient_id) DO NOTHING", nativeQuery = true)
+  int insertIfAbsent(@Param("patientId") Long patientId, @Param("specialty") String specialty,
+      @Param("priority") String priority, @Param("enqueuedAt") LocalDateTime enqueuedAt);
+
+  /**
+   * Moves a waiting patient to a new priority.
+   *
+   * @param patientId the patient user ID
+   * @param priority the new priority
+   * @return 1 if the patient waits at another priority, 0 otherwise
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE TriageQueueEntry e SET e.priority = :priority "
+      + "WHERE e.patientId = :patientId AND e.priority <> :priority")
+  int updatePriority(@Param("patientId") Long patientId, @Param("priority") TriagePriority priority);
+
+  /**
+   * Removes a patient from whichever queue they wait in.
+   *
+   * @param patientId the patient user ID
+   * @return 1 if the patient was waiting, 0 otherwise
+   */
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM TriageQueueEntry e WHERE e.patientId = :patientId")
+  int deleteByPatientId(@Param("patientId") Long patientId);
+
+  /**
+   * Streams every waiting patient in arrival order, for rebuilding the in-memory queues.
+   * Must be consumed inside a transaction and closed.
+   *
+   * @return stream of queue entries
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT e FROM TriageQueueEntry e ORDER BY e.enqueuedAt")
+  Stream<TriageQueueEntry> streamAllByArrival();
+}
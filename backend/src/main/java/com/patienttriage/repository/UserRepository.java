@@ -2,9 +2,17 @@ package com.patienttriage.repository;
 
 import com.patienttriage.entity.User;
 import com.patienttriage.entity.UserRole;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -29,8 +37,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
    */
   boolean existsByUsername(String username);
 
+  /**
+   * Streams every username, for building the in-memory username filter. Must be consumed
+   * inside a transaction and closed.
+   *
+   * @return stream of usernames
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT u.username FROM User u")
+  Stream<String> streamAllUsernames();
+
+  /** Id and role of a user, without loading the entity (and its profile associations) **/
+  interface IdAndRole {
+    Long getId();
 
+    UserRole getRole();
+  }
 
+  /**
+   * Finds the roles of a batch of users in a single query.
+   *
+   * @param ids the user IDs
+   * @return id and role of each user that exists
+   */
+  @Query("SELECT u.id AS id, u.role AS role FROM User u WHERE u.id IN :ids")
+  List<IdAndRole> findRolesByIdIn(@Param("ids") Collection<Long> ids);
 }
 
 
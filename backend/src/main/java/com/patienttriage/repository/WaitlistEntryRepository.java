@@ -0,0 +1,78 @@
+package com.patienttriage.repository;
+
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.WaitlistEntry;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository interface for WaitlistEntry entity operations.
+ */
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+  /**
+   * Removes one waitlist entry. The row is the claim on a freed slot: of two callers deleting
+   * the same entry, only one gets 1 back.
+   *
+   * @param id the entry ID
+   * @return 1 if the entry was removed, 0 if it was already gone
+   */
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM WaitlistEntry e WHERE e.id = :id")
+  int deleteEntry(@Param("id") Long id);
+
+  /**
+   * Moves all of a patient's entries to a new priority.
+   *
+   * @param patientId the patient user ID
+   * @param priority the new priority
+   * @return number of entries that were at another priority
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE WaitlistEntry e SET e.priority = :priority "
+      + "WHERE e.patientId = :patientId AND e.priority <> :priority")
+  int updatePriorityByPatientId(@Param("patientId") Long patientId,
+      @Param("priority") TriagePriority priority);
+
+  /**
+   * Removes every entry whose window has ended.
+   *
+   * @param now entries ending at or before this time are removed
+   * @return number of entries removed
+   */
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM WaitlistEntry e WHERE e.windowEnd <= :now")
+  int deleteExpired(@Param("now") LocalDateTime now);
+
+  /**
+   * Lists a patient's entries, earliest window first.
+   *
+   * @param patientId the patient user ID
+   * @return the patient's waitlist entries
+   */
+  List<WaitlistEntry> findByPatientIdOrderByWindowStart(Long patientId);
+
+  /**
+   * Streams every entry, for rebuilding the in-memory waitlist. Must be consumed inside a
+   * transaction and closed.
+   *
+   * @return stream of waitlist entries
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT e FROM WaitlistEntry e")
+  Stream<WaitlistEntry> streamAll();
+}
@@ -0,0 +1,286 @@
+package com.patienttriage.schedule;
+
+import com.patienttriage.entity.Appointment;
+import com.patienttriage.entity.AppointmentStatus;
+import com.patienttriage.event.AppointmentChangedEvent;
+import com.patienttriage.event.AppointmentSnapshot;
+import com.patienttriage.repository.AppointmentRepository;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory index of the slots taken by SCHEDULED appointments, keyed by doctor and by
+ * patient, so availability and doctor ranking do not need a database round trip. Booking
+ * conflicts are always decided by the database, never by this index. It also keeps a
+ * running count of each doctor's upcoming scheduled appointments (their load), updated with
+ * every add and remove instead of counted on demand.
+ *
+ * Each doctor/patient maps to a set of [start, end) ranges sorted by start. Because no
+ * appointment is longer than {@link Appointment#MAX_DURATION_MINUTES}, a day's lookup only
+ * scans the entries starting in [midnight - max duration, next midnight). Only appointments
+ * that have not ended are indexed: the index is loaded from the database once all singletons
+ * exist (before the web server accepts requests), kept up to date from
+ * {@link AppointmentChangedEvent}s after each commit, and appointments that have ended since
+ * are pruned at triage.slot-index.prune-interval, so memory follows the open schedule rather
+ * than history.
+ * It only sees changes made through this JVM.
+ */
+@Component
+public class AppointmentSlotIndex implements SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(AppointmentSlotIndex.class);
+
+  private final AppointmentRepository appointmentRepository;
+  private final TransactionTemplate readOnlyTransaction;
+
+  private final ConcurrentMap<Long, NavigableSet<BookedSlot>> byDoctor = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, NavigableSet<BookedSlot>> byPatient = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, AtomicInteger> doctorLoads = new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  public AppointmentSlotIndex(AppointmentRepository appointmentRepository,
+      PlatformTransactionManager transactionManager) {
+    this.appointmentRepository = appointmentRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  /** Load every SCHEDULED appointment that has not ended (streamed, not held as one big list) **/
+  @Override
+  public void afterSingletonsInstantiated() {
+    LocalDateTime now = LocalDateTime.now();
+    readOnlyTransaction.executeWithoutResult(status -> {
+      try (Stream<AppointmentSnapshot> scheduled =
+          appointmentRepository.streamSnapshotsEndingAfter(AppointmentStatus.SCHEDULED, now)) {
+        scheduled.forEach(this::add);
+      }
+    });
+    log.info("Appointment slot index loaded with {} scheduled appointments", size());
+  }
+
+  /**
+   * Returns which {@link WorkSchedule#SLOT_MINUTES}-minute slots of a day the doctor has
+   * booked, counting any slot an appointment overlaps even partly.
+   *
+   * @param doctorId the doctor ID
+   * @param day the date
+   * @return bitmap of booked slots, bit i starting i * SLOT_MINUTES after midnight
+   */
+  public long bookedDoctorSlots(Long doctorId, LocalDate day) {
+    return bookedSlots(byDoctor.get(doctorId), day);
+  }
+
+  /**
+   * Returns which {@link WorkSchedule#SLOT_MINUTES}-minute slots of a day the patient has
+   * booked, counting any slot an appointment overlaps even partly.
+   *
+   * @param patientId the patient ID
+   * @param day the date
+   * @return bitmap of booked slots, bit i starting i * SLOT_MINUTES after midnight
+   */
+  public long bookedPatientSlots(Long patientId, LocalDate day) {
+    return bookedSlots(byPatient.get(patientId), day);
+  }
+
+  /**
+   * Returns how many upcoming scheduled appointments the doctor has (their current load, not
+   * a lifetime count), from a counter kept up to date on every change and on every prune.
+   *
+   * @param doctorId the doctor ID
+   * @return the doctor's scheduled appointments that have not ended
+   */
+  public int doctorLoad(Long doctorId) {
+    AtomicInteger load = doctorLoads.get(doctorId);
+    return load == null ? 0 : load.get();
+  }
+
+  /**
+   * Applies a committed appointment change: the old slot is released and the new one
+   * taken if the appointment is still scheduled. Runs immediately when published outside
+   * a transaction, and before other listeners so caches built on the index see the change.
+   */
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAppointmentChanged(AppointmentChangedEvent event) {
+    if (event.getBefore() != null) {
+      remove(event.getBefore());
+    }
+    add(event.getAfter());
+  }
+
+  /** Drops the appointments that have ended, releasing their slots and their doctor's load **/
+  @Scheduled(fixedDelayString = "${triage.slot-index.prune-interval:PT15M}")
+  public void pruneEnded() {
+    int pruned = pruneEnded(LocalDateTime.now());
+    if (pruned > 0) {
+      log.debug("Pruned {} ended appointments from the slot index", pruned);
+    }
+  }
+
+  /** Drops the appointments ended by now; returns how many **/
+  int pruneEnded(LocalDateTime now) {
+    int pruned = 0;
+    for (Long doctorId : byDoctor.keySet()) {
+      for (BookedSlot slot : endedSlots(byDoctor.get(doctorId), now)) {
+        if (remove(byDoctor, doctorId, slot)) {
+          size.decrementAndGet();
+          doctorLoads.get(doctorId).decrementAndGet();
+          pruned++;
+        }
+      }
+    }
+    for (Long patientId : byPatient.keySet()) {
+      for (BookedSlot slot : endedSlots(byPatient.get(patientId), now)) {
+        remove(byPatient, patientId, slot);
+      }
+    }
+    return pruned;
+  }
+
+  /** Take the slot of a scheduled appointment (no-op for other statuses and ended ones) **/
+  void add(AppointmentSnapshot appointment) {
+    if (!appointment.isScheduled() || !appointment.getEndTime().isAfter(LocalDateTime.now())) {
+      return;
+    }
+    BookedSlot slot = BookedSlot.of(appointment);
+    if (add(byDoctor, appointment.getDoctorId(), slot)) {
+      size.incrementAndGet();
+      doctorLoads.computeIfAbsent(appointment.getDoctorId(), id -> new AtomicInteger()).incrementAndGet();
+    }
+    add(byPatient, appointment.getPatientId(), slot);
+  }
+
+  /** Release the slot an appointment held, if any **/
+  void remove(AppointmentSnapshot appointment) {
+    BookedSlot slot = BookedSlot.of(appointment);
+    if (remove(byDoctor, appointment.getDoctorId(), slot)) {
+      size.decrementAndGet();
+      doctorLoads.get(appointment.getDoctorId()).decrementAndGet();
+    }
+    remove(byPatient, appointment.getPatientId(), slot);
+  }
+
+  /** Number of scheduled appointments in the index **/
+  public int size() {
+    return size.get();
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  private static long bookedSlots(NavigableSet<BookedSlot> slots, LocalDate day) {
+    if (slots == null) {
+      return 0;
+    }
+    LocalDateTime dayStart = day.atStartOfDay();
+    LocalDateTime dayEnd = dayStart.plusDays(1);
+    BookedSlot from = BookedSlot.bound(dayStart.minusMinutes(Appointment.MAX_DURATION_MINUTES), Long.MIN_VALUE);
+    BookedSlot to = BookedSlot.bound(dayEnd, Long.MIN_VALUE);
+
+    long booked = 0;
+    for (BookedSlot slot : slots.subSet(from, true, to, false)) {
+      if (!slot.end.isAfter(dayStart)) {
+        continue;
+      }
+      long startMinute = Math.max(0, Duration.between(dayStart, slot.start).toMinutes());
+      long endMinute = Math.min(24 * 60, Duration.between(dayStart, slot.end).toMinutes());
+      int firstSlot = (int) (startMinute / WorkSchedule.SLOT_MINUTES);
+      int endSlot = (int) ((endMinute + WorkSchedule.SLOT_MINUTES - 1) / WorkSchedule.SLOT_MINUTES);
+      for (int i = firstSlot; i < endSlot; i++) {
+        booked |= 1L << i;
+      }
+    }
+    return booked;
+  }
+
+  /** Slots that ended by now; they all start before now, so only that head is scanned **/
+  private static List<BookedSlot> endedSlots(NavigableSet<BookedSlot> slots, LocalDateTime now) {
+    if (slots == null) {
+      return List.of();
+    }
+    List<BookedSlot> ended = new ArrayList<>();
+    for (BookedSlot slot : slots.headSet(BookedSlot.bound(now, Long.MIN_VALUE), false)) {
+      if (!slot.end.isAfter(now)) {
+        ended.add(slot);
+      }
+    }
+    return ended;
+  }
+
+  // Adds and removes go through compute so an add never lands in a set that a concurrent
+  // remove has just dropped from the map. Readers use the sets without locking.
+  private static boolean add(ConcurrentMap<Long, NavigableSet<BookedSlot>> index, Long ownerId,
+      BookedSlot slot) {
+    boolean[] added = new boolean[1];
+    index.compute(ownerId, (id, slots) -> {
+      NavigableSet<BookedSlot> target = slots != null ? slots : new ConcurrentSkipListSet<>();
+      added[0] = target.add(slot);
+      return target;
+    });
+    return added[0];
+  }
+
+  private static boolean remove(ConcurrentMap<Long, NavigableSet<BookedSlot>> index, Long ownerId,
+      BookedSlot slot) {
+    boolean[] removed = new boolean[1];
+    index.computeIfPresent(ownerId, (id, slots) -> {
+      removed[0] = slots.remove(slot);
+      return slots.isEmpty() ? null : slots;
+    });
+    return removed[0];
+  }
+
+  /** One booked range, ordered by start time with the appointment id as tie-breaker **/
+  private static final class BookedSlot implements Comparable<BookedSlot> {
+
+    private static final Comparator<BookedSlot> ORDER = Comparator
+        .comparing((BookedSlot s) -> s.start)
+        .thenComparing(s -> s.appointmentId);
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final Long appointmentId;
+
+    private BookedSlot(LocalDateTime start, LocalDateTime end, Long appointmentId) {
+      this.start = start;
+      this.end = end;
+      this.appointmentId = appointmentId;
+    }
+
+    static BookedSlot of(AppointmentSnapshot appointment) {
+      return new BookedSlot(appointment.getAppointmentTime(), appointment.getEndTime(),
+          appointment.getAppointmentId());
+    }
+
+    /** Search key; only start and id take part in the ordering **/
+    static BookedSlot bound(LocalDateTime start, long appointmentId) {
+      return new BookedSlot(start, start, appointmentId);
+    }
+
+    @Override
+    public int compareTo(BookedSlot other) {
+      return ORDER.compare(this, other);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.patienttriage.schedule;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Serializes booking writes (create / reschedule) per doctor, so a conflict check and the
+ * insert that follows it cannot interleave with another booking for the same doctor.
+ *
+ * Two levels of locking:
+ * 1. Inside this JVM, a fixed array of striped ReentrantLocks (doctor id -> stripe). Waiters
+ *    queue here instead of holding a database connection while they wait.
+ * 2. Across nodes, {@code pg_advisory_xact_lock(doctorId)} in the booking transaction; it is
+ *    released by PostgreSQL at commit or rollback.
+ *
+ * The coordinator owns the transaction: the work runs in a new transaction that commits
+ * before the stripe locks are released, so the next waiter sees the committed row (and the
+ * slot index updated by its after-commit listener). Bookings for doctors in different
+ * stripes never wait for each other. Several doctors (e.g. an admin moving an appointment)
+ * are locked in ascending order to avoid deadlocks.
+ */
+@Component
+public class BookingCoordinator {
+
+  static final String ADVISORY_LOCK_SQL = "SELECT pg_advisory_xact_lock(?)";
+
+  private final ReentrantLock[] stripes;
+  private final int mask;
+  private final TransactionTemplate transactionTemplate;
+  private final JdbcTemplate jdbcTemplate;
+
+  public BookingCoordinator(PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate,
+      @Value("${triage.booking.lock-stripes:256}") int stripeCount) {
+    if (stripeCount < 1) {
+      throw new IllegalArgumentException("triage.booking.lock-stripes must be positive");
+    }
+    // round up to a power of two so the stripe is a mask, not a modulo
+    int size = 1;
+    while (size < stripeCount) {
+      size <<= 1;
+    }
+    this.stripes = new ReentrantLock[size];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+    this.mask = stripes.length - 1;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    // never join a caller's transaction: it would commit only after the locks are released
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Runs the work in a new transaction while holding the booking locks of the given doctors.
+   *
+   * @param doctorIds doctors whose schedule the work reads and changes
+   * @param work the check-then-write to run
+   * @return the work's result, after commit
+   */
+  public <T> T withDoctorLocks(Collection<Long> doctorIds, Supplier<T> work) {
+    TreeSet<Long> doctors = new TreeSet<>(doctorIds);
+    TreeSet<Integer> stripeIndexes = new TreeSet<>();
+    for (Long doctorId : doctors) {
+      stripeIndexes.add(stripeFor(doctorId));
+    }
+
+    int locked = 0;
+    Integer[] order = stripeIndexes.toArray(new Integer[0]);
+    try {
+      for (Integer index : order) {
+        stripes[index].lock();
+        locked++;
+      }
+      return transactionTemplate.execute(status -> {
+        for (Long doctorId : doctors) {
+          jdbcTemplate.query(ADVISORY_LOCK_SQL, (RowCallbackHandler) rs -> { }, doctorId);
+        }
+        return work.get();
+      });
+    } finally {
+      for (int i = locked - 1; i >= 0; i--) {
+        stripes[order[i]].unlock();
+      }
+    }
+  }
+
+  /** Stripe of a doctor; ids are spread so neighbouring ids land in different stripes **/
+  int stripeFor(Long doctorId) {
+    long h = doctorId * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+
+  int stripeCount() {
+    return stripes.length;
+  }
+}
@@ -0,0 +1,315 @@
+package com.patienttriage.schedule;
+
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.WaitlistEntry;
+import com.patienttriage.repository.WaitlistEntryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory index of the patients waiting for a cancelled slot, filed by doctor/day and by
+ * specialty/day so the waiters for a freed slot are found without scanning the waitlist.
+ *
+ * A waiter is filed under every day its window touches (windows are at most
+ * {@link #MAX_WINDOW_DAYS} long), in a skip list ordered by triage priority, then by when
+ * they joined. Finding the best waiter for a slot looks up the doctor's and the specialty's
+ * buckets for the slot's day and walks both in that order: O(log n) to reach the head, plus
+ * one step per better-ranked waiter of the same day whose window misses the slot's hours.
+ *
+ * The waitlist table is the source of truth; the index is loaded from it once all singletons
+ * exist and is then kept in step by {@link com.patienttriage.service.WaitlistService} and the
+ * cancellation backfill. Like the slot index, it only sees changes made through this JVM.
+ */
+@Component
+public class Waitlist implements SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(Waitlist.class);
+
+  /** Longest window a patient may wait in; bounds the buckets a waiter is filed under **/
+  public static final int MAX_WINDOW_DAYS = 14;
+
+  private final WaitlistEntryRepository repository;
+  private final TransactionTemplate readOnlyTransaction;
+
+  private final ConcurrentMap<Bucket, NavigableSet<Waiter>> buckets = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, Waiter> byId = new ConcurrentHashMap<>();
+
+  public Waitlist(WaitlistEntryRepository repository,
+                  PlatformTransactionManager transactionManager,
+                  MeterRegistry meterRegistry) {
+    this.repository = repository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    Gauge.builder("waitlist.size", byId, ConcurrentMap::size)
+        .description("Patients waiting for a cancelled slot")
+        .register(meterRegistry);
+  }
+
+  /** Load every waiting patient whose window has not ended **/
+  @Override
+  public void afterSingletonsInstantiated() {
+    LocalDateTime now = LocalDateTime.now();
+    readOnlyTransaction.executeWithoutResult(status -> {
+      try (Stream<WaitlistEntry> entries = repository.streamAll()) {
+        entries.filter(entry -> entry.getWindowEnd().isAfter(now)).forEach(this::add);
+      }
+    });
+    log.info("Waitlist loaded with {} waiting patients", size());
+  }
+
+  /**
+   * Files a waitlist entry under each remaining day of its window.
+   *
+   * @param entry the saved entry
+   * @return the waiter
+   */
+  public Waiter add(WaitlistEntry entry) {
+    Waiter waiter = new Waiter(entry.getId(), entry.getPatientId(), entry.getDoctorId(),
+        entry.getSpecialty(), entry.getWindowStart(), entry.getWindowEnd(), entry.getPriority(),
+        entry.getCreatedAt());
+    byId.put(waiter.id, waiter);
+    for (Bucket bucket : bucketsOf(waiter, LocalDate.now())) {
+      buckets.computeIfAbsent(bucket, key -> new ConcurrentSkipListSet<>()).add(waiter);
+    }
+    return waiter;
+  }
+
+  /**
+   * Removes a waiter from the index.
+   *
+   * @param id the waitlist entry ID
+   * @return the removed waiter, or null if it was not waiting
+   */
+  public Waiter remove(Long id) {
+    Waiter waiter = byId.remove(id);
+    if (waiter != null) {
+      unfile(waiter);
+    }
+    return waiter;
+  }
+
+  /**
+   * Finds the waiters a freed slot can go to, best first: those waiting for the doctor or for
+   * the doctor's specialty whose window covers the whole slot.
+   *
+   * @param doctorId the doctor whose slot was freed
+   * @param specialty the doctor's specialty key, or null
+   * @param start start of the freed slot
+   * @param end exclusive end of the freed slot
+   * @param limit most waiters to return
+   * @return up to limit waiters, highest priority first, then earliest joined
+   */
+  public List<Waiter> match(Long doctorId, String specialty, LocalDateTime start, LocalDateTime end,
+      int limit) {
+    LocalDate day = start.toLocalDate();
+    Iterator<Waiter> forDoctor = iterator(new Bucket(doctorId, null, day));
+    Iterator<Waiter> forSpecialty = specialty != null
+        ? iterator(new Bucket(null, specialty, day))
+        : Collections.emptyIterator();
+
+    // merge the two ordered buckets, keeping only waiters whose window covers the slot
+    List<Waiter> matches = new ArrayList<>(Math.min(limit, 16));
+    Waiter nextForDoctor = next(forDoctor, start, end);
+    Waiter nextForSpecialty = next(forSpecialty, start, end);
+    while (matches.size() < limit && (nextForDoctor != null || nextForSpecialty != null)) {
+      if (nextForSpecialty == null
+          || (nextForDoctor != null && nextForDoctor.compareTo(nextForSpecialty) < 0)) {
+        matches.add(nextForDoctor);
+        nextForDoctor = next(forDoctor, start, end);
+      } else {
+        matches.add(nextForSpecialty);
+        nextForSpecialty = next(forSpecialty, start, end);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Drops waiters whose window has ended, from the table and the index, along with the
+   * buckets of past days.
+   */
+  @Scheduled(fixedDelayString = "${triage.waitlist.purge-interval:PT1H}")
+  public void purgeExpired() {
+    LocalDateTime now = LocalDateTime.now();
+    repository.deleteExpired(now);
+    byId.values().removeIf(waiter -> {
+      if (waiter.windowEnd.isAfter(now)) {
+        return false;
+      }
+      unfile(waiter);
+      return true;
+    });
+    // nobody joins with a window in the past, so these buckets only ever shrink
+    LocalDate today = now.toLocalDate();
+    buckets.keySet().removeIf(bucket -> bucket.day.isBefore(today));
+  }
+
+  /** Number of patients waiting **/
+  public int size() {
+    return byId.size();
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  /** The buckets of each day the window touches, from today on **/
+  private static List<Bucket> bucketsOf(Waiter waiter, LocalDate today) {
+    LocalDate first = waiter.windowStart.toLocalDate();
+    if (first.isBefore(today)) {
+      first = today;
+    }
+    LocalDate last = waiter.windowEnd.minusNanos(1).toLocalDate();
+    List<Bucket> days = new ArrayList<>();
+    for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+      days.add(new Bucket(waiter.doctorId, waiter.specialty, day));
+    }
+    return days;
+  }
+
+  private void unfile(Waiter waiter) {
+    // every day of the window: the waiter may have been filed before midnight
+    for (Bucket bucket : bucketsOf(waiter, LocalDate.MIN)) {
+      NavigableSet<Waiter> waiters = buckets.get(bucket);
+      if (waiters != null) {
+        waiters.remove(waiter);
+      }
+    }
+  }
+
+  private Iterator<Waiter> iterator(Bucket bucket) {
+    NavigableSet<Waiter> waiters = buckets.get(bucket);
+    return waiters != null ? waiters.iterator() : Collections.emptyIterator();
+  }
+
+  /** Next waiter in the bucket whose window covers [start, end), or null **/
+  private static Waiter next(Iterator<Waiter> waiters, LocalDateTime start, LocalDateTime end) {
+    while (waiters.hasNext()) {
+      Waiter waiter = waiters.next();
+      if (!waiter.windowStart.isAfter(start) && !waiter.windowEnd.isBefore(end)) {
+        return waiter;
+      }
+    }
+    return null;
+  }
+
+  /** A doctor's or a specialty's waiters for one day **/
+  private static final class Bucket {
+    private final Long doctorId;
+    private final String specialty;
+    private final LocalDate day;
+
+    Bucket(Long doctorId, String specialty, LocalDate day) {
+      this.doctorId = doctorId;
+      this.specialty = specialty;
+      this.day = day;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Bucket)) {
+        return false;
+      }
+      Bucket other = (Bucket) o;
+      return Objects.equals(doctorId, other.doctorId) && Objects.equals(specialty, other.specialty)
+          && day.equals(other.day);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(doctorId, specialty, day);
+    }
+  }
+
+  /** One waiting patient, ordered by priority, then by when they joined **/
+  public static final class Waiter implements Comparable<Waiter> {
+
+    private static final Comparator<Waiter> ORDER = Comparator
+        .comparing((Waiter w) -> w.priority)
+        .thenComparing(w -> w.createdAt)
+        .thenComparingLong(w -> w.id);
+
+    private final Long id;
+    private final Long patientId;
+    private final Long doctorId;
+    private final String specialty;
+    private final LocalDateTime windowStart;
+    private final LocalDateTime windowEnd;
+    private final TriagePriority priority;
+    private final LocalDateTime createdAt;
+
+    private Waiter(Long id, Long patientId, Long doctorId, String specialty,
+        LocalDateTime windowStart, LocalDateTime windowEnd, TriagePriority priority,
+        LocalDateTime createdAt) {
+      this.id = id;
+      this.patientId = patientId;
+      this.doctorId = doctorId;
+      this.specialty = specialty;
+      this.windowStart = windowStart;
+      this.windowEnd = windowEnd;
+      this.priority = priority;
+      this.createdAt = createdAt;
+    }
+
+    /** The waitlist entry ID **/
+    public Long getId() {
+      return id;
+    }
+
+    public Long getPatientId() {
+      return patientId;
+    }
+
+    public Long getDoctorId() {
+      return doctorId;
+    }
+
+    public String getSpecialty() {
+      return specialty;
+    }
+
+    public LocalDateTime getWindowStart() {
+      return windowStart;
+    }
+
+    public LocalDateTime getWindowEnd() {
+      return windowEnd;
+    }
+
+    public TriagePriority getPriority() {
+      return priority;
+    }
+
+    public LocalDateTime getCreatedAt() {
+      return createdAt;
+    }
+
+    @Override
+    public int compareTo(Waiter other) {
+      return ORDER.compare(this, other);
+    }
+  }
+}
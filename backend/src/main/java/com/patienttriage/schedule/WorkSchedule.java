@@ -0,0 +1,152 @@
+package com.patienttriage.schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * A doctor's weekly working hours compiled from the free-text {@code DoctorProfile.workTime}
+ * column, e.g. "Mon-Fri 9:00-17:00" or "Mon-Thu 8:00-12:00, Sat 10:00-14:00".
+ *
+ * Each day is held as a bitmap of {@link #SLOT_MINUTES}-minute slots (bit i is the slot
+ * starting i * SLOT_MINUTES after midnight), so free slots are one AND-NOT away from the
+ * booked slots of that day. Hours that do not fall on a slot boundary are narrowed to the
+ * whole slots inside them. Instances are immutable.
+ */
+public final class WorkSchedule {
+
+  /** Length of one bookable slot **/
+  public static final int SLOT_MINUTES = 30;
+
+  /** Slots in a day; must fit in the bits of a long **/
+  public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+  /** Schedule with no working hours at all **/
+  public static final WorkSchedule EMPTY = new WorkSchedule(new long[7]);
+
+  private static final int MINUTES_PER_DAY = 24 * 60;
+
+  // indexed by DayOfWeek.ordinal()
+  private final long[] slotsByDay;
+
+  private WorkSchedule(long[] slotsByDay) {
+    this.slotsByDay = slotsByDay;
+  }
+
+  /**
+   * Compiles a work time string. Segments are separated by "," or ";", and each one is a
+   * day or day range (three-letter English names, ranges may wrap past Sunday) followed
+   * by a start-end time range on the 24-hour clock, where the end may be 24:00.
+   *
+   * @param workTime the text from the doctor's profile
+   * @return the compiled schedule, {@link #EMPTY} for a null or blank string
+   * @throws IllegalArgumentException if the text cannot be parsed
+   */
+  public static WorkSchedule parse(String workTime) {
+    if (workTime == null || workTime.isBlank()) {
+      return EMPTY;
+    }
+    long[] slotsByDay = new long[7];
+    for (String segment : workTime.split("[,;]")) {
+      String[] parts = segment.trim().split("\\s+");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Invalid work time segment: '" + segment.trim() + "'");
+      }
+
+      String[] days = parts[0].split("-");
+      String[] hours = parts[1].split("-");
+      if (days.length > 2 || hours.length != 2) {
+        throw new IllegalArgumentException("Invalid work time segment: '" + segment.trim() + "'");
+      }
+      DayOfWeek firstDay = parseDay(days[0]);
+      DayOfWeek lastDay = days.length == 2 ? parseDay(days[1]) : firstDay;
+      long slots = slotMask(parseMinutes(hours[0]), parseMinutes(hours[1]), segment);
+
+      for (DayOfWeek day = firstDay; ; day = day.plus(1)) {
+        slotsByDay[day.ordinal()] |= slots;
+        if (day == lastDay) {
+          break;
+        }
+      }
+    }
+    return new WorkSchedule(slotsByDay);
+  }
+
+  /**
+   * Working slots on a day of the week.
+   *
+   * @param day the day of the week
+   * @return bitmap of working slots, bit i starting i * SLOT_MINUTES after midnight
+   */
+  public long slotsOn(DayOfWeek day) {
+    return slotsByDay[day.ordinal()];
+  }
+
+  /** Whether the doctor has no working hours on any day **/
+  public boolean isEmpty() {
+    for (long slots : slotsByDay) {
+      if (slots != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Start time of a slot on a given date.
+   *
+   * @param day the date
+   * @param slot slot number within the day
+   * @return the slot's start
+   */
+  public static LocalDateTime slotStart(LocalDate day, int slot) {
+    return day.atStartOfDay().plusMinutes((long) slot * SLOT_MINUTES);
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  private static DayOfWeek parseDay(String text) {
+    String day = text.trim().toUpperCase(Locale.ROOT);
+    if (day.length() >= 3) {
+      for (DayOfWeek candidate : DayOfWeek.values()) {
+        if (candidate.name().startsWith(day)) {
+          return candidate;
+        }
+      }
+    }
+    throw new IllegalArgumentException("Invalid day in work time: '" + text.trim() + "'");
+  }
+
+  /** "9:00" -> 540; "24:00" is allowed as the end of the day **/
+  private static int parseMinutes(String text) {
+    String[] parts = text.trim().split(":");
+    try {
+      int hours = Integer.parseInt(parts[0]);
+      int minutes = parts.length == 2 ? Integer.parseInt(parts[1]) : 0;
+      int total = hours * 60 + minutes;
+      if (parts.length <= 2 && hours >= 0 && minutes >= 0 && minutes < 60 && total <= MINUTES_PER_DAY) {
+        return total;
+      }
+    } catch (NumberFormatException e) {
+      // fall through
+    }
+    throw new IllegalArgumentException("Invalid time in work time: '" + text.trim() + "'");
+  }
+
+  /** Bits for the whole slots inside [startMinute, endMinute) **/
+  private static long slotMask(int startMinute, int endMinute, String segment) {
+    if (endMinute <= startMinute) {
+      throw new IllegalArgumentException("Work time ends before it starts: '" + segment.trim() + "'");
+    }
+    int firstSlot = (startMinute + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    int endSlot = endMinute / SLOT_MINUTES;
+    long mask = 0;
+    for (int slot = firstSlot; slot < endSlot; slot++) {
+      mask |= 1L << slot;
+    }
+    return mask;
+  }
+}
@@ -0,0 +1,24 @@
+package com.patienttriage.service;
+
+import com.patienttriage.dto.AppointmentExportFormat;
+import com.patienttriage.entity.UserRole;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Service interface for exporting the full appointment book.
+ */
+public interface AppointmentExportService {
+
+  /**
+   * Prepares a streaming export of every appointment joined with its patient and doctor profile.
+   * Rows are read from a forward-only database cursor and written to the response as they
+   * arrive, so memory use does not grow with the number of appointments.
+   * Role constraints:
+   * - ADMIN only
+   *
+   * @param format NDJSON or CSV
+   * @param role the role of the user making the request
+   * @return body that writes the export when the response is streamed
+   */
+  StreamingResponseBody exportAppointments(AppointmentExportFormat format, UserRole role);
+}
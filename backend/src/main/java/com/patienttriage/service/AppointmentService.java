@@ -1,9 +1,13 @@
 package com.patienttriage.service;
 
+import com.patienttriage.dto.AppointmentFilter;
+import com.patienttriage.dto.AppointmentPage;
+import com.patienttriage.dto.AppointmentReceipt;
 import com.patienttriage.dto.AppointmentRequest;
 import com.patienttriage.dto.AppointmentResponse;
 import com.patienttriage.entity.Appointment;
 import com.patienttriage.entity.UserRole;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -20,17 +24,55 @@ public interface AppointmentService {
    * - PATIENT: can only create appointments for themselves (patientId must match currentUserId)
    * - DOCTOR: can only create appointments for themselves (doctorId must match currentUserId)
    * - ADMIN: can create appointments for any patient and doctor
+   *
+   * Without a doctorId (PATIENT and ADMIN only) a doctor is assigned: of the doctors of the
+   * request's specialty, or else of the triage queue the patient waits in, the one with the
+   * earliest free slot at or after appointmentTime, the least loaded on a tie. The appointment
+   * starts at that slot. If a concurrent booking takes the slot first, the next doctor in
+   * line is tried.
    * 
-   * @param request the appointment request containing patientId, doctorId, appointmentTime, and reason
+   * @param request the appointment request containing patientId, doctorId (or specialty), appointmentTime, and reason
    * @param role ADMIN, DOCTOR, PATIENT
    * @param currentUserId the ID of the user making the request (for authorization)
    * @return AppointmentResponse with role-appropriate information
    */
   AppointmentResponse createAppointment(AppointmentRequest request, UserRole role, Long currentUserId);
 
+  /**
+   * Creates an appointment at most once per Idempotency-Key. A retry with the same key and
+   * request gets the original appointment back without touching the appointment tables, even
+   * if it arrives while the original request is still running; the same key with a different
+   * request is rejected.
+   *
+   * Role constraints and doctor assignment are the same as for createAppointment.
+   *
+   * @param request the appointment request containing patientId, doctorId, appointmentTime, and reason
+   * @param role ADMIN, DOCTOR, PATIENT
+   * @param currentUserId the ID of the user making the request (for authorization)
+   * @param idempotencyKey the client's Idempotency-Key, unique per user
+   * @return the appointment created for this key, and whether it was created earlier
+   */
+  AppointmentReceipt createAppointment(AppointmentRequest request, UserRole role, Long currentUserId,
+      String idempotencyKey);
+
+  /**
+   * Creates a batch of appointments, all or nothing. The users are validated with one
+   * query, overlaps are checked within the batch and against the database with one more,
+   * and the rows are written with batched inserts.
+   *
+   * Role constraints are the same as for createAppointment, applied to every appointment.
+   *
+   * @param requests the appointments to create
+   * @param role ADMIN, DOCTOR, PATIENT
+   * @param currentUserId the ID of the user making the request (for authorization)
+   * @return IDs of the created appointments, in request order
+   */
+  List<Long> createAppointments(List<AppointmentRequest> requests, UserRole role, Long currentUserId);
+
   // ------------- Get appointments -------------- //
   /**
-   * Retrieves all the appointments by currentUserId with role-based access control.
+   * Retrieves one page of the appointments visible to currentUserId with role-based access control.
+   * Pages are ordered by (appointmentTime, id) and continue from filter.after (keyset pagination).
    * Role constraints:
    * - PATIENT: can only view their own appointments (with limited doctor info)
    * - DOCTOR: can view appointments assigned to them (with full patient profile)
@@ -38,9 +80,10 @@ public interface AppointmentService {
    * 
    * @param role ADMIN, DOCTOR, PATIENT
    * @param currentUserId the ID of the user making the request (for authorization)
-   * @return list of AppointmentResponse with role-appropriate information
+   * @param filter optional status/date-range filters, cursor and page size
+   * @return page of AppointmentResponse with role-appropriate information and the next cursor
    */
-  List<AppointmentResponse> getAppointments(UserRole role, Long currentUserId);
+  AppointmentPage getAppointments(UserRole role, Long currentUserId, AppointmentFilter filter);
 
   /**
    * Retrieve a single appointment by ID with role-based access control.
@@ -82,6 +125,34 @@ public interface AppointmentService {
    */
   AppointmentResponse cancelAppointment(Long appointmentId, UserRole role, Long currentUserId);
 
+  /**
+   * Cancels every scheduled appointment of a doctor starting in [from, to) with one
+   * UPDATE statement (e.g. when the doctor calls in sick). ADMIN only. Each freed slot is
+   * then offered to the waitlist, as after a single cancel.
+   *
+   * @param doctorId the doctor whose appointments are cancelled
+   * @param from inclusive lower bound on appointment time
+   * @param to exclusive upper bound on appointment time
+   * @param role ADMIN, DOCTOR, PATIENT
+   * @return number of appointments cancelled
+   */
+  int cancelDoctorAppointments(Long doctorId, LocalDateTime from, LocalDateTime to, UserRole role);
+
+  /**
+   * Moves every scheduled appointment of a doctor starting in [from, to) to another doctor,
+   * all or nothing. The new doctor's schedule is checked for the whole window with one
+   * query, then the appointments are moved with one UPDATE statement. ADMIN only.
+   *
+   * @param doctorId the doctor whose appointments are moved
+   * @param newDoctorId the doctor taking the appointments over
+   * @param from inclusive lower bound on appointment time
+   * @param to exclusive upper bound on appointment time
+   * @param role ADMIN, DOCTOR, PATIENT
+   * @return number of appointments moved
+   */
+  int reassignDoctorAppointments(Long doctorId, Long newDoctorId, LocalDateTime from, LocalDateTime to,
+      UserRole role);
+
 //  /**
 //   * Retrieves all appointments for a specific patient.
 //   * Role constraints:
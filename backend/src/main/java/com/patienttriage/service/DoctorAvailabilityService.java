@@ -0,0 +1,56 @@
+package com.patienttriage.service;
+
+import com.patienttriage.dto.DoctorAvailability;
+import com.patienttriage.dto.DoctorSlot;
+import com.patienttriage.entity.UserRole;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service interface for finding free appointment slots in a doctor's schedule.
+ */
+public interface DoctorAvailabilityService {
+
+  /**
+   * Lists the doctor's free slots: working hours from the doctor's profile minus booked
+   * appointments, skipping slots that have already started. Any logged-in user may ask.
+   *
+   * @param doctorId the doctor user ID
+   * @param from first date to search, or null for today
+   * @param to exclusive last date, or null for one week after from
+   * @return free slots in time order
+   */
+  DoctorAvailability getAvailability(Long doctorId, LocalDate from, LocalDate to);
+
+  /**
+   * Finds the earliest free slots across every doctor of a specialty, searching each
+   * doctor's next month and merging the results in time order.
+   * Role constraints:
+   * - ADMIN only
+   *
+   * @param specialty the specialty, matched case-insensitively
+   * @param from first date to search, or null for today
+   * @param limit number of slots to return, or null for the default (bounded by the server)
+   * @param role the role of the user making the request
+   * @return up to limit slots, earliest first, ties broken by doctor ID
+   */
+  List<DoctorSlot> findEarliestSlots(String specialty, LocalDate from, Integer limit, UserRole role);
+
+  /**
+   * Ranks the doctors of a specialty for automatic assignment. Each doctor is offered at
+   * their earliest free run of slots that fits the appointment and that the patient has not
+   * booked elsewhere, within a month of notBefore. Doctors are ordered by that start, ties
+   * going to the lower load (scheduled appointments that have not ended), then the lower
+   * doctor ID.
+   *
+   * @param specialty the specialty, matched case-insensitively
+   * @param notBefore earliest acceptable start
+   * @param durationMinutes length of the appointment
+   * @param patientId the patient to book
+   * @param limit most doctors to return
+   * @return up to limit doctors, each with the slot to book, best first
+   */
+  List<DoctorSlot> rankDoctorsForAssignment(String specialty, LocalDateTime notBefore, int durationMinutes,
+      Long patientId, int limit);
+}
@@ -0,0 +1,34 @@
+package com.patienttriage.service;
+
+import com.patienttriage.dto.TriageStatus;
+import com.patienttriage.entity.UserRole;
+
+/**
+ * Service interface for a patient's own profile: submitting symptoms and following their
+ * triage.
+ */
+public interface PatientService {
+
+  /**
+   * Records the patient's current symptom and clears their triage priority; the symptom is
+   * then evaluated in the background. Creates the profile if the patient has none yet.
+   * Role constraints:
+   * - PATIENT only (for themselves)
+   *
+   * @param symptom the symptom description
+   * @param role the role of the user making the request
+   * @param currentUserId the ID of the user making the request
+   */
+  void submitSymptom(String symptom, UserRole role, Long currentUserId);
+
+  /**
+   * Returns the patient's symptom and triage priority, if evaluated yet.
+   * Role constraints:
+   * - PATIENT only (for themselves)
+   *
+   * @param role the role of the user making the request
+   * @param currentUserId the ID of the user making the request
+   * @return the triage status
+   */
+  TriageStatus getTriageStatus(UserRole role, Long currentUserId);
+}
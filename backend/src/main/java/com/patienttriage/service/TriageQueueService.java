@@ -0,0 +1,66 @@
+package com.patienttriage.service;
+
+import com.patienttriage.dto.TriageQueueRequest;
+import com.patienttriage.dto.TriageTicket;
+import com.patienttriage.entity.UserRole;
+import java.util.List;
+
+/**
+ * Service interface for the per-specialty triage queues patients wait in until a doctor
+ * takes them.
+ */
+public interface TriageQueueService {
+
+  /**
+   * Adds a patient to a specialty's queue at their profile's triage priority.
+   * Role constraints:
+   * - PATIENT: can only add themselves
+   * - ADMIN: can add any patient
+   *
+   * @param request the specialty and, for admins, the patient
+   * @param role the role of the user making the request
+   * @param currentUserId the ID of the user making the request
+   * @return the patient's place in the queue
+   */
+  TriageTicket enqueue(TriageQueueRequest request, UserRole role, Long currentUserId);
+
+  /**
+   * Lists the patients next in line in a specialty's queue without taking them.
+   * Role constraints:
+   * - DOCTOR: only their own specialty
+   * - ADMIN: any specialty
+   *
+   * @param specialty the specialty, matched case-insensitively
+   * @param limit number of patients to return, or null for the default (bounded by the server)
+   * @param role the role of the user making the request
+   * @param currentUserId the ID of the user making the request
+   * @return waiting patients, next in line first
+   */
+  List<TriageTicket> listQueue(String specialty, Integer limit, UserRole role, Long currentUserId);
+
+  /**
+   * Takes the next patient off a specialty's queue. Concurrent callers never get the same
+   * patient.
+   * Role constraints:
+   * - DOCTOR: only their own specialty
+   * - ADMIN: any specialty
+   *
+   * @param specialty the specialty, matched case-insensitively
+   * @param role the role of the user making the request
+   * @param currentUserId the ID of the user making the request
+   * @return the patient taken, or null if the queue is empty
+   */
+  TriageTicket takeNext(String specialty, UserRole role, Long currentUserId);
+
+  /**
+   * Removes a patient from the queue they wait in.
+   * Role constraints:
+   * - PATIENT: can only remove themselves
+   * - ADMIN: can remove any patient
+   *
+   * @param patientId the patient user ID
+   * @param role the role of the user making the request
+   * @param currentUserId the ID of the user making the request
+   */
+  void leave(Long patientId, UserRole role, Long currentUserId);
+}
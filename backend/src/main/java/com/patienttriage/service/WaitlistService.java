@@ -0,0 +1,52 @@
+package com.patienttriage.service;
+
+import com.patienttriage.dto.WaitlistRequest;
+import com.patienttriage.dto.WaitlistSpot;
+import com.patienttriage.entity.UserRole;
+import java.util.List;
+
+/**
+ * Service interface for the waitlist patients join to be booked into slots freed by
+ * cancellations.
+ */
+public interface WaitlistService {
+
+  /**
+   * Adds a patient to the waitlist of a doctor or a specialty for a time window, at their
+   * profile's triage priority.
+   * Role constraints:
+   * - PATIENT: can only add themselves
+   * - ADMIN: can add any patient
+   *
+   * @param request the doctor or specialty, the window and, for admins, the patient
+   * @param role the role of the user making the request
+   * @param currentUserId the ID of the user making the request
+   * @return the patient's place on the waitlist
+   */
+  WaitlistSpot join(WaitlistRequest request, UserRole role, Long currentUserId);
+
+  /**
+   * Lists the waitlist entries of a patient.
+   * Role constraints:
+   * - PATIENT: only their own (patientId may be omitted)
+   * - ADMIN: any patient (patientId required)
+   *
+   * @param patientId the patient user ID, or null for the current user
+   * @param role the role of the user making the request
+   * @param currentUserId the ID of the user making the request
+   * @return the patient's entries, earliest window first
+   */
+  List<WaitlistSpot> listSpots(Long patientId, UserRole role, Long currentUserId);
+
+  /**
+   * Removes a waitlist entry.
+   * Role constraints:
+   * - PATIENT: only their own entries
+   * - ADMIN: any entry
+   *
+   * @param id the waitlist entry ID
+   * @param role the role of the user making the request
+   * @param currentUserId the ID of the user making the request
+   */
+  void leave(Long id, UserRole role, Long currentUserId);
+}
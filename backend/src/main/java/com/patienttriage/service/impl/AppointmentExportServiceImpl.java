@@ -0,0 +1,237 @@
+package com.patienttriage.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.patienttriage.dto.AppointmentExportFormat;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.service.AppointmentExportService;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Implementation of AppointmentExportService.
+ *
+ * The export bypasses JPA: rows are read with plain JDBC from a forward-only, read-only
+ * cursor and written straight to the output stream, so no entities or DTO lists are built.
+ * PostgreSQL only honours the fetch size inside a transaction (autocommit off); otherwise
+ * the driver reads the whole result set into memory.
+ */
+@Service
+public class AppointmentExportServiceImpl implements AppointmentExportService {
+
+  /** Rows fetched from the database per round trip. */
+  static final int FETCH_SIZE = 1000;
+
+  /** Exported columns, in output order. Names double as CSV header and NDJSON keys. */
+  static final String[] COLUMNS = {
+      "appointmentId", "appointmentTime", "endTime", "status", "reason", "createdAt",
+      "patientId", "patientFirstName", "patientLastName", "triagePriority",
+      "doctorId", "doctorFirstName", "doctorLastName", "specialty"
+  };
+
+  // profiles are joined in SQL so each row is complete without further lookups
+  static final String EXPORT_SQL =
+      "SELECT a.id, a.appointment_time, a.end_time, a.status, a.reason, a.created_at, "
+          + "a.patient_id, pp.first_name, pp.last_name, pp.triage_priority, "
+          + "a.doctor_id, dp.first_name, dp.last_name, dp.specialty "
+          + "FROM appointments a "
+          + "LEFT JOIN patient_profile pp ON pp.patient_id = a.patient_id "
+          + "LEFT JOIN doctor_profile dp ON dp.doctor_id = a.doctor_id "
+          + "ORDER BY a.appointment_time, a.id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+
+  public AppointmentExportServiceImpl(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      ObjectMapper objectMapper) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Prepares a streaming export of every appointment (ADMIN only).
+   *
+   * @param format NDJSON or CSV
+   * @param role the role of the user making the request
+   * @return body that writes the export when the response is streamed
+   */
+  @Override
+  public StreamingResponseBody exportAppointments(AppointmentExportFormat format, UserRole role) {
+    // checked eagerly, before the response is committed
+    if (role != UserRole.ADMIN) {
+      throw new IllegalArgumentException("You do not have permission to export appointments.");
+    }
+    return out -> export(format, out);
+  }
+
+  private void export(AppointmentExportFormat format, OutputStream out) throws IOException {
+    RowWriter writer = format == AppointmentExportFormat.CSV
+        ? new CsvRowWriter(out)
+        : new NdjsonRowWriter(objectMapper, out);
+    writer.writeHeader();
+
+    try {
+      transactionTemplate.executeWithoutResult(status ->
+          jdbcTemplate.query(this::openCursor, (ResultSet rs) -> {
+            try {
+              writer.write(rs);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          }));
+    } catch (UncheckedIOException e) {
+      // usually the client went away mid-download
+      throw e.getCause();
+    }
+
+    writer.flush();
+  }
+
+  /** Forward-only, read-only statement with a bounded fetch size **/
+  private PreparedStatement openCursor(Connection connection) throws SQLException {
+    PreparedStatement statement = connection.prepareStatement(
+        EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    statement.setFetchSize(FETCH_SIZE);
+    return statement;
+  }
+
+  /** Read column i (1-based) as a Long, ISO timestamp String, String or null **/
+  private static Object cell(ResultSet rs, int column) throws SQLException {
+    Object value = rs.getObject(column);
+    if (value instanceof Timestamp timestamp) {
+      return timestamp.toLocalDateTime().toString();
+    }
+    if (value instanceof Number number) {
+      // only id columns are numeric
+      return number.longValue();
+    }
+    return value == null ? null : value.toString();
+  }
+
+  // ========================================================================
+  // Row writers
+  // ========================================================================
+
+  private abstract static class RowWriter {
+    private long rows;
+
+    /** Write one row, pushing output to the client once per fetched batch **/
+    final void write(ResultSet rs) throws SQLException, IOException {
+      writeRow(rs);
+      if (++rows % FETCH_SIZE == 0) {
+        flush();
+      }
+    }
+
+    abstract void writeHeader() throws IOException;
+
+    abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+    abstract void flush() throws IOException;
+  }
+
+  /** One JSON object per line, keys taken from COLUMNS **/
+  private static final class NdjsonRowWriter extends RowWriter {
+    private final JsonGenerator generator;
+
+    NdjsonRowWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+      this.generator = objectMapper.getFactory().createGenerator(out);
+      // the servlet container owns the stream, and records are separated by newlines below
+      this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    void writeHeader() {
+      // NDJSON has no header
+    }
+
+    @Override
+    void writeRow(ResultSet rs) throws SQLException, IOException {
+      generator.writeStartObject();
+      for (int i = 0; i < COLUMNS.length; i++) {
+        Object value = cell(rs, i + 1);
+        generator.writeFieldName(COLUMNS[i]);
+        if (value == null) {
+          generator.writeNull();
+        } else if (value instanceof Long number) {
+          generator.writeNumber(number);
+        } else {
+          generator.writeString((String) value);
+        }
+      }
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+    }
+
+    @Override
+    void flush() throws IOException {
+      generator.flush();
+    }
+  }
+
+  /** RFC 4180 CSV with a header row **/
+  private static final class CsvRowWriter extends RowWriter {
+    private final Writer writer;
+
+    CsvRowWriter(OutputStream out) {
+      this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    void writeHeader() throws IOException {
+      writer.write(String.join(",", COLUMNS));
+      writer.write("\r\n");
+    }
+
+    @Override
+    void writeRow(ResultSet rs) throws SQLException, IOException {
+      for (int i = 0; i < COLUMNS.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        Object value = cell(rs, i + 1);
+        if (value != null) {
+          writeField(value.toString());
+        }
+      }
+      writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+      boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+          || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+      if (!quote) {
+        writer.write(value);
+        return;
+      }
+      writer.write('"');
+      writer.write(value.replace("\"", "\"\""));
+      writer.write('"');
+    }
+
+    @Override
+    void flush() throws IOException {
+      writer.flush();
+    }
+  }
+}
@@ -1,27 +1,51 @@
 package com.patienttriage.service.impl;
 
+import com.patienttriage.cache.IdempotencyKeyStore;
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.dto.AppointmentCursor;
+import com.patienttriage.dto.AppointmentFilter;
+import com.patienttriage.dto.AppointmentPage;
+import com.patienttriage.dto.AppointmentReceipt;
 import com.patienttriage.dto.AppointmentRequest;
 import com.patienttriage.dto.AppointmentResponse;
+import com.patienttriage.dto.AppointmentView;
 import com.patienttriage.dto.DoctorInfo;
+import com.patienttriage.dto.DoctorSlot;
 import com.patienttriage.dto.LimitedDoctorInfo;
 import com.patienttriage.dto.PatientInfo;
 import com.patienttriage.entity.Appointment;
 import com.patienttriage.entity.AppointmentStatus;
-import com.patienttriage.entity.DoctorProfile;
-import com.patienttriage.entity.PatientProfile;
 import com.patienttriage.entity.User;
 import com.patienttriage.entity.UserRole;
+import com.patienttriage.event.AppointmentChangedEvent;
+import com.patienttriage.event.AppointmentSnapshot;
+import com.patienttriage.exception.AppointmentConflictException;
 import com.patienttriage.repository.AppointmentRepository;
 import com.patienttriage.repository.UserRepository;
-import com.patienttriage.repository.PatientProfileRepository;
-import com.patienttriage.repository.DoctorProfileRepository;
+import com.patienttriage.repository.WaitlistEntryRepository;
+import com.patienttriage.schedule.BookingCoordinator;
+import com.patienttriage.schedule.Waitlist;
 import com.patienttriage.service.AppointmentService;
+import com.patienttriage.service.DoctorAvailabilityService;
+import com.patienttriage.triage.TriageQueue;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implementation of AppointmentService for appointment management operations.
@@ -29,133 +53,284 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class AppointmentServiceImpl implements AppointmentService {
 
+  private static final Logger log = LoggerFactory.getLogger(AppointmentServiceImpl.class);
+
+  /** Page size used when the client does not ask for one. */
+  static final int DEFAULT_PAGE_SIZE = 50;
+  /** Upper bound on the page size, whatever the client asks for. */
+  static final int MAX_PAGE_SIZE = 200;
+
+  /** Exclusion constraints on appointments (see init.sql) and the SQLState they raise **/
+  static final String DOCTOR_OVERLAP_CONSTRAINT = "appointments_doctor_no_overlap";
+  static final String PATIENT_OVERLAP_CONSTRAINT = "appointments_patient_no_overlap";
+  private static final String EXCLUSION_VIOLATION = "23P01";
+
+  private static final String DOCTOR_CONFLICT_MESSAGE = "Doctor already has an appointment at this time.";
+  private static final String PATIENT_CONFLICT_MESSAGE = "Patient already has an appointment at this time.";
+
+  /** Doctors tried, best first, when assigning one whose slot others keep taking **/
+  private static final int MAX_ASSIGNMENT_CANDIDATES = 5;
+
+  /** Waiters tried, best first, for a slot freed by a cancellation **/
+  private static final int MAX_BACKFILL_CANDIDATES = 5;
+  private static final String BACKFILL_REASON = "Booked from the waitlist";
+
   private final AppointmentRepository appointmentRepository;
   private final UserRepository userRepository;
-  private final PatientProfileRepository patientProfileRepository;
-  private final DoctorProfileRepository doctorProfileRepository;
+  private final ProfileCache profileCache;
+  private final BookingCoordinator bookingCoordinator;
+  private final ApplicationEventPublisher eventPublisher;
+  private final IdempotencyKeyStore idempotencyKeys;
+  private final DoctorAvailabilityService availabilityService;
+  private final TriageQueue triageQueue;
+  private final Waitlist waitlist;
+  private final WaitlistEntryRepository waitlistEntryRepository;
 
   public AppointmentServiceImpl(AppointmentRepository appointmentRepository, 
-                                UserRepository userRepository, PatientProfileRepository patientProfileRepository, DoctorProfileRepository doctorProfileRepository) {
+                                UserRepository userRepository, ProfileCache profileCache,
+                                BookingCoordinator bookingCoordinator,
+                                ApplicationEventPublisher eventPublisher,
+                                IdempotencyKeyStore idempotencyKeys,
+                                DoctorAvailabilityService availabilityService,
+                                TriageQueue triageQueue,
+                                Waitlist waitlist,
+                                WaitlistEntryRepository waitlistEntryRepository) {
     this.appointmentRepository = appointmentRepository;
     this.userRepository = userRepository;
-    this.patientProfileRepository = patientProfileRepository;
-    this.doctorProfileRepository = doctorProfileRepository;
+    this.profileCache = profileCache;
+    this.bookingCoordinator = bookingCoordinator;
+    this.eventPublisher = eventPublisher;
+    this.idempotencyKeys = idempotencyKeys;
+    this.availabilityService = availabilityService;
+    this.triageQueue = triageQueue;
+    this.waitlist = waitlist;
+    this.waitlistEntryRepository = waitlistEntryRepository;
   }
 
   // ------------- Create appointments -------------- //
   /**
    * Creates a new appointment.
    * 
-   * @param request the appointment request containing patientId, doctorId, appointmentTime, and reason
+   * @param request the appointment request containing patientId, doctorId, appointmentTime, durationMinutes, and reason
    * @param role the role of the user making the request (ADMIN, DOCTOR, PATIENT)
    * @param currentUserId the ID of the user making the request
    * @return AppointmentResponse with role-appropriate information
    */
   @Override
-  @Transactional
   public AppointmentResponse createAppointment(AppointmentRequest request, UserRole role, Long currentUserId) {
-    // 1. Load and validate current logged-in user exists
-    // currentUserId comes from HttpSession (set during login in UserController)
-    User currentUser = userRepository.findById(currentUserId)
-        .orElseThrow(() -> new RuntimeException("User not found with id: " + currentUserId));
+    // 1. role and currentUserId come from the verified session token (set during login in
+    // UserController), so the current user is not loaded again
 
-    // 2. Validate role-based constraints
-    // Ensure the logged-in user can only create appointments for themselves
-    UserRole currentUserRole = currentUser.getRole();
-    
-    if (currentUserRole == UserRole.PATIENT) {
-      // PATIENT can only create appointments for themselves
-      if (!request.getPatientId().equals(currentUserId)) {
+    // 2-8. Without a doctor, the clinic picks one
+    if (request.getDoctorId() == null) {
+      Appointment assigned = assignAppointment(request, role, currentUserId, this::insertAppointment);
+      return toResponse(assigned, role);
+    }
+
+    // 2-5. Validate the request and build the appointment
+    Appointment appointment = newAppointment(request, role, currentUserId);
+
+    // 6-8 run under the doctor's booking lock, in a transaction owned by the coordinator,
+    // so two requests for the same doctor cannot both pass the conflict check
+    Appointment savedAppointment = bookingCoordinator.withDoctorLocks(List.of(request.getDoctorId()),
+        () -> insertAppointment(appointment));
+    return toResponse(savedAppointment, role);
+  }
+
+  /**
+   * Creates a new appointment at most once per Idempotency-Key.
+   *
+   * @param request the appointment request containing patientId, doctorId, appointmentTime, durationMinutes, and reason
+   * @param role the role of the user making the request (ADMIN, DOCTOR, PATIENT)
+   * @param currentUserId the ID of the user making the request
+   * @param idempotencyKey the client's Idempotency-Key
+   * @return the appointment created for this key, and whether it was created earlier
+   */
+  @Override
+  public AppointmentReceipt createAppointment(AppointmentRequest request, UserRole role, Long currentUserId,
+      String idempotencyKey) {
+    if (idempotencyKey == null || idempotencyKey.isBlank()
+        || idempotencyKey.length() > IdempotencyKeyStore.MAX_KEY_LENGTH) {
+      throw new IllegalArgumentException("Idempotency-Key must be 1 to "
+          + IdempotencyKeyStore.MAX_KEY_LENGTH + " characters.");
+    }
+    String requestHash = requestHash(request);
+
+    // 1. A replay is answered from the key store and the appointment it created
+    Long replayed = idempotencyKeys.find(currentUserId, idempotencyKey, requestHash);
+    if (replayed != null) {
+      return new AppointmentReceipt(toResponse(findAppointment(replayed), role), true);
+    }
+
+    // 2. Same validation as a plain create
+    boolean[] replay = new boolean[1];
+    Appointment saved;
+    if (request.getDoctorId() == null) {
+      saved = assignAppointment(request, role, currentUserId,
+          appointment -> insertOnce(appointment, currentUserId, idempotencyKey, requestHash, replay));
+    } else {
+      Appointment appointment = newAppointment(request, role, currentUserId);
+      saved = bookingCoordinator.withDoctorLocks(List.of(request.getDoctorId()),
+          () -> insertOnce(appointment, currentUserId, idempotencyKey, requestHash, replay));
+    }
+    // the same payload as a plain create, so a client learns the doctor and time either way
+    return new AppointmentReceipt(toResponse(saved, role), replay[0]);
+  }
+
+  /**
+   * Steps 3-4 of a create with an Idempotency-Key, to run under the doctor's booking lock.
+   *
+   * @param replay set when the key was recorded by an earlier request
+   * @return the appointment created for this key
+   */
+  private Appointment insertOnce(Appointment appointment, Long currentUserId, String idempotencyKey,
+      String requestHash, boolean[] replay) {
+    // 3. A retry sent while the original was still running waits for the lock above; by now
+    // the original has committed, so its key is found here instead of failing the conflict check
+    Long original = idempotencyKeys.find(currentUserId, idempotencyKey, requestHash);
+    if (original != null) {
+      replay[0] = true;
+      return findAppointment(original);
+    }
+
+    // 4. Create as usual, recording the key in the same transaction
+    Appointment saved = insertAppointment(appointment);
+    idempotencyKeys.record(currentUserId, idempotencyKey, requestHash, saved.getId());
+    return saved;
+  }
+
+  /**
+   * Creates a batch of appointments in one transaction.
+   *
+   * @param requests the appointments to create
+   * @param role the role of the user making the request (ADMIN, DOCTOR, PATIENT)
+   * @param currentUserId the ID of the user making the request
+   * @return IDs of the created appointments, in request order
+   */
+  @Override
+  public List<Long> createAppointments(List<AppointmentRequest> requests, UserRole role, Long currentUserId) {
+    // 1. Same role rules as a single create, for every appointment
+    for (AppointmentRequest request : requests) {
+      if (role == UserRole.PATIENT && !request.getPatientId().equals(currentUserId)) {
         throw new RuntimeException("Patients can only create appointments for themselves");
       }
-    } else if (currentUserRole == UserRole.DOCTOR) {
-      // DOCTOR can only create appointments for themselves
-      if (!request.getDoctorId().equals(currentUserId)) {
+      if (role == UserRole.DOCTOR && !request.getDoctorId().equals(currentUserId)) {
         throw new RuntimeException("Doctors can only create appointments for themselves");
       }
-    } else if (currentUserRole == UserRole.ADMIN) {
-      // ADMIN can create appointments for any patient and doctor (no restrictions)
-      // No validation needed - admin has full access
     }
 
-    // 3. Validate patient exists and has PATIENT role
-    User patient= userRepository.findById(request.getPatientId())
-        .orElseThrow(() -> new RuntimeException("Patient not found with id: " + request.getPatientId()));
-    
-    if (patient.getRole() != UserRole.PATIENT) {
-      throw new RuntimeException("User with id " + request.getPatientId() + " is not a patient");
-    }
-
-    // 4. Validate doctor exists and has DOCTOR role
-    User doctor = userRepository.findById(request.getDoctorId())
-        .orElseThrow(() -> new RuntimeException("Doctor not found with id: " + request.getDoctorId()));
-    
-    if (doctor.getRole() != UserRole.DOCTOR) {
-      throw new RuntimeException("User with id " + request.getDoctorId() + " is not a doctor");
+    // 2. Validate every patient and doctor with one query
+    Set<Long> doctorIds = new HashSet<>();
+    Set<Long> patientIds = new HashSet<>();
+    for (AppointmentRequest request : requests) {
+      doctorIds.add(request.getDoctorId());
+      patientIds.add(request.getPatientId());
     }
+    Set<Long> userIds = new HashSet<>(doctorIds);
+    userIds.addAll(patientIds);
+    Map<Long, UserRole> roles = findRoles(userIds);
+    checkRole(patientIds, roles, UserRole.PATIENT, "Patient", "patient");
+    checkRole(doctorIds, roles, UserRole.DOCTOR, "Doctor", "doctor");
 
-    // 5. Validate appointment time is in the future
-    LocalDateTime appointmentTime = request.getAppointmentTime();
-    if (appointmentTime.isBefore(LocalDateTime.now())) {
-      throw new RuntimeException("Appointment time must be in the future");
+    // 3. Resolve times, then reject overlaps inside the batch before touching the database
+    LocalDateTime now = LocalDateTime.now();
+    List<BookedRange> batch = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      AppointmentRequest request = requests.get(i);
+      LocalDateTime appointmentTime = request.getAppointmentTime();
+      if (appointmentTime.isBefore(now)) {
+        throw new RuntimeException("Appointment time must be in the future");
+      }
+      int durationMinutes = request.getDurationMinutes() != null
+          ? request.getDurationMinutes()
+          : Appointment.DEFAULT_DURATION_MINUTES;
+      batch.add(new BookedRange(request.getDoctorId(), request.getPatientId(),
+          appointmentTime, appointmentTime.plusMinutes(durationMinutes), i));
     }
+    checkBatchConflicts(batch, List.of());
 
-    // 6. Check for time conflicts (doctor and patient cannot have overlapping appointments)
-    checkTimeConflicts(
-        appointmentTime,
-        request.getDoctorId(),
-        request.getPatientId(),
-        null // No appointment to ignore for new appointments
-    );
-
-    // 7. Create appointment entity
-    Appointment appointment = new Appointment(
-        patient,
-        doctor,
-        appointmentTime,
-        request.getReason()
-    );
+    // 4-5 run under every involved doctor's booking lock, like a single create
+    List<Appointment> saved = bookingCoordinator.withDoctorLocks(doctorIds, () -> {
+      // 4. One set query for the scheduled appointments the batch could overlap
+      LocalDateTime earliestStart = batch.stream().map(BookedRange::getStart)
+          .min(Comparator.naturalOrder()).orElseThrow();
+      LocalDateTime latestEnd = batch.stream().map(BookedRange::getEnd)
+          .max(Comparator.naturalOrder()).orElseThrow();
+      List<BookedRange> existing = new ArrayList<>();
+      for (AppointmentSnapshot booked : appointmentRepository.findScheduledSnapshots(doctorIds, patientIds,
+          earliestStart.minusMinutes(Appointment.MAX_DURATION_MINUTES), latestEnd)) {
+        existing.add(new BookedRange(booked.getDoctorId(), booked.getPatientId(),
+            booked.getAppointmentTime(), booked.getEndTime(), BookedRange.EXISTING));
+      }
+      checkBatchConflicts(batch, existing);
 
-    // 8. Save appointment
-    Appointment savedAppointment = appointmentRepository.save(appointment);
-    return toResponse(savedAppointment, currentUserRole);
+      // 5. Insert in JDBC batches; user references need no select
+      List<Appointment> appointments = new ArrayList<>(requests.size());
+      for (BookedRange range : batch) {
+        appointments.add(new Appointment(
+            userRepository.getReferenceById(range.getPatientId()),
+            userRepository.getReferenceById(range.getDoctorId()),
+            range.getStart(),
+            range.getEnd(),
+            requests.get(range.getIndex()).getReason()
+        ));
+      }
+      List<Appointment> inserted = saveAppointments(appointments);
+      for (Appointment appointment : inserted) {
+        eventPublisher.publishEvent(AppointmentChangedEvent.created(AppointmentSnapshot.of(appointment)));
+      }
+      return inserted;
+    });
+    return saved.stream().map(Appointment::getId).toList();
   }
 
   // ------------- Get appointments -------------- //
   /**
-   * Retrieves all appointments based on user role.
+   * Retrieves one page of appointments based on user role.
    * 
    * @param role the role of the user making the request (ADMIN, DOCTOR, PATIENT)
    * @param currentUserId the ID of the user making the request
-   * @return List of AppointmentResponse with role-appropriate information
+   * @param filter optional status/date-range filters, cursor and page size
+   * @return page of AppointmentResponse with role-appropriate information
    */
   @Override
-  public List<AppointmentResponse> getAppointments(UserRole role, Long currentUserId) {
-    // 1. load current user
-    User currentUser = userRepository.findById(currentUserId)
-        .orElseThrow(() -> new RuntimeException("User not found with id: " + currentUserId));
+  public AppointmentPage getAppointments(UserRole role, Long currentUserId, AppointmentFilter filter) {
+    // 1. validate filter and bound the page size (role and currentUserId come from the
+    // session token, so the current user is not loaded)
+    if (filter.getFrom() != null && filter.getTo() != null && !filter.getFrom().isBefore(filter.getTo())) {
+      throw new IllegalArgumentException("'from' must be before 'to'.");
+    }
+    int limit = pageSize(filter.getLimit());
 
-    List<Appointment> appointments;
+    // 2. role-based scope, everything else is filtered in the database.
+    // Each role gets its own projection, selecting only the columns it may see.
+    AppointmentCursor after = filter.getAfter();
+    LocalDateTime afterTime = after != null ? after.getAppointmentTime() : null;
+    Long afterId = after != null ? after.getAppointmentId() : null;
+    // fetch one extra row to know whether another page exists
+    PageRequest page = PageRequest.of(0, limit + 1);
 
-    // 2. role-based query
-    switch (role) {
-      case PATIENT:
-        appointments = appointmentRepository.findByPatient_Id(currentUserId);
-        break;
-      case DOCTOR:
-        appointments = appointmentRepository.findByDoctor_Id(currentUserId);
-        break;
-      case ADMIN:
-        appointments = appointmentRepository.findAll();
-        break;
-      default:
-        throw new RuntimeException("Invalid role");
+    List<? extends AppointmentView> rows = switch (role) {
+      case PATIENT -> appointmentRepository.findPatientViewPage(currentUserId,
+          filter.getStatus(), filter.getFrom(), filter.getTo(), afterTime, afterId, page);
+      case DOCTOR -> appointmentRepository.findDoctorViewPage(currentUserId,
+          filter.getStatus(), filter.getFrom(), filter.getTo(), afterTime, afterId, page);
+      case ADMIN -> appointmentRepository.findAdminViewPage(
+          filter.getStatus(), filter.getFrom(), filter.getTo(), afterTime, afterId, page);
+    };
+
+    String nextCursor = null;
+    if (rows.size() > limit) {
+      rows = rows.subList(0, limit);
+      nextCursor = rows.get(limit - 1).toCursor().encode();
     }
 
     // 3. map to responses
-    return appointments.stream()
-        .map(a -> toResponse(a, role))
-        .toList();
+    List<AppointmentResponse> responses = new ArrayList<>(rows.size());
+    for (AppointmentView row : rows) {
+      responses.add(row.toResponse());
+    }
+    return new AppointmentPage(responses, nextCursor);
   }
 
   /**
@@ -191,12 +366,30 @@ public class AppointmentServiceImpl implements AppointmentService {
    */
   @Override
   public AppointmentResponse updateAppointment(Long appointmentId, AppointmentRequest request, UserRole role, Long currentUserId) {
+    // Lock both the current doctor and the requested one (they differ when an admin
+    // moves the appointment); the coordinator owns the transaction
+    Long currentDoctorId = appointmentRepository.findDoctorIdById(appointmentId)
+        .orElseThrow(() -> new IllegalArgumentException("Appointment not found."));
+    Set<Long> doctorIds = new HashSet<>(List.of(currentDoctorId, request.getDoctorId()));
+    return bookingCoordinator.withDoctorLocks(doctorIds,
+        () -> updateAppointmentLocked(appointmentId, request, role, currentUserId, doctorIds));
+  }
+
+  /** Update body, run while holding the booking locks of lockedDoctorIds **/
+  private AppointmentResponse updateAppointmentLocked(Long appointmentId, AppointmentRequest request,
+      UserRole role, Long currentUserId, Set<Long> lockedDoctorIds) {
       Appointment appointment = appointmentRepository.findById(appointmentId)
           .orElseThrow(() -> new IllegalArgumentException("Appointment not found."));
 
+      // Another request moved it to a doctor we do not hold the lock for
+      if (!lockedDoctorIds.contains(appointment.getDoctor().getId())) {
+        throw new AppointmentConflictException("Appointment was changed by another request, please retry.");
+      }
+
       if (!hasAccess(appointment, role, currentUserId)) {
         throw new IllegalArgumentException("You do not have permission to update this appointment.");
       }
+      AppointmentSnapshot before = AppointmentSnapshot.of(appointment);
 
       // Cannot update if cancelled / completed
       if (appointment.getStatus() == AppointmentStatus.CANCELLED ||
@@ -246,27 +439,39 @@ public class AppointmentServiceImpl implements AppointmentService {
       Long finalDoctorId = appointment.getDoctor().getId();
       Long finalPatientId = appointment.getPatient().getId();
 
+      // Keep the current length unless the request gives a new one
+      LocalDateTime newTime = request.getAppointmentTime();
+      LocalDateTime newEndTime = request.getDurationMinutes() != null
+          ? newTime.plusMinutes(request.getDurationMinutes())
+          : newTime.plus(Duration.between(appointment.getAppointmentTime(), appointment.getEndTime()));
+
       // Check for time conflicts with the final doctor and patient
       // (ignore this appointment itself since we're updating it)
       checkTimeConflicts(
-          request.getAppointmentTime(),
+          newTime,
+          newEndTime,
           finalDoctorId,
           finalPatientId,
           appointmentId // Ignore this appointment when checking conflicts
       );
 
       // Update time and reason (all roles can update these)
-      appointment.setAppointmentTime(request.getAppointmentTime());
+      appointment.setAppointmentTime(newTime);
+      appointment.setEndTime(newEndTime);
       appointment.setReason(request.getReason());
 
-      appointmentRepository.save(appointment);
+      saveAppointment(appointment);
+      eventPublisher.publishEvent(AppointmentChangedEvent.updated(before, AppointmentSnapshot.of(appointment)));
       return toResponse(appointment, role);
     }
 
 
   // ------------- Cancel appointments -------------- //
   /**
-   * Cancels an appointment by setting status to CANCELLED.
+   * Cancels an appointment by setting status to CANCELLED, under the doctor's booking lock so
+   * it cannot interleave with an update or a backfill of the same appointment. Once that has
+   * committed, a future slot freed this way is booked for the best matching patient on the
+   * waitlist, if any.
    * 
    * @param appointmentId the ID of the appointment to cancel
    * @param role the role of the user making the request (ADMIN, DOCTOR, PATIENT)
@@ -275,52 +480,502 @@ public class AppointmentServiceImpl implements AppointmentService {
    */
   @Override
   public AppointmentResponse cancelAppointment(Long appointmentId, UserRole role, Long currentUserId) {
-    Appointment appointment = appointmentRepository.findById(appointmentId)
+    // Lock the appointment's doctor; the coordinator owns the transaction
+    Long doctorId = appointmentRepository.findDoctorIdById(appointmentId)
         .orElseThrow(() -> new IllegalArgumentException("Appointment not found."));
+    AppointmentSnapshot[] freed = new AppointmentSnapshot[1];
+    AppointmentResponse response = bookingCoordinator.withDoctorLocks(List.of(doctorId), () -> {
+      Appointment appointment = appointmentRepository.findById(appointmentId)
+          .orElseThrow(() -> new IllegalArgumentException("Appointment not found."));
 
-    if (!hasAccess(appointment, role, currentUserId)) {
-      throw new IllegalArgumentException("You do not have permission to cancel this appointment.");
+      // Another request moved it to a doctor we do not hold the lock for
+      if (!doctorId.equals(appointment.getDoctor().getId())) {
+        throw new AppointmentConflictException("Appointment was changed by another request, please retry.");
+      }
+
+      if (!hasAccess(appointment, role, currentUserId)) {
+        throw new IllegalArgumentException("You do not have permission to cancel this appointment.");
+      }
+
+      AppointmentSnapshot before = AppointmentSnapshot.of(appointment);
+      appointment.setStatus(AppointmentStatus.CANCELLED);
+      appointmentRepository.save(appointment);
+      eventPublisher.publishEvent(AppointmentChangedEvent.cancelled(before, AppointmentSnapshot.of(appointment)));
+      freed[0] = before.isScheduled() ? before : null;
+      return toResponse(appointment, role);
+    });
+
+    // The backfill takes the lock again, in a transaction of its own
+    if (freed[0] != null) {
+      backfill(freed[0]);
     }
+    return response;
+  }
 
-    appointment.setStatus(AppointmentStatus.CANCELLED);
-    appointmentRepository.save(appointment);
-    return toResponse(appointment, role);
+  /**
+   * Cancels every scheduled appointment of a doctor in a time window with one UPDATE, then
+   * offers each freed slot to the waitlist.
+   *
+   * @param doctorId the doctor whose appointments are cancelled
+   * @param from inclusive lower bound on appointment time
+   * @param to exclusive upper bound on appointment time
+   * @param role the role of the user making the request (must be ADMIN)
+   * @return number of appointments cancelled
+   */
+  @Override
+  public int cancelDoctorAppointments(Long doctorId, LocalDateTime from, LocalDateTime to, UserRole role) {
+    checkBulkChange(from, to, role);
+
+    List<AppointmentSnapshot> freed = bookingCoordinator.withDoctorLocks(List.of(doctorId), () -> {
+      List<AppointmentRepository.ChangedRow> rows = appointmentRepository.cancelScheduledInWindow(doctorId, from, to);
+      List<AppointmentSnapshot> cancelled = new ArrayList<>(rows.size());
+      for (AppointmentRepository.ChangedRow row : rows) {
+        AppointmentSnapshot before = snapshot(row, row.getDoctorId(), AppointmentStatus.SCHEDULED);
+        eventPublisher.publishEvent(AppointmentChangedEvent.cancelled(
+            before, snapshot(row, row.getDoctorId(), AppointmentStatus.CANCELLED)));
+        cancelled.add(before);
+      }
+      return cancelled;
+    });
+
+    // Offer each freed slot to the waitlist, as a single cancel does, once the cancel has committed
+    for (AppointmentSnapshot slot : freed) {
+      backfill(slot);
+    }
+    return freed.size();
+  }
+
+  /**
+   * Moves every scheduled appointment of a doctor in a time window to another doctor: one
+   * query checks the new doctor's schedule for the whole window, then one UPDATE moves them.
+   *
+   * @param doctorId the doctor whose appointments are moved
+   * @param newDoctorId the doctor taking the appointments over
+   * @param from inclusive lower bound on appointment time
+   * @param to exclusive upper bound on appointment time
+   * @param role the role of the user making the request (must be ADMIN)
+   * @return number of appointments moved
+   */
+  @Override
+  public int reassignDoctorAppointments(Long doctorId, Long newDoctorId, LocalDateTime from, LocalDateTime to,
+      UserRole role) {
+    checkBulkChange(from, to, role);
+    if (newDoctorId == null) {
+      throw new IllegalArgumentException("New doctor ID is required.");
+    }
+    if (newDoctorId.equals(doctorId)) {
+      throw new IllegalArgumentException("New doctor must be different from the current doctor.");
+    }
+    Map<Long, UserRole> roles = new HashMap<>();
+    for (UserRepository.IdAndRole user : userRepository.findRolesByIdIn(List.of(newDoctorId))) {
+      roles.put(user.getId(), user.getRole());
+    }
+    checkRole(Set.of(newDoctorId), roles, UserRole.DOCTOR, "Doctor", "doctor");
+
+    // Both schedules change, so hold both doctors' booking locks
+    return bookingCoordinator.withDoctorLocks(List.of(doctorId, newDoctorId), () -> {
+      appointmentRepository.findFirstReassignConflict(doctorId, newDoctorId, from, to).ifPresent(id -> {
+        throw new AppointmentConflictException("Appointment " + id + ": " + DOCTOR_CONFLICT_MESSAGE);
+      });
+
+      List<AppointmentRepository.ChangedRow> rows;
+      try {
+        rows = appointmentRepository.reassignScheduledInWindow(doctorId, newDoctorId, from, to);
+      } catch (DataIntegrityViolationException e) {
+        throw overlapConflict(e);
+      }
+      for (AppointmentRepository.ChangedRow row : rows) {
+        eventPublisher.publishEvent(AppointmentChangedEvent.updated(
+            snapshot(row, doctorId, AppointmentStatus.SCHEDULED),
+            snapshot(row, row.getDoctorId(), AppointmentStatus.SCHEDULED)));
+      }
+      return rows.size();
+    });
   }
 
   // ========================================================================
   // Helper Methods
   // ========================================================================
 
-  /** Check doctor + patient time conflicts **/
-  private void checkTimeConflicts(LocalDateTime time, Long doctorId, Long patientId, Long ignoreAppointmentId) {
-    // doctor conflicts
-    List<Appointment> doctorConflicts =
-        appointmentRepository.findConflictsByDoctor(doctorId, time);
+  /**
+   * Steps 2-5 of a create: role rules, patient and doctor checks, and a future start. Returns
+   * the appointment to insert.
+   */
+  private Appointment newAppointment(AppointmentRequest request, UserRole currentUserRole, Long currentUserId) {
+    // 2. Validate role-based constraints
+    // Ensure the logged-in user can only create appointments for themselves
+
+    if (currentUserRole == UserRole.PATIENT) {
+      // PATIENT can only create appointments for themselves
+      if (!request.getPatientId().equals(currentUserId)) {
+        throw new RuntimeException("Patients can only create appointments for themselves");
+      }
+    } else if (currentUserRole == UserRole.DOCTOR) {
+      // DOCTOR can only create appointments for themselves
+      if (!request.getDoctorId().equals(currentUserId)) {
+        throw new RuntimeException("Doctors can only create appointments for themselves");
+      }
+    } else if (currentUserRole == UserRole.ADMIN) {
+      // ADMIN can create appointments for any patient and doctor (no restrictions)
+      // No validation needed - admin has full access
+    }
+
+    // 3-4. Validate patient and doctor exist with PATIENT and DOCTOR roles, in one query
+    Long patientId = request.getPatientId();
+    Long doctorId = request.getDoctorId();
+    Map<Long, UserRole> roles = findRoles(List.of(patientId, doctorId));
+    checkRole(Set.of(patientId), roles, UserRole.PATIENT, "Patient", "patient");
+    checkRole(Set.of(doctorId), roles, UserRole.DOCTOR, "Doctor", "doctor");
 
-    // ignore appointment itself when updating
-    if (ignoreAppointmentId != null) {
-      doctorConflicts = doctorConflicts.stream()
-          .filter(a -> !a.getId().equals(ignoreAppointmentId))
-          .toList();
+    // 5. Validate appointment time is in the future
+    LocalDateTime appointmentTime = request.getAppointmentTime();
+    if (appointmentTime.isBefore(LocalDateTime.now())) {
+      throw new RuntimeException("Appointment time must be in the future");
     }
 
-    if (!doctorConflicts.isEmpty()) {
-      throw new IllegalArgumentException("Doctor already has an appointment at this time.");
+    int durationMinutes = request.getDurationMinutes() != null
+        ? request.getDurationMinutes()
+        : Appointment.DEFAULT_DURATION_MINUTES;
+    // user references need no select
+    return new Appointment(
+        userRepository.getReferenceById(patientId),
+        userRepository.getReferenceById(doctorId),
+        appointmentTime,
+        appointmentTime.plusMinutes(durationMinutes),
+        request.getReason()
+    );
+  }
+
+  /**
+   * Steps 2-8 of a create without a doctor: rank the doctors of the specialty and book the
+   * first one whose slot is still free. The ranking reads the slot index without locks, so a
+   * concurrent booking may take a slot in between; that shows up as a doctor conflict under
+   * the doctor's lock, and the next doctor in line is tried.
+   *
+   * @param insert steps 6-8 (plain or idempotent), run under the chosen doctor's lock
+   */
+  private <T> T assignAppointment(AppointmentRequest request, UserRole currentUserRole, Long currentUserId,
+      Function<Appointment, T> insert) {
+    // 2. Patients can have a doctor assigned to themselves, admins to anyone
+    if (currentUserRole == UserRole.PATIENT) {
+      if (!request.getPatientId().equals(currentUserId)) {
+        throw new RuntimeException("Patients can only create appointments for themselves");
+      }
+    } else if (currentUserRole != UserRole.ADMIN) {
+      throw new IllegalArgumentException("Doctor ID is required.");
     }
 
-    // patient conflicts
-    List<Appointment> patientConflicts =
-        appointmentRepository.findConflictsByPatient(patientId, time);
+    // 3. Validate patient exists and has PATIENT role
+    Long patientId = request.getPatientId();
+    checkRole(Set.of(patientId), findRoles(List.of(patientId)), UserRole.PATIENT, "Patient", "patient");
+    User patient = userRepository.getReferenceById(patientId);
+
+    // 4. The requested specialty, or that of the triage queue the patient waits in
+    String specialty = request.getSpecialty();
+    if (specialty == null || specialty.isBlank()) {
+      TriageQueue.Ticket ticket = triageQueue.find(patientId);
+      if (ticket == null) {
+        throw new IllegalArgumentException("Doctor ID or specialty is required.");
+      }
+      specialty = ticket.getSpecialty();
+    }
 
-    if (ignoreAppointmentId != null) {
-      patientConflicts = patientConflicts.stream()
-          .filter(a -> !a.getId().equals(ignoreAppointmentId))
-          .toList();
+    // 5. Validate appointment time is in the future (the earliest start the patient accepts)
+    LocalDateTime notBefore = request.getAppointmentTime();
+    if (notBefore.isBefore(LocalDateTime.now())) {
+      throw new RuntimeException("Appointment time must be in the future");
     }
+    int durationMinutes = request.getDurationMinutes() != null
+        ? request.getDurationMinutes()
+        : Appointment.DEFAULT_DURATION_MINUTES;
 
-    if (!patientConflicts.isEmpty()) {
-      throw new IllegalArgumentException("Patient already has an appointment at this time.");
+    // 6-8. Try the best doctors in turn
+    List<DoctorSlot> candidates = availabilityService.rankDoctorsForAssignment(
+        specialty, notBefore, durationMinutes, patientId, MAX_ASSIGNMENT_CANDIDATES);
+    if (candidates.isEmpty()) {
+      throw new AppointmentConflictException("No " + specialty.trim()
+          + " doctor has a free slot within a month of the requested time.");
+    }
+    Map<Long, User> doctors = new HashMap<>();
+    for (User doctor : userRepository.findAllById(candidates.stream().map(DoctorSlot::getDoctorId).toList())) {
+      doctors.put(doctor.getId(), doctor);
+    }
+    for (DoctorSlot candidate : candidates) {
+      User doctor = doctors.get(candidate.getDoctorId());
+      if (doctor == null) {
+        continue; // deleted since the ranking
+      }
+      Appointment appointment = new Appointment(patient, doctor, candidate.getStart(), candidate.getEnd(),
+          request.getReason());
+      try {
+        return bookingCoordinator.withDoctorLocks(List.of(doctor.getId()), () -> insert.apply(appointment));
+      } catch (AppointmentConflictException e) {
+        if (!DOCTOR_CONFLICT_MESSAGE.equals(e.getMessage())) {
+          throw e;
+        }
+      }
     }
+    throw new AppointmentConflictException("The free " + specialty.trim()
+        + " slots found were all just booked by others, please retry.");
+  }
+
+  /**
+   * Books a slot freed by a cancellation for the best waiter whose window covers it: those
+   * waiting for the doctor or the doctor's specialty, highest triage priority first. Deleting
+   * the waiter's row claims them, in the same transaction as the booking, so two backfills
+   * never book one waiter. A waiter who has something else booked at that time is passed
+   * over and keeps waiting. Never fails the cancellation itself.
+   */
+  private void backfill(AppointmentSnapshot freed) {
+    LocalDateTime start = freed.getAppointmentTime();
+    if (!start.isAfter(LocalDateTime.now())) {
+      return;
+    }
+    Long doctorId = freed.getDoctorId();
+    DoctorInfo doctor = profileCache.findDoctor(doctorId);
+    String specialty = doctor != null && doctor.getSpecialty() != null
+        ? TriageQueue.key(doctor.getSpecialty())
+        : null;
+
+    for (Waitlist.Waiter waiter : waitlist.match(doctorId, specialty, start, freed.getEndTime(),
+        MAX_BACKFILL_CANDIDATES)) {
+      try {
+        Appointment booked = bookingCoordinator.withDoctorLocks(List.of(doctorId), () -> {
+          if (waitlistEntryRepository.deleteEntry(waiter.getId()) == 0) {
+            return null; // left the waitlist, or another backfill booked them
+          }
+          return insertAppointment(new Appointment(
+              userRepository.getReferenceById(waiter.getPatientId()),
+              userRepository.getReferenceById(doctorId),
+              start, freed.getEndTime(), BACKFILL_REASON));
+        });
+        waitlist.remove(waiter.getId());
+        if (booked != null) {
+          log.info("Booked waitlist entry {} into appointment {}", waiter.getId(), booked.getId());
+          return;
+        }
+      } catch (AppointmentConflictException e) {
+        if (DOCTOR_CONFLICT_MESSAGE.equals(e.getMessage())) {
+          return; // someone booked the slot in the meantime
+        }
+      } catch (RuntimeException e) {
+        log.warn("Could not book waitlist entry {} into a freed slot", waiter.getId(), e);
+        return;
+      }
+    }
+  }
+
+  /** Steps 6-8 of a create, to run under the doctor's booking lock **/
+  private Appointment insertAppointment(Appointment appointment) {
+    // 6. Check for time conflicts (doctor and patient cannot have overlapping appointments)
+    checkTimeConflicts(
+        appointment.getAppointmentTime(),
+        appointment.getEndTime(),
+        appointment.getDoctor().getId(),
+        appointment.getPatient().getId(),
+        null // No appointment to ignore for new appointments
+    );
+
+    // 7-8. Save appointment (the slot index picks it up after commit)
+    Appointment saved = saveAppointment(appointment);
+    eventPublisher.publishEvent(AppointmentChangedEvent.created(AppointmentSnapshot.of(saved)));
+    return saved;
+  }
+
+  /** What an Idempotency-Key is bound to: every field of the create request **/
+  private static String requestHash(AppointmentRequest request) {
+    return IdempotencyKeyStore.requestHash(request.getPatientId(), request.getDoctorId(),
+        request.getSpecialty(), request.getAppointmentTime(), request.getDurationMinutes(),
+        request.getReason());
+  }
+
+  /**
+   * Check doctor + patient overlaps with one EXISTS query over scheduled rows. The in-memory
+   * slot index is not consulted: it only sees this JVM's writes, so a stale entry would
+   * reject a valid booking.
+   */
+  private void checkTimeConflicts(LocalDateTime time, LocalDateTime endTime, Long doctorId,
+      Long patientId, Long ignoreAppointmentId) {
+    // ignoreAppointmentId skips the appointment itself when updating
+    int conflicts = appointmentRepository.findConflictMask(doctorId, patientId, time, endTime,
+        time.minusMinutes(Appointment.MAX_DURATION_MINUTES), ignoreAppointmentId);
+    if ((conflicts & AppointmentRepository.DOCTOR_CONFLICT) != 0) {
+      throw new AppointmentConflictException(DOCTOR_CONFLICT_MESSAGE);
+    }
+
+    if ((conflicts & AppointmentRepository.PATIENT_CONFLICT) != 0) {
+      throw new AppointmentConflictException(PATIENT_CONFLICT_MESSAGE);
+    }
+  }
+
+  /**
+   * Save an appointment. The database has the final say on overlaps (another node may book
+   * after the conflict check): an exclusion constraint violation becomes a conflict error. Ids come
+   * from a sequence, so persist does not insert right away; flush to hit the constraints here.
+   */
+  private Appointment saveAppointment(Appointment appointment) {
+    try {
+      Appointment saved = appointmentRepository.save(appointment);
+      appointmentRepository.flush();
+      return saved;
+    } catch (DataIntegrityViolationException e) {
+      throw overlapConflict(e);
+    }
+  }
+
+  /** Save new appointments with batched inserts, translating overlaps like saveAppointment **/
+  private List<Appointment> saveAppointments(List<Appointment> appointments) {
+    try {
+      List<Appointment> saved = appointmentRepository.saveAll(appointments);
+      appointmentRepository.flush();
+      return saved;
+    } catch (DataIntegrityViolationException e) {
+      throw overlapConflict(e);
+    }
+  }
+
+  /** The conflict error an exclusion constraint violation stands for, or the exception itself **/
+  private static RuntimeException overlapConflict(DataIntegrityViolationException e) {
+    String message = overlapViolationMessage(e);
+    if (message != null && message.contains(DOCTOR_OVERLAP_CONSTRAINT)) {
+      return new AppointmentConflictException(DOCTOR_CONFLICT_MESSAGE, e);
+    }
+    if (message != null && message.contains(PATIENT_OVERLAP_CONSTRAINT)) {
+      return new AppointmentConflictException(PATIENT_CONFLICT_MESSAGE, e);
+    }
+    return e;
+  }
+
+  /** Bulk cancel / reassign are for admins, over a non-empty window **/
+  private static void checkBulkChange(LocalDateTime from, LocalDateTime to, UserRole role) {
+    if (role != UserRole.ADMIN) {
+      throw new IllegalArgumentException("You do not have permission to change appointments in bulk.");
+    }
+    if (!to.isAfter(from)) {
+      throw new IllegalArgumentException("'to' must be after 'from'.");
+    }
+  }
+
+  /** Snapshot of a row changed by a bulk update, with the given doctor and status **/
+  private static AppointmentSnapshot snapshot(AppointmentRepository.ChangedRow row, Long doctorId,
+      AppointmentStatus status) {
+    return new AppointmentSnapshot(row.getId(), doctorId, row.getPatientId(),
+        row.getAppointmentTime(), row.getEndTime(), status);
+  }
+
+  /** Roles of the given users, by ID, from one query; users that do not exist are left out **/
+  private Map<Long, UserRole> findRoles(Collection<Long> userIds) {
+    Map<Long, UserRole> roles = new HashMap<>();
+    for (UserRepository.IdAndRole user : userRepository.findRolesByIdIn(userIds)) {
+      roles.put(user.getId(), user.getRole());
+    }
+    return roles;
+  }
+
+  /** Every id must exist with the expected role ("Patient not found with id: 7", ...) **/
+  private static void checkRole(Set<Long> ids, Map<Long, UserRole> roles, UserRole expected,
+      String label, String roleName) {
+    for (Long id : ids) {
+      UserRole actual = roles.get(id);
+      if (actual == null) {
+        throw new RuntimeException(label + " not found with id: " + id);
+      }
+      if (actual != expected) {
+        throw new RuntimeException("User with id " + id + " is not a " + roleName);
+      }
+    }
+  }
+
+  /**
+   * Sweep the new ranges together with already booked ones, per doctor and per patient, in
+   * start order: a range overlaps when it starts before the latest end seen so far. Booked
+   * ranges never overlap each other, so only overlaps involving a new range are reported.
+   */
+  private static void checkBatchConflicts(List<BookedRange> batch, List<BookedRange> existing) {
+    List<BookedRange> all = new ArrayList<>(batch.size() + existing.size());
+    all.addAll(batch);
+    all.addAll(existing);
+    all.sort(Comparator.comparing(BookedRange::getStart));
+    sweep(all, BookedRange::getDoctorId, DOCTOR_CONFLICT_MESSAGE);
+    sweep(all, BookedRange::getPatientId, PATIENT_CONFLICT_MESSAGE);
+  }
+
+  private static void sweep(List<BookedRange> sorted, Function<BookedRange, Long> owner, String conflictMessage) {
+    Map<Long, BookedRange> latestEnding = new HashMap<>();
+    for (BookedRange range : sorted) {
+      BookedRange previous = latestEnding.get(owner.apply(range));
+      if (previous != null && range.getStart().isBefore(previous.getEnd())) {
+        if (range.isNew() || previous.isNew()) {
+          int index = range.isNew() ? range.getIndex() : previous.getIndex();
+          throw new AppointmentConflictException("appointments[" + index + "]: " + conflictMessage);
+        }
+      }
+      if (previous == null || range.getEnd().isAfter(previous.getEnd())) {
+        latestEnding.put(owner.apply(range), range);
+      }
+    }
+  }
+
+  /** One [start, end) booking in a bulk conflict check; index is its position in the request **/
+  private static final class BookedRange {
+    static final int EXISTING = -1;
+
+    private final Long doctorId;
+    private final Long patientId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final int index;
+
+    BookedRange(Long doctorId, Long patientId, LocalDateTime start, LocalDateTime end, int index) {
+      this.doctorId = doctorId;
+      this.patientId = patientId;
+      this.start = start;
+      this.end = end;
+      this.index = index;
+    }
+
+    Long getDoctorId() {
+      return doctorId;
+    }
+
+    Long getPatientId() {
+      return patientId;
+    }
+
+    LocalDateTime getStart() {
+      return start;
+    }
+
+    LocalDateTime getEnd() {
+      return end;
+    }
+
+    int getIndex() {
+      return index;
+    }
+
+    boolean isNew() {
+      return index != EXISTING;
+    }
+  }
+
+  /** Message of the SQL exclusion violation (SQLState 23P01) behind this exception, if any **/
+  private static String overlapViolationMessage(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sqlException
+          && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+        return sqlException.getMessage();
+      }
+    }
+    return null;
+  }
+
+  /** Clamp the requested page size into [1, MAX_PAGE_SIZE] **/
+  private int pageSize(Integer requested) {
+    if (requested == null) {
+      return DEFAULT_PAGE_SIZE;
+    }
+    return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
   }
 
   /** Role access check **/
@@ -332,12 +987,30 @@ public class AppointmentServiceImpl implements AppointmentService {
     };
   }
 
+  /** Load an appointment, failing like the other lookups when it is gone **/
+  private Appointment findAppointment(Long appointmentId) {
+    return appointmentRepository.findById(appointmentId)
+        .orElseThrow(() -> new IllegalArgumentException("Appointment not found."));
+  }
+
   /** Convert Appointment entity to DTO with role-based visibility **/
   private AppointmentResponse toResponse(Appointment appointment, UserRole role) {
+    // Profiles come from the profile cache (either may be null if profiles don't exist yet)
+    PatientInfo patientInfo = role == UserRole.PATIENT
+        ? null
+        : profileCache.findPatient(appointment.getPatient().getId());
+    DoctorInfo doctorInfo = profileCache.findDoctor(appointment.getDoctor().getId());
+    return toResponse(appointment, role, patientInfo, doctorInfo);
+  }
+
+  /** Convert Appointment entity to DTO using already loaded profiles (either may be null) **/
+  private AppointmentResponse toResponse(Appointment appointment, UserRole role,
+      PatientInfo patientInfo, DoctorInfo doctorInfo) {
 
     AppointmentResponse dto = new AppointmentResponse();
     dto.setAppointmentId(appointment.getId());
     dto.setAppointmentTime(appointment.getAppointmentTime());
+    dto.setEndTime(appointment.getEndTime());
     dto.setReason(appointment.getReason());
     dto.setStatus(appointment.getStatus());
     dto.setCreatedAt(appointment.getCreatedAt());
@@ -350,28 +1023,14 @@ public class AppointmentServiceImpl implements AppointmentService {
     dto.setPatientId(patientUserId);
     dto.setDoctorId(doctorUserId);
 
-    // Load full profiles (may be null if profiles don't exist yet)
-    PatientProfile patientProfile = patientProfileRepository.findByPatient_Id(patientUserId);
-    DoctorProfile doctorProfile = doctorProfileRepository.findByDoctor_Id(doctorUserId);
-
     switch (role) {
 
       case ADMIN:
       case DOCTOR:
         // 1. Full Patient Info (handle null profile)
-        if (patientProfile != null) {
-          dto.setPatientInfo(new PatientInfo(
-              patientProfile.getPatientId(),
-              patientProfile.getFirstName(),
-              patientProfile.getLastName(),
-              patientProfile.getAge(),
-              patientProfile.getGender(),
-              patientProfile.getSymptom(),
-              patientProfile.getMedicalHistory(),
-              patientProfile.getAllergies(),
-              patientProfile.getCurrentMedications(),
-              patientProfile.getTriagePriority()
-          ));
+        // cached snapshots are shared between responses and never modified
+        if (patientInfo != null) {
+          dto.setPatientInfo(patientInfo);
         } else {
           // Patient profile doesn't exist - set with default values
           dto.setPatientInfo(new PatientInfo(
@@ -389,15 +1048,8 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
 
         // 2. Full Doctor Info (handle null profile)
-        if (doctorProfile != null) {
-          dto.setDoctorInfo(new DoctorInfo(
-              doctorProfile.getDoctorId(),
-              doctorProfile.getFirstName(),
-              doctorProfile.getLastName(),
-              doctorProfile.getSpecialty(),
-              doctorProfile.getLicenseNumber(),
-              doctorProfile.getWorkTime()
-          ));
+        if (doctorInfo != null) {
+          dto.setDoctorInfo(doctorInfo);
         } else {
           // Doctor profile doesn't exist - set with default values
           dto.setDoctorInfo(new DoctorInfo(
@@ -413,11 +1065,11 @@ public class AppointmentServiceImpl implements AppointmentService {
 
       case PATIENT:
         // Patient sees only limited doctor info (handle null profile)
-        if (doctorProfile != null) {
+        if (doctorInfo != null) {
           dto.setLimitedDoctorInfo(new LimitedDoctorInfo(
-              doctorProfile.getFirstName(),
-              doctorProfile.getLastName(),
-              doctorProfile.getSpecialty()
+              doctorInfo.getFirstName(),
+              doctorInfo.getLastName(),
+              doctorInfo.getSpecialty()
           ));
         } else {
           // Doctor profile doesn't exist - set with default values
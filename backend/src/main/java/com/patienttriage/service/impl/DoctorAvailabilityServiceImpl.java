@@ -0,0 +1,354 @@
+package com.patienttriage.service.impl;
+
+import com.patienttriage.cache.BoundedTtlCache;
+import com.patienttriage.cache.BoundedTtlCacheMetrics;
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.dto.AvailableSlot;
+import com.patienttriage.dto.DoctorAvailability;
+import com.patienttriage.dto.DoctorInfo;
+import com.patienttriage.dto.DoctorSlot;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.event.AppointmentChangedEvent;
+import com.patienttriage.event.AppointmentSnapshot;
+import com.patienttriage.repository.DoctorProfileRepository;
+import com.patienttriage.schedule.AppointmentSlotIndex;
+import com.patienttriage.schedule.WorkSchedule;
+import com.patienttriage.service.DoctorAvailabilityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Implementation of DoctorAvailabilityService.
+ *
+ * Working hours are compiled once per distinct workTime string into a {@link WorkSchedule};
+ * booked slots come from the in-memory {@link AppointmentSlotIndex}. The free-slot bitmap of
+ * each (doctor, day) is cached and evicted when an appointment of that doctor on that day
+ * changes, with a short TTL as a safety net (the index only sees this JVM's writes). A free
+ * slot is a hint, not a hold: booking it still goes through the usual conflict checks.
+ */
+@Service
+public class DoctorAvailabilityServiceImpl implements DoctorAvailabilityService {
+
+  private static final Logger log = LoggerFactory.getLogger(DoctorAvailabilityServiceImpl.class);
+
+  private static final int DEFAULT_RANGE_DAYS = 7;
+  private static final int MAX_RANGE_DAYS = 31;
+  private static final int DEFAULT_EARLIEST_LIMIT = 10;
+  private static final int MAX_EARLIEST_LIMIT = 100;
+
+  private final ProfileCache profileCache;
+  private final DoctorProfileRepository doctorProfileRepository;
+  private final AppointmentSlotIndex slotIndex;
+
+  private final BoundedTtlCache<String, WorkSchedule> schedules;
+  private final BoundedTtlCache<DoctorDay, FreeSlots> freeSlots;
+
+  public DoctorAvailabilityServiceImpl(ProfileCache profileCache,
+                                       DoctorProfileRepository doctorProfileRepository,
+                                       AppointmentSlotIndex slotIndex,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${triage.cache.availability.max-size:10000}") int maxSize,
+                                       @Value("${triage.cache.availability.ttl:1m}") Duration ttl) {
+    this.profileCache = profileCache;
+    this.doctorProfileRepository = doctorProfileRepository;
+    this.slotIndex = slotIndex;
+    // compiled schedules never go stale (the key is the text), so only the size bounds them
+    this.schedules = new BoundedTtlCache<>(1000, Duration.ofDays(1));
+    this.freeSlots = new BoundedTtlCache<>(maxSize, ttl);
+    BoundedTtlCacheMetrics.monitor(meterRegistry, freeSlots, "doctorAvailability");
+  }
+
+  @Override
+  public DoctorAvailability getAvailability(Long doctorId, LocalDate from, LocalDate to) {
+    LocalDate firstDay = from != null ? from : LocalDate.now();
+    LocalDate endDay = to != null ? to : firstDay.plusDays(DEFAULT_RANGE_DAYS);
+    if (!endDay.isAfter(firstDay)) {
+      throw new IllegalArgumentException("'to' must be after 'from'.");
+    }
+    if (ChronoUnit.DAYS.between(firstDay, endDay) > MAX_RANGE_DAYS) {
+      throw new IllegalArgumentException("Availability can be searched at most " + MAX_RANGE_DAYS + " days at a time.");
+    }
+
+    DoctorInfo doctor = profileCache.findDoctor(doctorId);
+    if (doctor == null) {
+      throw new IllegalArgumentException("Doctor not found with id: " + doctorId);
+    }
+
+    List<AvailableSlot> slots = freeSlots(doctor, firstDay, endDay, LocalDateTime.now(), Integer.MAX_VALUE);
+    return new DoctorAvailability(doctorId, firstDay, endDay, WorkSchedule.SLOT_MINUTES, slots);
+  }
+
+  @Override
+  public List<DoctorSlot> findEarliestSlots(String specialty, LocalDate from, Integer limit, UserRole role) {
+    if (role != UserRole.ADMIN) {
+      throw new IllegalArgumentException("You do not have permission to search all doctors of a specialty.");
+    }
+    if (specialty == null || specialty.isBlank()) {
+      throw new IllegalArgumentException("Specialty is required.");
+    }
+    int topN = limit == null ? DEFAULT_EARLIEST_LIMIT : Math.max(1, Math.min(limit, MAX_EARLIEST_LIMIT));
+    LocalDate firstDay = from != null ? from : LocalDate.now();
+    LocalDate endDay = firstDay.plusDays(MAX_RANGE_DAYS);
+    LocalDateTime now = LocalDateTime.now();
+
+    Collection<DoctorInfo> doctors = profileCache.findDoctors(
+        doctorProfileRepository.findDoctorIdsBySpecialty(specialty.trim())).values();
+
+    // one doctor at a time: each costs a few cache lookups and bitmap operations under the
+    // availability cache's single lock, so worker threads would only queue on that lock. No
+    // doctor can contribute more than topN slots, and each stops scanning days once it has that many
+    List<List<DoctorSlot>> perDoctor = new ArrayList<>(doctors.size());
+    for (DoctorInfo doctor : doctors) {
+      List<AvailableSlot> slots = freeSlots(doctor, firstDay, endDay, now, topN);
+      if (!slots.isEmpty()) {
+        perDoctor.add(slots.stream().map(slot -> new DoctorSlot(doctor, slot)).toList());
+      }
+    }
+    return mergeEarliest(perDoctor, topN);
+  }
+
+  @Override
+  public List<DoctorSlot> rankDoctorsForAssignment(String specialty, LocalDateTime notBefore,
+      int durationMinutes, Long patientId, int limit) {
+    int slotsNeeded = (durationMinutes + WorkSchedule.SLOT_MINUTES - 1) / WorkSchedule.SLOT_MINUTES;
+    LocalDate firstDay = notBefore.toLocalDate();
+    LocalDateTime start = notBefore.isAfter(LocalDateTime.now()) ? notBefore : LocalDateTime.now();
+    // the patient's own bookings rule out the same slots with every doctor; computed once per day
+    long[] patientBooked = new long[MAX_RANGE_DAYS];
+    boolean[] patientLoaded = new boolean[MAX_RANGE_DAYS];
+
+    List<Candidate> candidates = new ArrayList<>();
+    for (DoctorInfo doctor : profileCache.findDoctors(
+        doctorProfileRepository.findDoctorIdsBySpecialty(specialty.trim())).values()) {
+      for (int offset = 0; offset < MAX_RANGE_DAYS; offset++) {
+        LocalDate day = firstDay.plusDays(offset);
+        long free = freeSlots(doctor.getDoctorId(), doctor.getWorkTime(), day);
+        if (free == 0) {
+          continue;
+        }
+        if (!patientLoaded[offset]) {
+          patientBooked[offset] = slotIndex.bookedPatientSlots(patientId, day);
+          patientLoaded[offset] = true;
+        }
+        LocalDateTime found = firstFit(free & ~patientBooked[offset], slotsNeeded, day, start);
+        if (found != null) {
+          candidates.add(new Candidate(new DoctorSlot(doctor,
+              new AvailableSlot(found, found.plusMinutes(durationMinutes))),
+              slotIndex.doctorLoad(doctor.getDoctorId())));
+          break;
+        }
+      }
+    }
+    candidates.sort(Candidate.ORDER);
+    return candidates.stream().limit(limit).map(candidate -> candidate.slot).toList();
+  }
+
+  /**
+   * Drops the cached days an appointment change touches, for the old and the new doctor.
+   * Ordered after the slot index so a recomputed day already sees the change.
+   */
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAppointmentChanged(AppointmentChangedEvent event) {
+    evict(event.getBefore());
+    evict(event.getAfter());
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  /** The first `limit` free slots in [firstDay, endDay) that start after now, in time order **/
+  private List<AvailableSlot> freeSlots(DoctorInfo doctor, LocalDate firstDay, LocalDate endDay,
+      LocalDateTime now, int limit) {
+    List<AvailableSlot> slots = new ArrayList<>();
+    for (LocalDate day = firstDay; day.isBefore(endDay); day = day.plusDays(1)) {
+      long free = freeSlots(doctor.getDoctorId(), doctor.getWorkTime(), day);
+      while (free != 0) {
+        int slot = Long.numberOfTrailingZeros(free);
+        free &= free - 1;
+        LocalDateTime start = WorkSchedule.slotStart(day, slot);
+        if (start.isAfter(now)) {
+          slots.add(new AvailableSlot(start, start.plusMinutes(WorkSchedule.SLOT_MINUTES)));
+          if (slots.size() == limit) {
+            return slots;
+          }
+        }
+      }
+    }
+    return slots;
+  }
+
+  /**
+   * k-way merge of per-doctor lists that are each sorted by start: a heap holds the head of
+   * every list, so taking the top n costs O(n log k) for k doctors.
+   */
+  private static List<DoctorSlot> mergeEarliest(List<List<DoctorSlot>> perDoctor, int n) {
+    PriorityQueue<ListCursor> heads = new PriorityQueue<>(Math.max(1, perDoctor.size()));
+    for (List<DoctorSlot> slots : perDoctor) {
+      if (!slots.isEmpty()) {
+        heads.add(new ListCursor(slots));
+      }
+    }
+    List<DoctorSlot> merged = new ArrayList<>(n);
+    while (merged.size() < n && !heads.isEmpty()) {
+      ListCursor head = heads.poll();
+      merged.add(head.current());
+      if (head.advance()) {
+        heads.add(head);
+      }
+    }
+    return merged;
+  }
+
+  /** Free slot bitmap of one day: working slots minus booked slots **/
+  private long freeSlots(Long doctorId, String workTime, LocalDate day) {
+    DoctorDay key = new DoctorDay(doctorId, day);
+    FreeSlots cached = freeSlots.getIfPresent(key);
+    // a profile edit changes the work time, which makes the cached bitmap useless
+    if (cached != null && Objects.equals(cached.workTime, workTime)) {
+      return cached.slots;
+    }
+    long working = compile(workTime).slotsOn(day.getDayOfWeek());
+    long free = working & ~slotIndex.bookedDoctorSlots(doctorId, day);
+    freeSlots.put(key, new FreeSlots(workTime, free));
+    return free;
+  }
+
+  /** Start of the first run of slotsNeeded free slots on a day starting at or after notBefore **/
+  private static LocalDateTime firstFit(long free, int slotsNeeded, LocalDate day, LocalDateTime notBefore) {
+    // bit i stays set only if slots i .. i + slotsNeeded - 1 are all free
+    long fits = free;
+    for (int i = 1; i < slotsNeeded && fits != 0; i++) {
+      fits &= free >>> i;
+    }
+    while (fits != 0) {
+      int slot = Long.numberOfTrailingZeros(fits);
+      fits &= fits - 1;
+      LocalDateTime start = WorkSchedule.slotStart(day, slot);
+      if (!start.isBefore(notBefore)) {
+        return start;
+      }
+    }
+    return null;
+  }
+
+  /** Parse a work time once; text that cannot be parsed means no working hours **/
+  private WorkSchedule compile(String workTime) {
+    if (workTime == null) {
+      return WorkSchedule.EMPTY;
+    }
+    WorkSchedule schedule = schedules.getIfPresent(workTime);
+    if (schedule == null) {
+      try {
+        schedule = WorkSchedule.parse(workTime);
+      } catch (IllegalArgumentException e) {
+        log.warn("Cannot parse doctor work time '{}': {}", workTime, e.getMessage());
+        schedule = WorkSchedule.EMPTY;
+      }
+      schedules.put(workTime, schedule);
+    }
+    return schedule;
+  }
+
+  private void evict(AppointmentSnapshot appointment) {
+    if (appointment == null) {
+      return;
+    }
+    LocalDate lastDay = appointment.getEndTime().minusNanos(1).toLocalDate();
+    for (LocalDate day = appointment.getAppointmentTime().toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+      freeSlots.invalidate(new DoctorDay(appointment.getDoctorId(), day));
+    }
+  }
+
+  /** Position in one doctor's sorted slot list, ordered by its current slot **/
+  private static final class ListCursor implements Comparable<ListCursor> {
+    private static final Comparator<DoctorSlot> ORDER = Comparator
+        .comparing(DoctorSlot::getStart)
+        .thenComparing(DoctorSlot::getDoctorId);
+
+    private final List<DoctorSlot> slots;
+    private int position;
+
+    private ListCursor(List<DoctorSlot> slots) {
+      this.slots = slots;
+    }
+
+    DoctorSlot current() {
+      return slots.get(position);
+    }
+
+    boolean advance() {
+      return ++position < slots.size();
+    }
+
+    @Override
+    public int compareTo(ListCursor other) {
+      return ORDER.compare(current(), other.current());
+    }
+  }
+
+  /** A doctor's offer for assignment: earliest fitting slot, then lowest load, then lowest ID **/
+  private static final class Candidate {
+    private static final Comparator<Candidate> ORDER = Comparator
+        .comparing((Candidate c) -> c.slot.getStart())
+        .thenComparingInt(c -> c.load)
+        .thenComparing(c -> c.slot.getDoctorId());
+
+    private final DoctorSlot slot;
+    private final int load;
+
+    private Candidate(DoctorSlot slot, int load) {
+      this.slot = slot;
+      this.load = load;
+    }
+  }
+
+  /** Cache key: one doctor on one date **/
+  private static final class DoctorDay {
+    private final Long doctorId;
+    private final LocalDate day;
+
+    private DoctorDay(Long doctorId, LocalDate day) {
+      this.doctorId = doctorId;
+      this.day = day;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof DoctorDay other && doctorId.equals(other.doctorId) && day.equals(other.day);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * doctorId.hashCode() + day.hashCode();
+    }
+  }
+
+  /** Cached free slots, with the work time they were computed from **/
+  private static final class FreeSlots {
+    private final String workTime;
+    private final long slots;
+
+    private FreeSlots(String workTime, long slots) {
+      this.workTime = workTime;
+      this.slots = slots;
+    }
+  }
+}
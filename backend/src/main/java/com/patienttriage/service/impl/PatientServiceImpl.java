@@ -0,0 +1,66 @@
+package com.patienttriage.service.impl;
+
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.dto.TriageStatus;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.event.SymptomSubmittedEvent;
+import com.patienttriage.repository.PatientProfileRepository;
+import com.patienttriage.service.PatientService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of PatientService.
+ *
+ * Submitting a symptom only saves it and publishes a {@link SymptomSubmittedEvent}; the
+ * triage evaluation pipeline picks it up from there.
+ */
+@Service
+public class PatientServiceImpl implements PatientService {
+
+  private final PatientProfileRepository patientProfileRepository;
+  private final ProfileCache profileCache;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public PatientServiceImpl(PatientProfileRepository patientProfileRepository,
+                            ProfileCache profileCache,
+                            ApplicationEventPublisher eventPublisher) {
+    this.patientProfileRepository = patientProfileRepository;
+    this.profileCache = profileCache;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public void submitSymptom(String symptom, UserRole role, Long currentUserId) {
+    checkPatient(role);
+
+    // the old priority was for the old symptom, so it is cleared in the same statement
+    patientProfileRepository.upsertSymptom(currentUserId, symptom.trim());
+    // a native write skips the entity listener that normally evicts the profile
+    profileCache.evictPatient(currentUserId);
+
+    eventPublisher.publishEvent(new SymptomSubmittedEvent(currentUserId));
+  }
+
+  @Override
+  public TriageStatus getTriageStatus(UserRole role, Long currentUserId) {
+    checkPatient(role);
+
+    PatientInfo patient = profileCache.findPatient(currentUserId);
+    if (patient == null) {
+      return new TriageStatus(currentUserId, null, null);
+    }
+    return new TriageStatus(currentUserId, patient.getSymptom(), patient.getTriagePriority());
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  private static void checkPatient(UserRole role) {
+    if (role != UserRole.PATIENT) {
+      throw new IllegalArgumentException("Only patients can submit symptoms and follow their triage.");
+    }
+  }
+}
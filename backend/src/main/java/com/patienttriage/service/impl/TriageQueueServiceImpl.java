@@ -0,0 +1,208 @@
+package com.patienttriage.service.impl;
+
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.dto.DoctorInfo;
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.dto.TriageQueueRequest;
+import com.patienttriage.dto.TriageTicket;
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.event.TriagePriorityChangedEvent;
+import com.patienttriage.event.TriageQueueChangedEvent;
+import com.patienttriage.repository.DoctorProfileRepository;
+import com.patienttriage.repository.TriageQueueEntryRepository;
+import com.patienttriage.repository.UserRepository;
+import com.patienttriage.service.TriageQueueService;
+import com.patienttriage.triage.TriageQueue;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Implementation of TriageQueueService.
+ *
+ * The triage_queue table decides who is waiting: a patient joins once their row is inserted
+ * and leaves once it is deleted, and the in-memory {@link TriageQueue} follows each change
+ * that succeeded. Taking the next patient works the other way round, polling the queue first
+ * so concurrent doctors never get the same patient, then deleting the row. A waiting patient
+ * whose priority is assessed meanwhile moves to it, keeping their arrival time. Every change
+ * publishes a {@link TriageQueueChangedEvent} for the patients behind.
+ */
+@Service
+public class TriageQueueServiceImpl implements TriageQueueService {
+
+  private static final int DEFAULT_LIST_LIMIT = 20;
+  private static final int MAX_LIST_LIMIT = 100;
+
+  // patients whose profile has no (recognizable) priority have not been assessed yet
+  private static final TriagePriority UNASSESSED_PRIORITY = TriagePriority.MEDIUM;
+
+  private final TriageQueue triageQueue;
+  private final TriageQueueEntryRepository triageQueueEntryRepository;
+  private final DoctorProfileRepository doctorProfileRepository;
+  private final UserRepository userRepository;
+  private final ProfileCache profileCache;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public TriageQueueServiceImpl(TriageQueue triageQueue,
+                                TriageQueueEntryRepository triageQueueEntryRepository,
+                                DoctorProfileRepository doctorProfileRepository,
+                                UserRepository userRepository,
+                                ProfileCache profileCache,
+                                ApplicationEventPublisher eventPublisher) {
+    this.triageQueue = triageQueue;
+    this.triageQueueEntryRepository = triageQueueEntryRepository;
+    this.doctorProfileRepository = doctorProfileRepository;
+    this.userRepository = userRepository;
+    this.profileCache = profileCache;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public TriageTicket enqueue(TriageQueueRequest request, UserRole role, Long currentUserId) {
+    // 1. Work out who joins
+    Long patientId;
+    if (role == UserRole.PATIENT) {
+      if (request.getPatientId() != null && !request.getPatientId().equals(currentUserId)) {
+        throw new IllegalArgumentException("You can only add yourself to a triage queue.");
+      }
+      patientId = currentUserId;
+    } else if (role == UserRole.ADMIN) {
+      patientId = request.getPatientId();
+      if (patientId == null) {
+        throw new IllegalArgumentException("Patient ID is required.");
+      }
+      checkPatient(patientId);
+    } else {
+      throw new IllegalArgumentException("You do not have permission to add patients to a triage queue.");
+    }
+
+    // 2. Only specialties some doctor can take patients from
+    String specialty = request.getSpecialty().trim();
+    if (!doctorProfileRepository.existsBySpecialty(specialty)) {
+      throw new IllegalArgumentException("No doctors found for specialty: " + specialty);
+    }
+
+    // 3. Join at the profile's priority
+    PatientInfo patient = profileCache.findPatient(patientId);
+    TriagePriority priority = patient != null ? TriagePriority.parse(patient.getTriagePriority()) : null;
+    if (priority == null) {
+      priority = UNASSESSED_PRIORITY;
+    }
+
+    String key = TriageQueue.key(specialty);
+    LocalDateTime now = LocalDateTime.now();
+    if (triageQueueEntryRepository.insertIfAbsent(patientId, key, priority.name(), now) == 0) {
+      throw new IllegalArgumentException("Patient " + patientId + " is already waiting in a triage queue.");
+    }
+    TriageQueue.Ticket ticket = triageQueue.offer(patientId, key, priority, now);
+    if (ticket == null) {
+      // the row was gone while the queue still held the patient (deleted elsewhere)
+      triageQueue.remove(patientId);
+      ticket = triageQueue.offer(patientId, key, priority, now);
+    }
+    eventPublisher.publishEvent(new TriageQueueChangedEvent(key));
+    return new TriageTicket(ticket, patient);
+  }
+
+  @Override
+  public List<TriageTicket> listQueue(String specialty, Integer limit, UserRole role, Long currentUserId) {
+    String key = checkQueueAccess(specialty, role, currentUserId);
+    int n = limit == null ? DEFAULT_LIST_LIMIT : Math.max(1, Math.min(limit, MAX_LIST_LIMIT));
+
+    List<TriageQueue.Ticket> tickets = triageQueue.peek(key, n);
+    Map<Long, PatientInfo> patients = profileCache.findPatients(
+        tickets.stream().map(TriageQueue.Ticket::getPatientId).toList());
+    return tickets.stream()
+        .map(ticket -> new TriageTicket(ticket, patients.get(ticket.getPatientId())))
+        .toList();
+  }
+
+  @Override
+  public TriageTicket takeNext(String specialty, UserRole role, Long currentUserId) {
+    String key = checkQueueAccess(specialty, role, currentUserId);
+
+    TriageQueue.Ticket ticket = triageQueue.poll(key);
+    if (ticket == null) {
+      return null;
+    }
+    try {
+      triageQueueEntryRepository.deleteByPatientId(ticket.getPatientId());
+    } catch (RuntimeException e) {
+      // still waiting as far as the table is concerned, so put the patient back
+      triageQueue.offer(ticket.getPatientId(), key, ticket.getPriority(), ticket.getEnqueuedAt());
+      throw e;
+    }
+    eventPublisher.publishEvent(new TriageQueueChangedEvent(key));
+    return new TriageTicket(ticket, profileCache.findPatient(ticket.getPatientId()));
+  }
+
+  @Override
+  public void leave(Long patientId, UserRole role, Long currentUserId) {
+    if (role == UserRole.PATIENT) {
+      if (!patientId.equals(currentUserId)) {
+        throw new IllegalArgumentException("You can only remove yourself from a triage queue.");
+      }
+    } else if (role != UserRole.ADMIN) {
+      throw new IllegalArgumentException("You do not have permission to remove patients from a triage queue.");
+    }
+
+    if (triageQueueEntryRepository.deleteByPatientId(patientId) == 0) {
+      throw new IllegalArgumentException("Patient " + patientId + " is not waiting in a triage queue.");
+    }
+    TriageQueue.Ticket ticket = triageQueue.remove(patientId);
+    if (ticket != null) {
+      eventPublisher.publishEvent(new TriageQueueChangedEvent(ticket.getSpecialty()));
+    }
+  }
+
+  /** Re-offers a waiting patient at their newly assessed priority **/
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTriagePriorityChanged(TriagePriorityChangedEvent event) {
+    // the row first: a patient who is not waiting, or already at this priority, has nothing to move
+    if (triageQueueEntryRepository.updatePriority(event.getPatientId(), event.getPriority()) == 0) {
+      return;
+    }
+    TriageQueue.Ticket ticket = triageQueue.reprioritize(event.getPatientId(), event.getPriority());
+    if (ticket != null) {
+      eventPublisher.publishEvent(new TriageQueueChangedEvent(ticket.getSpecialty()));
+    }
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  /** Admins see every queue, doctors only their own specialty's; returns the queue key **/
+  private String checkQueueAccess(String specialty, UserRole role, Long currentUserId) {
+    if (specialty == null || specialty.isBlank()) {
+      throw new IllegalArgumentException("Specialty is required.");
+    }
+    String key = TriageQueue.key(specialty);
+    if (role == UserRole.ADMIN) {
+      return key;
+    }
+    if (role == UserRole.DOCTOR) {
+      DoctorInfo doctor = profileCache.findDoctor(currentUserId);
+      if (doctor != null && doctor.getSpecialty() != null
+          && TriageQueue.key(doctor.getSpecialty()).equals(key)) {
+        return key;
+      }
+      throw new IllegalArgumentException("You can only access the triage queue of your own specialty.");
+    }
+    throw new IllegalArgumentException("You do not have permission to access triage queues.");
+  }
+
+  private void checkPatient(Long patientId) {
+    List<UserRepository.IdAndRole> users = userRepository.findRolesByIdIn(List.of(patientId));
+    if (users.isEmpty()) {
+      throw new IllegalArgumentException("Patient not found with id: " + patientId);
+    }
+    if (users.get(0).getRole() != UserRole.PATIENT) {
+      throw new IllegalArgumentException("User with id " + patientId + " is not a patient");
+    }
+  }
+}
@@ -1,9 +1,12 @@
 package com.patienttriage.service.impl;
 
+import com.patienttriage.auth.LoginThrottle;
+import com.patienttriage.auth.PasswordHasher;
+import com.patienttriage.auth.UsernameFilter;
 import com.patienttriage.repository.UserRepository;
 import com.patienttriage.entity.User;
 import com.patienttriage.entity.UserRole;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import com.patienttriage.service.UserService;
 
@@ -14,10 +17,18 @@ import com.patienttriage.service.UserService;
 public class UserServiceImpl implements UserService {
 
   private final UserRepository userRepository;
-  private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+  private final PasswordHasher passwordHasher;
+  private final LoginThrottle loginThrottle;
+  private final UsernameFilter usernameFilter;
 
-  public UserServiceImpl(UserRepository userRepository) {
+  public UserServiceImpl(UserRepository userRepository,
+                         PasswordHasher passwordHasher,
+                         LoginThrottle loginThrottle,
+                         UsernameFilter usernameFilter) {
     this.userRepository = userRepository;
+    this.passwordHasher = passwordHasher;
+    this.loginThrottle = loginThrottle;
+    this.usernameFilter = usernameFilter;
   }
 
   /**
@@ -31,19 +42,26 @@ public class UserServiceImpl implements UserService {
   @Override
   public User register(String username, String rawPassword, UserRole role) {
 
-    // Check duplicates
-    if (userRepository.existsByUsername(username)) {
+    // Check duplicates (the database is only asked when the username filter might know it)
+    if (usernameFilter.exists(username)) {
       throw new RuntimeException("Username already exists: " + username);
     }
 
-    // Encrypt password
-    String encodedPassword = passwordEncoder.encode(rawPassword);
+    // Encrypt password (on the hashing pool, may be turned away with 503 when it is full)
+    String encodedPassword = passwordHasher.encode(rawPassword);
 
     // Create user entity
     User newUser = new User(username, encodedPassword, role);
 
-    // Save to database
-    return userRepository.save(newUser);
+    // Save to database (the unique index catches a username the filter has not seen yet)
+    User saved;
+    try {
+      saved = userRepository.save(newUser);
+    } catch (DataIntegrityViolationException e) {
+      throw new RuntimeException("Username already exists: " + username);
+    }
+    usernameFilter.add(username);
+    return saved;
   }
 
   /**
@@ -52,18 +70,24 @@ public class UserServiceImpl implements UserService {
    * @param username the username to authenticate
    * @param rawPassword the plain text password to verify
    * @return the authenticated User entity
+   * @throws com.patienttriage.exception.TooManyLoginAttemptsException if the username has
+   *     had too many attempts in the current window
    */
   @Override
   public User login(String username, String rawPassword) {
 
+    // Count the attempt first, so a throttled username costs neither a lookup nor a hash
+    loginThrottle.acquire(username);
+
     User user = userRepository.findByUsername(username)
         .orElseThrow(() -> new RuntimeException("User not found"));
 
-    // Validate password
-    if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+    // Validate password (on the hashing pool, may be turned away with 503 when it is full)
+    if (!passwordHasher.matches(rawPassword, user.getPassword())) {
       throw new RuntimeException("Invalid password");
     }
 
+    loginThrottle.reset(username);
     return user;
   }
 
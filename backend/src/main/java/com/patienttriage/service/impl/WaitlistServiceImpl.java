@@ -0,0 +1,187 @@
+package com.patienttriage.service.impl;
+
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.dto.WaitlistRequest;
+import com.patienttriage.dto.WaitlistSpot;
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.entity.WaitlistEntry;
+import com.patienttriage.event.TriagePriorityChangedEvent;
+import com.patienttriage.repository.DoctorProfileRepository;
+import com.patienttriage.repository.UserRepository;
+import com.patienttriage.repository.WaitlistEntryRepository;
+import com.patienttriage.schedule.Waitlist;
+import com.patienttriage.service.WaitlistService;
+import com.patienttriage.triage.TriageQueue;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Implementation of WaitlistService.
+ *
+ * The waitlist table decides who is waiting: an entry counts once its row is saved and
+ * stops counting once it is deleted, and the in-memory {@link Waitlist} follows each change
+ * that succeeded, including a move to the patient's newly assessed priority. Entries are
+ * booked into freed slots by the cancellation backfill in {@link AppointmentServiceImpl}.
+ */
+@Service
+public class WaitlistServiceImpl implements WaitlistService {
+
+  // patients whose profile has no (recognizable) priority have not been assessed yet
+  private static final TriagePriority UNASSESSED_PRIORITY = TriagePriority.MEDIUM;
+
+  private final Waitlist waitlist;
+  private final WaitlistEntryRepository waitlistEntryRepository;
+  private final DoctorProfileRepository doctorProfileRepository;
+  private final UserRepository userRepository;
+  private final ProfileCache profileCache;
+
+  public WaitlistServiceImpl(Waitlist waitlist,
+                             WaitlistEntryRepository waitlistEntryRepository,
+                             DoctorProfileRepository doctorProfileRepository,
+                             UserRepository userRepository,
+                             ProfileCache profileCache) {
+    this.waitlist = waitlist;
+    this.waitlistEntryRepository = waitlistEntryRepository;
+    this.doctorProfileRepository = doctorProfileRepository;
+    this.userRepository = userRepository;
+    this.profileCache = profileCache;
+  }
+
+  @Override
+  public WaitlistSpot join(WaitlistRequest request, UserRole role, Long currentUserId) {
+    // 1. Work out who joins
+    Long patientId;
+    if (role == UserRole.PATIENT) {
+      if (request.getPatientId() != null && !request.getPatientId().equals(currentUserId)) {
+        throw new IllegalArgumentException("You can only add yourself to the waitlist.");
+      }
+      patientId = currentUserId;
+    } else if (role == UserRole.ADMIN) {
+      patientId = request.getPatientId();
+      if (patientId == null) {
+        throw new IllegalArgumentException("Patient ID is required.");
+      }
+      checkRole(patientId, UserRole.PATIENT, "Patient", "patient");
+    } else {
+      throw new IllegalArgumentException("You do not have permission to add patients to the waitlist.");
+    }
+
+    // 2. A doctor or a specialty some doctor has
+    Long doctorId = request.getDoctorId();
+    boolean hasSpecialty = request.getSpecialty() != null && !request.getSpecialty().isBlank();
+    if ((doctorId == null) == !hasSpecialty) {
+      throw new IllegalArgumentException("Either a doctor ID or a specialty is required, not both.");
+    }
+    String specialty = null;
+    if (doctorId != null) {
+      checkRole(doctorId, UserRole.DOCTOR, "Doctor", "doctor");
+    } else {
+      String name = request.getSpecialty().trim();
+      if (!doctorProfileRepository.existsBySpecialty(name)) {
+        throw new IllegalArgumentException("No doctors found for specialty: " + name);
+      }
+      specialty = TriageQueue.key(name);
+    }
+
+    // 3. A window still to come, short enough to index per day
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime from = request.getFrom();
+    LocalDateTime to = request.getTo();
+    if (!to.isAfter(from)) {
+      throw new IllegalArgumentException("Window end must be after window start.");
+    }
+    if (!to.isAfter(now)) {
+      throw new IllegalArgumentException("Window end must be in the future.");
+    }
+    if (from.plusDays(Waitlist.MAX_WINDOW_DAYS).isBefore(to)) {
+      throw new IllegalArgumentException("Window must be at most " + Waitlist.MAX_WINDOW_DAYS + " days long.");
+    }
+    if (from.isBefore(now)) {
+      from = now;
+    }
+
+    // 4. Wait at the profile's priority
+    PatientInfo patient = profileCache.findPatient(patientId);
+    TriagePriority priority = patient != null ? TriagePriority.parse(patient.getTriagePriority()) : null;
+    if (priority == null) {
+      priority = UNASSESSED_PRIORITY;
+    }
+
+    WaitlistEntry entry = waitlistEntryRepository.save(
+        new WaitlistEntry(patientId, doctorId, specialty, from, to, priority, now));
+    waitlist.add(entry);
+    return new WaitlistSpot(entry);
+  }
+
+  @Override
+  public List<WaitlistSpot> listSpots(Long patientId, UserRole role, Long currentUserId) {
+    if (role == UserRole.PATIENT) {
+      if (patientId != null && !patientId.equals(currentUserId)) {
+        throw new IllegalArgumentException("You can only view your own waitlist entries.");
+      }
+      patientId = currentUserId;
+    } else if (role == UserRole.ADMIN) {
+      if (patientId == null) {
+        throw new IllegalArgumentException("Patient ID is required.");
+      }
+    } else {
+      throw new IllegalArgumentException("You do not have permission to view waitlist entries.");
+    }
+
+    return waitlistEntryRepository.findByPatientIdOrderByWindowStart(patientId).stream()
+        .map(WaitlistSpot::new)
+        .toList();
+  }
+
+  @Override
+  public void leave(Long id, UserRole role, Long currentUserId) {
+    WaitlistEntry entry = waitlistEntryRepository.findById(id)
+        .orElseThrow(() -> new IllegalArgumentException("Waitlist entry not found."));
+    if (role == UserRole.PATIENT) {
+      if (!entry.getPatientId().equals(currentUserId)) {
+        throw new IllegalArgumentException("You can only remove your own waitlist entries.");
+      }
+    } else if (role != UserRole.ADMIN) {
+      throw new IllegalArgumentException("You do not have permission to remove waitlist entries.");
+    }
+
+    // already gone if a cancellation just booked it
+    if (waitlistEntryRepository.deleteEntry(id) == 0) {
+      throw new IllegalArgumentException("Waitlist entry not found.");
+    }
+    waitlist.remove(id);
+  }
+
+  /** Re-files a patient's waitlist entries at their newly assessed priority **/
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTriagePriorityChanged(TriagePriorityChangedEvent event) {
+    Long patientId = event.getPatientId();
+    if (waitlistEntryRepository.updatePriorityByPatientId(patientId, event.getPriority()) == 0) {
+      return;
+    }
+    for (WaitlistEntry entry : waitlistEntryRepository.findByPatientIdOrderByWindowStart(patientId)) {
+      // entries booked or expired since are not filed again
+      if (waitlist.remove(entry.getId()) != null) {
+        waitlist.add(entry);
+      }
+    }
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  private void checkRole(Long userId, UserRole expected, String label, String noun) {
+    List<UserRepository.IdAndRole> users = userRepository.findRolesByIdIn(List.of(userId));
+    if (users.isEmpty()) {
+      throw new IllegalArgumentException(label + " not found with id: " + userId);
+    }
+    if (users.get(0).getRole() != expected) {
+      throw new IllegalArgumentException("User with id " + userId + " is not a " + noun);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package com.patienttriage.triage;
+
+import com.openai.client.OpenAIClient;
+import com.openai.client.okhttp.OpenAIOkHttpClient;
+import com.openai.models.chat.completions.ChatCompletion;
+import com.openai.models.chat.completions.ChatCompletionCreateParams;
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.entity.TriagePriority;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * TriageEvaluator backed by an OpenAI-compatible chat completions endpoint. The base URL is
+ * configurable, so the same code talks to OpenAI, a self-hosted model server or a local
+ * stub. A batch of patients goes out as one numbered list in a single request and the model
+ * answers with one "number: PRIORITY" line per patient.
+ *
+ * Without an API key only an endpoint on this host (localhost or a loopback address) is
+ * called, so a deployment that forgot the key never sends patient data to a remote service.
+ */
+@Component
+public class OpenAiTriageEvaluator implements TriageEvaluator, DisposableBean {
+
+  static final String SYSTEM_PROMPT = "You are an emergency department triage nurse. "
+      + "For each numbered patient, reply with exactly one line \"<number>: <priority>\" where "
+      + "priority is HIGH (needs care now), MEDIUM (needs care today) or LOW (can wait). "
+      + "Reply with nothing else.";
+
+  private static final Pattern ANSWER_LINE =
+      Pattern.compile("^\\s*(\\d{1,4})\\s*[:.)-]\\s*\\**\\s*(HIGH|MEDIUM|LOW)\\b", Pattern.CASE_INSENSITIVE);
+  private static final Pattern LOOPBACK_IPV4 = Pattern.compile("127(\\.\\d{1,3}){3}");
+
+  private final OpenAIClient client;
+  private final String model;
+  private final boolean configured;
+
+  public OpenAiTriageEvaluator(@Value("${triage.llm.base-url}") String baseUrl,
+                               @Value("${triage.llm.api-key:}") String apiKey,
+                               @Value("${triage.llm.model}") String model,
+                               @Value("${triage.llm.timeout:30s}") Duration timeout,
+                               @Value("${triage.llm.max-retries:1}") int maxRetries) {
+    this.client = OpenAIOkHttpClient.builder()
+        .baseUrl(baseUrl)
+        // local model servers usually ignore the key, but the client insists on one
+        .apiKey(apiKey.isBlank() ? "unused" : apiKey)
+        .timeout(timeout)
+        .maxRetries(maxRetries)
+        .build();
+    this.model = model;
+    this.configured = !apiKey.isBlank() || isLocal(baseUrl);
+  }
+
+  @Override
+  public List<TriagePriority> evaluate(List<PatientInfo> patients) {
+    if (!configured) {
+      throw new IllegalStateException("No triage.llm.api-key for a remote triage model endpoint");
+    }
+    ChatCompletionCreateParams params = ChatCompletionCreateParams.builder()
+        .model(model)
+        .addSystemMessage(SYSTEM_PROMPT)
+        .addUserMessage(describe(patients))
+        .build();
+    ChatCompletion completion = client.chat().completions().create(params);
+    String answer = completion.choices().isEmpty() ? ""
+        : completion.choices().get(0).message().content().orElse("");
+    return parse(answer, patients.size());
+  }
+
+  @Override
+  public boolean isConfigured() {
+    return configured;
+  }
+
+  @Override
+  public void destroy() {
+    client.close();
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  /** One numbered line per patient: age, gender, symptom and history when known **/
+  static String describe(List<PatientInfo> patients) {
+    StringBuilder prompt = new StringBuilder();
+    for (int i = 0; i < patients.size(); i++) {
+      PatientInfo patient = patients.get(i);
+      prompt.append(i + 1).append(". ");
+      if (patient.getAge() > 0) {
+        prompt.append("age ").append(patient.getAge()).append(", ");
+      }
+      if (patient.getGender() != null) {
+        prompt.append(patient.getGender()).append(", ");
+      }
+      prompt.append("symptom: ").append(patient.getSymptom().replace('\n', ' '));
+      if (patient.getMedicalHistory() != null && !patient.getMedicalHistory().isBlank()) {
+        prompt.append("; history: ").append(patient.getMedicalHistory().replace('\n', ' '));
+      }
+      prompt.append('\n');
+    }
+    return prompt.toString();
+  }
+
+  /** Whether the base URL points at this host; anything unparsable counts as remote **/
+  static boolean isLocal(String baseUrl) {
+    String host;
+    try {
+      host = URI.create(baseUrl).getHost();
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    if (host == null) {
+      return false;
+    }
+    host = host.toLowerCase(Locale.ROOT);
+    return host.equals("localhost") || host.endsWith(".localhost")
+        || LOOPBACK_IPV4.matcher(host).matches() || host.equals("[::1]");
+  }
+
+  /** Priorities by line number; lines that are missing or malformed stay null **/
+  static List<TriagePriority> parse(String answer, int count) {
+    List<TriagePriority> priorities = new ArrayList<>(Collections.nCopies(count, null));
+    for (String line : answer.split("\\R")) {
+      Matcher matcher = ANSWER_LINE.matcher(line);
+      if (!matcher.find()) {
+        continue;
+      }
+      int index = Integer.parseInt(matcher.group(1)) - 1;
+      if (index >= 0 && index < count) {
+        priorities.set(index, TriagePriority.parse(matcher.group(2)));
+      }
+    }
+    return priorities;
+  }
+}
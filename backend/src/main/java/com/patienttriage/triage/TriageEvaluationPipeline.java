@@ -0,0 +1,329 @@
+package com.patienttriage.triage;
+
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.event.SymptomSubmittedEvent;
+import com.patienttriage.event.TriagePriorityChangedEvent;
+import com.patienttriage.repository.PatientProfileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evaluates submitted symptoms in the background and writes the resulting triage priority
+ * back to the patient profile, so a request never waits for inference.
+ *
+ * Submitted patients go into a bounded queue. A dispatcher thread takes them in micro-batches
+ * (up to batch-size patients, waiting at most batch-window for a batch to fill) and hands each
+ * batch to a virtual thread. There a HIGH keyword in the symptom ({@link TriageRules}) settles
+ * the patient at once, the {@link TriageResultCache} settles whoever describes what an earlier
+ * patient described, and the rest of the batch goes to the {@link TriageEvaluator} in one call,
+ * each distinct symptom pattern once. A MEDIUM or LOW keyword only sets a floor: the patient
+ * is still assessed, and gets the keyword's priority if the assessment comes back lower. At
+ * most max-concurrency batches are in flight; when all are busy the dispatcher stops taking
+ * and the queue fills up, and once it is full new submissions are dropped rather than queued
+ * without bound. A stored priority is published as a {@link TriagePriorityChangedEvent}, so
+ * a patient already waiting in a triage queue or on the waitlist moves to it. Nothing is
+ * lost for good: a periodic sweep re-submits every patient who has a symptom but no
+ * priority, which also covers evaluations that failed and patients left queued when the
+ * server stopped.
+ */
+@Component
+public class TriageEvaluationPipeline implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(TriageEvaluationPipeline.class);
+
+  private final TriageRules triageRules;
+  private final TriageResultCache resultCache;
+  private final TriageEvaluator evaluator;
+  private final PatientProfileRepository patientProfileRepository;
+  private final ProfileCache profileCache;
+  private final ApplicationEventPublisher eventPublisher;
+  private final boolean enabled;
+  private final int batchSize;
+  private final Duration batchWindow;
+
+  private final BlockingQueue<Long> pending;
+  // patients in the queue, so a patient submitting twice is only evaluated once
+  private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+  private final Semaphore batchPermits;
+  private volatile boolean running;
+  private ExecutorService workers;
+  private Thread dispatcher;
+
+  private final Counter ruleAssessed;
+  private final Counter cacheAssessed;
+  private final Counter modelAssessed;
+  private final Counter unresolved;
+  private final Counter dropped;
+  private final Timer batchTimer;
+
+  public TriageEvaluationPipeline(TriageRules triageRules,
+                                  TriageResultCache resultCache,
+                                  TriageEvaluator evaluator,
+                                  PatientProfileRepository patientProfileRepository,
+                                  ProfileCache profileCache,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${triage.evaluation.enabled:false}") boolean enabled,
+                                  @Value("${triage.evaluation.queue-capacity:1000}") int capacity,
+                                  @Value("${triage.evaluation.batch-size:8}") int batchSize,
+                                  @Value("${triage.evaluation.batch-window:50ms}") Duration batchWindow,
+                                  @Value("${triage.evaluation.max-concurrency:4}") int maxConcurrency) {
+    this.triageRules = triageRules;
+    this.resultCache = resultCache;
+    this.evaluator = evaluator;
+    this.patientProfileRepository = patientProfileRepository;
+    this.profileCache = profileCache;
+    this.eventPublisher = eventPublisher;
+    this.enabled = enabled;
+    this.batchSize = batchSize;
+    this.batchWindow = batchWindow;
+    this.pending = new ArrayBlockingQueue<>(capacity);
+    this.batchPermits = new Semaphore(maxConcurrency);
+
+    Gauge.builder("triage.evaluation.pending", pending, BlockingQueue::size)
+        .description("Patients waiting for a triage evaluation")
+        .register(meterRegistry);
+    this.ruleAssessed = outcome(meterRegistry, "rule");
+    this.cacheAssessed = outcome(meterRegistry, "cache");
+    this.modelAssessed = outcome(meterRegistry, "model");
+    this.unresolved = outcome(meterRegistry, "unresolved");
+    this.dropped = outcome(meterRegistry, "dropped");
+    this.batchTimer = Timer.builder("triage.evaluation.batch")
+        .description("Time to evaluate one batch and store the results")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Queues a patient for evaluation without waiting for it.
+   *
+   * @param patientId the patient user ID
+   * @return false if the queue was full (the next sweep picks the patient up)
+   */
+  public boolean submit(Long patientId) {
+    if (!queued.add(patientId)) {
+      return true; // already queued; the evaluation reads the latest symptom
+    }
+    if (!pending.offer(patientId)) {
+      queued.remove(patientId);
+      dropped.increment();
+      return false;
+    }
+    return true;
+  }
+
+  /** Queues a newly submitted symptom once it is committed **/
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onSymptomSubmitted(SymptomSubmittedEvent event) {
+    if (isRunning() && !submit(event.getPatientId())) {
+      log.debug("Triage evaluation queue full, patient {} left to the sweep", event.getPatientId());
+    }
+  }
+
+  /** Re-submits patients who still have no priority (failed, dropped or lost on restart) **/
+  @Scheduled(fixedDelayString = "${triage.evaluation.sweep-interval:PT1M}")
+  public void sweepUnassessed() {
+    if (!isRunning()) {
+      return;
+    }
+    int room = pending.remainingCapacity();
+    if (room == 0) {
+      return;
+    }
+    for (Long patientId : patientProfileRepository.findUnassessedPatientIds(PageRequest.of(0, room))) {
+      if (!submit(patientId)) {
+        return;
+      }
+    }
+  }
+
+  // ------------- Lifecycle -------------- //
+
+  @Override
+  public void start() {
+    if (!enabled) {
+      log.info("Triage evaluation is disabled");
+      return;
+    }
+    if (!evaluator.isConfigured()) {
+      log.warn("Triage evaluation is not started: no triage.llm.api-key for the remote model endpoint");
+      return;
+    }
+    running = true;
+    workers = Executors.newVirtualThreadPerTaskExecutor();
+    dispatcher = Thread.ofVirtual().name("triage-dispatcher").start(this::dispatch);
+  }
+
+  @Override
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    dispatcher.interrupt();
+    // in-flight batches either finish or are retried by the next sweep after a restart
+    workers.shutdownNow();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  private void dispatch() {
+    try {
+      while (running) {
+        List<Long> batch = nextBatch();
+        batchPermits.acquire();
+        // from here on a new submission of these patients queues them again
+        batch.forEach(queued::remove);
+        try {
+          workers.execute(() -> {
+            try {
+              evaluate(batch);
+            } finally {
+              batchPermits.release();
+            }
+          });
+        } catch (RuntimeException e) {
+          batchPermits.release(); // shutting down
+          throw e;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      if (running) {
+        log.error("Triage evaluation dispatcher stopped", e);
+      }
+    }
+  }
+
+  /** Blocks for the first patient, then gives the batch batch-window to fill **/
+  private List<Long> nextBatch() throws InterruptedException {
+    List<Long> batch = new ArrayList<>(batchSize);
+    batch.add(pending.take());
+    long deadline = System.nanoTime() + batchWindow.toNanos();
+    while (batch.size() < batchSize) {
+      Long next = pending.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+      if (next == null) {
+        break;
+      }
+      batch.add(next);
+    }
+    return batch;
+  }
+
+  /** Evaluates one batch and stores each priority that is still wanted **/
+  void evaluate(List<Long> patientIds) {
+    Map<Long, PatientInfo> profiles = profileCache.findPatients(patientIds);
+    TriageRuleSet rules = triageRules.current();
+    // patients with the same fingerprint share one model answer
+    Map<String, List<PatientInfo>> byFingerprint = new LinkedHashMap<>();
+    for (Long patientId : patientIds) {
+      PatientInfo patient = profiles.get(patientId);
+      // skip patients assessed (or emptied) since they were queued
+      if (patient == null || patient.getTriagePriority() != null
+          || patient.getSymptom() == null || patient.getSymptom().isBlank()) {
+        continue;
+      }
+      // an urgent keyword in the symptom decides without a model call; a lower one is a floor
+      TriagePriority ruled = rules.score(patient);
+      if (ruled == TriagePriority.HIGH) {
+        store(patient, ruled, ruleAssessed);
+        continue;
+      }
+      // so does an earlier patient who described the same thing
+      String fingerprint = TriageResultCache.fingerprint(patient);
+      TriagePriority cached = resultCache.get(fingerprint);
+      if (cached != null) {
+        store(patient, atLeast(cached, ruled), cacheAssessed);
+      } else {
+        byFingerprint.computeIfAbsent(fingerprint, key -> new ArrayList<>(1)).add(patient);
+      }
+    }
+    if (byFingerprint.isEmpty()) {
+      return;
+    }
+
+    List<String> fingerprints = new ArrayList<>(byFingerprint.keySet());
+    List<PatientInfo> patients = new ArrayList<>(fingerprints.size());
+    for (List<PatientInfo> group : byFingerprint.values()) {
+      patients.add(group.get(0));
+    }
+    Timer.Sample sample = Timer.start();
+    try {
+      List<TriagePriority> priorities = evaluator.evaluate(patients);
+      for (int i = 0; i < fingerprints.size(); i++) {
+        List<PatientInfo> group = byFingerprint.get(fingerprints.get(i));
+        TriagePriority priority = i < priorities.size() ? priorities.get(i) : null;
+        if (priority == null) {
+          unresolved.increment(group.size());
+          continue;
+        }
+        resultCache.put(fingerprints.get(i), priority);
+        for (PatientInfo patient : group) {
+          store(patient, atLeast(priority, rules.score(patient)), modelAssessed);
+        }
+      }
+    } catch (RuntimeException e) {
+      int failed = byFingerprint.values().stream().mapToInt(List::size).sum();
+      unresolved.increment(failed);
+      log.warn("Triage evaluation of {} patients failed: {}", failed, e.toString());
+    } finally {
+      sample.stop(batchTimer);
+    }
+  }
+
+  /** Stores a priority unless the profile moved on meanwhile, then announces it to the queues **/
+  private void store(PatientInfo patient, TriagePriority priority, Counter outcome) {
+    if (patientProfileRepository.updateTriagePriority(patient.getPatientId(), patient.getSymptom(),
+        priority.getLabel()) > 0) {
+      // a bulk update skips the entity listener that normally evicts the profile
+      profileCache.evictPatient(patient.getPatientId());
+      outcome.increment();
+      eventPublisher.publishEvent(new TriagePriorityChangedEvent(patient.getPatientId(), priority));
+    }
+  }
+
+  /** The more urgent of an assessment and a keyword floor (null when no keyword matched) **/
+  private static TriagePriority atLeast(TriagePriority priority, TriagePriority floor) {
+    return floor != null && floor.compareTo(priority) < 0 ? floor : priority;
+  }
+
+  private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("triage.evaluation.patients")
+        .description("Patients leaving the triage evaluation pipeline, by outcome")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
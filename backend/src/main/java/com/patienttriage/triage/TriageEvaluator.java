@@ -0,0 +1,26 @@
+package com.patienttriage.triage;
+
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.entity.TriagePriority;
+import java.util.List;
+
+/**
+ * Assigns triage priorities to patients from their symptoms, several patients per call.
+ * Implementations may block for as long as their own timeout allows.
+ */
+public interface TriageEvaluator {
+
+  /**
+   * Evaluates a batch of patients.
+   *
+   * @param patients the patients, each with a symptom
+   * @return one priority per patient in the same order, null where none could be decided
+   * @throws RuntimeException if the whole batch failed (e.g. the model server is unreachable)
+   */
+  List<TriagePriority> evaluate(List<PatientInfo> patients);
+
+  /** Whether the evaluator may be called at all; the pipeline does not start otherwise **/
+  default boolean isConfigured() {
+    return true;
+  }
+}
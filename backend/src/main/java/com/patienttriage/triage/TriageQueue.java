@@ -0,0 +1,316 @@
+package com.patienttriage.triage;
+
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.TriageQueueEntry;
+import com.patienttriage.repository.TriageQueueEntryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory triage queues, one per specialty, of patients waiting for a doctor.
+ *
+ * Each queue is a lock-free skip list ordered by a "due" time: arrival time plus an aging
+ * allowance for the patient's priority (none for HIGH). A LOW patient who joined two hours
+ * ago is therefore due at the same moment as a HIGH patient joining now, so lower priorities
+ * age upwards without the queue ever being re-sorted; ties go to the more urgent priority,
+ * then to arrival order. Enqueue and dequeue are O(log n) and never block each other.
+ *
+ * A patient waits in at most one queue, tracked in a patient -> ticket map that also decides
+ * races: a polled ticket only counts once it is removed from that map. The triage_queue table
+ * is the source of truth; the queues are loaded from it once all singletons exist and are
+ * then kept in step by {@link com.patienttriage.service.TriageQueueService}. Like the slot
+ * index, they only see changes made through this JVM.
+ */
+@Component
+public class TriageQueue implements SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(TriageQueue.class);
+
+  private final TriageQueueEntryRepository repository;
+  private final TransactionTemplate readOnlyTransaction;
+  private final Duration mediumAllowance;
+  private final Duration lowAllowance;
+
+  // specialties are few and long-lived, so empty queues are kept rather than removed
+  private final ConcurrentMap<String, NavigableSet<Ticket>> bySpecialty = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, Ticket> byPatient = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+
+  public TriageQueue(TriageQueueEntryRepository repository,
+                     PlatformTransactionManager transactionManager,
+                     MeterRegistry meterRegistry,
+                     @Value("${triage.queue.aging.medium:30m}") Duration mediumAllowance,
+                     @Value("${triage.queue.aging.low:2h}") Duration lowAllowance) {
+    this.repository = repository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.mediumAllowance = mediumAllowance;
+    this.lowAllowance = lowAllowance;
+    Gauge.builder("triage.queue.size", byPatient, ConcurrentMap::size)
+        .description("Patients waiting in all triage queues")
+        .register(meterRegistry);
+  }
+
+  /** Load every waiting patient, in arrival order so ties keep their original order **/
+  @Override
+  public void afterSingletonsInstantiated() {
+    readOnlyTransaction.executeWithoutResult(status -> {
+      try (Stream<TriageQueueEntry> entries = repository.streamAllByArrival()) {
+        entries.forEach(entry -> offer(entry.getPatientId(), entry.getSpecialty(),
+            entry.getPriority(), entry.getEnqueuedAt()));
+      }
+    });
+    log.info("Triage queues loaded with {} waiting patients", size());
+  }
+
+  /**
+   * Normalizes a specialty name into the queue key (trimmed, lower case).
+   *
+   * @param specialty the specialty as entered
+   * @return the queue key
+   */
+  public static String key(String specialty) {
+    return specialty.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Adds a patient to the back of their priority in a specialty's queue.
+   *
+   * @param patientId the patient ID
+   * @param specialty the specialty key
+   * @param priority the triage priority
+   * @param enqueuedAt when the patient joined
+   * @return the new ticket, or null if the patient is already waiting
+   */
+  public Ticket offer(Long patientId, String specialty, TriagePriority priority,
+      LocalDateTime enqueuedAt) {
+    Ticket ticket = new Ticket(patientId, specialty, priority, enqueuedAt,
+        enqueuedAt.plus(allowance(priority)), sequence.incrementAndGet());
+    if (byPatient.putIfAbsent(patientId, ticket) != null) {
+      return null;
+    }
+    bySpecialty.computeIfAbsent(specialty, key -> new ConcurrentSkipListSet<>()).add(ticket);
+    return ticket;
+  }
+
+  /**
+   * Moves a waiting patient to a new priority, keeping their place in arrival order: the
+   * ticket's due time is worked out again from when they joined.
+   *
+   * @param patientId the patient ID
+   * @param priority the new triage priority
+   * @return the new ticket, or null if the patient is not waiting or already at that priority
+   */
+  public Ticket reprioritize(Long patientId, TriagePriority priority) {
+    Ticket current = byPatient.get(patientId);
+    if (current == null || current.priority == priority) {
+      return null;
+    }
+    Ticket ticket = new Ticket(patientId, current.specialty, priority, current.enqueuedAt,
+        current.enqueuedAt.plus(allowance(priority)), current.sequence);
+    // lost to a concurrent poll or remove: the patient is no longer waiting
+    if (!byPatient.replace(patientId, current, ticket)) {
+      return null;
+    }
+    NavigableSet<Ticket> queue = bySpecialty.get(current.specialty);
+    queue.add(ticket);
+    queue.remove(current);
+    return ticket;
+  }
+
+  /**
+   * Takes the most due patient off a specialty's queue.
+   *
+   * @param specialty the specialty key
+   * @return the ticket taken, or null if nobody is waiting
+   */
+  public Ticket poll(String specialty) {
+    NavigableSet<Ticket> queue = bySpecialty.get(specialty);
+    if (queue == null) {
+      return null;
+    }
+    Ticket ticket;
+    while ((ticket = queue.pollFirst()) != null) {
+      // a ticket whose patient was removed concurrently is skipped
+      if (byPatient.remove(ticket.patientId, ticket)) {
+        return ticket;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Removes a patient from whichever queue they wait in.
+   *
+   * @param patientId the patient ID
+   * @return the removed ticket, or null if the patient was not waiting
+   */
+  public Ticket remove(Long patientId) {
+    Ticket ticket = byPatient.remove(patientId);
+    if (ticket != null) {
+      NavigableSet<Ticket> queue = bySpecialty.get(ticket.specialty);
+      if (queue != null) {
+        queue.remove(ticket);
+      }
+    }
+    return ticket;
+  }
+
+  /**
+   * Finds the ticket of a waiting patient.
+   *
+   * @param patientId the patient ID
+   * @return the patient's ticket, or null if the patient is not waiting
+   */
+  public Ticket find(Long patientId) {
+    return byPatient.get(patientId);
+  }
+
+  /**
+   * Lists the first patients of a specialty's queue without taking them.
+   *
+   * @param specialty the specialty key
+   * @param limit most tickets to return
+   * @return up to limit tickets, most due first
+   */
+  public List<Ticket> peek(String specialty, int limit) {
+    NavigableSet<Ticket> queue = bySpecialty.get(specialty);
+    List<Ticket> tickets = new ArrayList<>(Math.min(limit, 64));
+    if (queue == null) {
+      return tickets;
+    }
+    for (Ticket ticket : queue) {
+      if (tickets.size() == limit) {
+        break;
+      }
+      if (byPatient.get(ticket.patientId) == ticket) {
+        tickets.add(ticket);
+      }
+    }
+    return tickets;
+  }
+
+  /**
+   * Finds where some patients stand in a specialty's queue, walking it from the head until
+   * all of them are found.
+   *
+   * @param specialty the specialty key
+   * @param patientIds the patients to look for
+   * @return patient ID -> place in line (1 for the next patient), for those found
+   */
+  public Map<Long, Integer> positions(String specialty, Set<Long> patientIds) {
+    Map<Long, Integer> positions = new HashMap<>();
+    NavigableSet<Ticket> queue = bySpecialty.get(specialty);
+    if (queue == null || patientIds.isEmpty()) {
+      return positions;
+    }
+    int position = 0;
+    for (Ticket ticket : queue) {
+      if (byPatient.get(ticket.patientId) != ticket) {
+        continue; // removed concurrently
+      }
+      position++;
+      if (patientIds.contains(ticket.patientId)) {
+        positions.put(ticket.patientId, position);
+        if (positions.size() == patientIds.size()) {
+          break;
+        }
+      }
+    }
+    return positions;
+  }
+
+  /** Number of patients waiting across all queues **/
+  public int size() {
+    return byPatient.size();
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  private Duration allowance(TriagePriority priority) {
+    switch (priority) {
+      case HIGH:
+        return Duration.ZERO;
+      case MEDIUM:
+        return mediumAllowance;
+      default:
+        return lowAllowance;
+    }
+  }
+
+  /** One waiting patient, ordered by due time, then priority, then arrival **/
+  public static final class Ticket implements Comparable<Ticket> {
+
+    private static final Comparator<Ticket> ORDER = Comparator
+        .comparing((Ticket t) -> t.dueAt)
+        .thenComparing(t -> t.priority)
+        .thenComparingLong(t -> t.sequence);
+
+    private final Long patientId;
+    private final String specialty;
+    private final TriagePriority priority;
+    private final LocalDateTime enqueuedAt;
+    private final LocalDateTime dueAt;
+    private final long sequence;
+
+    private Ticket(Long patientId, String specialty, TriagePriority priority,
+        LocalDateTime enqueuedAt, LocalDateTime dueAt, long sequence) {
+      this.patientId = patientId;
+      this.specialty = specialty;
+      this.priority = priority;
+      this.enqueuedAt = enqueuedAt;
+      this.dueAt = dueAt;
+      this.sequence = sequence;
+    }
+
+    public Long getPatientId() {
+      return patientId;
+    }
+
+    public String getSpecialty() {
+      return specialty;
+    }
+
+    public TriagePriority getPriority() {
+      return priority;
+    }
+
+    public LocalDateTime getEnqueuedAt() {
+      return enqueuedAt;
+    }
+
+    /** From this time on the patient outranks anyone who joins after it, whatever their priority **/
+    public LocalDateTime getDueAt() {
+      return dueAt;
+    }
+
+    @Override
+    public int compareTo(Ticket other) {
+      return ORDER.compare(this, other);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.patienttriage.triage;
+
+import com.patienttriage.cache.BoundedTtlCache;
+import com.patienttriage.cache.BoundedTtlCacheMetrics;
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.entity.TriagePriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the priority the model gave each symptom pattern, so a patient describing what
+ * an earlier patient described ("Headache and fever", "headache & fever") is assessed without
+ * another model call.
+ *
+ * Patients are keyed by a fingerprint of what the model is shown: the symptom and medical
+ * history normalized as keyword rules are (case, punctuation and spacing ignored) with filler
+ * words dropped, plus the gender and a coarse age band. Word order and negations are kept, so
+ * "fever, no cough" and "cough, no fever" stay apart. The normalized text is hashed (128 bits
+ * of SHA-256) so entries stay small however long the text is. Entries live in a bounded LRU
+ * with a TTL, published as the "triageResults" cache meters.
+ */
+@Component
+public class TriageResultCache {
+
+  // words that change how a symptom is phrased, not what it is
+  private static final Set<String> FILLER_WORDS = Set.of(
+      "a", "an", "the", "and", "with", "i", "m", "my", "have", "has", "had", "some", "also");
+
+  private static final char FIELD_SEPARATOR = '|';
+
+  private final BoundedTtlCache<String, TriagePriority> results;
+
+  public TriageResultCache(MeterRegistry meterRegistry,
+                           @Value("${triage.result-cache.max-size:10000}") int maxSize,
+                           @Value("${triage.result-cache.ttl:1h}") Duration ttl) {
+    this.results = new BoundedTtlCache<>(maxSize, ttl);
+    BoundedTtlCacheMetrics.monitor(meterRegistry, results, "triageResults");
+  }
+
+  /**
+   * Computes the fingerprint under which a patient's priority is cached.
+   *
+   * @param patient the patient, with a symptom
+   * @return the fingerprint
+   */
+  public static String fingerprint(PatientInfo patient) {
+    StringBuilder canonical = new StringBuilder();
+    canonical.append(ageBand(patient.getAge())).append(FIELD_SEPARATOR);
+    if (patient.getGender() != null) {
+      canonical.append(patient.getGender().strip().toLowerCase(Locale.ROOT));
+    }
+    canonical.append(FIELD_SEPARATOR).append(canonicalText(patient.getSymptom()));
+    canonical.append(FIELD_SEPARATOR).append(canonicalText(patient.getMedicalHistory()));
+    return hash(canonical.toString());
+  }
+
+  /**
+   * Looks up the priority cached for a fingerprint. Counts a hit or a miss.
+   *
+   * @param fingerprint the fingerprint
+   * @return the cached priority, or null
+   */
+  public TriagePriority get(String fingerprint) {
+    return results.getIfPresent(fingerprint);
+  }
+
+  /**
+   * Caches the priority the model gave a fingerprint.
+   *
+   * @param fingerprint the fingerprint
+   * @param priority the priority
+   */
+  public void put(String fingerprint, TriagePriority priority) {
+    results.put(fingerprint, priority);
+  }
+
+  /** Forgets every cached result, e.g. after switching models **/
+  public void clear() {
+    results.invalidateAll();
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  /** Normalized words without filler, single-space separated; empty for null **/
+  static String canonicalText(String text) {
+    if (text == null) {
+      return "";
+    }
+    StringBuilder canonical = new StringBuilder(text.length());
+    for (String word : TriageRuleSet.normalize(text).split(" ")) {
+      if (word.isEmpty() || FILLER_WORDS.contains(word)) {
+        continue;
+      }
+      if (canonical.length() > 0) {
+        canonical.append(' ');
+      }
+      canonical.append(word);
+    }
+    return canonical.toString();
+  }
+
+  /** Unknown, child, adult or older adult: close enough ages share results **/
+  private static char ageBand(int age) {
+    if (age <= 0) {
+      return 'u';
+    }
+    if (age < 18) {
+      return 'c';
+    }
+    return age < 65 ? 'a' : 'o';
+  }
+
+  private static String hash(String canonical) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(canonical.getBytes(StandardCharsets.UTF_8));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e); // required of every JVM
+    }
+  }
+}
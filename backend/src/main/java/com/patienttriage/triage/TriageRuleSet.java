@@ -0,0 +1,257 @@
+package com.patienttriage.triage;
+
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.entity.TriagePriority;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Keyword rules ("chest pain" -> HIGH) compiled into an Aho–Corasick automaton, so a patient
+ * is scored in one pass over their text however many rules there are.
+ *
+ * Text and keywords are normalized the same way: letters are lower-cased, digits kept, and
+ * every run of other characters becomes one separator. Keywords only match whole words
+ * ("pain" does not match "painful"). The automaton is stored as a dense transition table
+ * (one array lookup per character) and scoring allocates nothing. A patient gets the most
+ * urgent priority among the keywords found in their current symptom, or null if no keyword
+ * matched; medical history, allergies and medications are not scanned, since a keyword there
+ * ("stroke" in the history, "rash" as an allergy) says nothing about today's visit.
+ * Instances are immutable and thread-safe.
+ */
+public final class TriageRuleSet {
+
+  // symbols: 0 separator, 1-26 letters, 27-36 digits, 37 any other letter or digit
+  private static final int SEPARATOR = 0;
+  private static final int OTHER = 37;
+  private static final int ALPHABET = 38;
+  private static final byte[] ASCII_SYMBOLS = new byte[128];
+  private static final byte NO_MATCH = Byte.MAX_VALUE;
+  private static final TriagePriority[] PRIORITIES = TriagePriority.values();
+
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      ASCII_SYMBOLS[c] = (byte) (1 + c - 'a');
+      ASCII_SYMBOLS[Character.toUpperCase(c)] = (byte) (1 + c - 'a');
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      ASCII_SYMBOLS[c] = (byte) (27 + c - '0');
+    }
+  }
+
+  /** A rule set without rules; every score is null **/
+  public static final TriageRuleSet EMPTY = compile(Map.of());
+
+  private final int[] transitions; // state * ALPHABET + symbol -> next state
+  private final byte[] matches;    // state -> most urgent priority ordinal ending there, or NO_MATCH
+  private final int ruleCount;
+
+  private TriageRuleSet(int[] transitions, byte[] matches, int ruleCount) {
+    this.transitions = transitions;
+    this.matches = matches;
+    this.ruleCount = ruleCount;
+  }
+
+  /**
+   * Parses rules, one per line as "PRIORITY: keyword". Blank lines and lines starting with
+   * '#' are skipped; a keyword listed twice keeps its most urgent priority.
+   *
+   * @param lines the rule file's lines
+   * @return the compiled rule set
+   * @throws IllegalArgumentException naming the first line that cannot be parsed
+   */
+  public static TriageRuleSet parse(List<String> lines) {
+    Map<String, TriagePriority> rules = new LinkedHashMap<>();
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i).strip();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      int colon = line.indexOf(':');
+      TriagePriority priority = colon > 0 ? TriagePriority.parse(line.substring(0, colon)) : null;
+      if (priority == null) {
+        throw new IllegalArgumentException("Line " + (i + 1) + ": expected 'HIGH|MEDIUM|LOW: keyword' but got '" + line + "'");
+      }
+      String keyword = line.substring(colon + 1);
+      if (normalize(keyword).isEmpty()) {
+        throw new IllegalArgumentException("Line " + (i + 1) + ": keyword is empty");
+      }
+      rules.merge(keyword, priority, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+    }
+    return compile(rules);
+  }
+
+  /**
+   * Compiles keyword rules into an automaton.
+   *
+   * @param rules keyword -> priority
+   * @return the compiled rule set
+   */
+  public static TriageRuleSet compile(Map<String, TriagePriority> rules) {
+    // 1. Trie of " keyword " (separators on both sides make matches whole-word)
+    List<int[]> children = new ArrayList<>();
+    List<Byte> matchList = new ArrayList<>();
+    children.add(newNode());
+    matchList.add(NO_MATCH);
+    for (Map.Entry<String, TriagePriority> rule : rules.entrySet()) {
+      String keyword = normalize(rule.getKey());
+      if (keyword.isEmpty()) {
+        continue;
+      }
+      int state = 0;
+      for (int symbol : symbols(" " + keyword + " ")) {
+        int next = children.get(state)[symbol];
+        if (next < 0) {
+          next = children.size();
+          children.get(state)[symbol] = next;
+          children.add(newNode());
+          matchList.add(NO_MATCH);
+        }
+        state = next;
+      }
+      matchList.set(state, (byte) Math.min(matchList.get(state), rule.getValue().ordinal()));
+    }
+
+    // 2. Breadth-first: resolve failure links into a complete transition table and let each
+    // state inherit the matches of its failure state (a keyword ending inside a longer one)
+    int stateCount = children.size();
+    int[] transitions = new int[stateCount * ALPHABET];
+    byte[] matches = new byte[stateCount];
+    int[] failure = new int[stateCount];
+    for (int s = 0; s < stateCount; s++) {
+      matches[s] = matchList.get(s);
+    }
+    Queue<Integer> queue = new ArrayDeque<>();
+    for (int symbol = 0; symbol < ALPHABET; symbol++) {
+      int child = children.get(0)[symbol];
+      transitions[symbol] = child < 0 ? 0 : child;
+      if (child > 0) {
+        queue.add(child);
+      }
+    }
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      matches[state] = (byte) Math.min(matches[state], matches[failure[state]]);
+      for (int symbol = 0; symbol < ALPHABET; symbol++) {
+        int child = children.get(state)[symbol];
+        int fallback = transitions[failure[state] * ALPHABET + symbol];
+        if (child < 0) {
+          transitions[state * ALPHABET + symbol] = fallback;
+        } else {
+          transitions[state * ALPHABET + symbol] = child;
+          failure[child] = fallback;
+          queue.add(child);
+        }
+      }
+    }
+    return new TriageRuleSet(transitions, matches, rules.size());
+  }
+
+  /**
+   * Scores a patient from their current symptom.
+   *
+   * @param patient the patient
+   * @return the most urgent priority whose keyword appears, or null if none does
+   */
+  public TriagePriority score(PatientInfo patient) {
+    return score(patient.getSymptom());
+  }
+
+  /**
+   * Scores a symptom text; null is skipped.
+   *
+   * @return the most urgent priority whose keyword appears, or null if none does
+   */
+  public TriagePriority score(String symptom) {
+    int best = scan(symptom);
+    return best == NO_MATCH ? null : PRIORITIES[best];
+  }
+
+  /** Number of rules compiled in **/
+  public int size() {
+    return ruleCount;
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  /** Runs one text through the automaton; the most urgent priority ordinal found, or NO_MATCH **/
+  private int scan(String text) {
+    if (text == null) {
+      return NO_MATCH;
+    }
+    int best = NO_MATCH;
+    int[] table = transitions;
+    byte[] found = matches;
+    int state = table[SEPARATOR];
+    boolean separated = true;
+    for (int i = 0, n = text.length(); i < n; i++) {
+      int symbol = symbol(text.charAt(i));
+      if (symbol == SEPARATOR) {
+        if (separated) {
+          continue;
+        }
+        separated = true;
+      } else {
+        separated = false;
+      }
+      state = table[state * ALPHABET + symbol];
+      if (found[state] < best) {
+        best = found[state];
+        if (best == 0) {
+          return best; // nothing beats the most urgent priority
+        }
+      }
+    }
+    if (!separated) {
+      state = table[state * ALPHABET + SEPARATOR];
+      best = Math.min(best, found[state]);
+    }
+    return best;
+  }
+
+  private static int symbol(char c) {
+    if (c < 128) {
+      return ASCII_SYMBOLS[c];
+    }
+    return Character.isLetterOrDigit(c) ? OTHER : SEPARATOR;
+  }
+
+  /** Keyword in canonical form: words in lower case separated by single spaces **/
+  static String normalize(String text) {
+    StringBuilder normalized = new StringBuilder(text.length());
+    boolean separated = true;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (symbol(c) == SEPARATOR) {
+        separated = true;
+        continue;
+      }
+      if (separated && normalized.length() > 0) {
+        normalized.append(' ');
+      }
+      normalized.append(Character.toLowerCase(c));
+      separated = false;
+    }
+    return normalized.toString();
+  }
+
+  private static int[] symbols(String normalized) {
+    int[] symbols = new int[normalized.length()];
+    for (int i = 0; i < symbols.length; i++) {
+      symbols[i] = symbol(normalized.charAt(i));
+    }
+    return symbols;
+  }
+
+  private static int[] newNode() {
+    int[] node = new int[ALPHABET];
+    Arrays.fill(node, -1);
+    return node;
+  }
+}
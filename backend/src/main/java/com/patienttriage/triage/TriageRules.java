@@ -0,0 +1,81 @@
+package com.patienttriage.triage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the current {@link TriageRuleSet}, loaded from triage.rules.location (a classpath
+ * resource by default; point it at a file to edit rules without a restart). The file is
+ * checked periodically and recompiled when its modification time changes; readers switch to
+ * the new rule set atomically. A file that fails to parse is logged and the previous rules
+ * stay in force.
+ */
+@Component
+public class TriageRules {
+
+  private static final Logger log = LoggerFactory.getLogger(TriageRules.class);
+
+  private final Resource location;
+  private volatile TriageRuleSet ruleSet = TriageRuleSet.EMPTY;
+  private volatile long loadedModified = Long.MIN_VALUE;
+
+  public TriageRules(@Value("${triage.rules.location:classpath:triage-rules.txt}") Resource location) {
+    this.location = location;
+    reload();
+  }
+
+  /** The rules in force; a caller scoring several patients should read this once **/
+  public TriageRuleSet current() {
+    return ruleSet;
+  }
+
+  /** Recompiles the rules if the file changed since it was last loaded **/
+  @Scheduled(fixedDelayString = "${triage.rules.reload-interval:PT30S}")
+  public void reloadIfChanged() {
+    if (lastModified() != loadedModified) {
+      reload();
+    }
+  }
+
+  /**
+   * Loads and compiles the rule file now.
+   *
+   * @return true if the new rules are in force
+   */
+  public synchronized boolean reload() {
+    long modified = lastModified();
+    try (InputStream in = location.getInputStream()) {
+      List<String> lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+      ruleSet = TriageRuleSet.parse(lines);
+      log.info("Loaded {} triage rules from {}", ruleSet.size(), location);
+      return true;
+    } catch (IOException | IllegalArgumentException e) {
+      log.warn("Could not load triage rules from {}, keeping the previous {} rules: {}",
+          location, ruleSet.size(), e.getMessage());
+      return false;
+    } finally {
+      // a broken file is not retried until it changes again
+      loadedModified = modified;
+    }
+  }
+
+  // ========================================================================
+  // Helper Methods
+  // ========================================================================
+
+  private long lastModified() {
+    try {
+      return location.lastModified();
+    } catch (IOException e) {
+      return 0; // not backed by a file (e.g. in-memory); never changes
+    }
+  }
+}
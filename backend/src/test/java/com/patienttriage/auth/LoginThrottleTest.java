@@ -0,0 +1,78 @@
+package com.patienttriage.auth;
+
+import com.patienttriage.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for LoginThrottle.
+ */
+class LoginThrottleTest {
+
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+  }
+
+  /**
+   * Tests that attempts beyond the maximum are refused, for that username only, whatever its case.
+   */
+  @Test
+  void testAcquire_BeyondMaximum_Throws() {
+    // Given
+    LoginThrottle throttle = new LoginThrottle(registry, 3, Duration.ofMinutes(15), 100);
+    for (int i = 0; i < 3; i++) {
+      throttle.acquire("patient1@test.com");
+    }
+
+    // When & Then
+    TooManyLoginAttemptsException exception = assertThrows(TooManyLoginAttemptsException.class,
+        () -> throttle.acquire(" Patient1@Test.com"));
+    assertTrue(exception.getRetryAfterSeconds() > 0 && exception.getRetryAfterSeconds() <= 15 * 60 + 1);
+    assertEquals(1.0, registry.get("auth.login.throttled").counter().count());
+    assertDoesNotThrow(() -> throttle.acquire("patient2@test.com"));
+  }
+
+  /**
+   * Tests that a successful login gives the username a fresh window.
+   */
+  @Test
+  void testReset_StartsNewWindow() {
+    // Given
+    LoginThrottle throttle = new LoginThrottle(registry, 2, Duration.ofMinutes(15), 100);
+    throttle.acquire("patient1@test.com");
+    throttle.acquire("patient1@test.com");
+
+    // When
+    throttle.reset("patient1@test.com");
+
+    // Then
+    assertDoesNotThrow(() -> throttle.acquire("patient1@test.com"));
+    assertDoesNotThrow(() -> throttle.acquire("patient1@test.com"));
+    assertThrows(TooManyLoginAttemptsException.class, () -> throttle.acquire("patient1@test.com"));
+  }
+
+  /**
+   * Tests that a throttled username may try again once its window has passed.
+   */
+  @Test
+  void testAcquire_AfterWindow_Allowed() throws Exception {
+    // Given
+    LoginThrottle throttle = new LoginThrottle(registry, 1, Duration.ofMillis(50), 100);
+    throttle.acquire("patient1@test.com");
+    assertThrows(TooManyLoginAttemptsException.class, () -> throttle.acquire("patient1@test.com"));
+
+    // When
+    Thread.sleep(80);
+
+    // Then
+    assertDoesNotThrow(() -> throttle.acquire("patient1@test.com"));
+  }
+}
@@ -0,0 +1,81 @@
+package com.patienttriage.auth;
+
+import com.patienttriage.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PasswordHasher.
+ */
+class PasswordHasherTest {
+
+  private SimpleMeterRegistry registry;
+  private PasswordHasher hasher;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    hasher = new PasswordHasher(registry, 1, 1, Duration.ofSeconds(5));
+  }
+
+  @AfterEach
+  void tearDown() {
+    hasher.destroy();
+  }
+
+  /**
+   * Tests that a hash made on the pool verifies, and that each operation is timed.
+   */
+  @Test
+  void testEncodeAndMatches_RoundTrip() {
+    // When
+    String encoded = hasher.encode("password123");
+
+    // Then
+    assertNotEquals("password123", encoded);
+    assertTrue(hasher.matches("password123", encoded));
+    assertFalse(hasher.matches("wrongpassword", encoded));
+    assertEquals(1, registry.get("auth.password.hash").tag("operation", "encode").timer().count());
+    assertEquals(2, registry.get("auth.password.hash").tag("operation", "matches").timer().count());
+  }
+
+  /**
+   * Tests that a hash is turned away at once when the thread is busy and the queue is full.
+   */
+  @Test
+  void testMatches_QueueFull_ThrowsServiceBusy() throws Exception {
+    // Given - the only thread is held and the only queue slot taken
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch running = new CountDownLatch(1);
+    hasher.executor().execute(() -> {
+      running.countDown();
+      awaitQuietly(release);
+    });
+    running.await();
+    hasher.executor().execute(() -> { });
+
+    // When & Then
+    assertEquals(1, hasher.queueSize());
+    assertThrows(ServiceBusyException.class, () -> hasher.matches("password123", "$2a$10$invalid"));
+    assertEquals(1.0, registry.get("auth.password.rejected").counter().count());
+    assertEquals(1.0, registry.get("auth.password.queue").gauge().value());
+    release.countDown();
+  }
+
+  // Helpers
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
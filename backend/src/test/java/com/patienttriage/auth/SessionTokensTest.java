@@ -0,0 +1,88 @@
+package com.patienttriage.auth;
+
+import com.patienttriage.entity.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SessionTokens.
+ */
+class SessionTokensTest {
+
+  private static final String OLD_KEY = "k1:" + secret('a');
+  private static final String NEW_KEY = "k2:" + secret('b');
+
+  /**
+   * Tests that an issued token verifies back to the same user.
+   */
+  @Test
+  void testVerify_IssuedToken_ReturnsUser() {
+    // Given
+    SessionTokens tokens = new SessionTokens(NEW_KEY, Duration.ofHours(8));
+
+    // When
+    CurrentUser user = tokens.verify(tokens.issue(7L, "doctor1@test.com", UserRole.DOCTOR));
+
+    // Then
+    assertNotNull(user);
+    assertEquals(7L, user.getUserId());
+    assertEquals("doctor1@test.com", user.getUsername());
+    assertEquals(UserRole.DOCTOR, user.getRole());
+  }
+
+  /**
+   * Tests that after a rotation, tokens of the old key verify while it is kept, and stop
+   * verifying once it is dropped.
+   */
+  @Test
+  void testVerify_KeyRotation() {
+    // Given
+    String oldToken = new SessionTokens(OLD_KEY, Duration.ofHours(8)).issue(2L, "patient1@test.com", UserRole.PATIENT);
+
+    // When
+    SessionTokens rotated = new SessionTokens(NEW_KEY + "," + OLD_KEY, Duration.ofHours(8));
+    SessionTokens retired = new SessionTokens(NEW_KEY, Duration.ofHours(8));
+
+    // Then
+    assertTrue(rotated.issue(2L, "patient1@test.com", UserRole.PATIENT).startsWith("k2."));
+    assertNotNull(rotated.verify(oldToken));
+    assertNull(retired.verify(oldToken));
+  }
+
+  /**
+   * Tests that expired, altered and malformed tokens are rejected.
+   */
+  @Test
+  void testVerify_InvalidTokens_ReturnNull() {
+    // Given
+    SessionTokens tokens = new SessionTokens(NEW_KEY, Duration.ofHours(8));
+    String expired = new SessionTokens(NEW_KEY, Duration.ZERO).issue(2L, "patient1@test.com", UserRole.PATIENT);
+    String token = tokens.issue(2L, "patient1@test.com", UserRole.PATIENT);
+    String altered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+    // When & Then
+    assertNull(tokens.verify(expired));
+    assertNull(tokens.verify(altered));
+    assertNull(tokens.verify("not-a-token"));
+    assertNull(tokens.verify("k2.%%%.%%%"));
+  }
+
+  /**
+   * Tests that keys too short to be safe are refused at startup.
+   */
+  @Test
+  void testConstructor_ShortKey_Throws() {
+    String shortKey = "k1:" + Base64.getEncoder().encodeToString(new byte[16]);
+    assertThrows(IllegalArgumentException.class, () -> new SessionTokens(shortKey, Duration.ofHours(8)));
+  }
+
+  // Helpers
+
+  private static String secret(char fill) {
+    return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes());
+  }
+}
@@ -0,0 +1,134 @@
+package com.patienttriage.auth;
+
+import com.patienttriage.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for UsernameFilter.
+ */
+class UsernameFilterTest {
+
+  private SimpleMeterRegistry registry;
+  private UserRepository userRepository;
+  private UsernameFilter usernameFilter;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    userRepository = mock(UserRepository.class);
+    usernameFilter = new UsernameFilter(userRepository, mock(PlatformTransactionManager.class), registry, 4, 0.01);
+  }
+
+  @AfterEach
+  void tearDown() {
+    usernameFilter.destroy();
+  }
+
+  /**
+   * Tests that a username the filter has never seen is free without a query, while a loaded
+   * one is confirmed by the database.
+   */
+  @Test
+  void testExists_DefiniteMissSkipsQuery() {
+    // Given
+    load("patient1@test.com", "doctor1@test.com");
+    when(userRepository.existsByUsername("patient1@test.com")).thenReturn(true);
+
+    // When & Then
+    assertFalse(usernameFilter.exists("newpatient@test.com"));
+    assertTrue(usernameFilter.exists("patient1@test.com"));
+    verify(userRepository, never()).existsByUsername("newpatient@test.com");
+    assertEquals(1.0, registry.get("auth.username.filter.lookups").tag("result", "miss").counter().count());
+    assertEquals(1.0, registry.get("auth.username.filter.lookups").tag("result", "hit").counter().count());
+    assertTrue(registry.get("auth.username.filter.bytes").gauge().value() > 0);
+  }
+
+  /**
+   * Tests that a registered username falls through to the database from then on.
+   */
+  @Test
+  void testAdd_RegisteredUsernameIsQueried() {
+    // Given
+    load("patient1@test.com");
+
+    // When
+    usernameFilter.add("newpatient@test.com");
+
+    // Then
+    when(userRepository.existsByUsername("newpatient@test.com")).thenReturn(true);
+    assertTrue(usernameFilter.exists("newpatient@test.com"));
+  }
+
+  /**
+   * Tests that a filter holding more usernames than it was sized for grows by a layer without
+   * rescanning the table, keeping every username.
+   */
+  @Test
+  void testGrowIfFull_StacksLayerWithoutRescan() {
+    // Given - sized for 4, then 5 registrations
+    load();
+    long before = usernameFilter.sizeInBytes();
+    String[] usernames = {"a@test.com", "b@test.com", "c@test.com", "d@test.com", "e@test.com"};
+    for (String username : usernames) {
+      usernameFilter.add(username);
+    }
+
+    // When
+    usernameFilter.growIfFull();
+    awaitWorker();
+    usernameFilter.add("f@test.com");
+
+    // Then
+    assertTrue(usernameFilter.sizeInBytes() > before);
+    assertEquals(2.0, registry.get("auth.username.filter.layers").gauge().value());
+    assertEquals(6.0, registry.get("auth.username.filter.insertions").gauge().value());
+    verify(userRepository, times(1)).streamAllUsernames();
+    for (String username : new String[] {"a@test.com", "e@test.com", "f@test.com"}) {
+      when(userRepository.existsByUsername(username)).thenReturn(true);
+      assertTrue(usernameFilter.exists(username));
+    }
+  }
+
+  /**
+   * Tests that a filter with room left is not grown.
+   */
+  @Test
+  void testGrowIfFull_RoomLeft_KeepsOneLayer() {
+    // Given
+    load("a@test.com");
+
+    // When
+    usernameFilter.growIfFull();
+    awaitWorker();
+
+    // Then
+    assertEquals(1.0, registry.get("auth.username.filter.layers").gauge().value());
+  }
+
+  // Helpers
+
+  private void load(String... usernames) {
+    when(userRepository.count()).thenReturn((long) usernames.length);
+    when(userRepository.streamAllUsernames()).thenReturn(Stream.of(usernames));
+    usernameFilter.afterSingletonsInstantiated();
+    awaitWorker();
+  }
+
+  private void awaitWorker() {
+    try {
+      usernameFilter.worker().submit(() -> { }).get(5, TimeUnit.SECONDS);
+    } catch (Exception e) {
+      throw new AssertionError(e);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.patienttriage.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BloomFilter.
+ */
+class BloomFilterTest {
+
+  /**
+   * Tests that every string put is found, and strings never put mostly are not.
+   */
+  @Test
+  void testMightContain_NoFalseNegativesAndFewFalsePositives() {
+    // Given
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("patient" + i + "@test.com");
+    }
+
+    // When
+    int falsePositives = 0;
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(filter.mightContain("patient" + i + "@test.com"));
+      if (filter.mightContain("doctor" + i + "@test.com")) {
+        falsePositives++;
+      }
+    }
+
+    // Then - 1% expected; allow for chance
+    assertTrue(falsePositives < 250, "false positives: " + falsePositives);
+    assertEquals(10_000, filter.insertions());
+  }
+
+  /**
+   * Tests that the filter is sized by the usual formulas: about 9.6 bits and 7 hashes per
+   * string at 1%.
+   */
+  @Test
+  void testSizing_FollowsExpectedInsertions() {
+    // When
+    BloomFilter filter = new BloomFilter(100_000, 0.01);
+
+    // Then
+    assertEquals(7, filter.hashCount());
+    assertEquals(958_528, filter.bitSize());
+    assertEquals(filter.bitSize() / 8, filter.sizeInBytes());
+    assertFalse(filter.mightContain("patient1@test.com"));
+  }
+
+  /**
+   * Tests that sizes outside the usable range are refused.
+   */
+  @Test
+  void testConstructor_InvalidArguments_Throw() {
+    assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+    assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+  }
+}
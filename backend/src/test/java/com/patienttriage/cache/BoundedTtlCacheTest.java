@@ -0,0 +1,142 @@
+package com.patienttriage.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BoundedTtlCache.
+ */
+class BoundedTtlCacheTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  /**
+   * Tests hit and miss counting.
+   */
+  @Test
+  void testGetIfPresent_CountsHitsAndMisses() {
+    BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1), clock::get);
+
+    assertNull(cache.getIfPresent("a"));
+    cache.put("a", "A");
+    assertEquals("A", cache.getIfPresent("a"));
+
+    assertEquals(1, cache.hitCount());
+    assertEquals(1, cache.missCount());
+    assertEquals(1, cache.putCount());
+  }
+
+  /**
+   * Tests that the least recently used entry is evicted when the cache is full.
+   */
+  @Test
+  void testPut_EvictsLeastRecentlyUsed() {
+    BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, Duration.ofMinutes(1), clock::get);
+    cache.put("a", "A");
+    cache.put("b", "B");
+    cache.getIfPresent("a"); // "b" is now least recently used
+
+    cache.put("c", "C");
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.evictionCount());
+    assertNull(cache.getIfPresent("b"));
+    assertEquals("A", cache.getIfPresent("a"));
+    assertEquals("C", cache.getIfPresent("c"));
+  }
+
+  /**
+   * Tests that entries expire after their time-to-live.
+   */
+  @Test
+  void testGetIfPresent_ExpiresAfterTtl() {
+    BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofSeconds(5), clock::get);
+    cache.put("a", "A");
+
+    clock.addAndGet(Duration.ofSeconds(4).toNanos());
+    assertEquals("A", cache.getIfPresent("a"));
+
+    clock.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertNull(cache.getIfPresent("a"));
+    assertEquals(1, cache.expirationCount());
+    assertEquals(0, cache.size());
+  }
+
+  /**
+   * Tests that a put into a full cache only drops the eldest entry, counted as an expiration
+   * when its time-to-live has elapsed.
+   */
+  @Test
+  void testPut_FullCacheDropsEldestOnly() {
+    BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(3, Duration.ofSeconds(5), clock::get);
+    cache.put("a", "A");
+    cache.put("b", "B");
+    clock.addAndGet(Duration.ofSeconds(3).toNanos());
+    cache.put("c", "C");
+    clock.addAndGet(Duration.ofSeconds(3).toNanos()); // "a" and "b" have expired
+
+    cache.put("d", "D");
+
+    assertEquals(1, cache.expirationCount());
+    assertEquals(0, cache.evictionCount());
+    assertEquals(3, cache.size()); // "b" is left for a read or the next sweep
+  }
+
+  /**
+   * Tests that every maxSize puts into a full cache sweep out expired entries, wherever they
+   * are in the access order, before live ones are evicted.
+   */
+  @Test
+  void testPut_SweepsExpiredEveryMaxSizeOverflows() {
+    BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, Duration.ofSeconds(5), clock::get);
+    cache.put("old", "O");
+    clock.addAndGet(Duration.ofSeconds(3).toNanos());
+    cache.put("live", "L");
+    cache.getIfPresent("old"); // most recently used, but about to expire
+    clock.addAndGet(Duration.ofSeconds(3).toNanos());
+
+    cache.put("new", "N"); // first overflow: the eldest, "live", is evicted
+    cache.put("newer", "W"); // second overflow: the sweep drops "old"
+
+    assertEquals(1, cache.evictionCount());
+    assertEquals(1, cache.expirationCount());
+    assertEquals("N", cache.getIfPresent("new"));
+    assertEquals("W", cache.getIfPresent("newer"));
+  }
+
+  /**
+   * Tests that a value loaded before an invalidation of its key is not stored, while a load
+   * started after it is.
+   */
+  @Test
+  void testPutIfCurrent_DiscardsLoadRacingInvalidate() {
+    BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1), clock::get);
+    long before = cache.generation("a");
+
+    cache.invalidate("a");
+
+    assertFalse(cache.putIfCurrent("a", "stale", before));
+    assertNull(cache.getIfPresent("a"));
+    assertTrue(cache.putIfCurrent("a", "fresh", cache.generation("a")));
+    assertEquals("fresh", cache.getIfPresent("a"));
+  }
+
+  /**
+   * Tests invalidation and that null values are not stored.
+   */
+  @Test
+  void testInvalidate_RemovesEntry() {
+    BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1), clock::get);
+    cache.put("a", "A");
+    cache.put("b", null);
+
+    cache.invalidate("a");
+
+    assertNull(cache.getIfPresent("a"));
+    assertEquals(0, cache.size());
+  }
+}
@@ -0,0 +1,100 @@
+package com.patienttriage.cache;
+
+import com.patienttriage.exception.IdempotencyKeyReusedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for IdempotencyKeyStore.
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyKeyStoreTest {
+
+  private static final String HASH = IdempotencyKeyStore.requestHash(1L, 2L, "Checkup");
+  private static final String OTHER_HASH = IdempotencyKeyStore.requestHash(1L, 2L, "Follow-up");
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  private IdempotencyKeyStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new IdempotencyKeyStore(jdbcTemplate, new SimpleMeterRegistry(), 100, Duration.ofHours(24));
+  }
+
+  /**
+   * Tests that a key read from the table is answered from the cache afterwards, and that the
+   * same key with another request is rejected.
+   */
+  @Test
+  void testFind_CachesKeyAndRejectsOtherRequest() throws Exception {
+    // Given
+    ResultSet row = mock(ResultSet.class);
+    when(row.getString("request_hash")).thenReturn(HASH);
+    when(row.getLong("appointment_id")).thenReturn(7L);
+    when(jdbcTemplate.query(eq(IdempotencyKeyStore.FIND_SQL), any(RowMapper.class), eq(1L), eq("retry-1"), any()))
+        .thenAnswer(invocation -> List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(row, 0)));
+
+    // When
+    Long first = store.find(1L, "retry-1", HASH);
+    Long second = store.find(1L, "retry-1", HASH);
+    IdempotencyKeyReusedException exception = assertThrows(IdempotencyKeyReusedException.class,
+        () -> store.find(1L, "retry-1", OTHER_HASH));
+
+    // Then
+    assertEquals(7L, first);
+    assertEquals(7L, second);
+    assertEquals("Idempotency-Key has already been used for a different request.", exception.getMessage());
+    verify(jdbcTemplate, times(1)).query(eq(IdempotencyKeyStore.FIND_SQL), any(RowMapper.class), any(), any(), any());
+  }
+
+  /**
+   * Tests that recording a key another request already holds fails, and that a recorded key
+   * is then found without a query (no transaction is active here, so it is cached at once).
+   */
+  @Test
+  void testRecord_LiveKeyRejected_NewKeyCached() {
+    when(jdbcTemplate.update(eq(IdempotencyKeyStore.RECORD_SQL), any(), eq("taken"), any(), any(), any(), any()))
+        .thenReturn(0);
+    when(jdbcTemplate.update(eq(IdempotencyKeyStore.RECORD_SQL), any(), eq("fresh"), any(), any(), any(), any()))
+        .thenReturn(1);
+
+    assertThrows(IdempotencyKeyReusedException.class, () -> store.record(1L, "taken", HASH, 7L));
+    store.record(1L, "fresh", HASH, 8L);
+
+    assertEquals(8L, store.find(1L, "fresh", HASH));
+    verify(jdbcTemplate, never()).query(eq(IdempotencyKeyStore.FIND_SQL), any(RowMapper.class), any(), any(), any());
+  }
+
+  /**
+   * Tests that a request hash is a stable SHA-256 that tells apart field lists whose values
+   * only differ in where one field ends and the next begins.
+   */
+  @Test
+  void testRequestHash_Sha256OfEachField() {
+    String hash = IdempotencyKeyStore.requestHash(1L, "ab", null);
+
+    assertEquals(IdempotencyKeyStore.REQUEST_HASH_LENGTH, hash.length());
+    assertTrue(hash.matches("[0-9a-f]+"));
+    assertEquals(hash, IdempotencyKeyStore.requestHash(1L, "ab", null));
+    assertNotEquals(hash, IdempotencyKeyStore.requestHash(1L, "a", "b"));
+    assertNotEquals(hash, IdempotencyKeyStore.requestHash(1L, "ab", "null"));
+    assertNotEquals(hash, IdempotencyKeyStore.requestHash(1L, null, "ab"));
+  }
+}
@@ -0,0 +1,141 @@
+package com.patienttriage.cache;
+
+import com.patienttriage.dto.DoctorInfo;
+import com.patienttriage.entity.DoctorProfile;
+import com.patienttriage.entity.User;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.repository.DoctorProfileRepository;
+import com.patienttriage.repository.PatientProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ProfileCache.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProfileCacheTest {
+
+  @Mock
+  private DoctorProfileRepository doctorProfileRepository;
+
+  @Mock
+  private PatientProfileRepository patientProfileRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+  private ProfileCache profileCache;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    profileCache = new ProfileCache(doctorProfileRepository, patientProfileRepository, meterRegistry,
+        100, Duration.ofMinutes(10), 100, Duration.ofMinutes(5));
+  }
+
+  /**
+   * Tests that repeated lookups of the same doctor hit the database once.
+   */
+  @Test
+  void testFindDoctor_CachesProfile() {
+    when(doctorProfileRepository.findByDoctor_Id(2L)).thenReturn(doctorProfile(2L, "Cardiology"));
+
+    DoctorInfo first = profileCache.findDoctor(2L);
+    DoctorInfo second = profileCache.findDoctor(2L);
+
+    assertEquals("Cardiology", first.getSpecialty());
+    assertSame(first, second);
+    verify(doctorProfileRepository, times(1)).findByDoctor_Id(2L);
+    assertEquals(1.0, meterRegistry.get("cache.gets")
+        .tags("cache", "doctorProfiles", "result", "hit").functionCounter().count());
+  }
+
+  /**
+   * Tests that a missing profile is cached too.
+   */
+  @Test
+  void testFindDoctor_CachesMissingProfile() {
+    when(doctorProfileRepository.findByDoctor_Id(9L)).thenReturn(null);
+
+    assertNull(profileCache.findDoctor(9L));
+    assertNull(profileCache.findDoctor(9L));
+
+    verify(doctorProfileRepository, times(1)).findByDoctor_Id(9L);
+  }
+
+  /**
+   * Tests that a bulk lookup only queries the doctors not already cached.
+   */
+  @Test
+  void testFindDoctors_LoadsOnlyMisses() {
+    when(doctorProfileRepository.findByDoctor_Id(2L)).thenReturn(doctorProfile(2L, "Cardiology"));
+    profileCache.findDoctor(2L);
+    when(doctorProfileRepository.findByDoctor_IdIn(List.of(3L, 4L)))
+        .thenReturn(List.of(doctorProfile(3L, "Pediatrics")));
+
+    Map<Long, DoctorInfo> result = profileCache.findDoctors(List.of(2L, 3L, 4L));
+
+    assertEquals(2, result.size());
+    assertEquals("Pediatrics", result.get(3L).getSpecialty());
+    assertFalse(result.containsKey(4L));
+    // second round is served entirely from the cache
+    profileCache.findDoctors(List.of(2L, 3L, 4L));
+    verify(doctorProfileRepository, times(1)).findByDoctor_IdIn(any());
+  }
+
+  /**
+   * Tests that eviction forces a reload.
+   */
+  @Test
+  void testEvictDoctor_ReloadsOnNextLookup() {
+    when(doctorProfileRepository.findByDoctor_Id(2L))
+        .thenReturn(doctorProfile(2L, "Cardiology"), doctorProfile(2L, "Neurology"));
+    profileCache.findDoctor(2L);
+
+    new ProfileCacheInvalidationListener(profileCache).onProfileWrite(doctorProfile(2L, "Neurology"));
+
+    assertEquals("Neurology", profileCache.findDoctor(2L).getSpecialty());
+    verify(doctorProfileRepository, times(2)).findByDoctor_Id(2L);
+  }
+
+  /**
+   * Tests that a profile evicted while it was being loaded is not cached, so the next lookup
+   * sees the write that evicted it.
+   */
+  @Test
+  void testFindDoctor_EvictedDuringLoad_NotCached() {
+    when(doctorProfileRepository.findByDoctor_Id(2L)).thenAnswer(invocation -> {
+      profileCache.evictDoctor(2L); // a write commits while the old row is read
+      return doctorProfile(2L, "Cardiology");
+    }).thenReturn(doctorProfile(2L, "Neurology"));
+
+    assertEquals("Cardiology", profileCache.findDoctor(2L).getSpecialty());
+
+    assertEquals("Neurology", profileCache.findDoctor(2L).getSpecialty());
+    assertEquals("Neurology", profileCache.findDoctor(2L).getSpecialty());
+    verify(doctorProfileRepository, times(2)).findByDoctor_Id(2L);
+  }
+
+  private DoctorProfile doctorProfile(Long id, String specialty) {
+    User doctor = new User("doctor" + id + "@test.com", "password", UserRole.DOCTOR);
+    try {
+      java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+      idField.setAccessible(true);
+      idField.set(doctor, id);
+    } catch (Exception e) {
+      // If reflection fails, continue without ID
+    }
+    DoctorProfile profile = new DoctorProfile(doctor, "First", "Last", specialty, "MD-" + id);
+    profile.setDoctor(doctor);
+    return profile;
+  }
+}
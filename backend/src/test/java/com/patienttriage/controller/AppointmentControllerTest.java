@@ -1,8 +1,13 @@
 package com.patienttriage.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.patienttriage.auth.SessionTokens;
+import com.patienttriage.dto.AppointmentCursor;
+import com.patienttriage.dto.AppointmentPage;
+import com.patienttriage.dto.AppointmentReceipt;
 import com.patienttriage.dto.AppointmentRequest;
 import com.patienttriage.dto.AppointmentResponse;
+import com.patienttriage.dto.BulkAppointmentRequest;
 import com.patienttriage.entity.AppointmentStatus;
 import com.patienttriage.entity.UserRole;
 import com.patienttriage.service.AppointmentService;
@@ -10,14 +15,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +46,9 @@ class AppointmentControllerTest {
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private SessionTokens sessionTokens;
+
   private AppointmentRequest createAppointmentRequest() {
     AppointmentRequest request = new AppointmentRequest();
     request.setPatientId(1L);
@@ -69,15 +81,119 @@ class AppointmentControllerTest {
     mockMvc.perform(post("/api/appointments/create")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(request))
-            .sessionAttr("userId", 1L)
-            .sessionAttr("role", UserRole.PATIENT)
-            .sessionAttr("username", "patient@test.com"))
+            .header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + sessionTokens.issue(1L, "patient@test.com", UserRole.PATIENT)))
         .andExpect(status().isCreated())
         .andExpect(jsonPath("$.message").value("Appointment created successfully"));
     
     verify(appointmentService).createAppointment(any(), any(), anyLong());
   }
 
+  /**
+   * Tests that a create without a doctor passes validation and returns the assigned doctor.
+   */
+  @Test
+  void testCreateAppointment_NoDoctor_ReturnsAssignment() throws Exception {
+    // Given
+    AppointmentRequest request = createAppointmentRequest();
+    request.setDoctorId(null);
+    request.setSpecialty("Cardiology");
+    when(appointmentService.createAppointment(any(), eq(UserRole.PATIENT), eq(1L))).thenReturn(createAppointmentResponse());
+
+    // When & Then
+    mockMvc.perform(post("/api/appointments/create")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request))
+            .header(HttpHeaders.AUTHORIZATION, bearer(1L, UserRole.PATIENT)))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.appointment.doctorId").value(2));
+  }
+
+  /**
+   * Tests that a bulk import returns the new ids.
+   */
+  @Test
+  void testCreateAppointments_Success() throws Exception {
+    // Given
+    BulkAppointmentRequest request = new BulkAppointmentRequest();
+    request.setAppointments(List.of(createAppointmentRequest(), createAppointmentRequest()));
+    when(appointmentService.createAppointments(any(), eq(UserRole.ADMIN), eq(3L))).thenReturn(List.of(51L, 52L));
+
+    // When & Then
+    mockMvc.perform(post("/api/appointments/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request))
+            .header(HttpHeaders.AUTHORIZATION, bearer(3L, UserRole.ADMIN)))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.count").value(2))
+        .andExpect(jsonPath("$.appointmentIds[1]").value(52));
+  }
+
+  /**
+   * Tests that every appointment of a bulk import is validated.
+   */
+  @Test
+  void testCreateAppointments_InvalidItem_ReturnsBadRequest() throws Exception {
+    AppointmentRequest missingDoctor = createAppointmentRequest();
+    missingDoctor.setDoctorId(null);
+    BulkAppointmentRequest request = new BulkAppointmentRequest();
+    request.setAppointments(List.of(createAppointmentRequest(), missingDoctor));
+
+    mockMvc.perform(post("/api/appointments/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request))
+            .header(HttpHeaders.AUTHORIZATION, bearer(3L, UserRole.ADMIN)))
+        .andExpect(status().isBadRequest());
+
+    verify(appointmentService, never()).createAppointments(any(), any(), any());
+  }
+
+  /**
+   * Tests that a bulk reassign returns only the number of moved appointments.
+   */
+  @Test
+  void testReassignDoctorAppointments_ReturnsCount() throws Exception {
+    // Given
+    LocalDateTime from = LocalDateTime.of(2030, 1, 7, 0, 0);
+    when(appointmentService.reassignDoctorAppointments(2L, 5L, from, from.plusDays(1), UserRole.ADMIN))
+        .thenReturn(4);
+
+    // When & Then
+    mockMvc.perform(post("/api/appointments/bulk/reassign")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"doctorId\":2,\"newDoctorId\":5,"
+                + "\"from\":\"2030-01-07T00:00:00\",\"to\":\"2030-01-08T00:00:00\"}")
+            .header(HttpHeaders.AUTHORIZATION, bearer(3L, UserRole.ADMIN)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.message").value("Appointments reassigned successfully"))
+        .andExpect(jsonPath("$.count").value(4));
+  }
+
+  /**
+   * Tests that a create with an Idempotency-Key answers the first call and a replay with the
+   * same body as a plain create, flagging only the replay.
+   */
+  @Test
+  void testCreateAppointment_IdempotencyKey_SameResponseAsPlainCreate() throws Exception {
+    // Given
+    AppointmentRequest request = createAppointmentRequest();
+    AppointmentResponse appointment = createAppointmentResponse();
+    when(appointmentService.createAppointment(any(), any(), anyLong())).thenReturn(appointment);
+    when(appointmentService.createAppointment(any(), eq(UserRole.PATIENT), eq(1L), eq("retry-1")))
+        .thenReturn(new AppointmentReceipt(appointment, false), new AppointmentReceipt(appointment, true));
+
+    // When
+    String plain = createBody(request, null, "false");
+    String first = createBody(request, "retry-1", "false");
+    String replay = createBody(request, "retry-1", "true");
+
+    // Then
+    assertEquals(objectMapper.readTree(plain), objectMapper.readTree(first));
+    assertEquals(objectMapper.readTree(plain), objectMapper.readTree(replay));
+    assertEquals(2L, objectMapper.readTree(replay).path("appointment").path("doctorId").asLong());
+    verify(appointmentService, times(1)).createAppointment(any(), any(), anyLong());
+  }
+
   /**
    * Tests that unauthenticated users cannot create appointments.
    */
@@ -103,17 +219,50 @@ class AppointmentControllerTest {
   void testGetAppointments_Success() throws Exception {
     // Given
     List<AppointmentResponse> appointments = List.of(createAppointmentResponse());
-    when(appointmentService.getAppointments(any(), anyLong())).thenReturn(appointments);
+    when(appointmentService.getAppointments(any(), anyLong(), any()))
+        .thenReturn(new AppointmentPage(appointments, "next"));
 
     // When & Then
     mockMvc.perform(get("/api/appointments/my")
-            .sessionAttr("userId", 1L)
-            .sessionAttr("role", UserRole.PATIENT))
+            .header(HttpHeaders.AUTHORIZATION, bearer(1L, UserRole.PATIENT)))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.appointments").isArray())
-        .andExpect(jsonPath("$.count").value(1));
+        .andExpect(jsonPath("$.count").value(1))
+        .andExpect(jsonPath("$.nextCursor").value("next"));
     
-    verify(appointmentService).getAppointments(any(), anyLong());
+    verify(appointmentService).getAppointments(any(), anyLong(), any());
+  }
+
+  /**
+   * Tests that filters and the cursor are passed through to the service.
+   */
+  @Test
+  void testGetAppointments_WithFiltersAndCursor() throws Exception {
+    // Given
+    LocalDateTime lastSeen = LocalDateTime.of(2030, 1, 1, 9, 0);
+    String cursor = new AppointmentCursor(lastSeen, 7L).encode();
+    when(appointmentService.getAppointments(any(), anyLong(), any()))
+        .thenReturn(new AppointmentPage(List.of(), null));
+
+    // When & Then
+    mockMvc.perform(get("/api/appointments/my")
+            .param("status", "SCHEDULED")
+            .param("from", "2030-01-01T00:00:00")
+            .param("to", "2030-02-01T00:00:00")
+            .param("cursor", cursor)
+            .param("limit", "20")
+            .header(HttpHeaders.AUTHORIZATION, bearer(2L, UserRole.DOCTOR)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.count").value(0))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+    verify(appointmentService).getAppointments(eq(UserRole.DOCTOR), eq(2L), argThat(filter ->
+        filter.getStatus() == AppointmentStatus.SCHEDULED
+            && filter.getFrom().equals(LocalDateTime.of(2030, 1, 1, 0, 0))
+            && filter.getTo().equals(LocalDateTime.of(2030, 2, 1, 0, 0))
+            && filter.getAfter().getAppointmentId().equals(7L)
+            && filter.getAfter().getAppointmentTime().equals(lastSeen)
+            && filter.getLimit() == 20));
   }
 
   /**
@@ -126,7 +275,7 @@ class AppointmentControllerTest {
         .andExpect(status().isUnauthorized())
         .andExpect(jsonPath("$.error").value("Not logged in. Please login first."));
     
-    verify(appointmentService, never()).getAppointments(any(), anyLong());
+    verify(appointmentService, never()).getAppointments(any(), anyLong(), any());
   }
 
   /**
@@ -140,8 +289,7 @@ class AppointmentControllerTest {
 
     // When & Then
     mockMvc.perform(get("/api/appointments/1")
-            .sessionAttr("userId", 1L)
-            .sessionAttr("role", UserRole.PATIENT))
+            .header(HttpHeaders.AUTHORIZATION, bearer(1L, UserRole.PATIENT)))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.appointment.appointmentId").value(1));
     
@@ -162,8 +310,7 @@ class AppointmentControllerTest {
     mockMvc.perform(put("/api/appointments/1")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(request))
-            .sessionAttr("userId", 1L)
-            .sessionAttr("role", UserRole.PATIENT))
+            .header(HttpHeaders.AUTHORIZATION, bearer(1L, UserRole.PATIENT)))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.message").value("Appointment updated successfully"));
     
@@ -182,12 +329,34 @@ class AppointmentControllerTest {
 
     // When & Then
     mockMvc.perform(delete("/api/appointments/1")
-            .sessionAttr("userId", 1L)
-            .sessionAttr("role", UserRole.PATIENT))
+            .header(HttpHeaders.AUTHORIZATION, bearer(1L, UserRole.PATIENT)))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.message").value("Appointment cancelled successfully"));
     
     verify(appointmentService).cancelAppointment(anyLong(), any(), anyLong());
   }
-}
 
+  // Helpers
+
+  private String createBody(AppointmentRequest request, String idempotencyKey, String replayed)
+      throws Exception {
+    var create = post("/api/appointments/create")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(request))
+        .header(HttpHeaders.AUTHORIZATION, bearer(1L, UserRole.PATIENT));
+    if (idempotencyKey == null) {
+      return mockMvc.perform(create)
+          .andExpect(status().isCreated())
+          .andExpect(header().doesNotExist("Idempotent-Replayed"))
+          .andReturn().getResponse().getContentAsString();
+    }
+    return mockMvc.perform(create.header("Idempotency-Key", idempotencyKey))
+        .andExpect(status().isCreated())
+        .andExpect(header().string("Idempotent-Replayed", replayed))
+        .andReturn().getResponse().getContentAsString();
+  }
+
+  private String bearer(Long userId, UserRole role) {
+    return "Bearer " + sessionTokens.issue(userId, "user" + userId + "@test.com", role);
+  }
+}
@@ -0,0 +1,99 @@
+package com.patienttriage.controller;
+
+import com.patienttriage.auth.SessionTokens;
+import com.patienttriage.dto.AppointmentExportFormat;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.service.AppointmentExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for AppointmentExportController.
+ */
+@WebMvcTest(AppointmentExportController.class)
+class AppointmentExportControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private SessionTokens sessionTokens;
+
+  @MockBean
+  private AppointmentExportService appointmentExportService;
+
+  /**
+   * Tests that the export is streamed with the requested format's content type.
+   */
+  @Test
+  void testExport_Csv_StreamsBody() throws Exception {
+    // Given
+    StreamingResponseBody body = out -> out.write("appointmentId\r\n1\r\n".getBytes(StandardCharsets.UTF_8));
+    when(appointmentExportService.exportAppointments(AppointmentExportFormat.CSV, UserRole.ADMIN))
+        .thenReturn(body);
+
+    // When
+    MvcResult result = mockMvc.perform(get("/api/appointments/export")
+            .param("format", "csv")
+            .header(HttpHeaders.AUTHORIZATION, bearer(3L, UserRole.ADMIN)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    // Then
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Type", "text/csv"))
+        .andExpect(header().string("Content-Disposition", "attachment; filename=\"appointments.csv\""))
+        .andExpect(content().string("appointmentId\r\n1\r\n"));
+  }
+
+  /**
+   * Tests that unauthenticated users cannot export.
+   */
+  @Test
+  void testExport_NotLoggedIn_Returns401() throws Exception {
+    MvcResult result = mockMvc.perform(get("/api/appointments/export"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isUnauthorized())
+        .andExpect(jsonPath("$.error").value("Not logged in. Please login first."));
+
+    verify(appointmentExportService, never()).exportAppointments(any(), any());
+  }
+
+  /**
+   * Tests that the service's permission check surfaces as an error response.
+   */
+  @Test
+  void testExport_NonAdmin_ReturnsError() throws Exception {
+    when(appointmentExportService.exportAppointments(any(), eq(UserRole.PATIENT)))
+        .thenThrow(new IllegalArgumentException("You do not have permission to export appointments."));
+
+    mockMvc.perform(get("/api/appointments/export")
+            .header(HttpHeaders.AUTHORIZATION, bearer(1L, UserRole.PATIENT)))
+        .andExpect(status().isInternalServerError())
+        .andExpect(jsonPath("$.message").value("You do not have permission to export appointments."));
+  }
+
+  // Helpers
+
+  private String bearer(Long userId, UserRole role) {
+    return "Bearer " + sessionTokens.issue(userId, "user" + userId + "@test.com", role);
+  }
+}
@@ -0,0 +1,103 @@
+package com.patienttriage.controller;
+
+import com.patienttriage.auth.SessionTokens;
+import com.patienttriage.dto.AvailableSlot;
+import com.patienttriage.dto.DoctorAvailability;
+import com.patienttriage.dto.DoctorInfo;
+import com.patienttriage.dto.DoctorSlot;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.service.DoctorAvailabilityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for DoctorController.
+ */
+@WebMvcTest(DoctorController.class)
+class DoctorControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private SessionTokens sessionTokens;
+
+  @MockBean
+  private DoctorAvailabilityService doctorAvailabilityService;
+
+  /**
+   * Tests that the date parameters are passed through and the slots are returned.
+   */
+  @Test
+  void testGetAvailability_ReturnsSlots() throws Exception {
+    // Given
+    LocalDate from = LocalDate.of(2030, 1, 7);
+    LocalDateTime nine = from.atTime(9, 0);
+    when(doctorAvailabilityService.getAvailability(2L, from, from.plusDays(1)))
+        .thenReturn(new DoctorAvailability(2L, from, from.plusDays(1), 30,
+            List.of(new AvailableSlot(nine, nine.plusMinutes(30)))));
+
+    // When & Then
+    mockMvc.perform(get("/api/doctors/2/availability")
+            .param("from", "2030-01-07")
+            .param("to", "2030-01-08")
+            .header(HttpHeaders.AUTHORIZATION, bearer(1L, UserRole.PATIENT)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.doctorId").value(2))
+        .andExpect(jsonPath("$.count").value(1))
+        .andExpect(jsonPath("$.slots[0].start").value("2030-01-07T09:00:00"));
+  }
+
+  /**
+   * Tests the specialty-wide earliest slot search.
+   */
+  @Test
+  void testFindEarliestSlots_ReturnsSlots() throws Exception {
+    // Given
+    LocalDateTime nine = LocalDateTime.of(2030, 1, 7, 9, 0);
+    DoctorInfo doctor = new DoctorInfo(2L, "Sarah", "Chen", "Cardiology", "MD-12345", "Mon-Fri 9:00-17:00");
+    when(doctorAvailabilityService.findEarliestSlots("Cardiology", null, 5, UserRole.ADMIN))
+        .thenReturn(List.of(new DoctorSlot(doctor, new AvailableSlot(nine, nine.plusMinutes(30)))));
+
+    // When & Then
+    mockMvc.perform(get("/api/doctors/earliest")
+            .param("specialty", "Cardiology")
+            .param("limit", "5")
+            .header(HttpHeaders.AUTHORIZATION, bearer(3L, UserRole.ADMIN)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.count").value(1))
+        .andExpect(jsonPath("$.slots[0].doctorId").value(2))
+        .andExpect(jsonPath("$.slots[0].doctorLastName").value("Chen"));
+  }
+
+  /**
+   * Tests that unauthenticated users cannot search availability.
+   */
+  @Test
+  void testGetAvailability_NotLoggedIn_Returns401() throws Exception {
+    mockMvc.perform(get("/api/doctors/2/availability"))
+        .andExpect(status().isUnauthorized())
+        .andExpect(jsonPath("$.error").value("Not logged in. Please login first."));
+
+    verify(doctorAvailabilityService, never()).getAvailability(any(), any(), any());
+  }
+
+  // Helpers
+
+  private String bearer(Long userId, UserRole role) {
+    return "Bearer " + sessionTokens.issue(userId, "user" + userId + "@test.com", role);
+  }
+}
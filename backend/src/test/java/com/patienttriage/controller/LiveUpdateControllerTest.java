@@ -0,0 +1,62 @@
+package com.patienttriage.controller;
+
+import com.patienttriage.auth.SessionTokens;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.live.LiveUpdateHub;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for LiveUpdateController.
+ */
+@WebMvcTest(LiveUpdateController.class)
+class LiveUpdateControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private SessionTokens sessionTokens;
+
+  @MockBean
+  private LiveUpdateHub liveUpdateHub;
+
+  /**
+   * Tests that a logged-in doctor gets an open event stream.
+   */
+  @Test
+  void testStream_OpensEventStream() throws Exception {
+    when(liveUpdateHub.subscribe(7L, UserRole.DOCTOR)).thenReturn(new SseEmitter());
+
+    mockMvc.perform(get("/api/live/stream")
+            .header(HttpHeaders.AUTHORIZATION, bearer(7L, UserRole.DOCTOR)))
+        .andExpect(status().isOk())
+        .andExpect(request().asyncStarted());
+  }
+
+  /**
+   * Tests that opening a stream without logging in returns 401 with the usual error JSON.
+   */
+  @Test
+  void testStream_NotLoggedIn_Returns401() throws Exception {
+    mockMvc.perform(get("/api/live/stream"))
+        .andExpect(status().isUnauthorized())
+        .andExpect(content().json("{\"error\":\"Not logged in. Please login first.\"}"));
+    verifyNoInteractions(liveUpdateHub);
+  }
+
+  // Helpers
+
+  private String bearer(Long userId, UserRole role) {
+    return "Bearer " + sessionTokens.issue(userId, "user" + userId + "@test.com", role);
+  }
+}
@@ -0,0 +1,69 @@
+package com.patienttriage.controller;
+
+import com.patienttriage.auth.SessionTokens;
+import com.patienttriage.dto.TriageStatus;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.service.PatientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for PatientController.
+ */
+@WebMvcTest(PatientController.class)
+class PatientControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private SessionTokens sessionTokens;
+
+  @MockBean
+  private PatientService patientService;
+
+  /**
+   * Tests that a submitted symptom is accepted for background evaluation.
+   */
+  @Test
+  void testSubmitSymptom_Returns202() throws Exception {
+    mockMvc.perform(put("/api/patients/me/symptom")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"symptom\":\"Chest pain\"}")
+            .header(HttpHeaders.AUTHORIZATION, bearer(5L, UserRole.PATIENT)))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.patientId").value(5));
+
+    verify(patientService).submitSymptom("Chest pain", UserRole.PATIENT, 5L);
+  }
+
+  /**
+   * Tests that the triage status shows a pending evaluation.
+   */
+  @Test
+  void testGetTriageStatus_Pending() throws Exception {
+    when(patientService.getTriageStatus(UserRole.PATIENT, 5L))
+        .thenReturn(new TriageStatus(5L, "Chest pain", null));
+
+    mockMvc.perform(get("/api/patients/me/triage")
+            .header(HttpHeaders.AUTHORIZATION, bearer(5L, UserRole.PATIENT)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.symptom").value("Chest pain"))
+        .andExpect(jsonPath("$.pending").value(true));
+  }
+
+  // Helpers
+
+  private String bearer(Long userId, UserRole role) {
+    return "Bearer " + sessionTokens.issue(userId, "user" + userId + "@test.com", role);
+  }
+}
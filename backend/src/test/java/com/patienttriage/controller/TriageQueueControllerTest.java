@@ -0,0 +1,86 @@
+package com.patienttriage.controller;
+
+import com.patienttriage.auth.SessionTokens;
+import com.patienttriage.dto.TriageTicket;
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.repository.TriageQueueEntryRepository;
+import com.patienttriage.service.TriageQueueService;
+import com.patienttriage.triage.TriageQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for TriageQueueController.
+ */
+@WebMvcTest(TriageQueueController.class)
+class TriageQueueControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private SessionTokens sessionTokens;
+
+  @MockBean
+  private TriageQueueService triageQueueService;
+
+  /**
+   * Tests that joining a queue returns 201 with the ticket.
+   */
+  @Test
+  void testEnqueue_ReturnsTicket() throws Exception {
+    // Given
+    TriageQueue queue = new TriageQueue(mock(TriageQueueEntryRepository.class),
+        mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+        Duration.ofMinutes(30), Duration.ofHours(2));
+    TriageQueue.Ticket ticket = queue.offer(5L, "cardiology", TriagePriority.MEDIUM,
+        LocalDateTime.of(2030, 1, 7, 9, 0));
+    when(triageQueueService.enqueue(any(), eq(UserRole.PATIENT), eq(5L)))
+        .thenReturn(new TriageTicket(ticket, null));
+
+    // When & Then
+    mockMvc.perform(post("/api/triage/queue")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"specialty\":\"Cardiology\"}")
+            .header(HttpHeaders.AUTHORIZATION, bearer(5L, UserRole.PATIENT)))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.ticket.patientId").value(5))
+        .andExpect(jsonPath("$.ticket.priority").value("MEDIUM"))
+        .andExpect(jsonPath("$.ticket.dueAt").value("2030-01-07T09:30:00"));
+  }
+
+  /**
+   * Tests that taking from an empty queue returns 204 No Content.
+   */
+  @Test
+  void testTakeNext_EmptyQueue_Returns204() throws Exception {
+    when(triageQueueService.takeNext("Cardiology", UserRole.DOCTOR, 7L)).thenReturn(null);
+
+    mockMvc.perform(post("/api/triage/queue/Cardiology/next")
+            .header(HttpHeaders.AUTHORIZATION, bearer(7L, UserRole.DOCTOR)))
+        .andExpect(status().isNoContent());
+  }
+
+  // Helpers
+
+  private String bearer(Long userId, UserRole role) {
+    return "Bearer " + sessionTokens.issue(userId, "user" + userId + "@test.com", role);
+  }
+}
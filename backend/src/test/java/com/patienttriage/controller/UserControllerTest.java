@@ -1,15 +1,18 @@
 package com.patienttriage.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.patienttriage.auth.SessionTokens;
 import com.patienttriage.dto.UserLoginRequest;
 import com.patienttriage.dto.UserRegisterRequest;
 import com.patienttriage.entity.User;
 import com.patienttriage.entity.UserRole;
 import com.patienttriage.service.UserService;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -34,6 +37,9 @@ class UserControllerTest {
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private SessionTokens sessionTokens;
+
   /**
    * Tests successful user registration.
    */
@@ -60,10 +66,10 @@ class UserControllerTest {
   }
 
   /**
-   * Tests successful login and session attribute setting.
+   * Tests successful login issues a session token, in a header and an HttpOnly cookie.
    */
   @Test
-  void testLogin_Success_SetsSessionAttributes() throws Exception {
+  void testLogin_Success_IssuesToken() throws Exception {
     // Given
     UserLoginRequest request = new UserLoginRequest();
     request.setUsername("test@test.com");
@@ -86,7 +92,10 @@ class UserControllerTest {
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(request)))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.username").value("test@test.com"));
+        .andExpect(jsonPath("$.username").value("test@test.com"))
+        .andExpect(header().exists(SessionTokens.TOKEN_HEADER))
+        .andExpect(cookie().httpOnly(SessionTokens.COOKIE_NAME, true))
+        .andExpect(request().sessionAttributeDoesNotExist("userId", "role"));
     
     verify(userService).login(anyString(), anyString());
   }
@@ -96,13 +105,12 @@ class UserControllerTest {
    */
   @Test
   void testGetCurrentUser_LoggedIn_ReturnsUserInfo() throws Exception {
-    // Given - user is logged in (session has userId)
+    // Given - user is logged in (request carries their token)
+    String token = sessionTokens.issue(1L, "test@test.com", UserRole.PATIENT);
     
     // When & Then
     mockMvc.perform(get("/api/users/current")
-            .sessionAttr("userId", 1L)
-            .sessionAttr("username", "test@test.com")
-            .sessionAttr("role", UserRole.PATIENT))
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.userId").value(1))
         .andExpect(jsonPath("$.username").value("test@test.com"))
@@ -114,7 +122,7 @@ class UserControllerTest {
    */
   @Test
   void testGetCurrentUser_NotLoggedIn_Returns401() throws Exception {
-    // Given - no session attributes
+    // Given - no token
     
     // When & Then
     mockMvc.perform(get("/api/users/current"))
@@ -123,15 +131,31 @@ class UserControllerTest {
   }
 
   /**
-   * Tests successful logout and session invalidation.
+   * Tests that a token whose payload was altered is not accepted.
+   */
+  @Test
+  void testGetCurrentUser_TamperedToken_Returns401() throws Exception {
+    // Given - a patient token with its signature moved onto another payload
+    String patient = sessionTokens.issue(1L, "test@test.com", UserRole.PATIENT);
+    String admin = sessionTokens.issue(1L, "test@test.com", UserRole.ADMIN);
+    String forged = admin.substring(0, admin.lastIndexOf('.')) + patient.substring(patient.lastIndexOf('.'));
+
+    // When & Then
+    mockMvc.perform(get("/api/users/current")
+            .cookie(new Cookie(SessionTokens.COOKIE_NAME, forged)))
+        .andExpect(status().isUnauthorized());
+  }
+
+  /**
+   * Tests successful logout removes the token cookie.
    */
   @Test
-  void testLogout_Success_InvalidatesSession() throws Exception {
+  void testLogout_Success_ClearsTokenCookie() throws Exception {
     // When & Then
-    mockMvc.perform(post("/api/users/logout")
-            .sessionAttr("userId", 1L))
+    mockMvc.perform(post("/api/users/logout"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.message").value("Logged out successfully"));
+        .andExpect(jsonPath("$.message").value("Logged out successfully"))
+        .andExpect(cookie().maxAge(SessionTokens.COOKIE_NAME, 0));
   }
 }
 
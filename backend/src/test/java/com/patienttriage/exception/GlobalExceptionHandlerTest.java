@@ -1,5 +1,6 @@
 package com.patienttriage.exception;
 
+import com.patienttriage.auth.SessionTokens;
 import com.patienttriage.controller.AppointmentController;
 import com.patienttriage.controller.UserController;
 import com.patienttriage.dto.UserRegisterRequest;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -33,6 +35,9 @@ class GlobalExceptionHandlerTest {
   @MockBean
   private AppointmentService appointmentService;
 
+  @Autowired
+  private SessionTokens sessionTokens;
+
   /**
    * Tests validation exception handling returns 400 with field errors.
    */
@@ -46,13 +51,31 @@ class GlobalExceptionHandlerTest {
     mockMvc.perform(post("/api/appointments/create")
             .contentType(MediaType.APPLICATION_JSON)
             .content(invalidJson)
-            .sessionAttr("userId", 1L)
-            .sessionAttr("role", UserRole.PATIENT))
+            .header(HttpHeaders.AUTHORIZATION, bearer(1L, UserRole.PATIENT)))
         .andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.error").value("Validation Failed"))
         .andExpect(jsonPath("$.fieldErrors").exists());
   }
 
+  /**
+   * Tests booking conflict handling returns 409 with error message.
+   */
+  @Test
+  void testHandleAppointmentConflict_Returns409() throws Exception {
+    // Given
+    when(appointmentService.createAppointment(any(), eq(UserRole.PATIENT), eq(1L)))
+        .thenThrow(new AppointmentConflictException("Doctor already has an appointment at this time."));
+
+    // When & Then
+    mockMvc.perform(post("/api/appointments/create")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"patientId\":1,\"doctorId\":2,\"appointmentTime\":\"2099-01-01T10:00:00\"}")
+            .header(HttpHeaders.AUTHORIZATION, bearer(1L, UserRole.PATIENT)))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.error").value("Conflict"))
+        .andExpect(jsonPath("$.message").value("Doctor already has an appointment at this time."));
+  }
+
   /**
    * Tests runtime exception handling returns 500 with error message.
    */
@@ -93,5 +116,46 @@ class GlobalExceptionHandlerTest {
         .andExpect(jsonPath("$.error").value("Internal Server Error"))
         .andExpect(jsonPath("$.message").value("Invalid password"));
   }
-}
 
+  /**
+   * Tests login throttling returns 429 with a Retry-After header.
+   */
+  @Test
+  void testHandleTooManyLoginAttempts_Returns429() throws Exception {
+    // Given
+    when(userService.login(anyString(), anyString()))
+        .thenThrow(new TooManyLoginAttemptsException("Too many login attempts. Please try again later.", 120));
+
+    // When & Then
+    mockMvc.perform(post("/api/users/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"username\":\"test@test.com\",\"password\":\"wrong\"}"))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "120"))
+        .andExpect(jsonPath("$.error").value("Too Many Requests"));
+  }
+
+  /**
+   * Tests a full password hashing queue returns 503 with a Retry-After header.
+   */
+  @Test
+  void testHandleServiceBusy_Returns503() throws Exception {
+    // Given
+    when(userService.login(anyString(), anyString()))
+        .thenThrow(new ServiceBusyException("Too many logins in progress. Please try again shortly."));
+
+    // When & Then
+    mockMvc.perform(post("/api/users/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"username\":\"test@test.com\",\"password\":\"password123\"}"))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().exists("Retry-After"))
+        .andExpect(jsonPath("$.error").value("Service Unavailable"));
+  }
+
+  // Helpers
+
+  private String bearer(Long userId, UserRole role) {
+    return "Bearer " + sessionTokens.issue(userId, "user" + userId + "@test.com", role);
+  }
+}
@@ -0,0 +1,216 @@
+package com.patienttriage.live;
+
+import com.patienttriage.dto.AppointmentDelta;
+import com.patienttriage.dto.TriageQueuePosition;
+import com.patienttriage.entity.AppointmentStatus;
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.event.AppointmentChangedEvent;
+import com.patienttriage.event.AppointmentSnapshot;
+import com.patienttriage.event.TriageQueueChangedEvent;
+import com.patienttriage.repository.TriageQueueEntryRepository;
+import com.patienttriage.triage.TriageQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for LiveUpdateHub.
+ */
+class LiveUpdateHubTest {
+
+  private static final LocalDateTime NINE = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+  private SimpleMeterRegistry registry;
+  private TriageQueue triageQueue;
+  private LiveUpdateHub hub;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    triageQueue = new TriageQueue(mock(TriageQueueEntryRepository.class),
+        mock(PlatformTransactionManager.class), registry, Duration.ofMinutes(30), Duration.ofHours(2));
+    hub = new LiveUpdateHub(triageQueue, registry, 2, Duration.ofMinutes(30));
+  }
+
+  @AfterEach
+  void tearDown() {
+    hub.destroy();
+  }
+
+  /**
+   * Tests that an appointment change reaches the streams of its doctor and patient only.
+   */
+  @Test
+  void testAppointmentChanged_ReachesDoctorAndPatient() throws Exception {
+    // Given
+    RecordingEmitter doctor = subscribe(7L, UserRole.DOCTOR);
+    RecordingEmitter patient = subscribe(5L, UserRole.PATIENT);
+    RecordingEmitter otherPatient = subscribe(6L, UserRole.PATIENT);
+
+    // When
+    hub.onAppointmentChanged(AppointmentChangedEvent.created(
+        new AppointmentSnapshot(100L, 7L, 5L, NINE, NINE.plusMinutes(30), AppointmentStatus.SCHEDULED)));
+
+    // Then
+    await(() -> doctor.payloads.size() == 1 && patient.payloads.size() == 1);
+    AppointmentDelta delta = (AppointmentDelta) doctor.payloads.get(0);
+    assertEquals(AppointmentChangedEvent.Type.CREATED, delta.getType());
+    assertEquals(100L, delta.getAppointmentId());
+    assertSame(delta, patient.payloads.get(0));
+    assertTrue(otherPatient.payloads.isEmpty());
+  }
+
+  /**
+   * Tests that a stream whose buffer overflows is dropped without holding up the publisher
+   * or the other streams.
+   */
+  @Test
+  void testSlowConsumer_IsDropped() throws Exception {
+    // Given - the slow client never finishes a send
+    CountDownLatch stalled = new CountDownLatch(1);
+    RecordingEmitter slow = new RecordingEmitter(stalled);
+    hub.subscribe(5L, UserRole.PATIENT, slow);
+    RecordingEmitter fast = subscribe(7L, UserRole.DOCTOR);
+
+    // When - more changes than one send plus a buffer of 2
+    for (long id = 1; id <= 4; id++) {
+      hub.onAppointmentChanged(AppointmentChangedEvent.created(
+          new AppointmentSnapshot(id, 7L, 5L, NINE, NINE.plusMinutes(30), AppointmentStatus.SCHEDULED)));
+      int sent = (int) id;
+      await(() -> fast.payloads.size() == sent);
+    }
+
+    // Then
+    await(() -> hub.size() == 1);
+    assertEquals(1.0, registry.get("live.subscribers.dropped").counter().count());
+    assertEquals(4, fast.payloads.size());
+    stalled.countDown();
+  }
+
+  /**
+   * Tests that a waiting patient gets their position on connect, a new one when someone ahead
+   * leaves, and a null position once taken.
+   */
+  @Test
+  void testQueuePosition_PushedOnConnectAndChange() throws Exception {
+    // Given
+    triageQueue.offer(5L, "cardiology", TriagePriority.HIGH, NINE);
+    triageQueue.offer(6L, "cardiology", TriagePriority.HIGH, NINE.plusMinutes(1));
+    RecordingEmitter patient = subscribe(6L, UserRole.PATIENT);
+    await(() -> patient.payloads.size() == 1);
+
+    // When
+    triageQueue.remove(5L);
+    hub.onTriageQueueChanged(new TriageQueueChangedEvent("cardiology"));
+    await(() -> patient.payloads.size() == 2);
+    triageQueue.poll("cardiology");
+    hub.onTriageQueueChanged(new TriageQueueChangedEvent("cardiology"));
+    await(() -> patient.payloads.size() == 3);
+    hub.onTriageQueueChanged(new TriageQueueChangedEvent("cardiology"));
+
+    // Then - unchanged positions are not sent again
+    await(() -> patient.payloads.size() == 3);
+    assertEquals(2, ((TriageQueuePosition) patient.payloads.get(0)).getPosition());
+    assertEquals(1, ((TriageQueuePosition) patient.payloads.get(1)).getPosition());
+    assertNull(((TriageQueuePosition) patient.payloads.get(2)).getPosition());
+    Thread.sleep(50);
+    assertEquals(3, patient.payloads.size());
+  }
+
+  /**
+   * Tests that queue changes return without walking the queue, and that changes to a
+   * specialty arriving while its recompute waits are folded into that one recompute.
+   */
+  @Test
+  void testQueueChanges_CoalescedPerSpecialty() throws Exception {
+    // Given - the worker is held up on another specialty
+    TriageQueue queue = spy(triageQueue);
+    hub.destroy();
+    hub = new LiveUpdateHub(queue, registry, 2, Duration.ofMinutes(30));
+    queue.offer(5L, "cardiology", TriagePriority.HIGH, NINE);
+    queue.offer(6L, "neurology", TriagePriority.HIGH, NINE);
+    RecordingEmitter cardiology = subscribe(5L, UserRole.PATIENT);
+    RecordingEmitter neurology = subscribe(6L, UserRole.PATIENT);
+    await(() -> cardiology.payloads.size() == 1 && neurology.payloads.size() == 1);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      release.await();
+      return invocation.callRealMethod();
+    }).when(queue).positions(eq("neurology"), any());
+    queue.remove(6L);
+    hub.onTriageQueueChanged(new TriageQueueChangedEvent("neurology"));
+
+    // When
+    for (long id = 10; id < 20; id++) {
+      queue.offer(id, "cardiology", TriagePriority.LOW, NINE.plusMinutes(id));
+      hub.onTriageQueueChanged(new TriageQueueChangedEvent("cardiology"));
+    }
+    release.countDown();
+
+    // Then - one walk of cardiology besides the one on connect
+    await(() -> neurology.payloads.size() == 2);
+    verify(queue, timeout(5000).times(2)).positions(eq("cardiology"), any());
+    Thread.sleep(50);
+    verify(queue, times(2)).positions(eq("cardiology"), any());
+    assertEquals(1, cardiology.payloads.size()); // still first in line
+  }
+
+  // Helpers
+
+  private RecordingEmitter subscribe(Long userId, UserRole role) {
+    RecordingEmitter emitter = new RecordingEmitter(null);
+    hub.subscribe(userId, role, emitter);
+    return emitter;
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "timed out");
+      Thread.sleep(5);
+    }
+  }
+
+  /** Records the data of each event sent, optionally stalling every send on a latch **/
+  private static final class RecordingEmitter extends SseEmitter {
+    private final List<Object> payloads = new CopyOnWriteArrayList<>();
+    private final CountDownLatch stall;
+
+    RecordingEmitter(CountDownLatch stall) {
+      this.stall = stall;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      if (stall != null) {
+        try {
+          stall.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException(e);
+        }
+      }
+      builder.build().stream()
+          .map(part -> part.getData())
+          .filter(data -> !(data instanceof String))
+          .forEach(payloads::add);
+    }
+  }
+}
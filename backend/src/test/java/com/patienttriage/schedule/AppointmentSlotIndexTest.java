@@ -0,0 +1,167 @@
+package com.patienttriage.schedule;
+
+import com.patienttriage.entity.AppointmentStatus;
+import com.patienttriage.event.AppointmentChangedEvent;
+import com.patienttriage.event.AppointmentSnapshot;
+import com.patienttriage.repository.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for AppointmentSlotIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+class AppointmentSlotIndexTest {
+
+  private static final LocalDateTime NINE = LocalDateTime.of(2030, 1, 7, 9, 0);
+  private static final LocalDateTime TEN = NINE.plusHours(1);
+
+  @Mock
+  private AppointmentRepository appointmentRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private AppointmentSlotIndex slotIndex;
+
+  @BeforeEach
+  void setUp() {
+    slotIndex = new AppointmentSlotIndex(appointmentRepository, transactionManager);
+  }
+
+  /**
+   * Tests that scheduled appointments that have not ended are loaded at startup and block
+   * their slot.
+   */
+  @Test
+  void testWarmUp_LoadsScheduledAppointments() {
+    when(appointmentRepository.streamSnapshotsEndingAfter(eq(AppointmentStatus.SCHEDULED), any()))
+        .thenReturn(Stream.of(scheduled(1L, 2L, 5L, NINE), scheduled(2L, 3L, 6L, NINE)));
+
+    slotIndex.afterSingletonsInstantiated();
+
+    assertEquals(2, slotIndex.size());
+    assertTrue(doctorBooked(2L, NINE));
+    assertTrue(patientBooked(6L, NINE));
+    assertFalse(doctorBooked(2L, TEN));
+    assertFalse(doctorBooked(4L, NINE));
+  }
+
+  /**
+   * Tests that an update moves the slot and a cancellation frees it.
+   */
+  @Test
+  void testOnAppointmentChanged_MovesAndReleasesSlots() {
+    AppointmentSnapshot atNine = scheduled(1L, 2L, 5L, NINE);
+    AppointmentSnapshot atTen = scheduled(1L, 2L, 5L, TEN);
+    slotIndex.onAppointmentChanged(AppointmentChangedEvent.created(atNine));
+
+    slotIndex.onAppointmentChanged(AppointmentChangedEvent.updated(atNine, atTen));
+    assertFalse(doctorBooked(2L, NINE));
+    assertTrue(doctorBooked(2L, TEN));
+
+    slotIndex.onAppointmentChanged(AppointmentChangedEvent.cancelled(atTen,
+        new AppointmentSnapshot(1L, 2L, 5L, TEN, TEN.plusMinutes(30), AppointmentStatus.CANCELLED)));
+    assertFalse(doctorBooked(2L, TEN));
+    assertFalse(patientBooked(5L, TEN));
+    assertEquals(0, slotIndex.size());
+    assertEquals(0, slotIndex.doctorLoad(2L));
+  }
+
+  /**
+   * Tests that each doctor's load counts their upcoming appointments as they come, go and end.
+   */
+  @Test
+  void testDoctorLoad_FollowsChanges() {
+    AppointmentSnapshot first = scheduled(1L, 2L, 5L, NINE);
+    slotIndex.onAppointmentChanged(AppointmentChangedEvent.created(first));
+    slotIndex.onAppointmentChanged(AppointmentChangedEvent.created(scheduled(2L, 2L, 6L, TEN)));
+    slotIndex.onAppointmentChanged(AppointmentChangedEvent.created(scheduled(3L, 3L, 7L, TEN)));
+    assertEquals(2, slotIndex.doctorLoad(2L));
+
+    // moved to doctor 3
+    slotIndex.onAppointmentChanged(AppointmentChangedEvent.updated(first, scheduled(1L, 3L, 5L, NINE)));
+
+    assertEquals(1, slotIndex.doctorLoad(2L));
+    assertEquals(2, slotIndex.doctorLoad(3L));
+    assertEquals(0, slotIndex.doctorLoad(4L));
+
+    // appointments that have ended no longer count, so a long-serving doctor is not penalized
+    slotIndex.pruneEnded(TEN.plusHours(1));
+    assertEquals(0, slotIndex.doctorLoad(2L));
+    assertEquals(0, slotIndex.doctorLoad(3L));
+  }
+
+  /**
+   * Tests the per-day bitmap of booked slots, including partial slots, appointments that
+   * start the day before and ones that started well before the slots they still fill.
+   */
+  @Test
+  void testBookedDoctorSlots_MarksEveryTouchedSlot() {
+    slotIndex.add(scheduled(1L, 2L, 5L, NINE));                                  // slot 18
+    slotIndex.add(new AppointmentSnapshot(2L, 2L, 6L, TEN.plusMinutes(10), TEN.plusMinutes(40),
+        AppointmentStatus.SCHEDULED));                                          // slots 20, 21
+    slotIndex.add(new AppointmentSnapshot(3L, 2L, 7L, NINE.minusHours(10), NINE.minusHours(8),
+        AppointmentStatus.SCHEDULED));                                          // 23:00 - 01:00, slots 0, 1
+
+    long booked = slotIndex.bookedDoctorSlots(2L, NINE.toLocalDate());
+
+    assertEquals((1L << 18) | (1L << 20) | (1L << 21) | 0b11L, booked);
+    assertEquals(1L << 46 | 1L << 47, slotIndex.bookedDoctorSlots(2L, NINE.toLocalDate().minusDays(1)));
+    assertEquals(0L, slotIndex.bookedDoctorSlots(3L, NINE.toLocalDate()));
+
+    // 9:00 - 17:00: every slot from 18 up to (not including) 34; the 17:00 slot stays free
+    slotIndex.add(new AppointmentSnapshot(4L, 3L, 8L, NINE, NINE.plusHours(8), AppointmentStatus.SCHEDULED));
+    assertEquals((1L << 34) - (1L << 18), slotIndex.bookedDoctorSlots(3L, NINE.toLocalDate()));
+  }
+
+  /**
+   * Tests that appointments that have ended are pruned with their slots, and ended ones are
+   * never added.
+   */
+  @Test
+  void testPruneEnded_DropsEndedAppointments() {
+    slotIndex.add(scheduled(1L, 2L, 5L, NINE));
+    slotIndex.add(scheduled(2L, 2L, 6L, TEN));
+    slotIndex.add(scheduled(3L, 3L, 7L, LocalDateTime.now().minusDays(1)));
+    assertEquals(2, slotIndex.size());
+
+    // 9:00-9:30 has ended at 10:00, 10:00-10:30 has not
+    assertEquals(1, slotIndex.pruneEnded(TEN));
+
+    assertEquals(1, slotIndex.size());
+    assertFalse(doctorBooked(2L, NINE));
+    assertFalse(patientBooked(5L, NINE));
+    assertTrue(doctorBooked(2L, TEN));
+    assertEquals(0, slotIndex.pruneEnded(TEN));
+  }
+
+  private boolean doctorBooked(Long doctorId, LocalDateTime slotStart) {
+    return (slotIndex.bookedDoctorSlots(doctorId, slotStart.toLocalDate()) & slotBit(slotStart)) != 0;
+  }
+
+  private boolean patientBooked(Long patientId, LocalDateTime slotStart) {
+    return (slotIndex.bookedPatientSlots(patientId, slotStart.toLocalDate()) & slotBit(slotStart)) != 0;
+  }
+
+  private static long slotBit(LocalDateTime slotStart) {
+    return 1L << (slotStart.toLocalTime().toSecondOfDay() / 60 / WorkSchedule.SLOT_MINUTES);
+  }
+
+  private static AppointmentSnapshot scheduled(Long id, Long doctorId, Long patientId, LocalDateTime time) {
+    return new AppointmentSnapshot(id, doctorId, patientId, time, time.plusMinutes(30),
+        AppointmentStatus.SCHEDULED);
+  }
+}
@@ -0,0 +1,284 @@
+package com.patienttriage.schedule;
+
+import com.patienttriage.cache.IdempotencyKeyStore;
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.dto.AppointmentRequest;
+import com.patienttriage.entity.Appointment;
+import com.patienttriage.entity.User;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.exception.AppointmentConflictException;
+import com.patienttriage.repository.AppointmentRepository;
+import com.patienttriage.repository.UserRepository;
+import com.patienttriage.repository.WaitlistEntryRepository;
+import com.patienttriage.service.AppointmentService;
+import com.patienttriage.service.DoctorAvailabilityService;
+import com.patienttriage.service.impl.AppointmentServiceImpl;
+import com.patienttriage.triage.TriageQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for BookingCoordinator.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookingCoordinatorTest {
+
+  private static final int THREADS = 16;
+  private static final int BOOKINGS_PER_THREAD = 200;
+  private static final int DOCTORS = 4;
+  private static final int SLOTS_PER_DOCTOR = 20;
+  private static final long FIRST_PATIENT_ID = 100L;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  private BookingCoordinator coordinator;
+
+  @BeforeEach
+  void setUp() {
+    coordinator = new BookingCoordinator(transactionManager, jdbcTemplate, 256);
+  }
+
+  /**
+   * Stress test: many threads race createAppointment for a small set of (doctor, slot) pairs,
+   * against a repository whose conflict check and insert are deliberately non-atomic. Under
+   * the coordinator no doctor is ever booked twice for overlapping times, and every request
+   * either books or fails the conflict check.
+   */
+  @Test
+  void testCreateAppointment_NoDoubleBookingUnderContention() throws Exception {
+    // Given
+    List<Appointment> booked = new CopyOnWriteArrayList<>();
+    AppointmentService appointmentService = appointmentService(booked);
+    LocalDateTime day = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+    AtomicInteger conflicts = new AtomicInteger();
+
+    // When - each thread is one patient booking random slots
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      long patientId = FIRST_PATIENT_ID + t;
+      futures.add(pool.submit(() -> {
+        start.await();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+          AppointmentRequest request = new AppointmentRequest();
+          request.setPatientId(patientId);
+          request.setDoctorId(1L + random.nextInt(DOCTORS));
+          request.setStartDateTime(day.plusMinutes(30L * random.nextInt(SLOTS_PER_DOCTOR)));
+          request.setReason("Stress");
+          try {
+            appointmentService.createAppointment(request, UserRole.ADMIN, 1L);
+          } catch (AppointmentConflictException e) {
+            conflicts.incrementAndGet();
+          }
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(60, TimeUnit.SECONDS);
+    }
+    pool.shutdown();
+
+    // Then
+    Set<String> slots = new HashSet<>();
+    for (Appointment appointment : booked) {
+      assertTrue(slots.add(appointment.getDoctor().getId() + "@" + appointment.getAppointmentTime()),
+          "doctor double-booked at " + appointment.getAppointmentTime());
+    }
+    assertTrue(booked.size() <= DOCTORS * SLOTS_PER_DOCTOR);
+    assertEquals(THREADS * BOOKINGS_PER_THREAD, booked.size() + conflicts.get());
+  }
+
+  /**
+   * Tests that bookings for doctors in different stripes do not wait for each other:
+   * the first booking can only finish once the second has run, concurrently.
+   */
+  @Test
+  void testWithDoctorLocks_IndependentDoctorsRunInParallel() throws Exception {
+    long first = 1L;
+    long second = 2L;
+    while (coordinator.stripeFor(second) == coordinator.stripeFor(first)) {
+      second++;
+    }
+    long secondDoctor = second;
+    CountDownLatch secondRan = new CountDownLatch(1);
+
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    Future<Boolean> holder = pool.submit(() -> coordinator.withDoctorLocks(List.of(first),
+        () -> await(secondRan)));
+    Future<?> other = pool.submit(() -> coordinator.withDoctorLocks(List.of(secondDoctor), () -> {
+      secondRan.countDown();
+      return null;
+    }));
+
+    assertTrue(holder.get(10, TimeUnit.SECONDS));
+    other.get(10, TimeUnit.SECONDS);
+    pool.shutdown();
+  }
+
+  /**
+   * Tests that the database advisory locks are taken per doctor, in ascending order,
+   * inside a new transaction of the coordinator's own.
+   */
+  @Test
+  void testWithDoctorLocks_TakesAdvisoryLocksInOrderInsideTransaction() {
+    String result = coordinator.withDoctorLocks(List.of(7L, 3L, 7L), () -> "booked");
+
+    assertEquals("booked", result);
+    InOrder inOrder = inOrder(transactionManager, jdbcTemplate);
+    inOrder.verify(transactionManager).getTransaction(argThat(definition ->
+        definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    inOrder.verify(jdbcTemplate).query(eq(BookingCoordinator.ADVISORY_LOCK_SQL), any(RowCallbackHandler.class), eq(3L));
+    inOrder.verify(jdbcTemplate).query(eq(BookingCoordinator.ADVISORY_LOCK_SQL), any(RowCallbackHandler.class), eq(7L));
+    inOrder.verify(transactionManager).commit(any());
+    verifyNoMoreInteractions(jdbcTemplate);
+  }
+
+  /**
+   * Tests that a failed booking rolls back and releases its stripe lock.
+   */
+  @Test
+  void testWithDoctorLocks_FailureRollsBackAndReleasesLock() throws Exception {
+    assertThrows(IllegalStateException.class, () -> coordinator.withDoctorLocks(List.of(5L), () -> {
+      throw new IllegalStateException("conflict");
+    }));
+    verify(transactionManager).rollback(any());
+
+    // another thread can take the same doctor's lock straight away
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    Future<String> next = pool.submit(() -> coordinator.withDoctorLocks(List.of(5L), () -> "ok"));
+    assertEquals("ok", next.get(5, TimeUnit.SECONDS));
+    pool.shutdown();
+  }
+
+  /**
+   * Tests that the stripe count is rounded up to a power of two.
+   */
+  @Test
+  void testStripeCount_RoundedUpToPowerOfTwo() {
+    assertEquals(128, new BookingCoordinator(transactionManager, jdbcTemplate, 100).stripeCount());
+    assertEquals(1, new BookingCoordinator(transactionManager, jdbcTemplate, 1).stripeCount());
+  }
+
+  // Helpers
+
+  /**
+   * An AppointmentServiceImpl on the real coordinator, over an in-memory appointments table
+   * whose conflict check and insert are separate steps with a race window between them.
+   */
+  private AppointmentServiceImpl appointmentService(List<Appointment> booked) {
+    AppointmentRepository appointmentRepository = mock(AppointmentRepository.class, withSettings().stubOnly());
+    when(appointmentRepository.findConflictMask(any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+      Long doctorId = invocation.getArgument(0);
+      Long patientId = invocation.getArgument(1);
+      LocalDateTime start = invocation.getArgument(2);
+      LocalDateTime end = invocation.getArgument(3);
+      int mask = 0;
+      for (Appointment appointment : booked) {
+        if (appointment.getAppointmentTime().isBefore(end) && appointment.getEndTime().isAfter(start)) {
+          if (appointment.getDoctor().getId().equals(doctorId)) {
+            mask |= AppointmentRepository.DOCTOR_CONFLICT;
+          }
+          if (appointment.getPatient().getId().equals(patientId)) {
+            mask |= AppointmentRepository.PATIENT_CONFLICT;
+          }
+        }
+      }
+      return mask;
+    });
+    when(appointmentRepository.save(any())).thenAnswer(invocation -> {
+      Thread.yield(); // widen the race window between check and insert
+      Appointment appointment = invocation.getArgument(0);
+      booked.add(appointment);
+      return appointment;
+    });
+
+    UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+    when(userRepository.findRolesByIdIn(any())).thenAnswer(invocation -> {
+      Collection<Long> ids = invocation.getArgument(0);
+      return ids.stream().map(BookingCoordinatorTest::idAndRole).toList();
+    });
+    when(userRepository.getReferenceById(any())).thenAnswer(invocation -> user(invocation.getArgument(0)));
+
+    return new AppointmentServiceImpl(appointmentRepository, userRepository,
+        mock(ProfileCache.class, withSettings().stubOnly()), coordinator,
+        mock(ApplicationEventPublisher.class, withSettings().stubOnly()), mock(IdempotencyKeyStore.class),
+        mock(DoctorAvailabilityService.class), mock(TriageQueue.class), mock(Waitlist.class),
+        mock(WaitlistEntryRepository.class));
+  }
+
+  /** Users from FIRST_PATIENT_ID on are patients, the ones below are doctors **/
+  private static UserRepository.IdAndRole idAndRole(Long id) {
+    UserRole role = id >= FIRST_PATIENT_ID ? UserRole.PATIENT : UserRole.DOCTOR;
+    return new UserRepository.IdAndRole() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public UserRole getRole() {
+        return role;
+      }
+    };
+  }
+
+  private static User user(Long id) {
+    User user = new User();
+    try {
+      java.lang.reflect.Field idField = User.class.getDeclaredField("id");
+      idField.setAccessible(true);
+      idField.set(user, id);
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+    return user;
+  }
+
+  private static boolean await(CountDownLatch latch) {
+    try {
+      return latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
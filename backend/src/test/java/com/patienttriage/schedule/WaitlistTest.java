@@ -0,0 +1,128 @@
+package com.patienttriage.schedule;
+
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.WaitlistEntry;
+import com.patienttriage.repository.WaitlistEntryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for Waitlist.
+ */
+@ExtendWith(MockitoExtension.class)
+class WaitlistTest {
+
+  private static final LocalDateTime NINE = LocalDateTime.of(2030, 1, 7, 9, 0);
+  private static final LocalDateTime NINE_THIRTY = NINE.plusMinutes(30);
+
+  @Mock
+  private WaitlistEntryRepository repository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private Waitlist waitlist;
+
+  @BeforeEach
+  void setUp() {
+    waitlist = new Waitlist(repository, transactionManager, new SimpleMeterRegistry());
+  }
+
+  /**
+   * Tests that a slot goes to waiters for the doctor or its specialty whose window covers it,
+   * highest priority first, then earliest joined.
+   */
+  @Test
+  void testMatch_PriorityOrderAcrossDoctorAndSpecialty() {
+    // Given
+    waitlist.add(entry(1L, 2L, null, NINE.minusHours(1), NINE.plusHours(8), TriagePriority.MEDIUM, 1));
+    waitlist.add(entry(2L, null, "cardiology", NINE, NINE.plusHours(1), TriagePriority.HIGH, 2));
+    waitlist.add(entry(3L, 2L, null, NINE, NINE_THIRTY, TriagePriority.LOW, 3));
+    waitlist.add(entry(4L, null, "cardiology", NINE, NINE.plusHours(1), TriagePriority.MEDIUM, 4));
+    // other doctor, other specialty, afternoon only, another day
+    waitlist.add(entry(5L, 3L, null, NINE, NINE.plusHours(1), TriagePriority.HIGH, 5));
+    waitlist.add(entry(6L, null, "pediatrics", NINE, NINE.plusHours(1), TriagePriority.HIGH, 6));
+    waitlist.add(entry(7L, 2L, null, NINE.plusHours(4), NINE.plusHours(8), TriagePriority.HIGH, 7));
+    waitlist.add(entry(8L, 2L, null, NINE.plusDays(1), NINE.plusDays(2), TriagePriority.HIGH, 8));
+
+    // When
+    List<Waitlist.Waiter> matches = waitlist.match(2L, "cardiology", NINE, NINE_THIRTY, 10);
+
+    // Then
+    assertEquals(List.of(2L, 1L, 4L, 3L), matches.stream().map(Waitlist.Waiter::getId).toList());
+    assertEquals(List.of(2L), waitlist.match(2L, "cardiology", NINE, NINE_THIRTY, 1).stream()
+        .map(Waitlist.Waiter::getId).toList());
+    assertEquals(List.of(1L, 3L), waitlist.match(2L, null, NINE, NINE_THIRTY, 10).stream()
+        .map(Waitlist.Waiter::getId).toList());
+  }
+
+  /**
+   * Tests that a window spanning several days matches on each of them, and nowhere once
+   * removed.
+   */
+  @Test
+  void testMatch_MultiDayWindowAndRemove() {
+    // Given
+    waitlist.add(entry(1L, 2L, null, NINE, NINE.plusDays(3), TriagePriority.LOW, 1));
+    LocalDateTime later = NINE.plusDays(2).plusHours(5);
+
+    // Then
+    assertEquals(1, waitlist.match(2L, null, later, later.plusMinutes(30), 5).size());
+    assertTrue(waitlist.match(2L, null, NINE.plusDays(3), NINE.plusDays(3).plusMinutes(30), 5).isEmpty());
+
+    // When
+    assertNotNull(waitlist.remove(1L));
+
+    // Then
+    assertTrue(waitlist.match(2L, null, later, later.plusMinutes(30), 5).isEmpty());
+    assertNull(waitlist.remove(1L));
+    assertEquals(0, waitlist.size());
+  }
+
+  /**
+   * Tests that waiters are loaded at startup, skipping those whose window has ended.
+   */
+  @Test
+  void testWarmUp_LoadsOpenWindows() {
+    // Given
+    LocalDateTime past = LocalDateTime.now().minusDays(2);
+    when(repository.streamAll()).thenReturn(Stream.of(
+        entry(1L, 2L, null, NINE, NINE.plusHours(1), TriagePriority.HIGH, 1),
+        entry(2L, 2L, null, past, past.plusHours(1), TriagePriority.HIGH, 2)));
+
+    // When
+    waitlist.afterSingletonsInstantiated();
+
+    // Then
+    assertEquals(1, waitlist.size());
+    assertEquals(1, waitlist.match(2L, null, NINE, NINE_THIRTY, 5).size());
+  }
+
+  // Helpers
+
+  private static WaitlistEntry entry(Long id, Long doctorId, String specialty, LocalDateTime from,
+      LocalDateTime to, TriagePriority priority, int joinedMinute) {
+    WaitlistEntry entry = new WaitlistEntry(100L + id, doctorId, specialty, from, to, priority,
+        LocalDateTime.of(2029, 12, 1, 8, joinedMinute));
+    try {
+      java.lang.reflect.Field idField = WaitlistEntry.class.getDeclaredField("id");
+      idField.setAccessible(true);
+      idField.set(entry, id);
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+    return entry;
+  }
+}
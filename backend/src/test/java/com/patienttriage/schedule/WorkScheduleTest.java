@@ -0,0 +1,66 @@
+package com.patienttriage.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for WorkSchedule.
+ */
+class WorkScheduleTest {
+
+  /**
+   * Tests the common "Mon-Fri 9:00-17:00" form: slots 18 to 33 on weekdays, nothing at the weekend.
+   */
+  @Test
+  void testParse_WeekdayRange() {
+    WorkSchedule schedule = WorkSchedule.parse("Mon-Fri 9:00-17:00");
+
+    long nineToFive = bits(18, 34);
+    assertEquals(nineToFive, schedule.slotsOn(DayOfWeek.MONDAY));
+    assertEquals(nineToFive, schedule.slotsOn(DayOfWeek.FRIDAY));
+    assertEquals(0L, schedule.slotsOn(DayOfWeek.SATURDAY));
+    assertEquals(0L, schedule.slotsOn(DayOfWeek.SUNDAY));
+  }
+
+  /**
+   * Tests several segments, a range wrapping past Sunday, 24:00 and hours off the slot grid.
+   */
+  @Test
+  void testParse_SegmentsWrapAndPartialSlots() {
+    WorkSchedule schedule = WorkSchedule.parse("sat-mon 20:00-24:00; Wed 8:15-9:50, Wed 13:00-14:00");
+
+    assertEquals(bits(40, 48), schedule.slotsOn(DayOfWeek.SATURDAY));
+    assertEquals(bits(40, 48), schedule.slotsOn(DayOfWeek.SUNDAY));
+    assertEquals(bits(40, 48), schedule.slotsOn(DayOfWeek.MONDAY));
+    assertEquals(0L, schedule.slotsOn(DayOfWeek.TUESDAY));
+    // 8:15-9:50 keeps only the whole slots 8:30-9:30
+    assertEquals(bits(17, 19) | bits(26, 28), schedule.slotsOn(DayOfWeek.WEDNESDAY));
+  }
+
+  /**
+   * Tests that blank text is an empty schedule and malformed text is rejected.
+   */
+  @Test
+  void testParse_BlankAndInvalid() {
+    assertTrue(WorkSchedule.parse(null).isEmpty());
+    assertTrue(WorkSchedule.parse("  ").isEmpty());
+    assertFalse(WorkSchedule.parse("Tue 9:00-10:00").isEmpty());
+
+    assertThrows(IllegalArgumentException.class, () -> WorkSchedule.parse("Mon-Fri"));
+    assertThrows(IllegalArgumentException.class, () -> WorkSchedule.parse("Someday 9:00-17:00"));
+    assertThrows(IllegalArgumentException.class, () -> WorkSchedule.parse("Mon 17:00-9:00"));
+    assertThrows(IllegalArgumentException.class, () -> WorkSchedule.parse("Mon 9:00-25:00"));
+  }
+
+  /** Bits [from, to) **/
+  private static long bits(int from, int to) {
+    long mask = 0;
+    for (int i = from; i < to; i++) {
+      mask |= 1L << i;
+    }
+    return mask;
+  }
+}
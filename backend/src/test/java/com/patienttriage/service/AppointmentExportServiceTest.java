@@ -0,0 +1,168 @@
+package com.patienttriage.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.patienttriage.dto.AppointmentExportFormat;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.service.impl.AppointmentExportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for AppointmentExportService.
+ */
+@ExtendWith(MockitoExtension.class)
+class AppointmentExportServiceTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private AppointmentExportServiceImpl exportService;
+
+  private final LocalDateTime time = LocalDateTime.of(2030, 1, 2, 10, 30);
+
+  @BeforeEach
+  void setUp() {
+    exportService = new AppointmentExportServiceImpl(jdbcTemplate, transactionManager, new ObjectMapper());
+  }
+
+  /**
+   * Tests that only admins can export.
+   */
+  @Test
+  void testExport_NonAdmin_ThrowsException() {
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+        exportService.exportAppointments(AppointmentExportFormat.CSV, UserRole.DOCTOR));
+
+    assertEquals("You do not have permission to export appointments.", exception.getMessage());
+    verifyNoInteractions(jdbcTemplate);
+  }
+
+  /**
+   * Tests CSV output: header row, joined profile columns and quoting.
+   */
+  @Test
+  void testExport_Csv_WritesHeaderAndEscapedRows() throws Exception {
+    // Given
+    givenRows(row(1L, "Checkup, yearly", "John"), row(2L, "Says \"ouch\"", null));
+
+    // When
+    String csv = export(AppointmentExportFormat.CSV);
+
+    // Then
+    String[] lines = csv.split("\r\n");
+    assertEquals(3, lines.length);
+    assertTrue(lines[0].startsWith("appointmentId,appointmentTime,endTime,status,reason"));
+    assertEquals("1,2030-01-02T10:30,2030-01-02T11:00,SCHEDULED,\"Checkup, yearly\",2030-01-02T10:30,"
+        + "10,John,Doe,High,20,Sarah,Chen,Cardiology", lines[1]);
+    assertEquals("2,2030-01-02T10:30,2030-01-02T11:00,SCHEDULED,\"Says \"\"ouch\"\"\",2030-01-02T10:30,"
+        + "10,,Doe,High,20,Sarah,Chen,Cardiology", lines[2]);
+  }
+
+  /**
+   * Tests NDJSON output: one JSON object per line.
+   */
+  @Test
+  void testExport_Ndjson_WritesOneObjectPerLine() throws Exception {
+    // Given
+    givenRows(row(1L, "Checkup", "John"), row(2L, "Follow-up", null));
+
+    // When
+    String ndjson = export(AppointmentExportFormat.NDJSON);
+
+    // Then
+    String[] lines = ndjson.split("\n");
+    assertEquals(2, lines.length);
+    JsonNode first = new ObjectMapper().readTree(lines[0]);
+    assertEquals(1L, first.get("appointmentId").asLong());
+    assertEquals("2030-01-02T10:30", first.get("appointmentTime").asText());
+    assertEquals("John", first.get("patientFirstName").asText());
+    assertEquals("Cardiology", first.get("specialty").asText());
+    assertTrue(new ObjectMapper().readTree(lines[1]).get("patientFirstName").isNull());
+  }
+
+  /**
+   * Tests that the export uses a forward-only cursor with a bounded fetch size.
+   */
+  @Test
+  void testExport_UsesForwardOnlyCursorWithFetchSize() throws Exception {
+    // Given
+    givenRows();
+
+    // When
+    export(AppointmentExportFormat.NDJSON);
+
+    // Then
+    ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+    verify(jdbcTemplate).query(creator.capture(), any(RowCallbackHandler.class));
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+    creator.getValue().createPreparedStatement(connection);
+    verify(connection).prepareStatement(anyString(),
+        eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY));
+    verify(statement).setFetchSize(1000);
+    verify(transactionManager).commit(any());
+  }
+
+  // Helpers
+
+  private String export(AppointmentExportFormat format) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    exportService.exportAppointments(format, UserRole.ADMIN).writeTo(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  /** Feed each row to the callback handler the way JdbcTemplate would **/
+  private void givenRows(ResultSet... rows) {
+    when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    doAnswer(invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(1);
+      for (ResultSet row : List.of(rows)) {
+        handler.processRow(row);
+      }
+      return null;
+    }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+  }
+
+  private ResultSet row(Long id, String reason, String patientFirstName) throws Exception {
+    ResultSet rs = mock(ResultSet.class);
+    Object[] values = {
+        id, Timestamp.valueOf(time), Timestamp.valueOf(time.plusMinutes(30)), "SCHEDULED", reason,
+        Timestamp.valueOf(time),
+        10L, patientFirstName, "Doe", "High",
+        20L, "Sarah", "Chen", "Cardiology"
+    };
+    for (int i = 0; i < values.length; i++) {
+      lenient().when(rs.getObject(i + 1)).thenReturn(values[i]);
+    }
+    return rs;
+  }
+}
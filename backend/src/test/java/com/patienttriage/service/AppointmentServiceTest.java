@@ -1,24 +1,50 @@
 package com.patienttriage.service;
 
+import com.patienttriage.cache.IdempotencyKeyStore;
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.dto.AppointmentCursor;
+import com.patienttriage.dto.AppointmentFilter;
+import com.patienttriage.dto.AppointmentPage;
+import com.patienttriage.dto.AppointmentReceipt;
 import com.patienttriage.dto.AppointmentRequest;
 import com.patienttriage.dto.AppointmentResponse;
+import com.patienttriage.dto.AvailableSlot;
+import com.patienttriage.dto.ClinicianAppointmentView;
+import com.patienttriage.dto.DoctorInfo;
+import com.patienttriage.dto.DoctorSlot;
+import com.patienttriage.dto.PatientAppointmentView;
 import com.patienttriage.entity.*;
+import com.patienttriage.event.AppointmentChangedEvent;
+import com.patienttriage.event.AppointmentSnapshot;
+import com.patienttriage.exception.AppointmentConflictException;
 import com.patienttriage.repository.*;
+import com.patienttriage.schedule.BookingCoordinator;
+import com.patienttriage.schedule.Waitlist;
 import com.patienttriage.service.impl.AppointmentServiceImpl;
+import com.patienttriage.triage.TriageQueue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -34,10 +60,28 @@ class AppointmentServiceTest {
   private UserRepository userRepository;
 
   @Mock
-  private PatientProfileRepository patientProfileRepository;
+  private ProfileCache profileCache;
 
   @Mock
-  private DoctorProfileRepository doctorProfileRepository;
+  private BookingCoordinator bookingCoordinator;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private IdempotencyKeyStore idempotencyKeys;
+
+  @Mock
+  private DoctorAvailabilityService availabilityService;
+
+  @Mock
+  private TriageQueue triageQueue;
+
+  @Mock
+  private Waitlist waitlist;
+
+  @Mock
+  private WaitlistEntryRepository waitlistEntryRepository;
 
   @InjectMocks
   private AppointmentServiceImpl appointmentService;
@@ -74,21 +118,22 @@ class AppointmentServiceTest {
     appointmentRequest.setDoctorId(2L);
     appointmentRequest.setStartDateTime(futureTime);
     appointmentRequest.setReason("Test reason");
+
+    // run booking work directly, as the coordinator would after taking its locks
+    lenient().when(bookingCoordinator.withDoctorLocks(any(), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    lenient().when(appointmentRepository.findDoctorIdById(1L)).thenReturn(Optional.of(2L));
   }
 
   /**
-   * Tests that patient can create appointment for themselves.
+   * Tests that patient can create appointment for themselves, validating both users with one
+   * role query and no entity loads.
    */
   @Test
   void testCreateAppointment_Patient_CreatesForThemselves() {
     // Given
-    when(userRepository.findById(1L)).thenReturn(Optional.of(patientUser));
-    when(userRepository.findById(1L)).thenReturn(Optional.of(patientUser));
-    when(userRepository.findById(2L)).thenReturn(Optional.of(doctorUser));
-    when(patientProfileRepository.findByPatient_Id(1L)).thenReturn(null);
-    when(doctorProfileRepository.findByDoctor_Id(2L)).thenReturn(null);
-    when(appointmentRepository.findConflictsByDoctor(anyLong(), any())).thenReturn(new ArrayList<>());
-    when(appointmentRepository.findConflictsByPatient(anyLong(), any())).thenReturn(new ArrayList<>());
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.DOCTOR));
+    givenReferences();
     when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
 
     // When
@@ -98,6 +143,83 @@ class AppointmentServiceTest {
     // Then
     assertNotNull(result);
     verify(appointmentRepository).save(any(Appointment.class));
+    verify(userRepository).findRolesByIdIn(List.of(1L, 2L));
+    verify(userRepository, never()).findById(any());
+    ArgumentCaptor<AppointmentChangedEvent> event = ArgumentCaptor.forClass(AppointmentChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertEquals(AppointmentChangedEvent.Type.CREATED, event.getValue().getType());
+    assertEquals(1L, event.getValue().getAppointmentId());
+  }
+
+  /**
+   * Tests that a replayed Idempotency-Key is answered with the appointment it created, loaded by
+   * ID, without validating or booking again.
+   */
+  @Test
+  void testCreateAppointment_IdempotencyKeyReplay_ReturnsOriginalAppointment() {
+    // Given
+    setAppointmentId(testAppointment, 7L);
+    when(idempotencyKeys.find(eq(1L), eq("retry-1"), anyString())).thenReturn(7L);
+    when(appointmentRepository.findById(7L)).thenReturn(Optional.of(testAppointment));
+
+    // When
+    AppointmentReceipt receipt = appointmentService.createAppointment(
+        appointmentRequest, UserRole.PATIENT, 1L, "retry-1");
+
+    // Then
+    assertEquals(7L, receipt.getAppointmentId());
+    assertEquals(2L, receipt.getAppointment().getDoctorId());
+    assertEquals(testAppointment.getAppointmentTime(), receipt.getAppointment().getAppointmentTime());
+    assertTrue(receipt.isReplayed());
+    verify(appointmentRepository).findById(7L);
+    verifyNoMoreInteractions(appointmentRepository);
+    verifyNoInteractions(userRepository, bookingCoordinator);
+  }
+
+  /**
+   * Tests that a new Idempotency-Key is recorded with the appointment it created.
+   */
+  @Test
+  void testCreateAppointment_NewIdempotencyKey_RecordsAppointment() {
+    // Given
+    when(idempotencyKeys.find(eq(1L), eq("retry-1"), anyString())).thenReturn(null);
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.DOCTOR));
+    givenReferences();
+    when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
+
+    // When
+    AppointmentReceipt receipt = appointmentService.createAppointment(
+        appointmentRequest, UserRole.PATIENT, 1L, "retry-1");
+
+    // Then
+    assertEquals(1L, receipt.getAppointmentId());
+    assertFalse(receipt.isReplayed());
+    verify(idempotencyKeys, times(2)).find(eq(1L), eq("retry-1"), anyString());
+    verify(idempotencyKeys).record(eq(1L), eq("retry-1"), anyString(), eq(1L));
+  }
+
+  /**
+   * Tests that a retry racing its original request finds the key once it holds the doctor's lock,
+   * instead of failing the conflict check against the original's appointment.
+   */
+  @Test
+  void testCreateAppointment_RetryWaitingForOriginal_Replays() {
+    // Given - not recorded yet on arrival, recorded by the time the lock is taken
+    when(idempotencyKeys.find(eq(1L), eq("retry-1"), anyString())).thenReturn(null, 1L);
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.DOCTOR));
+    givenReferences();
+    when(appointmentRepository.findById(1L)).thenReturn(Optional.of(testAppointment));
+
+    // When
+    AppointmentReceipt receipt = appointmentService.createAppointment(
+        appointmentRequest, UserRole.PATIENT, 1L, "retry-1");
+
+    // Then
+    assertTrue(receipt.isReplayed());
+    assertEquals(1L, receipt.getAppointmentId());
+    verify(appointmentRepository, never()).findConflictMask(any(), any(), any(), any(), any(), any());
+    verify(appointmentRepository, never()).save(any(Appointment.class));
+    verify(idempotencyKeys, never()).record(any(), any(), anyString(), any());
   }
 
   /**
@@ -107,7 +229,6 @@ class AppointmentServiceTest {
   void testCreateAppointment_Patient_CannotCreateForOthers_ThrowsException() {
     // Given
     appointmentRequest.setPatientId(999L); // Different patient ID
-    when(userRepository.findById(1L)).thenReturn(Optional.of(patientUser));
 
     // When & Then
     RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -124,13 +245,8 @@ class AppointmentServiceTest {
   @Test
   void testCreateAppointment_Admin_CanCreateForAnyPatientAndDoctor() {
     // Given
-    when(userRepository.findById(3L)).thenReturn(Optional.of(adminUser));
-    when(userRepository.findById(1L)).thenReturn(Optional.of(patientUser));
-    when(userRepository.findById(2L)).thenReturn(Optional.of(doctorUser));
-    when(patientProfileRepository.findByPatient_Id(1L)).thenReturn(null);
-    when(doctorProfileRepository.findByDoctor_Id(2L)).thenReturn(null);
-    when(appointmentRepository.findConflictsByDoctor(anyLong(), any())).thenReturn(new ArrayList<>());
-    when(appointmentRepository.findConflictsByPatient(anyLong(), any())).thenReturn(new ArrayList<>());
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.DOCTOR));
+    givenReferences();
     when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
 
     // When
@@ -142,26 +258,204 @@ class AppointmentServiceTest {
     verify(appointmentRepository).save(any(Appointment.class));
   }
 
+  /**
+   * Tests that a slot the database reports as taken is rejected without saving.
+   */
+  @Test
+  void testCreateAppointment_DoctorSlotTaken_ThrowsException() {
+    // Given
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.DOCTOR));
+    givenReferences();
+    when(appointmentRepository.findConflictMask(2L, 1L, futureTime, futureTime.plusMinutes(30),
+        futureTime.minusMinutes(Appointment.MAX_DURATION_MINUTES), null))
+        .thenReturn(AppointmentRepository.DOCTOR_CONFLICT);
+
+    // When & Then
+    AppointmentConflictException exception = assertThrows(AppointmentConflictException.class,
+        () -> appointmentService.createAppointment(appointmentRequest, UserRole.PATIENT, 1L));
+
+    assertEquals("Doctor already has an appointment at this time.", exception.getMessage());
+    verify(appointmentRepository, never()).save(any(Appointment.class));
+    verifyNoInteractions(eventPublisher);
+  }
+
+  /**
+   * Tests that an overlap rejected by the database exclusion constraint becomes a conflict.
+   */
+  @Test
+  void testCreateAppointment_OverlapRejectedByDatabase_ThrowsConflict() {
+    // Given - another node booked the slot, so only the database knows
+    appointmentRequest.setDurationMinutes(45);
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.DOCTOR));
+    givenReferences();
+    SQLException exclusion = new SQLException("ERROR: conflicting key value violates exclusion "
+        + "constraint \"appointments_doctor_no_overlap\"", "23P01");
+    when(appointmentRepository.save(any(Appointment.class)))
+        .thenThrow(new DataIntegrityViolationException("could not execute statement", exclusion));
+
+    // When & Then
+    AppointmentConflictException exception = assertThrows(AppointmentConflictException.class,
+        () -> appointmentService.createAppointment(appointmentRequest, UserRole.PATIENT, 1L));
+
+    assertEquals("Doctor already has an appointment at this time.", exception.getMessage());
+    verify(appointmentRepository).findConflictMask(2L, 1L, futureTime, futureTime.plusMinutes(45),
+        futureTime.minusMinutes(Appointment.MAX_DURATION_MINUTES), null);
+    verifyNoInteractions(eventPublisher);
+  }
+
+  /**
+   * Tests that the database conflict check reports the patient side, and the doctor side first when both conflict.
+   */
+  @Test
+  void testCreateAppointment_ConflictMaskFromDatabase_ThrowsConflict() {
+    // Given
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.DOCTOR));
+    givenReferences();
+    when(appointmentRepository.findConflictMask(2L, 1L, futureTime, futureTime.plusMinutes(30),
+        futureTime.minusMinutes(Appointment.MAX_DURATION_MINUTES), null))
+        .thenReturn(AppointmentRepository.PATIENT_CONFLICT,
+            AppointmentRepository.DOCTOR_CONFLICT | AppointmentRepository.PATIENT_CONFLICT);
+
+    // When & Then
+    AppointmentConflictException patientSide = assertThrows(AppointmentConflictException.class,
+        () -> appointmentService.createAppointment(appointmentRequest, UserRole.PATIENT, 1L));
+    AppointmentConflictException bothSides = assertThrows(AppointmentConflictException.class,
+        () -> appointmentService.createAppointment(appointmentRequest, UserRole.PATIENT, 1L));
+
+    assertEquals("Patient already has an appointment at this time.", patientSide.getMessage());
+    assertEquals("Doctor already has an appointment at this time.", bothSides.getMessage());
+    verify(appointmentRepository, never()).save(any(Appointment.class));
+  }
+
+  /**
+   * Tests that an update leaves the appointment itself out of the database conflict check.
+   */
+  @Test
+  void testUpdateAppointment_ConflictCheckIgnoresItself() {
+    // Given
+    when(appointmentRepository.findById(1L)).thenReturn(Optional.of(testAppointment));
+    when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
+
+    // When
+    appointmentService.updateAppointment(1L, appointmentRequest, UserRole.PATIENT, 1L);
+
+    // Then
+    verify(appointmentRepository).findConflictMask(eq(2L), eq(1L), eq(futureTime), any(), any(), eq(1L));
+  }
+
+  /**
+   * Tests that a create without a doctor books the best ranked doctor, moving on to the next
+   * one when a concurrent booking took the first doctor's slot.
+   */
+  @Test
+  void testCreateAppointment_NoDoctor_AssignsNextFreeDoctor() {
+    // Given
+    User otherDoctor = new User("doctor2@test.com", "password", UserRole.DOCTOR);
+    setUserId(otherDoctor, 4L);
+    appointmentRequest.setDoctorId(null);
+    appointmentRequest.setSpecialty("Cardiology");
+    LocalDateTime slot = futureTime.plusHours(1);
+    givenRoles(Map.of(1L, UserRole.PATIENT));
+    givenReferences();
+    when(availabilityService.rankDoctorsForAssignment("Cardiology", futureTime, 30, 1L, 5)).thenReturn(List.of(
+        doctorSlot(2L, slot), doctorSlot(4L, slot)));
+    when(userRepository.findAllById(List.of(2L, 4L))).thenReturn(List.of(doctorUser, otherDoctor));
+    when(appointmentRepository.findConflictMask(2L, 1L, slot, slot.plusMinutes(30),
+        slot.minusMinutes(Appointment.MAX_DURATION_MINUTES), null))
+        .thenReturn(AppointmentRepository.DOCTOR_CONFLICT);
+    when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
+
+    // When
+    appointmentService.createAppointment(appointmentRequest, UserRole.PATIENT, 1L);
+
+    // Then
+    ArgumentCaptor<Appointment> saved = ArgumentCaptor.forClass(Appointment.class);
+    verify(appointmentRepository).save(saved.capture());
+    assertEquals(4L, saved.getValue().getDoctor().getId());
+    assertEquals(slot, saved.getValue().getAppointmentTime());
+    verify(bookingCoordinator).withDoctorLocks(eq(List.of(2L)), any());
+    verify(bookingCoordinator).withDoctorLocks(eq(List.of(4L)), any());
+  }
+
+  /**
+   * Tests that without a doctor the specialty comes from the patient's triage queue, and that
+   * doctors must name themselves.
+   */
+  @Test
+  void testCreateAppointment_NoDoctor_SpecialtyFromTriageQueue() {
+    // Given
+    appointmentRequest.setDoctorId(null);
+    TriageQueue.Ticket ticket = mock(TriageQueue.Ticket.class);
+    when(ticket.getSpecialty()).thenReturn("cardiology");
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.DOCTOR));
+    givenReferences();
+    when(triageQueue.find(1L)).thenReturn(ticket);
+
+    // When
+    AppointmentConflictException noSlot = assertThrows(AppointmentConflictException.class,
+        () -> appointmentService.createAppointment(appointmentRequest, UserRole.PATIENT, 1L));
+    IllegalArgumentException doctor = assertThrows(IllegalArgumentException.class,
+        () -> appointmentService.createAppointment(appointmentRequest, UserRole.DOCTOR, 2L));
+
+    // Then
+    assertEquals("No cardiology doctor has a free slot within a month of the requested time.", noSlot.getMessage());
+    assertEquals("Doctor ID is required.", doctor.getMessage());
+    verify(availabilityService).rankDoctorsForAssignment("cardiology", futureTime, 30, 1L, 5);
+    verify(appointmentRepository, never()).save(any());
+  }
+
+  /**
+   * Tests that booking work runs under the requested doctor's lock.
+   */
+  @Test
+  void testCreateAppointment_RunsUnderDoctorLock() {
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.DOCTOR));
+    givenReferences();
+    when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
+
+    appointmentService.createAppointment(appointmentRequest, UserRole.PATIENT, 1L);
+
+    verify(bookingCoordinator).withDoctorLocks(eq(List.of(2L)), any());
+  }
+
+  /**
+   * Tests that an admin moving an appointment locks both the old and the new doctor.
+   */
+  @Test
+  void testUpdateAppointment_Admin_ChangingDoctor_LocksBothDoctors() {
+    // Given
+    User otherDoctor = new User("doctor2@test.com", "password", UserRole.DOCTOR);
+    setUserId(otherDoctor, 4L);
+    appointmentRequest.setDoctorId(4L);
+    when(appointmentRepository.findById(1L)).thenReturn(Optional.of(testAppointment));
+    when(userRepository.findById(4L)).thenReturn(Optional.of(otherDoctor));
+    when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
+
+    // When
+    AppointmentResponse result = appointmentService.updateAppointment(1L, appointmentRequest, UserRole.ADMIN, 3L);
+
+    // Then
+    assertEquals(4L, result.getDoctorId());
+    verify(bookingCoordinator).withDoctorLocks(eq(Set.of(2L, 4L)), any());
+  }
+
   /**
    * Tests that patient only sees their own appointments.
    */
   @Test
   void testGetAppointments_Patient_ReturnsOnlyOwnAppointments() {
     // Given
-    List<Appointment> patientAppointments = List.of(testAppointment);
-    when(userRepository.findById(1L)).thenReturn(Optional.of(patientUser));
-    when(appointmentRepository.findByPatient_Id(1L)).thenReturn(patientAppointments);
-    when(patientProfileRepository.findByPatient_Id(1L)).thenReturn(null);
-    when(doctorProfileRepository.findByDoctor_Id(2L)).thenReturn(null);
+    when(appointmentRepository.findPatientViewPage(eq(1L), any(), any(), any(), any(), any(), any()))
+        .thenReturn(List.of(patientView(1L, futureTime)));
 
     // When
-    List<AppointmentResponse> result = appointmentService.getAppointments(UserRole.PATIENT, 1L);
+    AppointmentPage result = appointmentService.getAppointments(UserRole.PATIENT, 1L, new AppointmentFilter());
 
     // Then
     assertNotNull(result);
-    assertEquals(1, result.size());
-    verify(appointmentRepository).findByPatient_Id(1L);
-    verify(appointmentRepository, never()).findByDoctor_Id(anyLong());
+    assertEquals(1, result.getCount());
+    assertNull(result.getNextCursor());
+    verify(appointmentRepository).findPatientViewPage(eq(1L), any(), any(), any(), any(), any(), any());
     verify(appointmentRepository, never()).findAll();
   }
 
@@ -171,19 +465,95 @@ class AppointmentServiceTest {
   @Test
   void testGetAppointments_Admin_ReturnsAllAppointments() {
     // Given
-    List<Appointment> allAppointments = List.of(testAppointment);
-    when(userRepository.findById(3L)).thenReturn(Optional.of(adminUser));
-    when(appointmentRepository.findAll()).thenReturn(allAppointments);
-    when(patientProfileRepository.findByPatient_Id(1L)).thenReturn(null);
-    when(doctorProfileRepository.findByDoctor_Id(2L)).thenReturn(null);
+    when(appointmentRepository.findAdminViewPage(any(), any(), any(), any(), any(), any()))
+        .thenReturn(List.of(clinicianView(1L, futureTime)));
 
     // When
-    List<AppointmentResponse> result = appointmentService.getAppointments(UserRole.ADMIN, 3L);
+    AppointmentPage result = appointmentService.getAppointments(UserRole.ADMIN, 3L, new AppointmentFilter());
 
     // Then
     assertNotNull(result);
-    assertEquals(1, result.size());
-    verify(appointmentRepository).findAll();
+    assertEquals(1, result.getCount());
+    verify(appointmentRepository, never()).findAll();
+  }
+
+  /**
+   * Tests that a full page returns a cursor pointing at its last row and that
+   * the page size is bounded.
+   */
+  @Test
+  void testGetAppointments_FullPage_ReturnsNextCursor() {
+    // Given - the repository returns limit + 1 rows, so another page exists
+    when(appointmentRepository.findDoctorViewPage(eq(2L), any(), any(), any(), any(), any(),
+        eq(PageRequest.of(0, 3)))).thenReturn(List.of(
+            clinicianView(1L, futureTime),
+            clinicianView(2L, futureTime.plusHours(1)),
+            clinicianView(3L, futureTime.plusHours(2))));
+
+    // When
+    AppointmentFilter filter = new AppointmentFilter(null, null, null, null, 2);
+    AppointmentPage result = appointmentService.getAppointments(UserRole.DOCTOR, 2L, filter);
+
+    // Then
+    assertEquals(2, result.getCount());
+    AppointmentCursor next = AppointmentCursor.decode(result.getNextCursor());
+    assertEquals(2L, next.getAppointmentId());
+    assertEquals(futureTime.plusHours(1), next.getAppointmentTime());
+  }
+
+  /**
+   * Tests that a page size above the maximum is clamped.
+   */
+  @Test
+  void testGetAppointments_LimitIsBounded() {
+    when(appointmentRepository.findAdminViewPage(any(), any(), any(), any(), any(), any()))
+        .thenReturn(List.of());
+
+    appointmentService.getAppointments(UserRole.ADMIN, 3L,
+        new AppointmentFilter(null, null, null, null, 1_000_000));
+
+    verify(appointmentRepository).findAdminViewPage(any(), any(), any(), any(), any(),
+        eq(PageRequest.of(0, 201)));
+  }
+
+  /**
+   * Tests that the listing is built from the projection alone, without touching
+   * entities or the profile cache.
+   */
+  @Test
+  void testGetAppointments_Admin_UsesProjectionOnly() {
+    // Given - no patient profile (LEFT JOIN gives nulls), doctor profile present
+    when(appointmentRepository.findAdminViewPage(any(), any(), any(), any(), any(), any()))
+        .thenReturn(List.of(clinicianView(1L, futureTime)));
+
+    // When
+    AppointmentResponse response = appointmentService
+        .getAppointments(UserRole.ADMIN, 3L, new AppointmentFilter()).getAppointments().get(0);
+
+    // Then
+    assertEquals(1L, response.getPatientInfo().getPatientId());
+    assertNull(response.getPatientInfo().getFirstName());
+    assertEquals(0, response.getPatientInfo().getAge());
+    assertEquals("Cardiology", response.getDoctorInfo().getSpecialty());
+    assertNull(response.getLimitedDoctorInfo());
+    verifyNoInteractions(profileCache);
+  }
+
+  /**
+   * Tests that patients get limited doctor info only.
+   */
+  @Test
+  void testGetAppointments_Patient_SeesLimitedDoctorInfoOnly() {
+    when(appointmentRepository.findPatientViewPage(eq(1L), any(), any(), any(), any(), any(), any()))
+        .thenReturn(List.of(patientView(1L, futureTime)));
+
+    AppointmentResponse response = appointmentService
+        .getAppointments(UserRole.PATIENT, 1L, new AppointmentFilter()).getAppointments().get(0);
+
+    assertEquals("Sarah", response.getLimitedDoctorInfo().getFirstName());
+    assertNull(response.getDoctorInfo());
+    assertNull(response.getPatientInfo());
+    verifyNoInteractions(profileCache);
   }
 
   /**
@@ -194,11 +564,7 @@ class AppointmentServiceTest {
     // Given
     appointmentRequest.setStartDateTime(futureTime.plusHours(2));
     when(appointmentRepository.findById(1L)).thenReturn(Optional.of(testAppointment));
-    when(appointmentRepository.findConflictsByDoctor(anyLong(), any())).thenReturn(new ArrayList<>());
-    when(appointmentRepository.findConflictsByPatient(anyLong(), any())).thenReturn(new ArrayList<>());
     when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
-    when(patientProfileRepository.findByPatient_Id(1L)).thenReturn(null);
-    when(doctorProfileRepository.findByDoctor_Id(2L)).thenReturn(null);
 
     // When
     AppointmentResponse result = appointmentService.updateAppointment(
@@ -207,6 +573,11 @@ class AppointmentServiceTest {
     // Then
     assertNotNull(result);
     verify(appointmentRepository).save(any(Appointment.class));
+    // the index releases the old slot and takes the new one
+    ArgumentCaptor<AppointmentChangedEvent> event = ArgumentCaptor.forClass(AppointmentChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertEquals(futureTime, event.getValue().getBefore().getAppointmentTime());
+    assertEquals(futureTime.plusHours(2), event.getValue().getAfter().getAppointmentTime());
   }
 
   /**
@@ -253,8 +624,6 @@ class AppointmentServiceTest {
     // Given
     when(appointmentRepository.findById(1L)).thenReturn(Optional.of(testAppointment));
     when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
-    when(patientProfileRepository.findByPatient_Id(1L)).thenReturn(null);
-    when(doctorProfileRepository.findByDoctor_Id(2L)).thenReturn(null);
 
     // When
     AppointmentResponse result = appointmentService.cancelAppointment(1L, UserRole.PATIENT, 1L);
@@ -263,6 +632,66 @@ class AppointmentServiceTest {
     assertNotNull(result);
     assertEquals(AppointmentStatus.CANCELLED, testAppointment.getStatus());
     verify(appointmentRepository).save(any(Appointment.class));
+    ArgumentCaptor<AppointmentChangedEvent> event = ArgumentCaptor.forClass(AppointmentChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertEquals(AppointmentChangedEvent.Type.CANCELLED, event.getValue().getType());
+    assertFalse(event.getValue().getAfter().isScheduled());
+    verify(bookingCoordinator).withDoctorLocks(eq(List.of(2L)), any());
+  }
+
+  /**
+   * Tests that a cancellation fails, instead of changing another doctor's schedule without
+   * their lock, when the appointment was moved while waiting for the lock.
+   */
+  @Test
+  void testCancelAppointment_MovedMeanwhile_ThrowsConflict() {
+    // Given - found under doctor 2, moved to doctor 4 by the time the lock is held
+    User otherDoctor = new User("doctor2@test.com", "password", UserRole.DOCTOR);
+    setUserId(otherDoctor, 4L);
+    testAppointment.setDoctor(otherDoctor);
+    when(appointmentRepository.findById(1L)).thenReturn(Optional.of(testAppointment));
+
+    // When & Then
+    assertThrows(AppointmentConflictException.class,
+        () -> appointmentService.cancelAppointment(1L, UserRole.PATIENT, 1L));
+    assertEquals(AppointmentStatus.SCHEDULED, testAppointment.getStatus());
+    verify(appointmentRepository, never()).save(any(Appointment.class));
+  }
+
+  /**
+   * Tests that a cancelled slot is booked for the best waiter who can take it, passing over
+   * a waiter who has another appointment at that time.
+   */
+  @Test
+  void testCancelAppointment_BooksSlotForWaiter() {
+    // Given
+    LocalDateTime end = futureTime.plusMinutes(30);
+    Waitlist.Waiter busy = waiter(10L, 5L);
+    Waitlist.Waiter free = waiter(11L, 6L);
+    when(appointmentRepository.findById(1L)).thenReturn(Optional.of(testAppointment));
+    when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    when(profileCache.findDoctor(2L)).thenReturn(
+        new DoctorInfo(2L, "Jane", "Smith", "Cardiology", null, null));
+    when(waitlist.match(2L, "cardiology", futureTime, end, 5)).thenReturn(List.of(busy, free));
+    when(waitlistEntryRepository.deleteEntry(any())).thenReturn(1);
+    givenReferences();
+    when(appointmentRepository.findConflictMask(2L, 5L, futureTime, end,
+        futureTime.minusMinutes(Appointment.MAX_DURATION_MINUTES), null))
+        .thenReturn(AppointmentRepository.PATIENT_CONFLICT);
+
+    // When
+    appointmentService.cancelAppointment(1L, UserRole.PATIENT, 1L);
+
+    // Then
+    ArgumentCaptor<Appointment> saved = ArgumentCaptor.forClass(Appointment.class);
+    verify(appointmentRepository, times(2)).save(saved.capture());
+    Appointment booked = saved.getAllValues().get(1);
+    assertEquals(6L, booked.getPatient().getId());
+    assertEquals(2L, booked.getDoctor().getId());
+    assertEquals(futureTime, booked.getAppointmentTime());
+    assertEquals(end, booked.getEndTime());
+    verify(waitlist, never()).remove(10L);
+    verify(waitlist).remove(11L);
   }
 
   /**
@@ -282,6 +711,267 @@ class AppointmentServiceTest {
     verify(appointmentRepository, never()).save(any(Appointment.class));
   }
 
+  /**
+   * Tests that a bulk import validates users with one query and saves everything in one batch.
+   */
+  @Test
+  void testCreateAppointments_Admin_SavesBatch() {
+    // Given
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.DOCTOR, 4L, UserRole.PATIENT));
+    when(appointmentRepository.findScheduledSnapshots(any(), any(), any(), any())).thenReturn(List.of());
+    when(appointmentRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    givenReferences();
+
+    // When - back-to-back appointments of one doctor do not overlap
+    List<Long> ids = appointmentService.createAppointments(List.of(
+        request(1L, futureTime, null), request(4L, futureTime.plusMinutes(30), 60)), UserRole.ADMIN, 3L);
+
+    // Then
+    assertEquals(2, ids.size());
+    verify(userRepository).findRolesByIdIn(Set.of(1L, 2L, 4L));
+    verify(userRepository, never()).findById(any());
+    verify(bookingCoordinator).withDoctorLocks(eq(Set.of(2L)), any());
+    verify(appointmentRepository).findScheduledSnapshots(Set.of(2L), Set.of(1L, 4L),
+        futureTime.minusMinutes(Appointment.MAX_DURATION_MINUTES), futureTime.plusMinutes(90));
+    verify(appointmentRepository).flush();
+    verify(eventPublisher, times(2)).publishEvent(any(AppointmentChangedEvent.class));
+  }
+
+  /**
+   * Tests that two appointments of the same batch overlapping each other are rejected before any database check.
+   */
+  @Test
+  void testCreateAppointments_OverlapWithinBatch_ThrowsConflict() {
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.DOCTOR, 4L, UserRole.PATIENT));
+
+    AppointmentConflictException exception = assertThrows(AppointmentConflictException.class,
+        () -> appointmentService.createAppointments(List.of(
+            request(1L, futureTime, 45), request(4L, futureTime.plusMinutes(30), null)), UserRole.ADMIN, 3L));
+
+    assertEquals("appointments[1]: Doctor already has an appointment at this time.", exception.getMessage());
+    verifyNoInteractions(bookingCoordinator);
+    verify(appointmentRepository, never()).saveAll(any());
+  }
+
+  /**
+   * Tests that a batch appointment overlapping an already booked one is rejected.
+   */
+  @Test
+  void testCreateAppointments_OverlapWithBooked_ThrowsConflict() {
+    // Given - the patient already sees another doctor (5) during the second appointment
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.DOCTOR));
+    when(appointmentRepository.findScheduledSnapshots(any(), any(), any(), any())).thenReturn(List.of(
+        new AppointmentSnapshot(9L, 5L, 1L, futureTime.plusMinutes(45), futureTime.plusMinutes(75),
+            AppointmentStatus.SCHEDULED)));
+
+    // When & Then
+    AppointmentConflictException exception = assertThrows(AppointmentConflictException.class,
+        () -> appointmentService.createAppointments(List.of(
+            request(1L, futureTime, null), request(1L, futureTime.plusHours(1), null)), UserRole.ADMIN, 3L));
+
+    assertEquals("appointments[1]: Patient already has an appointment at this time.", exception.getMessage());
+    verify(appointmentRepository, never()).saveAll(any());
+  }
+
+  /**
+   * Tests the user checks of a bulk import: unknown users, wrong roles and patients booking for others.
+   */
+  @Test
+  void testCreateAppointments_InvalidUsers_ThrowsException() {
+    givenRoles(Map.of(1L, UserRole.PATIENT, 2L, UserRole.PATIENT));
+
+    RuntimeException notDoctor = assertThrows(RuntimeException.class,
+        () -> appointmentService.createAppointments(List.of(request(1L, futureTime, null)), UserRole.ADMIN, 3L));
+    RuntimeException otherPatient = assertThrows(RuntimeException.class,
+        () -> appointmentService.createAppointments(List.of(request(4L, futureTime, null)), UserRole.PATIENT, 1L));
+
+    assertEquals("User with id 2 is not a doctor", notDoctor.getMessage());
+    assertEquals("Patients can only create appointments for themselves", otherPatient.getMessage());
+    verify(appointmentRepository, never()).saveAll(any());
+  }
+
+  /**
+   * Tests that a bulk cancel is one update whose rows are published as cancellations.
+   */
+  @Test
+  void testCancelDoctorAppointments_Admin_CancelsWindow() {
+    // Given
+    LocalDateTime to = futureTime.plusDays(1);
+    when(appointmentRepository.cancelScheduledInWindow(2L, futureTime, to))
+        .thenReturn(List.of(changedRow(1L, 2L, futureTime), changedRow(4L, 2L, futureTime.plusHours(1))));
+
+    // When
+    int cancelled = appointmentService.cancelDoctorAppointments(2L, futureTime, to, UserRole.ADMIN);
+
+    // Then
+    assertEquals(2, cancelled);
+    verify(bookingCoordinator).withDoctorLocks(eq(List.of(2L)), any());
+    ArgumentCaptor<AppointmentChangedEvent> events = ArgumentCaptor.forClass(AppointmentChangedEvent.class);
+    verify(eventPublisher, times(2)).publishEvent(events.capture());
+    AppointmentChangedEvent first = events.getAllValues().get(0);
+    assertEquals(AppointmentChangedEvent.Type.CANCELLED, first.getType());
+    assertTrue(first.getBefore().isScheduled());
+    assertEquals(AppointmentStatus.CANCELLED, first.getAfter().getStatus());
+  }
+
+  /**
+   * Tests that each slot freed by a bulk cancel is booked for a waiter, after the cancel has
+   * run under the doctor's lock.
+   */
+  @Test
+  void testCancelDoctorAppointments_BooksFreedSlotsForWaiters() {
+    // Given
+    LocalDateTime later = futureTime.plusHours(1);
+    Waitlist.Waiter first = waiter(10L, 5L);
+    Waitlist.Waiter second = waiter(11L, 6L);
+    when(appointmentRepository.cancelScheduledInWindow(2L, futureTime, later.plusHours(1)))
+        .thenReturn(List.of(changedRow(1L, 2L, futureTime), changedRow(4L, 2L, later)));
+    when(waitlist.match(2L, null, futureTime, futureTime.plusMinutes(30), 5)).thenReturn(List.of(first));
+    when(waitlist.match(2L, null, later, later.plusMinutes(30), 5)).thenReturn(List.of(second));
+    when(waitlistEntryRepository.deleteEntry(any())).thenReturn(1);
+    when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    givenReferences();
+
+    // When
+    int cancelled = appointmentService.cancelDoctorAppointments(2L, futureTime, later.plusHours(1), UserRole.ADMIN);
+
+    // Then
+    assertEquals(2, cancelled);
+    ArgumentCaptor<Appointment> saved = ArgumentCaptor.forClass(Appointment.class);
+    verify(appointmentRepository, times(2)).save(saved.capture());
+    assertEquals(5L, saved.getAllValues().get(0).getPatient().getId());
+    assertEquals(futureTime, saved.getAllValues().get(0).getAppointmentTime());
+    assertEquals(6L, saved.getAllValues().get(1).getPatient().getId());
+    assertEquals(later, saved.getAllValues().get(1).getAppointmentTime());
+    verify(waitlist).remove(10L);
+    verify(waitlist).remove(11L);
+    // one lock for the cancel, then one per backfill
+    verify(bookingCoordinator, times(3)).withDoctorLocks(eq(List.of(2L)), any());
+    var order = inOrder(appointmentRepository, waitlist);
+    order.verify(appointmentRepository).cancelScheduledInWindow(2L, futureTime, later.plusHours(1));
+    order.verify(waitlist).match(eq(2L), any(), eq(futureTime), any(), anyInt());
+  }
+
+  /**
+   * Tests that a bulk reassign moves the window after one conflict check, under both doctors' locks.
+   */
+  @Test
+  void testReassignDoctorAppointments_Admin_MovesWindow() {
+    // Given
+    LocalDateTime to = futureTime.plusDays(1);
+    givenRoles(Map.of(5L, UserRole.DOCTOR));
+    when(appointmentRepository.findFirstReassignConflict(2L, 5L, futureTime, to)).thenReturn(Optional.empty());
+    when(appointmentRepository.reassignScheduledInWindow(2L, 5L, futureTime, to))
+        .thenReturn(List.of(changedRow(1L, 5L, futureTime)));
+
+    // When
+    int moved = appointmentService.reassignDoctorAppointments(2L, 5L, futureTime, to, UserRole.ADMIN);
+
+    // Then
+    assertEquals(1, moved);
+    verify(bookingCoordinator).withDoctorLocks(eq(List.of(2L, 5L)), any());
+    ArgumentCaptor<AppointmentChangedEvent> event = ArgumentCaptor.forClass(AppointmentChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertEquals(2L, event.getValue().getBefore().getDoctorId());
+    assertEquals(5L, event.getValue().getAfter().getDoctorId());
+  }
+
+  /**
+   * Tests that nothing moves when one appointment would overlap the new doctor's schedule,
+   * and that only admins may change appointments in bulk.
+   */
+  @Test
+  void testReassignDoctorAppointments_ConflictOrNotAdmin_ThrowsException() {
+    LocalDateTime to = futureTime.plusDays(1);
+    givenRoles(Map.of(5L, UserRole.DOCTOR));
+    when(appointmentRepository.findFirstReassignConflict(2L, 5L, futureTime, to)).thenReturn(Optional.of(4L));
+
+    AppointmentConflictException conflict = assertThrows(AppointmentConflictException.class,
+        () -> appointmentService.reassignDoctorAppointments(2L, 5L, futureTime, to, UserRole.ADMIN));
+    IllegalArgumentException notAdmin = assertThrows(IllegalArgumentException.class,
+        () -> appointmentService.cancelDoctorAppointments(2L, futureTime, to, UserRole.DOCTOR));
+
+    assertEquals("Appointment 4: Doctor already has an appointment at this time.", conflict.getMessage());
+    assertEquals("You do not have permission to change appointments in bulk.", notAdmin.getMessage());
+    verify(appointmentRepository, never()).reassignScheduledInWindow(any(), any(), any(), any());
+    verify(appointmentRepository, never()).cancelScheduledInWindow(any(), any(), any());
+  }
+
+  private static AppointmentRepository.ChangedRow changedRow(Long id, Long doctorId, LocalDateTime time) {
+    return new AppointmentRepository.ChangedRow() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public Long getDoctorId() {
+        return doctorId;
+      }
+
+      @Override
+      public Long getPatientId() {
+        return 1L;
+      }
+
+      @Override
+      public LocalDateTime getAppointmentTime() {
+        return time;
+      }
+
+      @Override
+      public LocalDateTime getEndTime() {
+        return time.plusMinutes(30);
+      }
+    };
+  }
+
+  private static Waitlist.Waiter waiter(Long id, Long patientId) {
+    Waitlist.Waiter waiter = mock(Waitlist.Waiter.class);
+    when(waiter.getId()).thenReturn(id);
+    when(waiter.getPatientId()).thenReturn(patientId);
+    return waiter;
+  }
+
+  private static DoctorSlot doctorSlot(Long doctorId, LocalDateTime start) {
+    return new DoctorSlot(new DoctorInfo(doctorId, "Sarah", "Chen", "Cardiology", "MD-12345", "Mon-Fri 9:00-17:00"),
+        new AvailableSlot(start, start.plusMinutes(30)));
+  }
+
+  private AppointmentRequest request(Long patientId, LocalDateTime time, Integer durationMinutes) {
+    AppointmentRequest request = new AppointmentRequest();
+    request.setPatientId(patientId);
+    request.setDoctorId(2L);
+    request.setStartDateTime(time);
+    request.setDurationMinutes(durationMinutes);
+    return request;
+  }
+
+  private void givenRoles(Map<Long, UserRole> roles) {
+    List<UserRepository.IdAndRole> rows = roles.entrySet().stream()
+        .map(entry -> (UserRepository.IdAndRole) new UserRepository.IdAndRole() {
+          @Override
+          public Long getId() {
+            return entry.getKey();
+          }
+
+          @Override
+          public UserRole getRole() {
+            return entry.getValue();
+          }
+        })
+        .toList();
+    when(userRepository.findRolesByIdIn(any())).thenReturn(rows);
+  }
+
+  private void givenReferences() {
+    when(userRepository.getReferenceById(any())).thenAnswer(invocation -> {
+      User reference = new User();
+      setUserId(reference, invocation.getArgument(0));
+      return reference;
+    });
+  }
+
   // Helper methods to set IDs using reflection
   private void setUserId(User user, Long id) {
     try {
@@ -302,5 +992,19 @@ class AppointmentServiceTest {
       // If reflection fails, continue without ID
     }
   }
-}
 
+  // Projection rows as the repository would return them for appointment 1's patient and doctor
+  private PatientAppointmentView patientView(Long id, LocalDateTime time) {
+    return new PatientAppointmentView(id, 1L, 2L, time, time.plusMinutes(30), "Test reason",
+        AppointmentStatus.SCHEDULED,
+        time.minusDays(1), "Sarah", "Chen", "Cardiology");
+  }
+
+  private ClinicianAppointmentView clinicianView(Long id, LocalDateTime time) {
+    return new ClinicianAppointmentView(id, 1L, 2L, time, time.plusMinutes(30), "Test reason",
+        AppointmentStatus.SCHEDULED,
+        time.minusDays(1),
+        null, null, null, null, null, null, null, null, null,
+        "Sarah", "Chen", "Cardiology", "MD-1", "Mon-Fri 9:00-17:00");
+  }
+}
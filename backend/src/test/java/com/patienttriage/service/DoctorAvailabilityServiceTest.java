@@ -0,0 +1,220 @@
+package com.patienttriage.service;
+
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.dto.DoctorAvailability;
+import com.patienttriage.dto.DoctorInfo;
+import com.patienttriage.dto.DoctorSlot;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.entity.AppointmentStatus;
+import com.patienttriage.event.AppointmentChangedEvent;
+import com.patienttriage.event.AppointmentSnapshot;
+import com.patienttriage.repository.AppointmentRepository;
+import com.patienttriage.repository.DoctorProfileRepository;
+import com.patienttriage.schedule.AppointmentSlotIndex;
+import com.patienttriage.service.impl.DoctorAvailabilityServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for DoctorAvailabilityService.
+ */
+@ExtendWith(MockitoExtension.class)
+class DoctorAvailabilityServiceTest {
+
+  // a Monday
+  private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+  private static final LocalDateTime NINE = MONDAY.atTime(9, 0);
+
+  @Mock
+  private ProfileCache profileCache;
+
+  @Mock
+  private DoctorProfileRepository doctorProfileRepository;
+
+  @Mock
+  private AppointmentRepository appointmentRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private AppointmentSlotIndex slotIndex;
+  private DoctorAvailabilityServiceImpl availabilityService;
+
+  @BeforeEach
+  void setUp() {
+    slotIndex = new AppointmentSlotIndex(appointmentRepository, transactionManager);
+    availabilityService = new DoctorAvailabilityServiceImpl(profileCache, doctorProfileRepository, slotIndex,
+        new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+  }
+
+  /**
+   * Tests that free slots are the working hours minus booked appointments.
+   */
+  @Test
+  void testGetAvailability_SubtractsBookedSlots() {
+    // Given
+    when(profileCache.findDoctor(2L)).thenReturn(doctor("Mon-Fri 9:00-17:00"));
+    slotIndex.onAppointmentChanged(AppointmentChangedEvent.created(scheduled(1L, NINE)));
+
+    // When - Monday and the weekend after the following Friday
+    DoctorAvailability monday = availabilityService.getAvailability(2L, MONDAY, MONDAY.plusDays(1));
+    DoctorAvailability weekend = availabilityService.getAvailability(2L, MONDAY.plusDays(5), MONDAY.plusDays(7));
+
+    // Then
+    assertEquals(15, monday.getCount());
+    assertEquals(NINE.plusMinutes(30), monday.getSlots().get(0).getStart());
+    assertEquals(NINE.plusHours(1), monday.getSlots().get(0).getEnd());
+    assertEquals(MONDAY.atTime(16, 30), monday.getSlots().get(14).getStart());
+    assertEquals(0, weekend.getCount());
+  }
+
+  /**
+   * Tests that a day is served from the cache until an appointment on it changes.
+   */
+  @Test
+  void testGetAvailability_CachedUntilBookingChanges() {
+    // Given
+    when(profileCache.findDoctor(2L)).thenReturn(doctor("Mon 9:00-10:00"));
+    assertEquals(2, availabilityService.getAvailability(2L, MONDAY, MONDAY.plusDays(1)).getCount());
+
+    // When - the booking reaches the index, but not (yet) the availability cache
+    AppointmentChangedEvent booked = AppointmentChangedEvent.created(scheduled(1L, NINE));
+    slotIndex.onAppointmentChanged(booked);
+    int beforeEviction = availabilityService.getAvailability(2L, MONDAY, MONDAY.plusDays(1)).getCount();
+    availabilityService.onAppointmentChanged(booked);
+    int afterEviction = availabilityService.getAvailability(2L, MONDAY, MONDAY.plusDays(1)).getCount();
+
+    // Then
+    assertEquals(2, beforeEviction);
+    assertEquals(1, afterEviction);
+  }
+
+  /**
+   * Tests that a work time that cannot be parsed means no free slots rather than an error.
+   */
+  @Test
+  void testGetAvailability_UnparseableWorkTime_NoSlots() {
+    when(profileCache.findDoctor(2L)).thenReturn(doctor("by appointment"));
+
+    assertEquals(0, availabilityService.getAvailability(2L, MONDAY, MONDAY.plusDays(7)).getCount());
+  }
+
+  /**
+   * Tests the range and doctor checks.
+   */
+  @Test
+  void testGetAvailability_InvalidRequest_ThrowsException() {
+    IllegalArgumentException reversed = assertThrows(IllegalArgumentException.class,
+        () -> availabilityService.getAvailability(2L, MONDAY, MONDAY));
+    IllegalArgumentException tooLong = assertThrows(IllegalArgumentException.class,
+        () -> availabilityService.getAvailability(2L, MONDAY, MONDAY.plusDays(32)));
+    IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+        () -> availabilityService.getAvailability(99L, MONDAY, MONDAY.plusDays(1)));
+
+    assertEquals("'to' must be after 'from'.", reversed.getMessage());
+    assertEquals("Availability can be searched at most 31 days at a time.", tooLong.getMessage());
+    assertEquals("Doctor not found with id: 99", unknown.getMessage());
+  }
+
+  /**
+   * Tests that the earliest slots of every doctor in the specialty are merged in time order.
+   */
+  @Test
+  void testFindEarliestSlots_MergesDoctorsInTimeOrder() {
+    // Given - doctor 2 works from 9:00 (9:00 booked), doctor 3 from 9:30, doctor 4 only on Tuesday
+    when(doctorProfileRepository.findDoctorIdsBySpecialty("Cardiology")).thenReturn(List.of(2L, 3L, 4L));
+    when(profileCache.findDoctors(List.of(2L, 3L, 4L))).thenReturn(Map.of(
+        2L, doctor(2L, "Mon 9:00-10:30"),
+        3L, doctor(3L, "Mon 9:30-17:00"),
+        4L, doctor(4L, "Tue 8:00-17:00")));
+    slotIndex.onAppointmentChanged(AppointmentChangedEvent.created(scheduled(1L, NINE)));
+
+    // When
+    List<DoctorSlot> slots = availabilityService.findEarliestSlots("Cardiology", MONDAY, 4, UserRole.ADMIN);
+
+    // Then - ties at the same start go to the lower doctor ID
+    assertEquals(4, slots.size());
+    assertSlot(slots.get(0), 2L, NINE.plusMinutes(30));
+    assertSlot(slots.get(1), 3L, NINE.plusMinutes(30));
+    assertSlot(slots.get(2), 2L, NINE.plusMinutes(60));
+    assertSlot(slots.get(3), 3L, NINE.plusMinutes(60));
+    assertEquals("Cardiology", slots.get(0).getSpecialty());
+  }
+
+  /**
+   * Tests that the search reaches into later weeks, and that only admins may search.
+   */
+  @Test
+  void testFindEarliestSlots_LaterDaysAndPermission() {
+    when(doctorProfileRepository.findDoctorIdsBySpecialty("cardiology")).thenReturn(List.of(4L));
+    when(profileCache.findDoctors(List.of(4L))).thenReturn(Map.of(4L, doctor(4L, "Tue 8:00-9:00")));
+
+    List<DoctorSlot> slots = availabilityService.findEarliestSlots(" cardiology ", MONDAY, 3, UserRole.ADMIN);
+
+    assertEquals(3, slots.size());
+    assertSlot(slots.get(0), 4L, MONDAY.plusDays(1).atTime(8, 0));
+    assertSlot(slots.get(2), 4L, MONDAY.plusDays(8).atTime(8, 0));
+
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> availabilityService.findEarliestSlots("Cardiology", MONDAY, 3, UserRole.PATIENT));
+    assertEquals("You do not have permission to search all doctors of a specialty.", exception.getMessage());
+  }
+
+  /**
+   * Tests that assignment ranks each doctor's earliest slot that fits the whole appointment
+   * and is free for the patient, with ties going to the less loaded doctor.
+   */
+  @Test
+  void testRankDoctorsForAssignment_EarliestFitThenLowestLoad() {
+    // Given - doctor 2 is booked at 9:00, doctor 4 never has a free hour, and the patient
+    // is busy at 9:30 with someone else
+    when(doctorProfileRepository.findDoctorIdsBySpecialty("Cardiology")).thenReturn(List.of(2L, 3L, 4L));
+    when(profileCache.findDoctors(List.of(2L, 3L, 4L))).thenReturn(Map.of(
+        2L, doctor(2L, "Mon 9:00-11:00"),
+        3L, doctor(3L, "Mon 9:30-11:00"),
+        4L, doctor(4L, "Mon 9:00-9:30")));
+    slotIndex.onAppointmentChanged(AppointmentChangedEvent.created(scheduled(1L, NINE)));
+    slotIndex.onAppointmentChanged(AppointmentChangedEvent.created(
+        new AppointmentSnapshot(2L, 9L, 6L, NINE.plusMinutes(30), NINE.plusHours(1), AppointmentStatus.SCHEDULED)));
+
+    // When
+    List<DoctorSlot> ranked = availabilityService.rankDoctorsForAssignment("Cardiology", NINE, 60, 6L, 5);
+
+    // Then - both can start at 10:00; doctor 3 has no appointments, doctor 2 has one
+    assertEquals(2, ranked.size());
+    assertSlot(ranked.get(0), 3L, NINE.plusHours(1));
+    assertSlot(ranked.get(1), 2L, NINE.plusHours(1));
+    assertEquals(NINE.plusHours(2), ranked.get(0).getEnd());
+  }
+
+  private static void assertSlot(DoctorSlot slot, Long doctorId, LocalDateTime start) {
+    assertEquals(doctorId, slot.getDoctorId());
+    assertEquals(start, slot.getStart());
+  }
+
+  private static DoctorInfo doctor(String workTime) {
+    return doctor(2L, workTime);
+  }
+
+  private static DoctorInfo doctor(Long doctorId, String workTime) {
+    return new DoctorInfo(doctorId, "Sarah", "Chen", "Cardiology", "MD-12345", workTime);
+  }
+
+  private static AppointmentSnapshot scheduled(Long id, LocalDateTime time) {
+    return new AppointmentSnapshot(id, 2L, 5L, time, time.plusMinutes(30), AppointmentStatus.SCHEDULED);
+  }
+}
@@ -0,0 +1,66 @@
+package com.patienttriage.service;
+
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.event.SymptomSubmittedEvent;
+import com.patienttriage.repository.PatientProfileRepository;
+import com.patienttriage.service.impl.PatientServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for PatientService.
+ */
+@ExtendWith(MockitoExtension.class)
+class PatientServiceTest {
+
+  @Mock
+  private PatientProfileRepository patientProfileRepository;
+
+  @Mock
+  private ProfileCache profileCache;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @InjectMocks
+  private PatientServiceImpl patientService;
+
+  /**
+   * Tests that a new symptom is stored (clearing the old priority) and handed to the
+   * evaluation pipeline through an event.
+   */
+  @Test
+  void testSubmitSymptom_ClearsPriorityAndPublishesEvent() {
+    // When
+    patientService.submitSymptom("  Chest pain ", UserRole.PATIENT, 5L);
+
+    // Then
+    verify(patientProfileRepository).upsertSymptom(5L, "Chest pain");
+    verify(profileCache).evictPatient(5L);
+    ArgumentCaptor<SymptomSubmittedEvent> event = ArgumentCaptor.forClass(SymptomSubmittedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertEquals(5L, event.getValue().getPatientId());
+  }
+
+  /**
+   * Tests that only patients can submit symptoms.
+   */
+  @Test
+  void testSubmitSymptom_NotPatient_ThrowsException() {
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> patientService.submitSymptom("Chest pain", UserRole.DOCTOR, 7L));
+
+    assertEquals("Only patients can submit symptoms and follow their triage.", exception.getMessage());
+    verifyNoInteractions(patientProfileRepository);
+    verifyNoInteractions(eventPublisher);
+  }
+}
@@ -0,0 +1,199 @@
+package com.patienttriage.service;
+
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.dto.DoctorInfo;
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.dto.TriageQueueRequest;
+import com.patienttriage.dto.TriageTicket;
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.event.TriagePriorityChangedEvent;
+import com.patienttriage.event.TriageQueueChangedEvent;
+import com.patienttriage.repository.DoctorProfileRepository;
+import com.patienttriage.repository.TriageQueueEntryRepository;
+import com.patienttriage.repository.UserRepository;
+import com.patienttriage.service.impl.TriageQueueServiceImpl;
+import com.patienttriage.triage.TriageQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TriageQueueService.
+ */
+@ExtendWith(MockitoExtension.class)
+class TriageQueueServiceTest {
+
+  @Mock
+  private TriageQueueEntryRepository triageQueueEntryRepository;
+
+  @Mock
+  private DoctorProfileRepository doctorProfileRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private ProfileCache profileCache;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private TriageQueue triageQueue;
+  private TriageQueueServiceImpl triageQueueService;
+
+  @BeforeEach
+  void setUp() {
+    triageQueue = new TriageQueue(triageQueueEntryRepository, transactionManager,
+        new SimpleMeterRegistry(), Duration.ofMinutes(30), Duration.ofHours(2));
+    triageQueueService = new TriageQueueServiceImpl(triageQueue, triageQueueEntryRepository,
+        doctorProfileRepository, userRepository, profileCache, eventPublisher);
+  }
+
+  /**
+   * Tests that a patient joins at their profile's priority, with the row written first.
+   */
+  @Test
+  void testEnqueue_Patient_JoinsAtProfilePriority() {
+    // Given
+    when(doctorProfileRepository.existsBySpecialty("Cardiology")).thenReturn(true);
+    when(profileCache.findPatient(5L)).thenReturn(patient(5L, "High"));
+    when(triageQueueEntryRepository.insertIfAbsent(eq(5L), eq("cardiology"), eq("HIGH"), any()))
+        .thenReturn(1);
+
+    // When
+    TriageTicket ticket = triageQueueService.enqueue(request(" Cardiology ", null), UserRole.PATIENT, 5L);
+
+    // Then
+    assertEquals(5L, ticket.getPatientId());
+    assertEquals(TriagePriority.HIGH, ticket.getPriority());
+    assertEquals("cardiology", ticket.getSpecialty());
+    assertEquals(1, triageQueue.size());
+  }
+
+  /**
+   * Tests that a patient already waiting (row exists) is rejected and the queue untouched.
+   */
+  @Test
+  void testEnqueue_AlreadyWaiting_ThrowsException() {
+    // Given
+    when(doctorProfileRepository.existsBySpecialty("Cardiology")).thenReturn(true);
+    when(profileCache.findPatient(5L)).thenReturn(patient(5L, null));
+    when(triageQueueEntryRepository.insertIfAbsent(eq(5L), eq("cardiology"), eq("MEDIUM"), any()))
+        .thenReturn(0);
+
+    // When & Then
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> triageQueueService.enqueue(request("Cardiology", null), UserRole.PATIENT, 5L));
+    assertEquals("Patient 5 is already waiting in a triage queue.", exception.getMessage());
+    assertEquals(0, triageQueue.size());
+  }
+
+  /**
+   * Tests that patients cannot add someone else and doctors cannot add anyone.
+   */
+  @Test
+  void testEnqueue_WrongRole_ThrowsException() {
+    IllegalArgumentException patient = assertThrows(IllegalArgumentException.class,
+        () -> triageQueueService.enqueue(request("Cardiology", 6L), UserRole.PATIENT, 5L));
+    IllegalArgumentException doctor = assertThrows(IllegalArgumentException.class,
+        () -> triageQueueService.enqueue(request("Cardiology", 6L), UserRole.DOCTOR, 7L));
+
+    assertEquals("You can only add yourself to a triage queue.", patient.getMessage());
+    assertEquals("You do not have permission to add patients to a triage queue.", doctor.getMessage());
+    verifyNoInteractions(triageQueueEntryRepository);
+  }
+
+  /**
+   * Tests that a doctor takes the next patient of their specialty and the row is deleted,
+   * and that an empty queue gives null.
+   */
+  @Test
+  void testTakeNext_Doctor_TakesFromOwnSpecialty() {
+    // Given
+    when(profileCache.findDoctor(7L)).thenReturn(doctor(7L, "Cardiology"));
+    when(profileCache.findPatient(5L)).thenReturn(patient(5L, "Low"));
+    triageQueue.offer(5L, "cardiology", TriagePriority.LOW, LocalDateTime.now());
+
+    // When
+    TriageTicket ticket = triageQueueService.takeNext("CARDIOLOGY", UserRole.DOCTOR, 7L);
+    TriageTicket none = triageQueueService.takeNext("cardiology", UserRole.DOCTOR, 7L);
+
+    // Then
+    assertEquals(5L, ticket.getPatientId());
+    assertEquals("John", ticket.getPatientFirstName());
+    assertNull(none);
+    verify(triageQueueEntryRepository).deleteByPatientId(5L);
+  }
+
+  /**
+   * Tests that a doctor cannot take patients from another specialty's queue.
+   */
+  @Test
+  void testTakeNext_OtherSpecialty_ThrowsException() {
+    when(profileCache.findDoctor(7L)).thenReturn(doctor(7L, "Cardiology"));
+    triageQueue.offer(5L, "neurology", TriagePriority.HIGH, LocalDateTime.now());
+
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> triageQueueService.takeNext("Neurology", UserRole.DOCTOR, 7L));
+
+    assertEquals("You can only access the triage queue of your own specialty.", exception.getMessage());
+    assertEquals(1, triageQueue.size());
+    verify(triageQueueEntryRepository, never()).deleteByPatientId(anyLong());
+  }
+
+  /**
+   * Tests that a waiting patient whose priority is assessed moves to it, row first, and the
+   * patients behind are told; a patient not waiting is left alone.
+   */
+  @Test
+  void testOnTriagePriorityChanged_ReoffersWaitingPatient() {
+    // Given
+    triageQueue.offer(5L, "cardiology", TriagePriority.MEDIUM, LocalDateTime.now());
+    when(triageQueueEntryRepository.updatePriority(5L, TriagePriority.HIGH)).thenReturn(1);
+
+    // When
+    triageQueueService.onTriagePriorityChanged(new TriagePriorityChangedEvent(5L, TriagePriority.HIGH));
+    triageQueueService.onTriagePriorityChanged(new TriagePriorityChangedEvent(6L, TriagePriority.HIGH));
+
+    // Then
+    assertEquals(TriagePriority.HIGH, triageQueue.find(5L).getPriority());
+    assertEquals(1, triageQueue.size());
+    verify(eventPublisher).publishEvent(any(TriageQueueChangedEvent.class));
+  }
+
+  // Helpers
+
+  private static TriageQueueRequest request(String specialty, Long patientId) {
+    TriageQueueRequest request = new TriageQueueRequest();
+    request.setSpecialty(specialty);
+    request.setPatientId(patientId);
+    return request;
+  }
+
+  private static PatientInfo patient(Long patientId, String triagePriority) {
+    return new PatientInfo(patientId, "John", "Doe", 35, "Male", "Chest pain", null, null, null,
+        triagePriority);
+  }
+
+  private static DoctorInfo doctor(Long doctorId, String specialty) {
+    return new DoctorInfo(doctorId, "Sarah", "Chen", specialty, "MD-12345", "Mon-Fri 9:00-17:00");
+  }
+}
@@ -1,7 +1,11 @@
 package com.patienttriage.service;
 
+import com.patienttriage.auth.LoginThrottle;
+import com.patienttriage.auth.PasswordHasher;
+import com.patienttriage.auth.UsernameFilter;
 import com.patienttriage.entity.User;
 import com.patienttriage.entity.UserRole;
+import com.patienttriage.exception.TooManyLoginAttemptsException;
 import com.patienttriage.repository.UserRepository;
 import com.patienttriage.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
@@ -16,6 +21,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 /**
@@ -27,6 +33,15 @@ class UserServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private PasswordHasher passwordHasher;
+
+  @Mock
+  private LoginThrottle loginThrottle;
+
+  @Mock
+  private UsernameFilter usernameFilter;
+
   @InjectMocks
   private UserServiceImpl userService;
 
@@ -57,7 +72,8 @@ class UserServiceTest {
   @Test
   void testRegisterUser_Success() {
     // Given
-    when(userRepository.existsByUsername(testUsername)).thenReturn(false);
+    when(usernameFilter.exists(testUsername)).thenReturn(false);
+    when(passwordHasher.encode(testPassword)).thenReturn(encodedPassword);
     when(userRepository.save(any(User.class))).thenReturn(testUser);
 
     // When
@@ -68,8 +84,9 @@ class UserServiceTest {
     assertEquals(testUsername, result.getUsername());
     assertEquals(UserRole.PATIENT, result.getRole());
     assertNotEquals(testPassword, result.getPassword()); // Password should be encoded
-    verify(userRepository).existsByUsername(testUsername);
+    verify(usernameFilter).exists(testUsername);
     verify(userRepository).save(any(User.class));
+    verify(usernameFilter).add(testUsername);
   }
 
   /**
@@ -78,7 +95,7 @@ class UserServiceTest {
   @Test
   void testRegisterUser_DuplicateUsername_ThrowsException() {
     // Given
-    when(userRepository.existsByUsername(testUsername)).thenReturn(true);
+    when(usernameFilter.exists(testUsername)).thenReturn(true);
 
     // When & Then
     RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -86,8 +103,31 @@ class UserServiceTest {
     });
 
     assertEquals("Username already exists: " + testUsername, exception.getMessage());
-    verify(userRepository).existsByUsername(testUsername);
+    verify(usernameFilter).exists(testUsername);
     verify(userRepository, never()).save(any(User.class));
+    verify(usernameFilter, never()).add(anyString());
+    verifyNoInteractions(passwordHasher);
+  }
+
+  /**
+   * Tests that a duplicate the username filter missed (e.g. registered through another
+   * instance) is caught by the unique index and reported the same way.
+   */
+  @Test
+  void testRegisterUser_DuplicateMissedByFilter_ThrowsException() {
+    // Given
+    when(usernameFilter.exists(testUsername)).thenReturn(false);
+    when(passwordHasher.encode(testPassword)).thenReturn(encodedPassword);
+    when(userRepository.save(any(User.class)))
+        .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+
+    // When & Then
+    RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+      userService.register(testUsername, testPassword, UserRole.PATIENT);
+    });
+
+    assertEquals("Username already exists: " + testUsername, exception.getMessage());
+    verify(usernameFilter, never()).add(anyString());
   }
 
   /**
@@ -97,6 +137,7 @@ class UserServiceTest {
   void testLogin_ValidCredentials_Success() {
     // Given
     when(userRepository.findByUsername(testUsername)).thenReturn(Optional.of(testUser));
+    when(passwordHasher.matches(testPassword, encodedPassword)).thenReturn(true);
 
     // When
     User result = userService.login(testUsername, testPassword);
@@ -105,6 +146,8 @@ class UserServiceTest {
     assertNotNull(result);
     assertEquals(testUsername, result.getUsername());
     verify(userRepository).findByUsername(testUsername);
+    verify(loginThrottle).acquire(testUsername);
+    verify(loginThrottle).reset(testUsername);
   }
 
   /**
@@ -114,6 +157,7 @@ class UserServiceTest {
   void testLogin_InvalidPassword_ThrowsException() {
     // Given
     when(userRepository.findByUsername(testUsername)).thenReturn(Optional.of(testUser));
+    when(passwordHasher.matches("wrongpassword", encodedPassword)).thenReturn(false);
 
     // When & Then
     RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -122,6 +166,7 @@ class UserServiceTest {
 
     assertEquals("Invalid password", exception.getMessage());
     verify(userRepository).findByUsername(testUsername);
+    verify(loginThrottle, never()).reset(anyString());
   }
 
   /**
@@ -140,5 +185,18 @@ class UserServiceTest {
     assertEquals("User not found", exception.getMessage());
     verify(userRepository).findByUsername(testUsername);
   }
-}
 
+  /**
+   * Tests that a throttled username is refused before the user is looked up or any hash is spent.
+   */
+  @Test
+  void testLogin_Throttled_SkipsLookupAndHash() {
+    // Given
+    doThrow(new TooManyLoginAttemptsException("Too many login attempts. Please try again later.", 60))
+        .when(loginThrottle).acquire(testUsername);
+
+    // When & Then
+    assertThrows(TooManyLoginAttemptsException.class, () -> userService.login(testUsername, testPassword));
+    verifyNoInteractions(userRepository, passwordHasher);
+  }
+}
@@ -0,0 +1,193 @@
+package com.patienttriage.service;
+
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.dto.WaitlistRequest;
+import com.patienttriage.dto.WaitlistSpot;
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.UserRole;
+import com.patienttriage.entity.WaitlistEntry;
+import com.patienttriage.event.TriagePriorityChangedEvent;
+import com.patienttriage.repository.DoctorProfileRepository;
+import com.patienttriage.repository.UserRepository;
+import com.patienttriage.repository.WaitlistEntryRepository;
+import com.patienttriage.schedule.Waitlist;
+import com.patienttriage.service.impl.WaitlistServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for WaitlistService.
+ */
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+  @Mock
+  private WaitlistEntryRepository waitlistEntryRepository;
+
+  @Mock
+  private DoctorProfileRepository doctorProfileRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private ProfileCache profileCache;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private Waitlist waitlist;
+  private WaitlistServiceImpl waitlistService;
+  private LocalDateTime tomorrow;
+
+  @BeforeEach
+  void setUp() {
+    waitlist = new Waitlist(waitlistEntryRepository, transactionManager, new SimpleMeterRegistry());
+    waitlistService = new WaitlistServiceImpl(waitlist, waitlistEntryRepository,
+        doctorProfileRepository, userRepository, profileCache);
+    tomorrow = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+  }
+
+  /**
+   * Tests that a patient waits for a specialty at their profile's priority, with the row
+   * saved first.
+   */
+  @Test
+  void testJoin_Patient_WaitsAtProfilePriority() {
+    // Given
+    when(doctorProfileRepository.existsBySpecialty("Cardiology")).thenReturn(true);
+    when(profileCache.findPatient(5L)).thenReturn(patient(5L, "High"));
+    when(waitlistEntryRepository.save(any(WaitlistEntry.class)))
+        .thenAnswer(invocation -> withId(invocation.getArgument(0), 40L));
+
+    // When
+    WaitlistSpot spot = waitlistService.join(
+        request(null, " Cardiology ", tomorrow, tomorrow.plusHours(8)), UserRole.PATIENT, 5L);
+
+    // Then
+    assertEquals(40L, spot.getId());
+    assertEquals(5L, spot.getPatientId());
+    assertEquals("cardiology", spot.getSpecialty());
+    assertEquals(TriagePriority.HIGH, spot.getPriority());
+    assertEquals(1, waitlist.match(7L, "cardiology", tomorrow, tomorrow.plusMinutes(30), 5).size());
+  }
+
+  /**
+   * Tests that a request needs exactly one of doctor and specialty, and a window of at most
+   * two weeks.
+   */
+  @Test
+  void testJoin_InvalidRequest_ThrowsException() {
+    when(doctorProfileRepository.existsBySpecialty("Cardiology")).thenReturn(true);
+
+    IllegalArgumentException both = assertThrows(IllegalArgumentException.class,
+        () -> waitlistService.join(request(7L, "Cardiology", tomorrow, tomorrow.plusHours(1)),
+            UserRole.PATIENT, 5L));
+    IllegalArgumentException neither = assertThrows(IllegalArgumentException.class,
+        () -> waitlistService.join(request(null, " ", tomorrow, tomorrow.plusHours(1)),
+            UserRole.PATIENT, 5L));
+    IllegalArgumentException tooLong = assertThrows(IllegalArgumentException.class,
+        () -> waitlistService.join(request(null, "Cardiology", tomorrow, tomorrow.plusDays(15)),
+            UserRole.PATIENT, 5L));
+
+    assertEquals("Either a doctor ID or a specialty is required, not both.", both.getMessage());
+    assertEquals("Either a doctor ID or a specialty is required, not both.", neither.getMessage());
+    assertEquals("Window must be at most 14 days long.", tooLong.getMessage());
+    verify(waitlistEntryRepository, never()).save(any());
+  }
+
+  /**
+   * Tests that a patient can only remove their own entries, and that leaving removes the
+   * row and the waiter.
+   */
+  @Test
+  void testLeave_Patient_OnlyOwnEntries() {
+    // Given
+    WaitlistEntry entry = withId(new WaitlistEntry(5L, 7L, null, tomorrow, tomorrow.plusHours(8),
+        TriagePriority.LOW, LocalDateTime.now()), 40L);
+    waitlist.add(entry);
+    when(waitlistEntryRepository.findById(40L)).thenReturn(Optional.of(entry));
+
+    // When & Then - another patient
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> waitlistService.leave(40L, UserRole.PATIENT, 6L));
+    assertEquals("You can only remove your own waitlist entries.", exception.getMessage());
+    assertEquals(1, waitlist.size());
+
+    // When - the patient themselves
+    when(waitlistEntryRepository.deleteEntry(40L)).thenReturn(1);
+    waitlistService.leave(40L, UserRole.PATIENT, 5L);
+
+    // Then
+    assertEquals(0, waitlist.size());
+  }
+
+  /**
+   * Tests that a patient's entries are saved and re-filed at their newly assessed priority,
+   * ahead of those who joined earlier at a lower one.
+   */
+  @Test
+  void testOnTriagePriorityChanged_RefilesEntries() {
+    // Given
+    WaitlistEntry earlier = withId(new WaitlistEntry(6L, 7L, null, tomorrow, tomorrow.plusHours(8),
+        TriagePriority.MEDIUM, LocalDateTime.now().minusHours(1)), 41L);
+    WaitlistEntry entry = withId(new WaitlistEntry(5L, 7L, null, tomorrow, tomorrow.plusHours(8),
+        TriagePriority.MEDIUM, LocalDateTime.now()), 40L);
+    waitlist.add(earlier);
+    waitlist.add(entry);
+    WaitlistEntry assessed = withId(new WaitlistEntry(5L, 7L, null, tomorrow, tomorrow.plusHours(8),
+        TriagePriority.HIGH, entry.getCreatedAt()), 40L);
+    when(waitlistEntryRepository.updatePriorityByPatientId(5L, TriagePriority.HIGH)).thenReturn(1);
+    when(waitlistEntryRepository.findByPatientIdOrderByWindowStart(5L)).thenReturn(List.of(assessed));
+
+    // When
+    waitlistService.onTriagePriorityChanged(new TriagePriorityChangedEvent(5L, TriagePriority.HIGH));
+
+    // Then
+    List<Waitlist.Waiter> waiters = waitlist.match(7L, null, tomorrow, tomorrow.plusMinutes(30), 10);
+    assertEquals(List.of(40L, 41L), waiters.stream().map(Waitlist.Waiter::getId).toList());
+    assertEquals(TriagePriority.HIGH, waiters.get(0).getPriority());
+  }
+
+  // Helpers
+
+  private static WaitlistRequest request(Long doctorId, String specialty, LocalDateTime from,
+      LocalDateTime to) {
+    WaitlistRequest request = new WaitlistRequest();
+    request.setDoctorId(doctorId);
+    request.setSpecialty(specialty);
+    request.setFrom(from);
+    request.setTo(to);
+    return request;
+  }
+
+  private static PatientInfo patient(Long patientId, String triagePriority) {
+    return new PatientInfo(patientId, "John", "Doe", 35, "Male", "Chest pain", null, null, null,
+        triagePriority);
+  }
+
+  private static WaitlistEntry withId(WaitlistEntry entry, Long id) {
+    try {
+      java.lang.reflect.Field idField = WaitlistEntry.class.getDeclaredField("id");
+      idField.setAccessible(true);
+      idField.set(entry, id);
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+    return entry;
+  }
+}
@@ -0,0 +1,127 @@
+package com.patienttriage.triage;
+
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.entity.TriagePriority;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for OpenAiTriageEvaluator, against a local stub of the chat completions API.
+ */
+class OpenAiTriageEvaluatorTest {
+
+  private HttpServer server;
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+  private volatile String answer;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/v1/chat/completions", exchange -> {
+      requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+      byte[] body = completion(answer).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  /**
+   * Tests that a batch goes out as one request and each answer line maps back to its patient.
+   */
+  @Test
+  void testEvaluate_OneRequestPerBatch() {
+    // Given
+    answer = "1: HIGH\\n2: low\\n3: MEDIUM";
+    OpenAiTriageEvaluator evaluator = evaluator();
+
+    // When
+    List<TriagePriority> priorities = evaluator.evaluate(List.of(
+        patient(1L, "Chest pain"), patient(2L, "Sore throat"), patient(3L, "Headache and fever")));
+
+    // Then
+    assertEquals(List.of(TriagePriority.HIGH, TriagePriority.LOW, TriagePriority.MEDIUM), priorities);
+    assertEquals(1, requests.size());
+    assertTrue(requests.get(0).contains("\"model\":\"stub-model\""));
+    assertTrue(requests.get(0).contains("2. age 40, Female, symptom: Sore throat"));
+  }
+
+  /**
+   * Tests that missing, malformed and out-of-range answer lines leave those patients unresolved.
+   */
+  @Test
+  void testParse_IgnoresUnusableLines() {
+    List<TriagePriority> priorities = OpenAiTriageEvaluator.parse(
+        "Sure, here you go:\n**1**: unsure\n3) **Low**\n9: HIGH\n", 3);
+
+    assertEquals(Arrays.asList(null, null, TriagePriority.LOW), priorities);
+  }
+
+  /**
+   * Tests that an unreachable model server fails the whole batch.
+   */
+  @Test
+  void testEvaluate_ServerDown_Throws() {
+    OpenAiTriageEvaluator evaluator = evaluator();
+    server.stop(0);
+
+    assertThrows(RuntimeException.class, () -> evaluator.evaluate(List.of(patient(1L, "Chest pain"))));
+  }
+
+  /**
+   * Tests that without an API key only a model server on this host is called, so patient data
+   * never goes to a remote endpoint by default.
+   */
+  @Test
+  void testEvaluate_RemoteWithoutKey_NotConfigured() {
+    // Given
+    OpenAiTriageEvaluator remote = new OpenAiTriageEvaluator("https://api.openai.com/v1", "",
+        "stub-model", Duration.ofSeconds(5), 0);
+
+    // When / Then
+    assertFalse(remote.isConfigured());
+    assertThrows(IllegalStateException.class, () -> remote.evaluate(List.of(patient(1L, "Chest pain"))));
+    assertTrue(evaluator().isConfigured());
+    assertTrue(new OpenAiTriageEvaluator("https://api.openai.com/v1", "sk-test", "stub-model",
+        Duration.ofSeconds(5), 0).isConfigured());
+    assertTrue(OpenAiTriageEvaluator.isLocal("http://localhost:11434/v1"));
+    assertTrue(OpenAiTriageEvaluator.isLocal("http://[::1]:8000/v1"));
+    assertFalse(OpenAiTriageEvaluator.isLocal("http://127.0.0.1.example.com/v1"));
+  }
+
+  // Helpers
+
+  private OpenAiTriageEvaluator evaluator() {
+    return new OpenAiTriageEvaluator("http://127.0.0.1:" + server.getAddress().getPort() + "/v1",
+        "", "stub-model", Duration.ofSeconds(5), 0);
+  }
+
+  private static PatientInfo patient(Long patientId, String symptom) {
+    return new PatientInfo(patientId, "Jane", "Smith", 40, "Female", symptom, null, null, null, null);
+  }
+
+  private static String completion(String content) {
+    return "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion\",\"created\":0,\"model\":\"stub-model\","
+        + "\"choices\":[{\"index\":0,\"finish_reason\":\"stop\",\"logprobs\":null,"
+        + "\"message\":{\"role\":\"assistant\",\"content\":\"" + content + "\",\"refusal\":null}}]}";
+  }
+}
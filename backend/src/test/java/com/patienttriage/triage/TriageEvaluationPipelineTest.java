@@ -0,0 +1,239 @@
+package com.patienttriage.triage;
+
+import com.patienttriage.cache.ProfileCache;
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.event.SymptomSubmittedEvent;
+import com.patienttriage.event.TriagePriorityChangedEvent;
+import com.patienttriage.repository.PatientProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TriageEvaluationPipeline.
+ */
+@ExtendWith(MockitoExtension.class)
+class TriageEvaluationPipelineTest {
+
+  @Mock
+  private PatientProfileRepository patientProfileRepository;
+
+  @Mock
+  private ProfileCache profileCache;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+  private volatile TriagePriority modelAnswer = TriagePriority.HIGH;
+  private TriageEvaluationPipeline pipeline;
+
+  @AfterEach
+  void tearDown() {
+    if (pipeline != null) {
+      pipeline.stop();
+    }
+  }
+
+  /**
+   * Tests that patients submitted together are evaluated in one batch and their priorities
+   * written back, without the submitting thread waiting.
+   */
+  @Test
+  void testSubmit_MicroBatchesAndWritesBack() {
+    // Given
+    pipeline = pipeline(10, Duration.ofMillis(500));
+    when(profileCache.findPatients(any())).thenAnswer(invocation -> profiles(invocation.getArgument(0)));
+    when(patientProfileRepository.updateTriagePriority(anyLong(), anyString(), anyString())).thenReturn(1);
+    pipeline.start();
+
+    // When
+    for (long id = 1; id <= 5; id++) {
+      assertTrue(pipeline.submit(id));
+    }
+
+    // Then
+    verify(patientProfileRepository, timeout(5000).times(5)).updateTriagePriority(anyLong(), anyString(), eq("High"));
+    verify(profileCache, times(5)).evictPatient(anyLong());
+    assertEquals(List.of(5), batchSizes);
+    // so a patient already waiting somewhere moves to the priority
+    verify(eventPublisher, timeout(5000).times(5)).publishEvent(any(TriagePriorityChangedEvent.class));
+  }
+
+  /**
+   * Tests that submissions beyond the queue's capacity are dropped instead of blocking, and
+   * a duplicate submission does not take a second place.
+   */
+  @Test
+  void testSubmit_QueueFull_Dropped() {
+    pipeline = pipeline(2, Duration.ofMillis(50)); // not started, so nothing drains
+
+    assertTrue(pipeline.submit(1L));
+    assertTrue(pipeline.submit(1L));
+    assertTrue(pipeline.submit(2L));
+    assertFalse(pipeline.submit(3L));
+  }
+
+  /**
+   * Tests that the pipeline stays stopped when the evaluator is not configured, so no symptom
+   * is queued for a model that must not be called.
+   */
+  @Test
+  void testStart_EvaluatorNotConfigured_StaysStopped() {
+    // Given
+    TriageEvaluator unconfigured = new TriageEvaluator() {
+      @Override
+      public List<TriagePriority> evaluate(List<PatientInfo> patients) {
+        throw new AssertionError("must not be called");
+      }
+
+      @Override
+      public boolean isConfigured() {
+        return false;
+      }
+    };
+    pipeline = new TriageEvaluationPipeline(new TriageRules(new ByteArrayResource(new byte[0])),
+        new TriageResultCache(new SimpleMeterRegistry(), 100, Duration.ofHours(1)), unconfigured,
+        patientProfileRepository, profileCache, eventPublisher, new SimpleMeterRegistry(), true, 10, 8,
+        Duration.ofMillis(50), 2);
+
+    // When
+    pipeline.start();
+
+    // Then
+    assertFalse(pipeline.isRunning());
+    pipeline.onSymptomSubmitted(new SymptomSubmittedEvent(1L));
+    pipeline.sweepUnassessed();
+    verifyNoInteractions(patientProfileRepository, profileCache);
+  }
+
+  /**
+   * Tests that patients assessed since they were queued are not sent to the model.
+   */
+  @Test
+  void testEvaluate_SkipsAssessedPatients() {
+    // Given
+    pipeline = pipeline(10, Duration.ofMillis(50));
+    Map<Long, PatientInfo> profiles = new HashMap<>();
+    profiles.put(1L, patient(1L, "Chest pain", "Low"));
+    profiles.put(2L, patient(2L, "Back pain", null));
+    when(profileCache.findPatients(List.of(1L, 2L, 3L))).thenReturn(profiles);
+    when(patientProfileRepository.updateTriagePriority(2L, "Back pain", "High")).thenReturn(1);
+
+    // When
+    pipeline.evaluate(List.of(1L, 2L, 3L));
+
+    // Then
+    assertEquals(List.of(1), batchSizes);
+    verify(patientProfileRepository, never()).updateTriagePriority(eq(1L), any(), any());
+    verify(profileCache).evictPatient(2L);
+  }
+
+  /**
+   * Tests that a HIGH keyword in the symptom is stored without a model call, while lower
+   * keywords still go to the model and only keep its answer from coming back lower, and
+   * keywords outside the symptom are ignored.
+   */
+  @Test
+  void testEvaluate_OnlyHighSymptomRulesSkipModel() {
+    // Given
+    pipeline = pipeline(10, Duration.ofMillis(50),
+        "LOW: sore throat\nLOW: rash\nMEDIUM: fever\nHIGH: chest pain\nHIGH: stroke");
+    modelAnswer = TriagePriority.LOW;
+    Map<Long, PatientInfo> profiles = new HashMap<>();
+    profiles.put(1L, patient(1L, "Sudden CHEST PAIN at rest", null));
+    profiles.put(2L, patient(2L, "Sore throat", null));
+    profiles.put(3L, patient(3L, "Fever since yesterday", null));
+    profiles.put(4L, new PatientInfo(4L, "Jane", "Roe", 70, "Female", "Itchy eyes",
+        "History of stroke", "Penicillin (rash)", null, null));
+    when(profileCache.findPatients(List.of(1L, 2L, 3L, 4L))).thenReturn(profiles);
+    when(patientProfileRepository.updateTriagePriority(anyLong(), anyString(), anyString())).thenReturn(1);
+
+    // When
+    pipeline.evaluate(List.of(1L, 2L, 3L, 4L));
+
+    // Then
+    verify(patientProfileRepository).updateTriagePriority(1L, "Sudden CHEST PAIN at rest", "High");
+    verify(patientProfileRepository).updateTriagePriority(2L, "Sore throat", "Low");
+    verify(patientProfileRepository).updateTriagePriority(3L, "Fever since yesterday", "Medium");
+    verify(patientProfileRepository).updateTriagePriority(4L, "Itchy eyes", "Low");
+    assertEquals(List.of(3), batchSizes);
+  }
+
+  /**
+   * Tests that patients describing the same thing share one model answer within a batch, and
+   * a later patient describing it again is assessed from the cache without a model call.
+   */
+  @Test
+  void testEvaluate_RepeatedSymptomsSkipModel() {
+    // Given
+    pipeline = pipeline(10, Duration.ofMillis(50));
+    Map<Long, PatientInfo> first = new HashMap<>();
+    first.put(1L, patient(1L, "Headache and fever", null));
+    first.put(2L, patient(2L, "headache & FEVER!", null));
+    first.put(3L, patient(3L, "Itchy eyes", null));
+    when(profileCache.findPatients(List.of(1L, 2L, 3L))).thenReturn(first);
+    when(profileCache.findPatients(List.of(4L))).thenReturn(Map.of(4L, patient(4L, "Headache, fever", null)));
+    when(patientProfileRepository.updateTriagePriority(anyLong(), anyString(), anyString())).thenReturn(1);
+
+    // When
+    pipeline.evaluate(List.of(1L, 2L, 3L));
+    pipeline.evaluate(List.of(4L));
+
+    // Then
+    assertEquals(List.of(2), batchSizes);
+    verify(patientProfileRepository).updateTriagePriority(2L, "headache & FEVER!", "High");
+    verify(patientProfileRepository).updateTriagePriority(4L, "Headache, fever", "High");
+    verify(profileCache, times(4)).evictPatient(anyLong());
+  }
+
+  // Helpers
+
+  private TriageEvaluationPipeline pipeline(int capacity, Duration batchWindow) {
+    return pipeline(capacity, batchWindow, "");
+  }
+
+  private TriageEvaluationPipeline pipeline(int capacity, Duration batchWindow, String rules) {
+    TriageEvaluator evaluator = patients -> {
+      batchSizes.add(patients.size());
+      return Collections.nCopies(patients.size(), modelAnswer);
+    };
+    TriageRules triageRules = new TriageRules(new ByteArrayResource(rules.getBytes(StandardCharsets.UTF_8)));
+    TriageResultCache resultCache = new TriageResultCache(new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+    return new TriageEvaluationPipeline(triageRules, resultCache, evaluator, patientProfileRepository,
+        profileCache, eventPublisher, new SimpleMeterRegistry(), true, capacity, 8, batchWindow, 2);
+  }
+
+  private static Map<Long, PatientInfo> profiles(Collection<Long> patientIds) {
+    Map<Long, PatientInfo> profiles = new HashMap<>();
+    for (Long patientId : patientIds) {
+      profiles.put(patientId, patient(patientId, "Symptom " + patientId, null));
+    }
+    return profiles;
+  }
+
+  private static PatientInfo patient(Long patientId, String symptom, String triagePriority) {
+    return new PatientInfo(patientId, "John", "Doe", 35, "Male", symptom, null, null, null, triagePriority);
+  }
+}
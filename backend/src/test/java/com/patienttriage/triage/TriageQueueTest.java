@@ -0,0 +1,223 @@
+package com.patienttriage.triage;
+
+import com.patienttriage.entity.TriagePriority;
+import com.patienttriage.entity.TriageQueueEntry;
+import com.patienttriage.repository.TriageQueueEntryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TriageQueue.
+ */
+@ExtendWith(MockitoExtension.class)
+class TriageQueueTest {
+
+  private static final LocalDateTime NINE = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+  @Mock
+  private TriageQueueEntryRepository repository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private TriageQueue queue;
+
+  @BeforeEach
+  void setUp() {
+    queue = new TriageQueue(repository, transactionManager, new SimpleMeterRegistry(),
+        Duration.ofMinutes(30), Duration.ofHours(2));
+  }
+
+  /**
+   * Tests that patients who joined around the same time come out by priority, then arrival.
+   */
+  @Test
+  void testPoll_OrdersByPriorityThenArrival() {
+    queue.offer(1L, "cardiology", TriagePriority.LOW, NINE);
+    queue.offer(2L, "cardiology", TriagePriority.HIGH, NINE.plusMinutes(1));
+    queue.offer(3L, "cardiology", TriagePriority.MEDIUM, NINE.plusMinutes(2));
+    queue.offer(4L, "cardiology", TriagePriority.HIGH, NINE.plusMinutes(3));
+    queue.offer(5L, "neurology", TriagePriority.HIGH, NINE);
+
+    assertEquals(List.of(2L, 4L, 3L, 1L), drain("cardiology"));
+    assertNull(queue.poll("cardiology"));
+    assertEquals(1, queue.size());
+  }
+
+  /**
+   * Tests that a LOW patient who has waited the full allowance goes before a HIGH patient
+   * arriving later, and ties with one arriving exactly then go to the HIGH patient.
+   */
+  @Test
+  void testPoll_AgedPatientOvertakesLaterArrivals() {
+    queue.offer(1L, "cardiology", TriagePriority.LOW, NINE);
+    queue.offer(2L, "cardiology", TriagePriority.HIGH, NINE.plusHours(2).plusMinutes(1));
+    queue.offer(3L, "cardiology", TriagePriority.HIGH, NINE.plusHours(2));
+
+    assertEquals(List.of(3L, 1L, 2L), drain("cardiology"));
+  }
+
+  /**
+   * Tests that a patient waits in one queue at most and can leave it.
+   */
+  @Test
+  void testOfferAndRemove_OneTicketPerPatient() {
+    assertNotNull(queue.offer(1L, "cardiology", TriagePriority.HIGH, NINE));
+    assertNull(queue.offer(1L, "neurology", TriagePriority.HIGH, NINE));
+
+    assertEquals("cardiology", queue.remove(1L).getSpecialty());
+    assertNull(queue.remove(1L));
+    assertTrue(queue.peek("cardiology", 10).isEmpty());
+    assertNotNull(queue.offer(1L, "neurology", TriagePriority.HIGH, NINE));
+  }
+
+  /**
+   * Tests that a patient assessed while waiting moves to the new priority's place, counted
+   * from when they joined, and that nobody else is re-offered.
+   */
+  @Test
+  void testReprioritize_MovesPatientKeepingArrival() {
+    queue.offer(1L, "cardiology", TriagePriority.MEDIUM, NINE);
+    queue.offer(2L, "cardiology", TriagePriority.HIGH, NINE.plusMinutes(10));
+
+    TriageQueue.Ticket ticket = queue.reprioritize(1L, TriagePriority.HIGH);
+
+    assertEquals(TriagePriority.HIGH, ticket.getPriority());
+    assertEquals(NINE, ticket.getEnqueuedAt());
+    assertNull(queue.reprioritize(1L, TriagePriority.HIGH));
+    assertNull(queue.reprioritize(3L, TriagePriority.LOW));
+    assertEquals(2, queue.size());
+    assertEquals(List.of(1L, 2L), drain("cardiology"));
+  }
+
+  /**
+   * Tests that positions count from the head of the queue and skip patients who left.
+   */
+  @Test
+  void testPositions_CountFromHead() {
+    queue.offer(1L, "cardiology", TriagePriority.LOW, NINE);
+    queue.offer(2L, "cardiology", TriagePriority.HIGH, NINE);
+    queue.offer(3L, "cardiology", TriagePriority.MEDIUM, NINE);
+    queue.offer(4L, "neurology", TriagePriority.HIGH, NINE);
+
+    assertEquals(Map.of(2L, 1, 1L, 3), queue.positions("cardiology", Set.of(1L, 2L, 4L)));
+
+    queue.remove(2L);
+    assertEquals(Map.of(3L, 1, 1L, 2), queue.positions("cardiology", Set.of(1L, 3L)));
+  }
+
+  /**
+   * Tests that thousands of concurrent enqueues racing with concurrent pollers lose no
+   * patient and hand none out twice.
+   */
+  @Test
+  void testConcurrentOfferAndPoll_EachPatientTakenOnce() throws Exception {
+    int producers = 8;
+    int perProducer = 2000;
+    ExecutorService executor = Executors.newFixedThreadPool(producers + 4);
+    CountDownLatch start = new CountDownLatch(1);
+    Set<Long> taken = ConcurrentHashMap.newKeySet();
+    List<Future<?>> producing = new ArrayList<>();
+    try {
+      for (int p = 0; p < producers; p++) {
+        long first = (long) p * perProducer;
+        producing.add(executor.submit(() -> {
+          start.await();
+          for (long id = first; id < first + perProducer; id++) {
+            TriagePriority priority = TriagePriority.values()[(int) (id % 3)];
+            queue.offer(id, "cardiology", priority, NINE.plusSeconds(id % 600));
+          }
+          return null;
+        }));
+      }
+      List<Future<Integer>> polling = new ArrayList<>();
+      for (int c = 0; c < 4; c++) {
+        polling.add(executor.submit(() -> {
+          start.await();
+          int duplicates = 0;
+          for (int i = 0; i < perProducer; i++) {
+            TriageQueue.Ticket ticket = queue.poll("cardiology");
+            if (ticket != null && !taken.add(ticket.getPatientId())) {
+              duplicates++;
+            }
+          }
+          return duplicates;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : producing) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+      for (Future<Integer> future : polling) {
+        assertEquals(0, future.get(30, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    TriageQueue.Ticket ticket;
+    while ((ticket = queue.poll("cardiology")) != null) {
+      assertTrue(taken.add(ticket.getPatientId()));
+    }
+    assertEquals(producers * perProducer, taken.size());
+    assertEquals(0, queue.size());
+  }
+
+  /**
+   * Tests that waiting patients are loaded from the table at startup.
+   */
+  @Test
+  void testWarmUp_LoadsWaitingPatients() {
+    TriageQueueEntry low = entry(1L, TriagePriority.LOW, NINE);
+    TriageQueueEntry high = entry(2L, TriagePriority.HIGH, NINE.plusMinutes(5));
+    when(repository.streamAllByArrival()).thenReturn(Stream.of(low, high));
+
+    queue.afterSingletonsInstantiated();
+
+    assertEquals(2, queue.size());
+    assertEquals(List.of(2L, 1L), queue.peek("cardiology", 10).stream()
+        .map(TriageQueue.Ticket::getPatientId).toList());
+  }
+
+  // Helpers
+
+  private List<Long> drain(String specialty) {
+    List<Long> patientIds = new ArrayList<>();
+    TriageQueue.Ticket ticket;
+    while ((ticket = queue.poll(specialty)) != null) {
+      patientIds.add(ticket.getPatientId());
+    }
+    return patientIds;
+  }
+
+  private static TriageQueueEntry entry(Long patientId, TriagePriority priority, LocalDateTime enqueuedAt) {
+    TriageQueueEntry entry = mock(TriageQueueEntry.class);
+    when(entry.getPatientId()).thenReturn(patientId);
+    when(entry.getSpecialty()).thenReturn("cardiology");
+    when(entry.getPriority()).thenReturn(priority);
+    when(entry.getEnqueuedAt()).thenReturn(enqueuedAt);
+    return entry;
+  }
+}
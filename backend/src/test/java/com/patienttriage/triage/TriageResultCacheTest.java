@@ -0,0 +1,63 @@
+package com.patienttriage.triage;
+
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.entity.TriagePriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TriageResultCache.
+ */
+class TriageResultCacheTest {
+
+  /**
+   * Tests that rephrasings of the same symptom share a fingerprint.
+   */
+  @Test
+  void testFingerprint_IgnoresPhrasing() {
+    String fingerprint = TriageResultCache.fingerprint(patient(35, "Headache and fever", "Asthma"));
+
+    assertEquals(fingerprint, TriageResultCache.fingerprint(patient(35, "headache & FEVER!", "asthma.")));
+    assertEquals(fingerprint, TriageResultCache.fingerprint(patient(50, "I have a headache, fever", " Asthma")));
+  }
+
+  /**
+   * Tests that different symptoms, negations, histories and age bands get different fingerprints.
+   */
+  @Test
+  void testFingerprint_KeepsMeaning() {
+    String fingerprint = TriageResultCache.fingerprint(patient(35, "fever, no cough", null));
+
+    assertNotEquals(fingerprint, TriageResultCache.fingerprint(patient(35, "cough, no fever", null)));
+    assertNotEquals(fingerprint, TriageResultCache.fingerprint(patient(35, "fever, no cough", "Asthma")));
+    assertNotEquals(fingerprint, TriageResultCache.fingerprint(patient(8, "fever, no cough", null)));
+    assertNotEquals(fingerprint, TriageResultCache.fingerprint(patient(70, "fever, no cough", null)));
+  }
+
+  /**
+   * Tests that a cached priority is returned for its fingerprint and publishes cache metrics.
+   */
+  @Test
+  void testGetAndPut() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    TriageResultCache cache = new TriageResultCache(registry, 10, Duration.ofHours(1));
+    String fingerprint = TriageResultCache.fingerprint(patient(35, "Headache and fever", null));
+
+    assertNull(cache.get(fingerprint));
+    cache.put(fingerprint, TriagePriority.MEDIUM);
+
+    assertEquals(TriagePriority.MEDIUM, cache.get(fingerprint));
+    assertEquals(1.0, registry.get("cache.gets").tag("cache", "triageResults").tag("result", "hit")
+        .functionCounter().count());
+  }
+
+  // Helpers
+
+  private static PatientInfo patient(int age, String symptom, String medicalHistory) {
+    return new PatientInfo(1L, "John", "Doe", age, "Male", symptom, medicalHistory, null, null, null);
+  }
+}
@@ -0,0 +1,69 @@
+package com.patienttriage.triage;
+
+import com.patienttriage.entity.TriagePriority;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark for scoring one patient's symptom against the shipped triage rules.
+ *
+ * Not run by the test suite; run its main method on the test classpath after mvn test-compile.
+ * Three symptoms are scored in turn: one stopping early on a HIGH keyword, one matching LOW
+ * only and one matching nothing, the last two scanning every character of the symptom.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TriageRuleSetBenchmark {
+
+  private TriageRuleSet rules;
+  private String[] symptoms;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    try (InputStream in = TriageRuleSetBenchmark.class.getResourceAsStream("/triage-rules.txt")) {
+      rules = TriageRuleSet.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList());
+    }
+    symptoms = new String[] {
+        // matches HIGH: stops early
+        "Sudden chest pain spreading to the left arm, sweating",
+        // matches LOW only: scanned to the end
+        "Sore throat and a runny nose for three days, feeling tired and achy in the evenings",
+        // matches nothing: the worst case, every character
+        "Itchy eyes and sneezing whenever I am outside in the spring, worse in the mornings"
+    };
+  }
+
+  @Benchmark
+  public TriagePriority score() {
+    String symptom = symptoms[next];
+    next = next == symptoms.length - 1 ? 0 : next + 1;
+    return rules.score(symptom);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(TriageRuleSetBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,66 @@
+package com.patienttriage.triage;
+
+import com.patienttriage.dto.PatientInfo;
+import com.patienttriage.entity.TriagePriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TriageRuleSet.
+ */
+class TriageRuleSetTest {
+
+  private final TriageRuleSet rules = TriageRuleSet.parse(List.of(
+      "# comment",
+      "",
+      "LOW: pain",
+      "HIGH: chest pain",
+      "MEDIUM: fever",
+      "low: sore throat",
+      "HIGH: can't breathe"));
+
+  /**
+   * Tests that keywords match regardless of case and punctuation, but only as whole words.
+   */
+  @Test
+  void testScore_WholeWordsIgnoringCaseAndPunctuation() {
+    assertEquals(TriagePriority.HIGH, rules.score("Sudden CHEST-PAIN!"));
+    assertEquals(TriagePriority.HIGH, rules.score("I cant... I can't   breathe"));
+    assertEquals(TriagePriority.MEDIUM, rules.score("fever"));
+    assertNull(rules.score("painful feverish chest"));
+    assertNull(rules.score(""));
+  }
+
+  /**
+   * Tests that the most urgent keyword wins, including a keyword inside a longer one, and
+   * that only the symptom is scanned.
+   */
+  @Test
+  void testScore_MostUrgentInSymptomOnly() {
+    // "pain" (LOW) ends inside "chest pain" (HIGH)
+    assertEquals(TriagePriority.HIGH, rules.score("pain in the chest pain"));
+    assertEquals(TriagePriority.LOW, rules.score("sore throat"));
+    assertNull(rules.score((String) null));
+    // history, allergies and medications say nothing about today's visit
+    PatientInfo patient = new PatientInfo(1L, "John", "Doe", 35, "Male", "Itchy eyes",
+        "fever last week", "chest pain when exercising", "for chest pain", null);
+    assertNull(rules.score(patient));
+  }
+
+  /**
+   * Tests that a malformed rule is rejected with its line number.
+   */
+  @Test
+  void testParse_InvalidLine_NamesLine() {
+    IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+        () -> TriageRuleSet.parse(List.of("HIGH: chest pain", "URGENT: stroke")));
+    assertTrue(unknown.getMessage().startsWith("Line 2:"));
+
+    IllegalArgumentException empty = assertThrows(IllegalArgumentException.class,
+        () -> TriageRuleSet.parse(List.of("# rules", "LOW: --")));
+    assertEquals("Line 2: keyword is empty", empty.getMessage());
+  }
+}
@@ -0,0 +1,57 @@
+package com.patienttriage.triage;
+
+import com.patienttriage.entity.TriagePriority;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TriageRules.
+ */
+class TriageRulesTest {
+
+  @TempDir
+  Path dir;
+
+  /**
+   * Tests that an edited rule file is picked up, and that a broken edit keeps the rules
+   * in force.
+   */
+  @Test
+  void testReloadIfChanged_PicksUpEditsAndKeepsRulesOnError() throws Exception {
+    // Given
+    Path file = dir.resolve("rules.txt");
+    write(file, "LOW: headache", 1);
+    TriageRules rules = new TriageRules(new FileSystemResource(file));
+    assertEquals(TriagePriority.LOW, rules.current().score("headache"));
+
+    // When the file changes
+    write(file, "HIGH: headache", 2);
+    rules.reloadIfChanged();
+
+    // Then
+    assertEquals(TriagePriority.HIGH, rules.current().score("headache"));
+
+    // When the file is broken
+    write(file, "SOON: headache", 3);
+    rules.reloadIfChanged();
+
+    // Then
+    assertEquals(TriagePriority.HIGH, rules.current().score("headache"));
+  }
+
+  // Helpers
+
+  private static void write(Path file, String rules, int second) throws Exception {
+    Files.writeString(file, rules);
+    // file systems may keep modification times in whole seconds
+    Files.setLastModifiedTime(file, FileTime.from(Instant.ofEpochSecond(1_700_000_000L + second)));
+  }
+}
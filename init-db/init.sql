@@ -63,6 +63,9 @@ CREATE TABLE doctor_profile (
         ON DELETE CASCADE
 );
 
+-- earliest-slot search looks doctors up by specialty, ignoring case
+CREATE INDEX idx_doctor_profile_specialty ON doctor_profile (LOWER(specialty));
+
 -- ============================================
 -- 5. Create admin_profile (1:1 with users)
 -- ============================================
@@ -84,11 +87,15 @@ CREATE TABLE admin_profile (
 -- ===========================================
 -- APPOINTMENTS TABLE
 -- ===========================================
+-- btree_gist lets the exclusion constraints below mix "=" on ids with "&&" on time ranges
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
 CREATE TABLE appointments (
       id BIGSERIAL PRIMARY KEY,
       patient_id BIGINT NOT NULL,
       doctor_id BIGINT NOT NULL,
       appointment_time TIMESTAMP NOT NULL,
+      end_time TIMESTAMP NOT NULL, -- exclusive end, [appointment_time, end_time)
       reason TEXT,
       status VARCHAR(20) DEFAULT 'SCHEDULED',
       created_at TIMESTAMP DEFAULT NOW(),
@@ -100,9 +107,104 @@ CREATE TABLE appointments (
 
       CONSTRAINT fk_appt_doctor
           FOREIGN KEY(doctor_id)
+              REFERENCES users(id)
+              ON DELETE CASCADE,
+
+      -- at most 8 hours (Appointment.MAX_DURATION_MINUTES), the slot index relies on this bound
+      CONSTRAINT appointments_valid_duration
+          CHECK (end_time > appointment_time AND end_time <= appointment_time + INTERVAL '8 hours'),
+
+      -- a doctor / patient cannot have two overlapping scheduled appointments;
+      -- cancelled and completed rows do not take part
+      CONSTRAINT appointments_doctor_no_overlap
+          EXCLUDE USING gist (doctor_id WITH =, tsrange(appointment_time, end_time) WITH &&)
+          WHERE (status = 'SCHEDULED'),
+
+      CONSTRAINT appointments_patient_no_overlap
+          EXCLUDE USING gist (patient_id WITH =, tsrange(appointment_time, end_time) WITH &&)
+          WHERE (status = 'SCHEDULED')
+);
+
+-- Appointment ids are allocated 50 at a time by Hibernate's pooled optimizer
+-- (Appointment.ID_ALLOCATION_SIZE), so inserts can be batched; the increments must match
+ALTER SEQUENCE appointments_id_seq INCREMENT BY 50;
+
+-- keyset pagination on (appointment_time, id) for the admin / patient / doctor listings
+CREATE INDEX idx_appointments_time_id ON appointments (appointment_time, id);
+CREATE INDEX idx_appointments_patient_time_id ON appointments (patient_id, appointment_time, id);
+CREATE INDEX idx_appointments_doctor_time_id ON appointments (doctor_id, appointment_time, id);
+
+-- booking conflict check (AppointmentRepository.findConflictMask): only scheduled rows can
+-- conflict, and end_time / id ride along so the EXISTS probes are index-only scans
+CREATE INDEX idx_appointments_doctor_scheduled ON appointments (doctor_id, appointment_time)
+    INCLUDE (end_time, id) WHERE status = 'SCHEDULED';
+CREATE INDEX idx_appointments_patient_scheduled ON appointments (patient_id, appointment_time)
+    INCLUDE (end_time, id) WHERE status = 'SCHEDULED';
+
+-- Idempotency-Key of POST /api/appointments/create -> the appointment it created
+-- (IdempotencyKeyStore); rows are purged after the retention period
+CREATE TABLE idempotency_keys (
+      user_id BIGINT NOT NULL,
+      idempotency_key VARCHAR(100) NOT NULL,
+      request_hash CHAR(64) NOT NULL, -- SHA-256 of the request fields, in hex
+      appointment_id BIGINT NOT NULL,
+      created_at TIMESTAMP NOT NULL,
+
+      PRIMARY KEY (user_id, idempotency_key),
+
+      CONSTRAINT fk_idempotency_user
+          FOREIGN KEY(user_id)
               REFERENCES users(id)
               ON DELETE CASCADE
 );
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
+
+-- Patients waiting for a doctor of a specialty (TriageQueue keeps the same in memory);
+-- specialty is stored lower-cased, one queue per patient
+CREATE TABLE triage_queue (
+      patient_id BIGINT PRIMARY KEY,
+      specialty VARCHAR(100) NOT NULL,
+      priority VARCHAR(20) NOT NULL,
+      enqueued_at TIMESTAMP NOT NULL,
+
+      CONSTRAINT fk_triage_queue_patient
+          FOREIGN KEY(patient_id)
+              REFERENCES users(id)
+              ON DELETE CASCADE
+);
+
+-- Patients waiting for a cancelled slot of a doctor or of any doctor of a specialty within a
+-- time window (Waitlist keeps the same in memory); specialty is stored lower-cased
+CREATE TABLE waitlist (
+      id BIGSERIAL PRIMARY KEY,
+      patient_id BIGINT NOT NULL,
+      doctor_id BIGINT,
+      specialty VARCHAR(100),
+      window_start TIMESTAMP NOT NULL,
+      window_end TIMESTAMP NOT NULL,
+      priority VARCHAR(20) NOT NULL,
+      created_at TIMESTAMP NOT NULL,
+
+      CONSTRAINT fk_waitlist_patient
+          FOREIGN KEY(patient_id)
+              REFERENCES users(id)
+              ON DELETE CASCADE,
+
+      CONSTRAINT fk_waitlist_doctor
+          FOREIGN KEY(doctor_id)
+              REFERENCES users(id)
+              ON DELETE CASCADE,
+
+      -- a doctor or a specialty, not both
+      CONSTRAINT waitlist_doctor_or_specialty
+          CHECK ((doctor_id IS NULL) <> (specialty IS NULL)),
+
+      CONSTRAINT waitlist_window_order
+          CHECK (window_end > window_start)
+);
+
+CREATE INDEX idx_waitlist_patient_id ON waitlist (patient_id);
+CREATE INDEX idx_waitlist_window_end ON waitlist (window_end);
 
 -- ===========================================
 -- SEED DATA FOR TESTING
@@ -169,77 +271,84 @@ ON CONFLICT (admin_id) DO NOTHING;
 -- Insert Sample Appointments
 -- Only insert if both patient and doctor users exist
 -- Future appointments
-INSERT INTO appointments (patient_id, doctor_id, appointment_time, reason, status, created_at)
+INSERT INTO appointments (patient_id, doctor_id, appointment_time, end_time, reason, status, created_at)
 SELECT 
     (SELECT id FROM users WHERE username = 'patient1@test.com'),
     (SELECT id FROM users WHERE username = 'doctor1@test.com'),
     NOW() + INTERVAL '1 day' + INTERVAL '10 hours',
+    NOW() + INTERVAL '1 day' + INTERVAL '10 hours' + INTERVAL '30 minutes',
     'Regular checkup',
     'SCHEDULED',
     NOW()
 WHERE EXISTS (SELECT 1 FROM users WHERE username = 'patient1@test.com')
   AND EXISTS (SELECT 1 FROM users WHERE username = 'doctor1@test.com');
 
-INSERT INTO appointments (patient_id, doctor_id, appointment_time, reason, status, created_at)
+INSERT INTO appointments (patient_id, doctor_id, appointment_time, end_time, reason, status, created_at)
 SELECT 
     (SELECT id FROM users WHERE username = 'patient2@test.com'),
     (SELECT id FROM users WHERE username = 'doctor1@test.com'),
     NOW() + INTERVAL '2 days' + INTERVAL '14 hours' + INTERVAL '30 minutes',
+    NOW() + INTERVAL '2 days' + INTERVAL '15 hours',
     'Chest pain evaluation',
     'SCHEDULED',
     NOW()
 WHERE EXISTS (SELECT 1 FROM users WHERE username = 'patient2@test.com')
   AND EXISTS (SELECT 1 FROM users WHERE username = 'doctor1@test.com');
 
-INSERT INTO appointments (patient_id, doctor_id, appointment_time, reason, status, created_at)
+INSERT INTO appointments (patient_id, doctor_id, appointment_time, end_time, reason, status, created_at)
 SELECT 
     (SELECT id FROM users WHERE username = 'patient3@test.com'),
     (SELECT id FROM users WHERE username = 'doctor2@test.com'),
     NOW() + INTERVAL '3 days' + INTERVAL '9 hours',
+    NOW() + INTERVAL '3 days' + INTERVAL '9 hours' + INTERVAL '30 minutes',
     'Back pain consultation',
     'SCHEDULED',
     NOW()
 WHERE EXISTS (SELECT 1 FROM users WHERE username = 'patient3@test.com')
   AND EXISTS (SELECT 1 FROM users WHERE username = 'doctor2@test.com');
 
-INSERT INTO appointments (patient_id, doctor_id, appointment_time, reason, status, created_at)
+INSERT INTO appointments (patient_id, doctor_id, appointment_time, end_time, reason, status, created_at)
 SELECT 
     (SELECT id FROM users WHERE username = 'patient4@test.com'),
     (SELECT id FROM users WHERE username = 'doctor3@test.com'),
     NOW() + INTERVAL '4 days' + INTERVAL '11 hours',
+    NOW() + INTERVAL '4 days' + INTERVAL '11 hours' + INTERVAL '30 minutes',
     'Sore throat examination',
     'SCHEDULED',
     NOW()
 WHERE EXISTS (SELECT 1 FROM users WHERE username = 'patient4@test.com')
   AND EXISTS (SELECT 1 FROM users WHERE username = 'doctor3@test.com');
 
-INSERT INTO appointments (patient_id, doctor_id, appointment_time, reason, status, created_at)
+INSERT INTO appointments (patient_id, doctor_id, appointment_time, end_time, reason, status, created_at)
 SELECT 
     (SELECT id FROM users WHERE username = 'patient5@test.com'),
     (SELECT id FROM users WHERE username = 'doctor1@test.com'),
     NOW() + INTERVAL '5 days' + INTERVAL '15 hours',
+    NOW() + INTERVAL '5 days' + INTERVAL '15 hours' + INTERVAL '30 minutes',
     'Joint pain assessment',
     'SCHEDULED',
     NOW()
 WHERE EXISTS (SELECT 1 FROM users WHERE username = 'patient5@test.com')
   AND EXISTS (SELECT 1 FROM users WHERE username = 'doctor1@test.com');
 
-INSERT INTO appointments (patient_id, doctor_id, appointment_time, reason, status, created_at)
+INSERT INTO appointments (patient_id, doctor_id, appointment_time, end_time, reason, status, created_at)
 SELECT 
     (SELECT id FROM users WHERE username = 'patient1@test.com'),
     (SELECT id FROM users WHERE username = 'doctor2@test.com'),
     NOW() + INTERVAL '6 days' + INTERVAL '10 hours' + INTERVAL '30 minutes',
+    NOW() + INTERVAL '6 days' + INTERVAL '11 hours',
     'Follow-up appointment',
     'SCHEDULED',
     NOW()
 WHERE EXISTS (SELECT 1 FROM users WHERE username = 'patient1@test.com')
   AND EXISTS (SELECT 1 FROM users WHERE username = 'doctor2@test.com');
 
-INSERT INTO appointments (patient_id, doctor_id, appointment_time, reason, status, created_at)
+INSERT INTO appointments (patient_id, doctor_id, appointment_time, end_time, reason, status, created_at)
 SELECT 
     (SELECT id FROM users WHERE username = 'patient2@test.com'),
     (SELECT id FROM users WHERE username = 'doctor3@test.com'),
     NOW() + INTERVAL '7 days' + INTERVAL '13 hours',
+    NOW() + INTERVAL '7 days' + INTERVAL '13 hours' + INTERVAL '30 minutes',
     'General consultation',
     'SCHEDULED',
     NOW()
@@ -247,22 +356,24 @@ WHERE EXISTS (SELECT 1 FROM users WHERE username = 'patient2@test.com')
   AND EXISTS (SELECT 1 FROM users WHERE username = 'doctor3@test.com');
 
 -- Past appointments (completed)
-INSERT INTO appointments (patient_id, doctor_id, appointment_time, reason, status, created_at)
+INSERT INTO appointments (patient_id, doctor_id, appointment_time, end_time, reason, status, created_at)
 SELECT 
     (SELECT id FROM users WHERE username = 'patient3@test.com'),
     (SELECT id FROM users WHERE username = 'doctor1@test.com'),
     NOW() - INTERVAL '5 days' + INTERVAL '10 hours',
+    NOW() - INTERVAL '5 days' + INTERVAL '10 hours' + INTERVAL '30 minutes',
     'Previous consultation',
     'COMPLETED',
     NOW()
 WHERE EXISTS (SELECT 1 FROM users WHERE username = 'patient3@test.com')
   AND EXISTS (SELECT 1 FROM users WHERE username = 'doctor1@test.com');
 
-INSERT INTO appointments (patient_id, doctor_id, appointment_time, reason, status, created_at)
+INSERT INTO appointments (patient_id, doctor_id, appointment_time, end_time, reason, status, created_at)
 SELECT 
     (SELECT id FROM users WHERE username = 'patient4@test.com'),
     (SELECT id FROM users WHERE username = 'doctor2@test.com'),
     NOW() - INTERVAL '3 days' + INTERVAL '14 hours',
+    NOW() - INTERVAL '3 days' + INTERVAL '14 hours' + INTERVAL '30 minutes',
     'Previous checkup',
     'COMPLETED',
     NOW()
@@ -270,11 +381,12 @@ WHERE EXISTS (SELECT 1 FROM users WHERE username = 'patient4@test.com')
   AND EXISTS (SELECT 1 FROM users WHERE username = 'doctor2@test.com');
 
 -- Cancelled appointment
-INSERT INTO appointments (patient_id, doctor_id, appointment_time, reason, status, created_at)
+INSERT INTO appointments (patient_id, doctor_id, appointment_time, end_time, reason, status, created_at)
 SELECT 
     (SELECT id FROM users WHERE username = 'patient5@test.com'),
     (SELECT id FROM users WHERE username = 'doctor3@test.com'),
     NOW() + INTERVAL '8 days' + INTERVAL '9 hours',
+    NOW() + INTERVAL '8 days' + INTERVAL '9 hours' + INTERVAL '30 minutes',
     'Cancelled appointment',
     'CANCELLED',
     NOW()